@@ -18,4 +18,11 @@
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+#-renamesourcefileattribute SourceFile
+
+# Models bound by Gson. Fields are read reflectively unless a TypeAdapter is
+# registered in GsonProvider, so keep their names when shrinking.
+-keep class com.example.carebridge.model.** { <fields>; }
+-keep class com.example.carebridge.shared.model.** { <fields>; }
+-keepattributes Signature
+-keepattributes *Annotation*
@@ -0,0 +1,52 @@
+package com.example.carebridge;
+
+import android.app.Application;
+
+import com.example.carebridge.service.ApiClient;
+import com.example.carebridge.service.DoseScheduler;
+import com.example.carebridge.service.LoginPrefetcher;
+import com.example.carebridge.service.NotificationHelper;
+import com.example.carebridge.shared.controller.AuthController;
+import com.example.carebridge.shared.controller.MedicineLogSync;
+import com.example.carebridge.shared.utils.EntityCache;
+import com.example.carebridge.shared.utils.SessionStore;
+import com.example.carebridge.utils.ApiConstants;
+import com.example.carebridge.utils.AppExecutors;
+
+/**
+ * CareBridgeApp: Process-level initialization of shared infrastructure
+ * (HTTP stack, its on-disk response cache, in-memory entity caches, the session and
+ * notification channels)
+ */
+public class CareBridgeApp extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // Attach the disk cache before any screen issues a request
+        ApiClient.init(this);
+        NotificationHelper.createChannels(this);
+
+        // Answered or newly created logs change which local reminders should fire
+        MedicineLogSync.setChangeListener(caseId -> DoseScheduler.reschedule(this));
+
+        // A successful login fetches the first dashboard's data before it hands over
+        if (ApiConstants.LOGIN_PREFETCH_ENABLED) {
+            AuthController.setPrefetchStage(LoginPrefetcher.asLoginStage(this, getString(R.string.patient_role)));
+        }
+
+        // Decode the stored session off the main thread before the first screen reads it,
+        // then re-arm local dose reminders from the stored prescriptions
+        AppExecutors.background().execute(() -> {
+            SessionStore.get(this);
+            DoseScheduler.reschedule(this);
+        });
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        EntityCache.onTrimMemory(level);
+    }
+}
@@ -25,12 +25,16 @@ import androidx.viewpager2.widget.ViewPager2;
 import com.example.carebridge.R;
 import com.example.carebridge.adapters.MedicationAdapter;
 import com.example.carebridge.adapters.PatientPagerAdapter;
+import com.example.carebridge.service.PatientFanOutLoader;
 import com.example.carebridge.shared.controller.AssignedPatientController;
-import com.example.carebridge.shared.controller.PrescriptionController;
 import com.example.carebridge.shared.model.AssignedPatientInfo;
 import com.example.carebridge.shared.model.Medication;
 import com.example.carebridge.shared.model.PatientInfo;
-import com.example.carebridge.shared.model.Prescription;
+import com.example.carebridge.shared.network.CallScope;
+import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.DateFormats;
+import com.example.carebridge.shared.utils.LocalStore;
+import com.example.carebridge.utils.AppExecutors;
 import com.example.carebridge.utils.SharedPrefManager;
 import com.example.carebridge.view.FullMapActivity;
 import com.example.carebridge.view.FullMapActivityBlue;
@@ -43,18 +47,21 @@ import com.google.android.gms.maps.MapsInitializer;
 import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.MapStyleOptions;
 import com.google.android.gms.maps.model.MarkerOptions;
+import com.google.gson.reflect.TypeToken;
 import com.tbuonomo.viewpagerdotsindicator.DotsIndicator;
 
-import java.text.SimpleDateFormat;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 public class GuardianHomeFragment extends Fragment {
 
     private static final String TAG = "GuardianHomeFragment";
     private static final int LOCATION_PERMISSION_REQUEST = 101;
+    private static final int FAN_OUT_PARALLELISM = 4;
 
     private TextView tvCurrentDate, tvCurrentTime, tvNoMedicines;
     private ViewPager2 vpPatients;
@@ -73,11 +80,18 @@ public class GuardianHomeFragment extends Fragment {
     private final List<Medication> medicineList = new ArrayList<>();
     private MedicationAdapter medicationAdapter;
 
+    private PatientFanOutLoader fanOutLoader;
+    private CallScope viewScope;
+    private final Map<String, PatientFanOutLoader.PatientResult> loadedPatients = new HashMap<>();
+
+    private static final Type ASSIGNED_PATIENT_LIST_TYPE = new TypeToken<List<AssignedPatientInfo>>() { }.getType();
+
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
                              @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_guardian_home, container, false);
+        viewScope = new CallScope();
 
         // Date & Time
         tvCurrentDate = view.findViewById(R.id.tvCurrentDate);
@@ -94,6 +108,15 @@ public class GuardianHomeFragment extends Fragment {
         vpPatients = view.findViewById(R.id.vpPatients);
         dotsIndicatorPatients = view.findViewById(R.id.dotsIndicatorPatients);
 
+        // Registered once here; registering inside loadAssignedPatients() stacked a new
+        // callback per refresh and fired duplicate prescription fetches on each swipe
+        vpPatients.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
+            @Override
+            public void onPageSelected(int position) {
+                if (position < patientList.size()) onPatientPageSelected(patientList.get(position).getCaseId());
+            }
+        });
+
         // SwipeRefresh
         swipeRefreshLayout = view.findViewById(R.id.swipeRefreshLayout);
         swipeRefreshLayout.setOnRefreshListener(this::refreshData);
@@ -133,94 +156,157 @@ public class GuardianHomeFragment extends Fragment {
         btnOpenFullMap.setOnClickListener(v -> openFullMap());
 
         startClock();
-        refreshData();
+        // Refetches the assigned patients only when no recent fetch has confirmed the stored list
+        renderStoredPatients();
 
         return view;
     }
 
     private void refreshData() { loadAssignedPatients(); }
 
+    /**
+     * Show the saved patient pager immediately; the network result replaces it unless a fetch
+     * (e.g. the login prefetch) stored the list moments ago
+     */
+    private void renderStoredPatients() {
+        String guardianId = new SharedPrefManager(requireContext()).getReferenceId();
+        LocalStore store = LocalStore.get(requireContext());
+        AppExecutors.background().execute(() -> {
+            List<AssignedPatientInfo> stored = store.read(LocalStore.KIND_ASSIGNED_PATIENTS, guardianId, ASSIGNED_PATIENT_LIST_TYPE);
+            boolean fresh = stored != null
+                    && store.isFresh(LocalStore.KIND_ASSIGNED_PATIENTS, guardianId, ApiConstants.LOCAL_STORE_FRESH_MILLIS);
+            AppExecutors.mainThread().execute(() -> {
+                if (!isAdded()) return;
+                if (stored != null && patientList.isEmpty()) showPatients(stored);
+                if (!fresh) {
+                    loadAssignedPatients();
+                } else if (!patientList.isEmpty()) {
+                    startFanOut();
+                } else {
+                    showNoMedicines(true);
+                }
+            });
+        });
+    }
+
     /** Fetch assigned patients */
     private void loadAssignedPatients() {
         String guardianId = new SharedPrefManager(requireContext()).getReferenceId();
-        AssignedPatientController controller = new AssignedPatientController();
-        controller.getAssignedPatients(guardianId, new AssignedPatientController.AssignedPatientsCallback() {
+        // Written through to LocalStore by the controller
+        AssignedPatientController controller = new AssignedPatientController(requireContext().getApplicationContext());
+        viewScope.track(controller.getAssignedPatients(guardianId, new AssignedPatientController.AssignedPatientsCallback() {
             @Override
             public void onSuccess(List<AssignedPatientInfo> patients) {
                 if (!isAdded()) return;
 
-                patientList.clear();
-                for (AssignedPatientInfo p : patients) {
-                    PatientInfo info = new PatientInfo();
-                    info.setFullName(p.getFull_name());   // ✅ snake_case getter
-                    info.setCaseId(p.getPatient_id());    // ✅ snake_case getter
-                    patientList.add(info);
-                }
-                PatientPagerAdapter adapter = new PatientPagerAdapter(patientList);
-                vpPatients.setAdapter(adapter);
-                dotsIndicatorPatients.setViewPager2(vpPatients);
-
-                // ✅ FIXED: Changed from getCase_id() to getCaseId()
-                if (!patientList.isEmpty()) loadPatientMedicines(patientList.get(0).getCaseId());
+                showPatients(patients);
+                if (!patientList.isEmpty()) startFanOut();
                 else showNoMedicines(true);
             }
 
             @Override
-            public void onFailure(String message) { showNoMedicines(true); }
-        });
+            public void onUnchanged(List<AssignedPatientInfo> patients) {
+                if (!isAdded()) return;
+                // The pager already shows the stored list; only the per-patient data refreshes
+                if (patientList.isEmpty()) showPatients(patients);
+                if (!patientList.isEmpty()) startFanOut();
+                else showNoMedicines(true);
+            }
 
-        vpPatients.registerOnPageChangeCallback(new ViewPager2.OnPageChangeCallback() {
             @Override
-            public void onPageSelected(int position) {
-                // ✅ FIXED: Changed from getCase_id() to getCaseId()
-                if (position < patientList.size()) loadPatientMedicines(patientList.get(position).getCaseId());
+            public void onFailure(String message) {
+                if (!isAdded()) return;
+                showNoMedicines(true);
+                swipeRefreshLayout.setRefreshing(false);
             }
-        });
+        }));
+    }
+
+    private void showPatients(List<AssignedPatientInfo> patients) {
+        patientList.clear();
+        for (AssignedPatientInfo p : patients) {
+            PatientInfo info = new PatientInfo();
+            info.setFullName(p.getFull_name());   // ✅ snake_case getter
+            info.setCaseId(p.getPatient_id());    // ✅ snake_case getter
+            patientList.add(info);
+        }
+        PatientPagerAdapter adapter = new PatientPagerAdapter(patientList);
+        vpPatients.setAdapter(adapter);
+        dotsIndicatorPatients.setViewPager2(vpPatients);
     }
 
-    private void loadPatientMedicines(String caseId) {
-        if (caseId == null || caseId.isEmpty()) return;
+    /** Fetch every assigned patient concurrently; the visible page is loaded first */
+    private void startFanOut() {
+        if (fanOutLoader != null) fanOutLoader.cancel();
+        loadedPatients.clear();
 
-        PrescriptionController controller = new PrescriptionController(requireContext());
-        controller.fetchPrescriptionsWithCaseId(caseId, new PrescriptionController.PrescriptionCallback() {
+        List<String> caseIds = new ArrayList<>();
+        for (PatientInfo patient : patientList) caseIds.add(patient.getCaseId());
+
+        fanOutLoader = new PatientFanOutLoader(requireContext(), FAN_OUT_PARALLELISM, new PatientFanOutLoader.Listener() {
             @Override
-            public void onSuccess(List<Prescription> prescriptions) {
-                medicineList.clear();
-                int total = 0, taken = 0;
-
-                for (Prescription p : prescriptions) {
-                    if (p.getMedicines() != null) {
-                        medicineList.addAll(p.getMedicines());
-                        total += p.getMedicines().size();
-                        for (Medication med : p.getMedicines()) if (med.isTaken()) taken++;
-                    }
-                }
+            public void onPatientLoaded(PatientFanOutLoader.PatientResult result) {
+                if (!isAdded()) return;
+                loadedPatients.put(result.caseId, result);
+                updatePatientStats(result);
+                if (result.caseId.equals(currentCaseId())) showPatientMedicines(result);
+            }
 
-                medicationAdapter.notifyDataSetChanged();
-                showNoMedicines(medicineList.isEmpty());
-
-                // Update patient medicine stats
-                for (PatientInfo patient : patientList) {
-                    // ✅ FIXED: Changed from getCase_id() to getCaseId()
-                    if (caseId.equals(patient.getCaseId())) {
-                        patient.setTotalMedicines(total);
-                        patient.setTakenMedicines(taken);
-                        break;
-                    }
+            @Override
+            public void onPatientFailed(String caseId, String error) {
+                if (!isAdded()) return;
+                Log.e(TAG, "Failed to load " + caseId + ": " + error);
+                if (caseId.equals(currentCaseId())) {
+                    medicineList.clear();
+                    medicationAdapter.notifyDataSetChanged();
+                    showNoMedicines(true);
+                    swipeRefreshLayout.setRefreshing(false);
                 }
-
-                if (vpPatients.getAdapter() != null) vpPatients.getAdapter().notifyDataSetChanged();
-                swipeRefreshLayout.setRefreshing(false);
             }
 
             @Override
-            public void onFailure(String errorMessage) {
-                medicineList.clear();
-                medicationAdapter.notifyDataSetChanged();
-                showNoMedicines(true);
+            public void onAllLoaded(long wallTimeMs, long sequentialTimeMs) {
+                if (!isAdded()) return;
+                Log.d(TAG, "Loaded " + patientList.size() + " patients in " + wallTimeMs
+                        + " ms (sequential baseline " + sequentialTimeMs + " ms)");
                 swipeRefreshLayout.setRefreshing(false);
             }
         });
+        fanOutLoader.load(caseIds, currentCaseId());
+    }
+
+    /** Show the selected patient from loaded results, or move it to the front of the queue */
+    private void onPatientPageSelected(String caseId) {
+        PatientFanOutLoader.PatientResult result = loadedPatients.get(caseId);
+        if (result != null) showPatientMedicines(result);
+        else if (fanOutLoader != null) fanOutLoader.prioritize(caseId);
+    }
+
+    private String currentCaseId() {
+        int position = vpPatients.getCurrentItem();
+        return position < patientList.size() ? patientList.get(position).getCaseId() : null;
+    }
+
+    private void showPatientMedicines(PatientFanOutLoader.PatientResult result) {
+        medicineList.clear();
+        medicineList.addAll(result.medicines);
+
+        medicationAdapter.notifyDataSetChanged();
+        showNoMedicines(medicineList.isEmpty());
+        swipeRefreshLayout.setRefreshing(false);
+    }
+
+    /** Stream one patient's stats into its pager card */
+    private void updatePatientStats(PatientFanOutLoader.PatientResult result) {
+        for (int i = 0; i < patientList.size(); i++) {
+            PatientInfo patient = patientList.get(i);
+            if (result.caseId.equals(patient.getCaseId())) {
+                patient.setTotalMedicines(result.totalDoses);
+                patient.setTakenMedicines(result.takenDoses);
+                if (vpPatients.getAdapter() != null) vpPatients.getAdapter().notifyItemChanged(i);
+                break;
+            }
+        }
     }
 
     private void showNoMedicines(boolean show) { tvNoMedicines.setVisibility(show ? View.VISIBLE : View.GONE); }
@@ -228,8 +314,8 @@ public class GuardianHomeFragment extends Fragment {
     private void startClock() {
         timeRunnable = () -> {
             Date now = new Date();
-            tvCurrentDate.setText(new SimpleDateFormat("EEEE, MMM dd yyyy", Locale.getDefault()).format(now));
-            tvCurrentTime.setText(new SimpleDateFormat("hh:mm a", Locale.getDefault()).format(now));
+            tvCurrentDate.setText(DateFormats.format(DateFormats.DISPLAY_DATE, now));
+            tvCurrentTime.setText(DateFormats.format(DateFormats.DISPLAY_TIME, now));
             timeHandler.postDelayed(timeRunnable, 1000);
         };
         timeHandler.post(timeRunnable);
@@ -263,6 +349,8 @@ public class GuardianHomeFragment extends Fragment {
     @Override public void onStop() { super.onStop(); mapView.onStop(); }
     @Override public void onDestroyView() {
         super.onDestroyView();
+        viewScope.cancel();
+        if (fanOutLoader != null) fanOutLoader.cancel();
         timeHandler.removeCallbacks(timeRunnable);
         mapView.onDestroy();
     }
@@ -19,12 +19,18 @@ import androidx.core.content.ContextCompat;
 import com.example.carebridge.R;
 import com.example.carebridge.shared.controller.AssignedPatientController;
 import com.example.carebridge.shared.model.AssignedPatientInfo;
-import com.example.carebridge.shared.utils.SharedPrefManager;
+import com.example.carebridge.shared.network.CallScope;
+import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.LocalStore;
+import com.example.carebridge.utils.AppExecutors;
+import com.example.carebridge.utils.SharedPrefManager;
 import com.example.carebridge.view.AddMealActivity;
 import com.facebook.shimmer.ShimmerFrameLayout;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
+import com.google.gson.reflect.TypeToken;
 
+import java.lang.reflect.Type;
 import java.util.List;
 
 /**
@@ -43,12 +49,15 @@ public class GuardianPatientsFragment extends Fragment {
     private SwipeRefreshLayout swipeRefreshLayout;
 
     // --- Misc ---
+    private static final Type ASSIGNED_PATIENT_LIST_TYPE = new TypeToken<List<AssignedPatientInfo>>() { }.getType();
     private int[] borderColors;
     private boolean isViewCreated = false;
+    private CallScope viewScope;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_guardian_patients, container, false);
+        viewScope = new CallScope();
 
         // Initialize UI components
         shimmerFrameLayout = view.findViewById(R.id.shimmer);
@@ -75,7 +84,7 @@ public class GuardianPatientsFragment extends Fragment {
         showLoading();
 
         // Small delay ensures layout is drawn before loading data
-        new Handler().postDelayed(this::loadAssignedPatients, 200);
+        new Handler().postDelayed(this::loadInitialPatients, 200);
 
         isViewCreated = true;
         return view;
@@ -127,6 +136,28 @@ public class GuardianPatientsFragment extends Fragment {
         tvWarningMessage.setText(message);
     }
 
+    /**
+     * Show the stored list without a request when a fetch (e.g. the login prefetch)
+     * confirmed it moments ago; otherwise fetch as usual.
+     */
+    private void loadInitialPatients() {
+        if (!isAdded() || getActivity() == null) return;
+
+        String guardianId = new SharedPrefManager(requireContext()).getReferenceId();
+        LocalStore store = LocalStore.get(requireContext());
+        AppExecutors.background().execute(() -> {
+            List<AssignedPatientInfo> stored = store.isFresh(LocalStore.KIND_ASSIGNED_PATIENTS, guardianId,
+                    ApiConstants.LOCAL_STORE_FRESH_MILLIS)
+                    ? store.read(LocalStore.KIND_ASSIGNED_PATIENTS, guardianId, ASSIGNED_PATIENT_LIST_TYPE)
+                    : null;
+            AppExecutors.mainThread().execute(() -> {
+                if (!isAdded() || getActivity() == null) return;
+                if (stored != null) showAssignedPatients(stored);
+                else loadAssignedPatients();
+            });
+        });
+    }
+
     /**
      * Fetch assigned patients for the logged-in guardian.
      * Displays shimmer during load and updates UI after response.
@@ -137,33 +168,13 @@ public class GuardianPatientsFragment extends Fragment {
         showLoading();
 
         String guardianId = new SharedPrefManager(requireContext()).getReferenceId();
-        AssignedPatientController controller = new AssignedPatientController();
+        AssignedPatientController controller = new AssignedPatientController(requireContext().getApplicationContext());
 
-        controller.getAssignedPatients(guardianId, new AssignedPatientController.AssignedPatientsCallback() {
+        viewScope.track(controller.getAssignedPatients(guardianId, new AssignedPatientController.AssignedPatientsCallback() {
             @Override
             public void onSuccess(List<AssignedPatientInfo> patients) {
                 if (!isAdded() || getActivity() == null) return;
-
-                requireActivity().runOnUiThread(() -> {
-                    swipeRefreshLayout.setRefreshing(false);
-
-                    if (patients == null || patients.isEmpty()) {
-                        showWarning(getString(R.string.no_patients_assigned_message));
-                        return;
-                    }
-
-                    showData();
-
-                    // --- Summary Stats ---
-                    tvAssignedCount.setText(String.valueOf(patients.size()));
-                    int activeCount = (int) patients.stream()
-                            .filter(p -> "Active".equalsIgnoreCase(p.getStatus()))
-                            .count();
-                    tvActiveCount.setText(String.valueOf(activeCount));
-
-                    // --- Populate patient cards ---
-                    populatePatientCards(patients);
-                });
+                requireActivity().runOnUiThread(() -> showAssignedPatients(patients));
             }
 
             @Override
@@ -174,7 +185,29 @@ public class GuardianPatientsFragment extends Fragment {
                     showWarning(getString(R.string.patient_data_load_error));
                 });
             }
-        });
+        }));
+    }
+
+    /** Summary counts and patient cards for a loaded list, or the empty-state warning */
+    private void showAssignedPatients(List<AssignedPatientInfo> patients) {
+        swipeRefreshLayout.setRefreshing(false);
+
+        if (patients == null || patients.isEmpty()) {
+            showWarning(getString(R.string.no_patients_assigned_message));
+            return;
+        }
+
+        showData();
+
+        // --- Summary Stats ---
+        tvAssignedCount.setText(String.valueOf(patients.size()));
+        int activeCount = (int) patients.stream()
+                .filter(p -> "Active".equalsIgnoreCase(p.getStatus()))
+                .count();
+        tvActiveCount.setText(String.valueOf(activeCount));
+
+        // --- Populate patient cards ---
+        populatePatientCards(patients);
     }
 
     /** Dynamically inflates patient cards and displays them in the container. */
@@ -250,4 +283,10 @@ public class GuardianPatientsFragment extends Fragment {
                 ? getString(R.string.not_available_text)
                 : value;
     }
-}
\ No newline at end of file
+
+    @Override
+    public void onDestroyView() {
+        viewScope.cancel();
+        super.onDestroyView();
+    }
+}
@@ -16,6 +16,9 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.example.carebridge.R;
 import com.example.carebridge.shared.controller.GuardianController;
 import com.example.carebridge.shared.model.GuardianInfo;
+import com.example.carebridge.shared.network.CallScope;
+import com.example.carebridge.shared.utils.EntityCache;
+import com.example.carebridge.utils.SharedPrefManager;
 import com.facebook.shimmer.ShimmerFrameLayout;
 
 public class GuardianPersonalFragment extends Fragment {
@@ -32,6 +35,7 @@ public class GuardianPersonalFragment extends Fragment {
     private View cardWarning;
 
     private GuardianController guardianController;
+    private CallScope viewScope;
 
     @Nullable
     @Override
@@ -40,16 +44,27 @@ public class GuardianPersonalFragment extends Fragment {
                              @Nullable Bundle savedInstanceState) {
 
         rootView = inflater.inflate(R.layout.fragment_guardian_personal, container, false);
+        viewScope = new CallScope();
         bindViews(rootView);
 
-        guardianController = new GuardianController(requireContext());
+        guardianController = new GuardianController(requireContext().getApplicationContext());
 
         shimmerLayout.setVisibility(View.VISIBLE);
         shimmerLayout.startShimmer();
 
         swipeRefreshLayout.setOnRefreshListener(this::fetchGuardianData);
 
-        rootView.post(this::fetchGuardianData);
+        // Fresh cached profile: render without a request; stale: render and revalidate
+        EntityCache.Entry<GuardianInfo> cached = EntityCache.GUARDIANS.get(guardianKey());
+        if (cached != null) {
+            shimmerLayout.stopShimmer();
+            shimmerLayout.setVisibility(View.GONE);
+            displayGuardianInfo(cached.value);
+            rootView.findViewById(R.id.cardContent).setVisibility(View.VISIBLE);
+            if (!cached.isFresh()) rootView.post(this::revalidateGuardian);
+        } else {
+            rootView.post(this::fetchGuardianData);
+        }
 
         return rootView;
     }
@@ -73,6 +88,29 @@ public class GuardianPersonalFragment extends Fragment {
         tvAddress       = view.findViewById(R.id.tvAddress);
     }
 
+    private String guardianKey() {
+        return new SharedPrefManager(requireContext()).getReferenceId();
+    }
+
+    /** Refresh a stale cached profile in the background, keeping it on screen */
+    private void revalidateGuardian() {
+        String key = guardianKey();
+        viewScope.track(guardianController.getCurrentGuardian(new GuardianController.GuardianCallback() {
+            @Override
+            public void onSuccess(GuardianInfo guardianInfo) {
+                if (guardianInfo == null) return;
+                EntityCache.GUARDIANS.put(key, guardianInfo);
+                if (!isAdded()) return;
+                requireActivity().runOnUiThread(() -> displayGuardianInfo(guardianInfo));
+            }
+
+            @Override
+            public void onFailure(String message) {
+                Log.e(TAG, message);
+            }
+        }));
+    }
+
     /** Fetch guardian data */
     private void fetchGuardianData() {
         if (rootView == null) return;
@@ -82,9 +120,11 @@ public class GuardianPersonalFragment extends Fragment {
         rootView.findViewById(R.id.cardContent).setVisibility(View.GONE);
         cardWarning.setVisibility(View.GONE);
 
-        guardianController.getCurrentGuardian(new GuardianController.GuardianCallback() {
+        String key = guardianKey();
+        viewScope.track(guardianController.getCurrentGuardian(new GuardianController.GuardianCallback() {
             @Override
             public void onSuccess(GuardianInfo guardianInfo) {
+                EntityCache.GUARDIANS.put(key, guardianInfo);
                 if (!isAdded()) return;
 
                 requireActivity().runOnUiThread(() -> {
@@ -117,7 +157,7 @@ public class GuardianPersonalFragment extends Fragment {
                             Toast.LENGTH_SHORT).show();
                 });
             }
-        });
+        }));
     }
 
     /** Show warning card */
@@ -146,4 +186,10 @@ public class GuardianPersonalFragment extends Fragment {
                 ? value
                 : getString(R.string.not_available_text);
     }
+
+    @Override
+    public void onDestroyView() {
+        viewScope.cancel();
+        super.onDestroyView();
+    }
 }
@@ -26,14 +26,21 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.example.carebridge.R;
 import com.example.carebridge.adapters.MedicationAdapter;
+import com.example.carebridge.service.DoseScheduler;
 import com.example.carebridge.shared.controller.DailyTipsController;
 import com.example.carebridge.shared.controller.MedicineLogController;
+import com.example.carebridge.shared.controller.MedicineLogSync;
 import com.example.carebridge.shared.controller.PrescriptionController;
 import com.example.carebridge.shared.model.Medication;
 import com.example.carebridge.shared.model.MedicineLog;
 import com.example.carebridge.shared.model.Prescription;
 import com.example.carebridge.shared.model.Tip;
 import com.example.carebridge.shared.model.Video;
+import com.example.carebridge.shared.network.CallScope;
+import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.DateFormats;
+import com.example.carebridge.shared.utils.LocalStore;
+import com.example.carebridge.utils.AppExecutors;
 import com.example.carebridge.utils.SharedPrefManager;
 import com.example.carebridge.view.FullMapActivity;
 import com.google.android.gms.location.FusedLocationProviderClient;
@@ -46,11 +53,14 @@ import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.MapStyleOptions;
 import com.google.android.gms.maps.model.MarkerOptions;
 import com.google.android.material.card.MaterialCardView;
+import com.google.gson.reflect.TypeToken;
 import com.pierfrancescosoffritti.androidyoutubeplayer.core.player.YouTubePlayer;
 import com.pierfrancescosoffritti.androidyoutubeplayer.core.player.listeners.AbstractYouTubePlayerListener;
 import com.pierfrancescosoffritti.androidyoutubeplayer.core.player.views.YouTubePlayerView;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -80,12 +90,19 @@ public class HomeFragment extends Fragment {
     private Runnable timeRunnable;
 
     private SharedPrefManager sharedPrefManager;
+    private CallScope viewScope;
+    private volatile boolean hasStoredData;
+    private boolean networkLoaded;
+
+    private static final Type PRESCRIPTION_LIST_TYPE = new TypeToken<List<Prescription>>() { }.getType();
+    private static final Type MEDICINE_LOG_LIST_TYPE = new TypeToken<List<MedicineLog>>() { }.getType();
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_home, container, false);
 
         sharedPrefManager = new SharedPrefManager(requireContext());
+        viewScope = new CallScope();
         initViews(view);
 
         rvMedications.setLayoutManager(new LinearLayoutManager(getContext()));
@@ -100,7 +117,8 @@ public class HomeFragment extends Fragment {
 
         startClock();
         fetchDailyTips();
-        loadPrescriptionData();
+        // Renders the stored copy, then refetches whatever no recent fetch has confirmed
+        renderStoredData();
 
         try { MapsInitializer.initialize(requireContext()); }
         catch (Exception e) { Log.e(TAG, "MapsInitializer failed", e); }
@@ -149,23 +167,24 @@ public class HomeFragment extends Fragment {
     }
 
     private void fetchDailyTips() {
-        new DailyTipsController().fetchDailyTips(new DailyTipsController.DailyTipCallback() {
+        CallScope scope = viewScope;
+        scope.track(new DailyTipsController().fetchDailyTips(new DailyTipsController.DailyTipCallback() {
             @Override
             public void onTips(List<Tip> tips) {
-                if (!isAdded() || tips == null || tips.isEmpty()) return;
+                if (!scope.isActive() || !isAdded() || tips == null || tips.isEmpty()) return;
                 Tip today = tips.get(0);
                 showTip(today.getTitle());
             }
 
             @Override
             public void onVideo(Video video) {
-                if (!isAdded()) return;
+                if (!scope.isActive() || !isAdded()) return;
                 showVideo(video.getTitle(), video.getUrl());
             }
 
             @Override
-            public void onFailure(String error) { Log.e(TAG, error); }
-        });
+            public void onFailure(String error) { if (scope.isActive()) Log.e(TAG, error); }
+        }));
     }
 
     private void showTip(String message) {
@@ -208,9 +227,10 @@ public class HomeFragment extends Fragment {
         return null;
     }
 
-    private void refreshData() { loadPrescriptionData(); fetchDailyTips(); }
+    private void refreshData() { loadPrescriptionData(true); fetchDailyTips(); }
 
-    private void loadPrescriptionData() {
+    /** {@code userRefresh}: a pull-to-refresh, answered by the server rather than the response cache */
+    private void loadPrescriptionData(boolean userRefresh) {
         if (!isAdded()) return;
 
         swipeRefreshLayout.setRefreshing(true);
@@ -218,57 +238,184 @@ public class HomeFragment extends Fragment {
         if (!isInternetAvailable()) {
             showTip("No internet connection.");
             swipeRefreshLayout.setRefreshing(false);
-            showNoMedicineView(true);
+            if (!hasStoredData) showNoMedicineView(true);
             return;
         }
 
-        new PrescriptionController(requireContext()).fetchPrescriptions(new PrescriptionController.PrescriptionCallback() {
+        // Application context: the controller must not pin this fragment's Activity
+        CallScope scope = viewScope;
+        String caseId = sharedPrefManager.getCaseId();
+        Context appContext = requireContext().getApplicationContext();
+        // The controller writes the result through to LocalStore and reports whether it changed
+        PrescriptionController controller = new PrescriptionController(appContext);
+        PrescriptionController.PrescriptionCallback callback = new PrescriptionController.PrescriptionCallback() {
             @Override
             public void onSuccess(List<Prescription> prescriptions) {
-                medicationList.clear();
-                for (Prescription p : prescriptions) {
-                    if (p.getMedicines() != null) {
-                        for (Medication med : p.getMedicines()) med.calculateDuration();
-                        medicationList.addAll(p.getMedicines());
-                    }
-                }
-                adapter.notifyDataSetChanged();
-                loadMedicineLogs(sharedPrefManager.getCaseId());
-                swipeRefreshLayout.setRefreshing(false);
+                // View destroyed: skip post-processing entirely
+                if (!scope.isActive()) return;
+                showRefreshedPrescriptions(prescriptions, true, caseId, scope);
+            }
+
+            @Override
+            public void onUnchanged(List<Prescription> prescriptions) {
+                if (!scope.isActive()) return;
+                showRefreshedPrescriptions(prescriptions, false, caseId, scope);
             }
 
             @Override
             public void onFailure(String errorMessage) {
+                if (!scope.isActive()) return;
+                showTip("Failed to load prescriptions.");
+                swipeRefreshLayout.setRefreshing(false);
+                if (hasStoredData) return; // keep showing the last saved data
                 medicationList.clear();
                 adapter.notifyDataSetChanged();
                 showNoMedicineView(true);
-                showTip("Failed to load prescriptions.");
-                swipeRefreshLayout.setRefreshing(false);
             }
+        };
+        scope.track(userRefresh ? controller.refreshPrescriptions(callback) : controller.fetchPrescriptions(callback));
+    }
+
+    private void showRefreshedPrescriptions(List<Prescription> prescriptions, boolean changed,
+                                            String caseId, CallScope scope) {
+        Context appContext = requireContext().getApplicationContext();
+        // Flatten and post-process off the main thread, deliver only the finished list
+        AppExecutors.background().execute(() -> {
+            // New or edited medications change the locally armed reminders
+            if (changed) DoseScheduler.reschedule(appContext);
+            // An unchanged result is already on screen from the store
+            List<Medication> medicines = changed || !hasStoredData ? flattenMedicines(prescriptions) : null;
+            AppExecutors.mainThread().execute(() -> {
+                if (!scope.isActive() || !isAdded()) return;
+                networkLoaded = true;
+                if (medicines != null) {
+                    medicationList.clear();
+                    medicationList.addAll(medicines);
+                    adapter.notifyDataSetChanged();
+                    // Every prescription may have been discontinued
+                    showNoMedicineView(medicines.isEmpty());
+                }
+                loadMedicineLogs(caseId);
+                swipeRefreshLayout.setRefreshing(false);
+            });
         });
     }
 
+    /**
+     * Render the last saved prescriptions and logs immediately, then refresh from the network
+     * unless a fetch (e.g. the login prefetch) stored them moments ago
+     */
+    private void renderStoredData() {
+        String caseId = sharedPrefManager.getCaseId();
+        LocalStore store = LocalStore.get(requireContext());
+        CallScope scope = viewScope;
+
+        AppExecutors.background().execute(() -> {
+            List<Prescription> prescriptions = store.read(LocalStore.KIND_PRESCRIPTIONS, caseId, PRESCRIPTION_LIST_TYPE);
+            List<MedicineLog> logs = store.read(LocalStore.KIND_MEDICINE_LOGS, caseId, MEDICINE_LOG_LIST_TYPE);
+            List<Medication> medicines = prescriptions != null ? flattenMedicines(prescriptions) : null;
+            boolean prescriptionsFresh = medicines != null
+                    && store.isFresh(LocalStore.KIND_PRESCRIPTIONS, caseId, ApiConstants.LOCAL_STORE_FRESH_MILLIS);
+            boolean logsFresh = logs != null
+                    && store.isFresh(LocalStore.KIND_MEDICINE_LOGS, caseId, ApiConstants.LOCAL_STORE_FRESH_MILLIS);
+
+            AppExecutors.mainThread().execute(() -> {
+                if (!scope.isActive() || !isAdded()) return;
+                showStoredData(medicines, logs);
+                if (!prescriptionsFresh) loadPrescriptionData(false);
+                else if (!logsFresh) loadMedicineLogs(caseId);
+            });
+        });
+    }
+
+    private void showStoredData(List<Medication> medicines, List<MedicineLog> logs) {
+        // A network result that already arrived is newer than the stored copy
+        if (medicines == null || networkLoaded) return;
+        hasStoredData = true;
+        medicationList.clear();
+        medicationList.addAll(medicines);
+        adapter.notifyDataSetChanged();
+        showNoMedicineView(medicines.isEmpty());
+        if (logs != null && medicineLogs.isEmpty()) {
+            medicineLogs.addAll(logs);
+            updateSummaryCounts();
+        }
+    }
+
+    /** Runs on a background thread: collects the medicines, whose durations were derived while decoding */
+    private static List<Medication> flattenMedicines(List<Prescription> prescriptions) {
+        List<Medication> medicines = new ArrayList<>();
+        if (prescriptions == null) return Collections.unmodifiableList(medicines);
+        for (Prescription p : prescriptions) {
+            if (p.getMedicines() == null) continue;
+            medicines.addAll(p.getMedicines());
+        }
+        return Collections.unmodifiableList(medicines);
+    }
+
     private void loadMedicineLogs(String caseId) {
-        new MedicineLogController(requireContext()).fetchLogs(caseId, new MedicineLogController.MedicineLogCallback() {
+        CallScope scope = viewScope;
+        Context appContext = requireContext().getApplicationContext();
+
+        // Delta sync merges into the stored logs; the full controller fetch is the fallback
+        new MedicineLogSync(appContext).sync(caseId, new MedicineLogSync.SyncCallback() {
             @Override
             public void onSuccess(List<MedicineLog> logs) {
-                medicineLogs.clear();
-                medicineLogs.addAll(logs);
-                updateSummaryCounts();
+                if (!scope.isActive() || !isAdded()) return;
+                showMedicineLogs(logs);
             }
 
             @Override
             public void onFailure(String errorMessage) {
+                if (!scope.isActive()) return;
+                Log.w(TAG, "Medicine log sync failed, fetching all: " + errorMessage);
+                fetchAllMedicineLogs(appContext, caseId, scope);
+            }
+        });
+    }
+
+    private void fetchAllMedicineLogs(Context appContext, String caseId, CallScope scope) {
+        // Written through to LocalStore by the controller
+        scope.track(new MedicineLogController(appContext).fetchLogs(caseId, new MedicineLogController.MedicineLogCallback() {
+            @Override
+            public void onSuccess(List<MedicineLog> logs) {
+                if (!scope.isActive() || !isAdded()) return;
+                showMedicineLogs(logs);
+            }
+
+            @Override
+            public void onFailure(String errorMessage) {
+                if (!scope.isActive()) return;
                 showTip("Failed to load logs.");
+                if (hasStoredData) return;
                 medicineLogs.clear();
                 updateSummaryCounts();
             }
-        });
+        }));
+    }
+
+    private void showMedicineLogs(List<MedicineLog> logs) {
+        medicineLogs.clear();
+        medicineLogs.addAll(logs);
+        updateSummaryCounts();
     }
 
     private void updateSummaryCounts() {
-        int total = medicineLogs.size();
-        int taken = (int) medicineLogs.stream().filter(MedicineLog::isTaken).count();
+        List<MedicineLog> snapshot = new ArrayList<>(medicineLogs);
+
+        // Count on the background pool; only the totals come back to the UI
+        AppExecutors.background().execute(() -> {
+            int taken = 0;
+            for (MedicineLog log : snapshot) if (log.isTaken()) taken++;
+            int total = snapshot.size();
+            int takenCount = taken;
+            AppExecutors.mainThread().execute(() -> {
+                if (isAdded()) showSummaryCounts(total, takenCount);
+            });
+        });
+    }
+
+    private void showSummaryCounts(int total, int taken) {
         int remaining = total - taken;
 
         tvTotalMedicines.setText(String.valueOf(total));
@@ -315,8 +462,8 @@ public class HomeFragment extends Fragment {
             @Override
             public void run() {
                 Date now = new Date();
-                tvCurrentDate.setText(android.text.format.DateFormat.format("EEEE, MMM dd yyyy", now));
-                tvCurrentTime.setText(android.text.format.DateFormat.format("hh:mm a", now));
+                tvCurrentDate.setText(DateFormats.format(DateFormats.DISPLAY_DATE, now));
+                tvCurrentTime.setText(DateFormats.format(DateFormats.DISPLAY_TIME, now));
                 timeHandler.postDelayed(this, 1000);
             }
         };
@@ -331,7 +478,7 @@ public class HomeFragment extends Fragment {
     @Override public void onResume() { super.onResume(); mapView.onResume(); }
     @Override public void onPause() { super.onPause(); mapView.onPause(); }
     @Override public void onStop() { super.onStop(); mapView.onStop(); }
-    @Override public void onDestroyView() { timeHandler.removeCallbacks(timeRunnable); mapView.onDestroy(); super.onDestroyView(); }
+    @Override public void onDestroyView() { viewScope.cancel(); timeHandler.removeCallbacks(timeRunnable); mapView.onDestroy(); super.onDestroyView(); }
     @Override public void onLowMemory() { super.onLowMemory(); mapView.onLowMemory(); }
     @Override public void onSaveInstanceState(@NonNull Bundle out) { super.onSaveInstanceState(out); mapView.onSaveInstanceState(out); }
 }
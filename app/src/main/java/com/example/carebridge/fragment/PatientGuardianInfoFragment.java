@@ -19,9 +19,16 @@ import com.example.carebridge.R;
 import com.example.carebridge.adapters.PatientGuardianInformationAdapter;
 import com.example.carebridge.shared.controller.PatientGuardianInfoController;
 import com.example.carebridge.shared.model.PatientGuardianInfo;
+import com.example.carebridge.shared.network.CallScope;
+import com.example.carebridge.shared.utils.EntityCache;
+import com.example.carebridge.shared.utils.LocalStore;
+import com.example.carebridge.utils.AppExecutors;
+import com.example.carebridge.utils.SharedPrefManager;
 import com.facebook.shimmer.ShimmerFrameLayout;
 import com.google.android.material.card.MaterialCardView;
+import com.google.gson.reflect.TypeToken;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -43,6 +50,10 @@ public class PatientGuardianInfoFragment extends Fragment {
     // Helpers
     private PatientGuardianInformationAdapter adapter;
     private PatientGuardianInfoController controller;
+    private CallScope viewScope;
+    private boolean networkLoaded, showingStored;
+
+    private static final Type GUARDIAN_LIST_TYPE = new TypeToken<List<PatientGuardianInfo>>() { }.getType();
 
     @Nullable
     @Override
@@ -51,19 +62,34 @@ public class PatientGuardianInfoFragment extends Fragment {
                              @Nullable Bundle savedInstanceState) {
 
         View view = inflater.inflate(R.layout.fragment_patient_guardian_info, container, false);
+        viewScope = new CallScope();
 
         initViews(view);
         setupRecyclerView();
         setupSwipeRefresh();
 
         // Initialize controller for API calls
-        controller = new PatientGuardianInfoController(requireContext());
+        controller = new PatientGuardianInfoController(requireContext().getApplicationContext());
 
         // Show shimmer immediately when fragment loads
         showLoadingState();
 
+        // Memory cache, then disk; a fresh in-memory list needs no request at all
+        EntityCache.Entry<List<PatientGuardianInfo>> cached =
+                EntityCache.PATIENT_GUARDIANS.get(new SharedPrefManager(requireContext()).getCaseId());
+        if (cached != null && !cached.value.isEmpty()) {
+            stopLoadingState();
+            showingStored = true;
+            adapter.setData(cached.value);
+            recyclerView.setVisibility(View.VISIBLE);
+            if (cached.isFresh()) return view;
+        } else {
+            // Saved guardians render at once; the fetch below refreshes them
+            renderStoredGuardians();
+        }
+
         // Small delay ensures smooth UI transition before data fetch
-        new Handler().postDelayed(this::fetchGuardianData, 200);
+        new Handler().postDelayed(() -> fetchGuardianData(false), 200);
 
         return view;
     }
@@ -93,7 +119,7 @@ public class PatientGuardianInfoFragment extends Fragment {
     /** Triggered on pull-to-refresh gesture */
     private void refreshData() {
         showLoadingState();
-        fetchGuardianData();
+        fetchGuardianData(true);
     }
 
     /** Show shimmer loading animation and hide other views */
@@ -113,18 +139,40 @@ public class PatientGuardianInfoFragment extends Fragment {
         swipeRefreshLayout.setRefreshing(false);
     }
 
-    /** Fetch guardian data from the API */
-    private void fetchGuardianData() {
+    /** Render guardians saved by the last successful fetch */
+    private void renderStoredGuardians() {
+        String caseId = new SharedPrefManager(requireContext()).getCaseId();
+        LocalStore store = LocalStore.get(requireContext());
+        AppExecutors.background().execute(() -> {
+            List<PatientGuardianInfo> stored = store.read(LocalStore.KIND_PATIENT_GUARDIANS, caseId, GUARDIAN_LIST_TYPE);
+            AppExecutors.mainThread().execute(() -> {
+                if (stored == null || stored.isEmpty() || !isAdded() || networkLoaded) return;
+                stopLoadingState();
+                showingStored = true;
+                adapter.setData(stored);
+                recyclerView.setVisibility(View.VISIBLE);
+            });
+        });
+    }
+
+    /** Fetch guardian data from the API; {@code userRefresh} bypasses the response cache */
+    private void fetchGuardianData(boolean userRefresh) {
         if (!isAdded()) return; // Ensure fragment is still active
 
-        if (!swipeRefreshLayout.isRefreshing()) showLoadingState();
+        if (!swipeRefreshLayout.isRefreshing() && !showingStored) showLoadingState();
+
+        String caseId = new SharedPrefManager(requireContext()).getCaseId();
 
-        controller.getCurrentGuardian(new PatientGuardianInfoController.PatientGuardianCallback() {
+        // Written through to LocalStore by the controller
+        PatientGuardianInfoController.PatientGuardianCallback callback = new PatientGuardianInfoController.PatientGuardianCallback() {
             @Override
             public void onSuccess(List<PatientGuardianInfo> guardianList) {
                 if (!isAdded()) return;
 
+                if (guardianList != null) EntityCache.PATIENT_GUARDIANS.put(caseId, guardianList);
+
                 requireActivity().runOnUiThread(() -> {
+                    networkLoaded = true;
                     stopLoadingState();
                     cardWarning.setVisibility(View.GONE);
 
@@ -152,6 +200,12 @@ public class PatientGuardianInfoFragment extends Fragment {
                 requireActivity().runOnUiThread(() -> {
                     stopLoadingState();
 
+                    // Offline: keep the saved guardians on screen
+                    if (showingStored) {
+                        Log.e(TAG, "[API ERROR] " + message);
+                        return;
+                    }
+
                     recyclerView.setVisibility(View.GONE);
                     tvNoGuardianMessage.setVisibility(View.GONE);
 
@@ -162,6 +216,15 @@ public class PatientGuardianInfoFragment extends Fragment {
                     Log.e(TAG, "[API ERROR] " + message);
                 });
             }
-        });
+        };
+        viewScope.track(userRefresh
+                ? controller.refreshCurrentGuardian(callback)
+                : controller.getCurrentGuardian(callback));
+    }
+
+    @Override
+    public void onDestroyView() {
+        viewScope.cancel();
+        super.onDestroyView();
     }
 }
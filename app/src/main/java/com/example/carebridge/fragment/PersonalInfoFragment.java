@@ -18,13 +18,17 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.example.carebridge.R;
 import com.example.carebridge.shared.controller.PatientController;
 import com.example.carebridge.shared.model.PatientInfo;
-import com.example.carebridge.shared.model.User;
-import com.example.carebridge.shared.utils.SharedPrefManager;
+import com.example.carebridge.shared.network.CallScope;
+import com.example.carebridge.shared.utils.DateFormats;
+import com.example.carebridge.shared.utils.EntityCache;
+import com.example.carebridge.shared.utils.LocalStore;
+import com.example.carebridge.utils.AppExecutors;
+import com.example.carebridge.utils.SharedPrefManager;
 import com.facebook.shimmer.ShimmerFrameLayout;
 import com.google.android.material.card.MaterialCardView;
 
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.List;
 
 public class PersonalInfoFragment extends Fragment {
@@ -40,7 +44,9 @@ public class PersonalInfoFragment extends Fragment {
     private SwipeRefreshLayout swipeRefreshLayout;
     private MaterialCardView cardWarning;
     private PatientController patientController;
+    private CallScope viewScope;
     private SharedPrefManager sharedPrefManager;
+    private boolean networkLoaded, showingStored;
 
     @Nullable
     @Override
@@ -49,19 +55,31 @@ public class PersonalInfoFragment extends Fragment {
                              @Nullable Bundle savedInstanceState) {
 
         View view = inflater.inflate(R.layout.fragment_personal_info, container, false);
+        viewScope = new CallScope();
         bindViews(view);
 
         sharedPrefManager = new SharedPrefManager(requireContext());
-        patientController = new PatientController(requireContext());
+        patientController = new PatientController(requireContext().getApplicationContext());
 
         shimmerLayout.startShimmer();
         shimmerLayout.setVisibility(View.VISIBLE);
 
-        fetchPatientData();
+        // Memory cache first: a fresh entry needs no request, a stale one is shown while revalidating
+        EntityCache.Entry<PatientInfo> cached = EntityCache.PATIENTS.get(patientKey());
+        if (cached != null) {
+            shimmerLayout.stopShimmer();
+            shimmerLayout.setVisibility(View.GONE);
+            showingStored = true;
+            displayPatientInfo(cached.value);
+            if (!cached.isFresh()) fetchPatientData(false);
+        } else {
+            renderStoredPatient();
+            fetchPatientData(false);
+        }
 
         swipeRefreshLayout.setOnRefreshListener(() -> {
             Log.d(TAG, "Swipe-to-refresh triggered");
-            fetchPatientData();
+            fetchPatientData(true);
         });
 
         return view;
@@ -89,16 +107,37 @@ public class PersonalInfoFragment extends Fragment {
         tvWarningMessage = view.findViewById(R.id.tvWarningMessage);
     }
 
-    /** Fetch patient data safely */
-    private void fetchPatientData() {
-        User user = sharedPrefManager.getCurrentUser();
+    /** Show the saved profile right away; fetchPatientData() refreshes it */
+    private void renderStoredPatient() {
+        String key = patientKey();
+        LocalStore store = LocalStore.get(requireContext());
+        AppExecutors.background().execute(() -> {
+            PatientInfo stored = store.read(LocalStore.KIND_PATIENT, key, PatientInfo.class);
+            AppExecutors.mainThread().execute(() -> {
+                if (stored == null || getView() == null || networkLoaded) return;
+                shimmerLayout.stopShimmer();
+                shimmerLayout.setVisibility(View.GONE);
+                showingStored = true;
+                displayPatientInfo(stored);
+            });
+        });
+    }
 
-        shimmerLayout.startShimmer();
-        shimmerLayout.setVisibility(View.VISIBLE);
+    /** The case ID PatientController fetches and stores the profile under */
+    private String patientKey() {
+        return sharedPrefManager.getCaseId();
+    }
+
+    /** Fetch patient data safely; {@code userRefresh} bypasses the response cache */
+    private void fetchPatientData(boolean userRefresh) {
+        if (!showingStored) {
+            shimmerLayout.startShimmer();
+            shimmerLayout.setVisibility(View.VISIBLE);
+        }
         swipeRefreshLayout.setRefreshing(true);
         cardWarning.setVisibility(View.GONE);
 
-        patientController.getCurrentPatient(new PatientController.PatientCallback() {
+        PatientController.PatientCallback callback = new PatientController.PatientCallback() {
             @Override
             public void onSuccess(PatientInfo patientInfo) {
                 if (getActivity() == null || getView() == null) return;
@@ -117,8 +156,12 @@ public class PersonalInfoFragment extends Fragment {
                         return;
                     }
 
+                    networkLoaded = true;
                     cardWarning.setVisibility(View.GONE);
                     displayPatientInfo(patientInfo);
+
+                    // Written through to LocalStore by the controller
+                    EntityCache.PATIENTS.put(patientKey(), patientInfo);
                 });
             }
 
@@ -134,6 +177,9 @@ public class PersonalInfoFragment extends Fragment {
                     shimmerLayout.setVisibility(View.GONE);
                     swipeRefreshLayout.setRefreshing(false);
 
+                    // Offline: keep the saved profile on screen
+                    if (showingStored) return;
+
                     // SAFE VERSION — NO requireView()
                     View cardContent = root.findViewById(R.id.cardContent);
                     if (cardContent != null) cardContent.setVisibility(View.GONE);
@@ -142,7 +188,10 @@ public class PersonalInfoFragment extends Fragment {
                     tvWarningMessage.setText(getString(R.string.patient_data_load_error));
                 });
             }
-        });
+        };
+        viewScope.track(userRefresh
+                ? patientController.refreshCurrentPatient(callback)
+                : patientController.getCurrentPatient(callback));
     }
 
     /** Display data */
@@ -181,8 +230,10 @@ public class PersonalInfoFragment extends Fragment {
     private int calculateAge(String dob) {
         if (dob == null || dob.isEmpty()) return 0;
         try {
+            Date birthDate = DateFormats.parseDate(dob);
+            if (birthDate == null) return 0;
             Calendar birth = Calendar.getInstance();
-            birth.setTime(new SimpleDateFormat("yyyy-MM-dd").parse(dob));
+            birth.setTime(birthDate);
             Calendar today = Calendar.getInstance();
 
             int age = today.get(Calendar.YEAR) - birth.get(Calendar.YEAR);
@@ -204,4 +255,10 @@ public class PersonalInfoFragment extends Fragment {
     private String joinList(List<String> list) {
         return (list != null && !list.isEmpty()) ? String.join(", ", list) : getString(R.string.not_available_text);
     }
+
+    @Override
+    public void onDestroyView() {
+        viewScope.cancel();
+        super.onDestroyView();
+    }
 }
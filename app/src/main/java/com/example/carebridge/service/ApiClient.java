@@ -1,20 +1,60 @@
 package com.example.carebridge.service;
 
+import android.content.Context;
+
+import com.example.carebridge.shared.network.SharedHttpClient;
+import com.example.carebridge.shared.utils.GsonProvider;
+
+import okhttp3.OkHttpClient;
+import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
+/**
+ * Retrofit clients of the phone app. Both are built on {@link SharedHttpClient}, the
+ * OkHttpClient the shared controllers and the watch use too, so every call shares one
+ * dispatcher, one keep-alive pool and one on-disk response cache.
+ */
 public class ApiClient {
 
     private static Retrofit retrofit;
+    private static Retrofit placesRetrofit;
+
+    /** Called once from CareBridgeApp so the shared client can attach its disk cache */
+    public static void init(Context context) {
+        SharedHttpClient.init(context);
+    }
+
+    /** The process-wide client from careBridge-shared, also used by the shared controllers */
+    public static OkHttpClient getHttpClient() {
+        return SharedHttpClient.get();
+    }
 
-    public static Retrofit getClient() {
+    public static synchronized Retrofit getClient() {
 
         if (retrofit == null) {
             retrofit = new Retrofit.Builder()
                     .baseUrl("http://10.0.0.165/careBridge/careBridge-web-app/careBridge-website/endpoints/medicine_log/")
-                    .addConverterFactory(GsonConverterFactory.create())
+                    .client(getHttpClient())
+                    .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
                     .build();
         }
         return retrofit;
     }
+
+    /** Google Places client used by the full-screen map activities */
+    public static synchronized Retrofit getPlacesClient() {
+
+        if (placesRetrofit == null) {
+            HttpLoggingInterceptor log = new HttpLoggingInterceptor();
+            log.setLevel(HttpLoggingInterceptor.Level.BODY);
+
+            placesRetrofit = new Retrofit.Builder()
+                    .baseUrl("https://maps.googleapis.com/")
+                    .client(getHttpClient().newBuilder().addInterceptor(log).build())
+                    .addConverterFactory(GsonConverterFactory.create(GsonProvider.get()))
+                    .build();
+        }
+        return placesRetrofit;
+    }
 }
@@ -0,0 +1,81 @@
+package com.example.carebridge.service;
+
+import android.app.AlarmManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import com.example.carebridge.shared.utils.DateFormats;
+import com.example.carebridge.utils.AppExecutors;
+
+import java.util.Date;
+
+/**
+ * Fires the reminders armed by {@link DoseScheduler}, and re-arms them when the
+ * device reboots, the app is updated, the clock changes or exact-alarm access changes.
+ */
+public class DoseAlarmReceiver extends BroadcastReceiver {
+
+    private static final String TAG = "DoseAlarmReceiver";
+
+    public static final String ACTION_DOSE_DUE = "com.example.carebridge.DOSE_DUE";
+    static final String EXTRA_LOG_ID = "log_id";
+    static final String EXTRA_MEDICINE = "medicine_name";
+    static final String EXTRA_SCHEDULED_AT = "scheduled_at";
+    static final String EXTRA_WITH_FOOD = "with_food";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        Context appContext = context.getApplicationContext();
+        PendingResult pendingResult = goAsync();
+
+        AppExecutors.background().execute(() -> {
+            boolean handedOff = false;
+            try {
+                if (ACTION_DOSE_DUE.equals(action)) {
+                    // The reminder is buffered for its slot: finish only once it has been posted
+                    handedOff = showReminder(appContext, intent, pendingResult::finish);
+                } else if (Intent.ACTION_BOOT_COMPLETED.equals(action)
+                        || Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)
+                        || Intent.ACTION_TIME_CHANGED.equals(action)
+                        || Intent.ACTION_TIMEZONE_CHANGED.equals(action)
+                        || AlarmManager.ACTION_SCHEDULE_EXACT_ALARM_PERMISSION_STATE_CHANGED.equals(action)) {
+                    DoseScheduler.reschedule(appContext);
+                }
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Failed to handle " + action, e);
+            } finally {
+                if (!handedOff) pendingResult.finish();
+            }
+        });
+    }
+
+    /** Returns true when a reminder was queued, in which case {@code onPosted} will run */
+    private boolean showReminder(Context context, Intent intent, Runnable onPosted) {
+        String medicine = intent.getStringExtra(EXTRA_MEDICINE);
+        long scheduledAt = intent.getLongExtra(EXTRA_SCHEDULED_AT, System.currentTimeMillis());
+        Integer logId = intent.hasExtra(EXTRA_LOG_ID) ? intent.getIntExtra(EXTRA_LOG_ID, 0) : null;
+        if (logId != null && DoseResolutions.isResolvedElsewhere(context, logId)) {
+            Log.d(TAG, "Log #" + logId + " already resolved on another device");
+            return false;
+        }
+
+        // The push for this dose may have arrived first; either key means it was already shown
+        String byLog = logId != null ? NotificationHelper.doseKey(logId, null, 0) : null;
+        String byTime = NotificationHelper.doseKey(null, medicine, scheduledAt);
+        if (!NotificationHelper.markReminderFired(context, byLog, byTime)) {
+            Log.d(TAG, "Reminder for " + byTime + " already shown");
+            return false;
+        }
+
+        String body = "Time to take " + (medicine != null ? medicine : "your medicine")
+                + (intent.getBooleanExtra(EXTRA_WITH_FOOD, false) ? " with food" : "");
+        int notificationId = logId != null ? logId : byTime.hashCode() & 0x7fffffff;
+        String slot = DateFormats.formatServer(new Date(scheduledAt)).substring(0, 16);
+
+        NotificationHelper.showDoseReminder(context, "Medicine Reminder 💊", body, logId, notificationId, slot, onPosted);
+        return true;
+    }
+}
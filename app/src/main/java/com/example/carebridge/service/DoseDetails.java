@@ -0,0 +1,141 @@
+package com.example.carebridge.service;
+
+import android.content.Context;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.example.carebridge.shared.model.Medication;
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.model.Prescription;
+import com.example.carebridge.shared.utils.DosePlanner;
+import com.example.carebridge.shared.utils.LocalStore;
+import com.example.carebridge.shared.utils.SessionStore;
+import com.example.carebridge.utils.ApiConstants;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * log_id → medication details (name, dosage, food instruction) for reminder pushes,
+ * which only carry the log_id. Indexed from the stored logs (log_id → medicine_id) and
+ * prescriptions (medicine_id → {@link Medication}) in {@link LocalStore}. Lookups never
+ * touch the network: on a miss the caller posts a generic reminder and hands the dose
+ * to {@link #refreshLater}, whose {@link DoseDetailsWorker} syncs the logs and updates
+ * the notification.
+ */
+public final class DoseDetails {
+
+    private static final Type PRESCRIPTION_LIST_TYPE = new TypeToken<List<Prescription>>() { }.getType();
+    private static final Type MEDICINE_LOG_LIST_TYPE = new TypeToken<List<MedicineLog>>() { }.getType();
+
+    private static final String WORK_PREFIX = "dose_details_";
+
+    public static final class Details {
+        public final String medicine;
+        public final String dosage;
+        public final String foodInstruction;
+
+        Details(String medicine, String dosage, String foodInstruction) {
+            this.medicine = medicine;
+            this.dosage = dosage;
+            this.foodInstruction = foodInstruction;
+        }
+
+        /** e.g. "Take Metformin 500 mg, with food" */
+        public String describe() {
+            StringBuilder sb = new StringBuilder("Take ").append(medicine);
+            if (dosage != null) sb.append(' ').append(dosage);
+            if (foodInstruction != null) sb.append(", ").append(foodInstruction.toLowerCase(Locale.getDefault()));
+            return sb.toString();
+        }
+    }
+
+    // Index for one case, replaced whole when rebuilt
+    private static volatile String indexedCase;
+    private static volatile Map<Integer, Details> index = Collections.emptyMap();
+
+    private DoseDetails() { }
+
+    /**
+     * Details for a dose from the stored data, or null when it is not there yet. Blocks on
+     * store reads (no network): call it off the main thread.
+     */
+    public static Details resolve(Context context, int logId) {
+        SessionStore session = SessionStore.get(context);
+        String caseId = session.getCaseId();
+        if (!session.isLoggedIn() || caseId.isEmpty()) return null;
+
+        Details details = caseId.equals(indexedCase) ? index.get(logId) : null;
+        if (details != null) return details;
+
+        // The store may have moved on since the last build
+        rebuild(context, caseId);
+        return index.get(logId);
+    }
+
+    /**
+     * A reminder went out without details: sync the logs in the background and, if it is
+     * still showing, update it with the medicine once it can be named.
+     */
+    public static void refreshLater(Context context, int logId, String title, String slot) {
+        Data input = new Data.Builder()
+                .putInt(DoseDetailsWorker.KEY_LOG_ID, logId)
+                .putString(DoseDetailsWorker.KEY_TITLE, title)
+                .putString(DoseDetailsWorker.KEY_SLOT, slot)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(DoseDetailsWorker.class)
+                .setInputData(input)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL,
+                        ApiConstants.DOSE_DETAILS_BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .build();
+
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_PREFIX + logId, ExistingWorkPolicy.KEEP, request);
+    }
+
+    /** Drop the index, e.g. on logout */
+    public static void invalidate() {
+        indexedCase = null;
+        index = Collections.emptyMap();
+    }
+
+    private static synchronized void rebuild(Context context, String caseId) {
+        LocalStore store = LocalStore.get(context);
+        List<MedicineLog> logs = store.read(LocalStore.KIND_MEDICINE_LOGS, caseId, MEDICINE_LOG_LIST_TYPE);
+        List<Prescription> prescriptions = store.read(LocalStore.KIND_PRESCRIPTIONS, caseId, PRESCRIPTION_LIST_TYPE);
+
+        Map<Integer, Details> built = new HashMap<>();
+        if (logs != null) {
+            // Logs only carry the medicine_id; name, dosage and food come from the prescription
+            Map<Integer, Medication> medications = DosePlanner.medicationsById(prescriptions);
+            for (MedicineLog log : logs) {
+                Medication med = medications.get(log.getMedicineId());
+                if (log.getLogId() <= 0 || med == null || med.getMedicineName() == null) continue;
+                built.put(log.getLogId(), new Details(med.getMedicineName(), blankToNull(med.getDosage()),
+                        med.isWithFood() ? "With food" : null));
+            }
+        }
+        index = built;
+        indexedCase = caseId;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.carebridge.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.carebridge.shared.controller.MedicineLogSync;
+import com.example.carebridge.shared.utils.SessionStore;
+
+import java.io.IOException;
+
+/**
+ * Names a dose whose reminder went out generic because its log was not stored yet:
+ * delta-syncs the case's logs (which also leaves the dashboard warm for the tap) and, if
+ * the reminder is still showing, re-posts it in place with the medicine's details.
+ * Sync failures return {@link Result#retry()} so WorkManager backs off.
+ */
+public class DoseDetailsWorker extends Worker {
+
+    private static final String TAG = "DoseDetailsWorker";
+
+    static final String KEY_LOG_ID = "log_id";
+    static final String KEY_TITLE = "title";
+    static final String KEY_SLOT = "slot";
+
+    public DoseDetailsWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        int logId = getInputData().getInt(KEY_LOG_ID, -1);
+        String title = getInputData().getString(KEY_TITLE);
+        String slot = getInputData().getString(KEY_SLOT);
+        if (logId <= 0 || title == null || slot == null) return Result.failure();
+
+        SessionStore session = SessionStore.get(context);
+        String caseId = session.getCaseId();
+        // Answered, dismissed or logged out meanwhile: nothing left to update
+        if (!session.isLoggedIn() || caseId.isEmpty() || !NotificationHelper.isShowing(context, logId)) {
+            return Result.success();
+        }
+
+        try {
+            new MedicineLogSync(context).syncBlocking(caseId);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not fetch log #" + logId + ": " + e.getMessage());
+            return Result.retry();
+        }
+
+        DoseDetails.Details details = DoseDetails.resolve(context, logId);
+        if (details == null) {
+            Log.d(TAG, "Log #" + logId + " still unknown after sync, keeping the generic reminder");
+            return Result.success();
+        }
+        if (!NotificationHelper.isShowing(context, logId) || DoseResolutions.isResolvedElsewhere(context, logId)) {
+            return Result.success();
+        }
+
+        // Same id and group: the reminder is updated in place without alerting again
+        NotificationHelper.showDoseReminderAndWait(context, title, details.describe(), logId, logId, slot);
+        return Result.success();
+    }
+}
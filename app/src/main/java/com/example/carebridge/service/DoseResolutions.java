@@ -0,0 +1,83 @@
+package com.example.carebridge.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.carebridge.shared.controller.MedicineStatusClient;
+import com.example.carebridge.shared.utils.DeliveryLedger;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.messaging.FirebaseMessaging;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Keeps a dose reminder from staying live on one device after it was answered on
+ * another. Once the server has acknowledged a status update, the resolved log_ids are
+ * published to the user's other devices; a device receiving them cancels the matching
+ * notification, drops its own queued update and no longer shows reminders for them.
+ */
+public final class DoseResolutions {
+
+    private static final String TAG = "DoseResolutions";
+
+    /** FCM data message type carrying log_ids resolved on another device */
+    public static final String TYPE_RESOLVED = "resolved";
+
+    private static final String RESOLVED_PREFS = "carebridge_resolved";
+    private static final long RESOLVED_RETENTION_MILLIS = 2 * 24 * 60 * 60 * 1000L;
+    private static final int RESOLVED_CAPACITY = 512;
+    private static final long TOKEN_TIMEOUT_SECONDS = 5;
+
+    private DoseResolutions() { }
+
+    /**
+     * Tell the other devices these doses were answered here. Blocking: call from the
+     * delivery worker after the server acknowledged them. The server pushes a silent
+     * {@link #TYPE_RESOLVED} message to the user's other registered devices, skipping
+     * this one by its FCM token. Worst case the other device keeps its notification,
+     * as before.
+     */
+    public static void publish(List<Integer> logIds) {
+        if (logIds.isEmpty()) return;
+
+        String token = null;
+        try {
+            token = Tasks.await(FirebaseMessaging.getInstance().getToken(),
+                    TOKEN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            Log.w(TAG, "FCM token unavailable, relaying without it", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (!new MedicineStatusClient().notifyResolved(logIds, token)) {
+            Log.w(TAG, "Publishing " + logIds.size() + " resolutions failed");
+        }
+    }
+
+    /** A dose was answered on another device. Blocks on the first prefs load: call off the main thread */
+    public static void resolvedElsewhere(Context context, int logId) {
+        ledger(context).markFirst(key(logId));
+        NotificationHelper.clearNotification(context, logId);
+        if (StatusOutbox.get(context).discard(logId)) {
+            Log.d(TAG, "Log #" + logId + " resolved on another device, dropped the queued update");
+        }
+    }
+
+    /** Whether another device already answered this dose; call off the main thread */
+    public static boolean isResolvedElsewhere(Context context, int logId) {
+        return ledger(context).contains(key(logId));
+    }
+
+    private static DeliveryLedger ledger(Context context) {
+        return DeliveryLedger.get(context, RESOLVED_PREFS, RESOLVED_RETENTION_MILLIS, RESOLVED_CAPACITY);
+    }
+
+    private static String key(int logId) {
+        return "log:" + logId;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.carebridge.service;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.util.Log;
+
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.model.Prescription;
+import com.example.carebridge.shared.utils.DosePlanner;
+import com.example.carebridge.shared.utils.DosePlanner.Dose;
+import com.example.carebridge.shared.utils.LocalStore;
+import com.example.carebridge.shared.utils.SessionStore;
+import com.example.carebridge.utils.ApiConstants;
+import com.example.carebridge.utils.AppExecutors;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-device dose reminders. {@link DosePlanner} expands each active medication in the
+ * stored prescriptions into concrete dose times for the next
+ * {@link ApiConstants#DOSE_SCHEDULE_HORIZON_HOURS} hours and attaches the server log_id
+ * where a stored medicine log for the same medicine_id matches; this class arms one exact
+ * alarm per dose so reminders fire without the network or a push.
+ */
+public final class DoseScheduler {
+
+    private static final String TAG = "DoseScheduler";
+    private static final String KIND_ARMED = "armed_dose_alarms";
+    private static final String ARMED_KEY = "alarms";
+
+    private static final Type PRESCRIPTION_LIST_TYPE = new TypeToken<List<Prescription>>() { }.getType();
+    private static final Type MEDICINE_LOG_LIST_TYPE = new TypeToken<List<MedicineLog>>() { }.getType();
+    private static final Type ARMED_TYPE = new TypeToken<Map<String, Integer>>() { }.getType();
+
+    private DoseScheduler() { }
+
+    /** Recompute and re-arm on the background pool, e.g. after prescriptions or logs changed */
+    public static void rescheduleAsync(Context context) {
+        Context appContext = context.getApplicationContext();
+        AppExecutors.background().execute(() -> reschedule(appContext));
+    }
+
+    /** Blocking: reads LocalStore and the session, so call it off the main thread */
+    public static synchronized void reschedule(Context context) {
+        SessionStore session = SessionStore.get(context);
+        String caseId = session.getCaseId();
+        if (!session.isLoggedIn() || caseId.isEmpty()) {
+            cancelAll(context);
+            return;
+        }
+
+        LocalStore store = LocalStore.get(context);
+        List<Prescription> prescriptions = store.read(LocalStore.KIND_PRESCRIPTIONS, caseId, PRESCRIPTION_LIST_TYPE);
+        List<MedicineLog> logs = store.read(LocalStore.KIND_MEDICINE_LOGS, caseId, MEDICINE_LOG_LIST_TYPE);
+
+        long now = System.currentTimeMillis();
+        long until = now + ApiConstants.DOSE_SCHEDULE_HORIZON_HOURS * 60 * 60 * 1000L;
+        List<Dose> doses = DosePlanner.plan(prescriptions, logs, now, until);
+        arm(context, doses);
+        NotificationHelper.pruneFiredReminders(context);
+    }
+
+    /** Cancel every armed reminder, e.g. on logout */
+    public static synchronized void cancelAll(Context context) {
+        arm(context, Collections.emptyList());
+    }
+
+    /** Arm the given doses and cancel any previously armed alarm no longer in the set */
+    private static void arm(Context context, List<Dose> doses) {
+        AlarmManager alarms = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarms == null) return;
+
+        LocalStore store = LocalStore.get(context);
+        Map<String, Integer> previous = store.read(KIND_ARMED, ARMED_KEY, ARMED_TYPE);
+        Map<String, Integer> armed = new HashMap<>();
+
+        boolean exact = Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarms.canScheduleExactAlarms();
+        List<Dose> sorted = new ArrayList<>(doses);
+        Collections.sort(sorted, (a, b) -> Long.compare(a.scheduledAt, b.scheduledAt));
+        for (Dose dose : sorted) {
+            if (armed.size() >= ApiConstants.DOSE_SCHEDULE_MAX_ALARMS) break;
+            int requestCode = dose.key.hashCode();
+            PendingIntent pending = PendingIntent.getBroadcast(context, requestCode, alarmIntent(context, dose),
+                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+            if (exact) {
+                alarms.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, dose.scheduledAt, pending);
+            } else {
+                // Exact alarms revoked by the user: still remind, within the OS batching window
+                alarms.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, dose.scheduledAt, pending);
+            }
+            armed.put(dose.key, requestCode);
+        }
+
+        if (previous != null) {
+            for (Map.Entry<String, Integer> entry : previous.entrySet()) {
+                if (armed.containsKey(entry.getKey())) continue;
+                Intent intent = new Intent(context, DoseAlarmReceiver.class).setAction(DoseAlarmReceiver.ACTION_DOSE_DUE);
+                PendingIntent stale = PendingIntent.getBroadcast(context, entry.getValue(), intent,
+                        PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE);
+                if (stale != null) {
+                    alarms.cancel(stale);
+                    stale.cancel();
+                }
+            }
+        }
+
+        store.writeIfChanged(KIND_ARMED, ARMED_KEY, armed);
+        Log.d(TAG, "Armed " + armed.size() + " dose reminders (" + (exact ? "exact" : "inexact") + ")");
+    }
+
+    private static Intent alarmIntent(Context context, Dose dose) {
+        Intent intent = new Intent(context, DoseAlarmReceiver.class);
+        intent.setAction(DoseAlarmReceiver.ACTION_DOSE_DUE);
+        intent.putExtra(DoseAlarmReceiver.EXTRA_MEDICINE, dose.medicine);
+        intent.putExtra(DoseAlarmReceiver.EXTRA_SCHEDULED_AT, dose.scheduledAt);
+        intent.putExtra(DoseAlarmReceiver.EXTRA_WITH_FOOD, dose.withFood);
+        if (dose.logId != null) intent.putExtra(DoseAlarmReceiver.EXTRA_LOG_ID, dose.logId.intValue());
+        return intent;
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.carebridge.service;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.carebridge.shared.controller.AssignedPatientController;
+import com.example.carebridge.shared.controller.AuthController;
+import com.example.carebridge.shared.controller.DailyTipsController;
+import com.example.carebridge.shared.controller.GuardianController;
+import com.example.carebridge.shared.controller.MedicineLogSync;
+import com.example.carebridge.shared.controller.PatientController;
+import com.example.carebridge.shared.controller.PatientGuardianInfoController;
+import com.example.carebridge.shared.controller.PrescriptionController;
+import com.example.carebridge.shared.model.AssignedPatientInfo;
+import com.example.carebridge.shared.model.GuardianInfo;
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.model.PatientGuardianInfo;
+import com.example.carebridge.shared.model.PatientInfo;
+import com.example.carebridge.shared.model.Prescription;
+import com.example.carebridge.shared.model.Tip;
+import com.example.carebridge.shared.model.User;
+import com.example.carebridge.shared.model.Video;
+import com.example.carebridge.shared.utils.EntityCache;
+import com.example.carebridge.shared.utils.LocalStore;
+import com.example.carebridge.utils.AppExecutors;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fetches what the first dashboard screen shows right after login, with every request for
+ * the user's role in flight at once. It runs as the login {@link AuthController.PrefetchStage}:
+ * login proceeds when it finishes or after a short cap, and the rest completes behind the
+ * dashboard. The controllers write each result through to {@link LocalStore}, which stamps
+ * it fetched, so the dashboards render the stored rows instead of refetching while
+ * {@link LocalStore#isFresh} holds; profiles also go to {@link EntityCache}. Only the daily
+ * tips come back through the HTTP cache. A dashboard request issued while the same GET is
+ * still in flight shares its response on the shared client.
+ */
+public class LoginPrefetcher {
+
+    private static final String TAG = "LoginPrefetcher";
+
+    public interface Listener {
+        void onPrefetchComplete(long wallTimeMs, int succeeded, int total);
+    }
+
+    private final Context appContext;
+
+    private long startedAt;
+    private int total;
+    private int finished;
+    private int succeeded;
+    private Listener listener;
+
+    public LoginPrefetcher(Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    /** The login prefetch stage: a new prefetch per login, done when every request has answered */
+    public static AuthController.PrefetchStage asLoginStage(Context context, String patientRole) {
+        Context appContext = context.getApplicationContext();
+        return (user, onDone) -> new LoginPrefetcher(appContext).prefetch(user, patientRole,
+                (wallTimeMs, succeeded, total) -> onDone.run());
+    }
+
+    /** Start the prefetch for the user's role; the listener is called on the main thread */
+    public void prefetch(User user, String patientRole, Listener listener) {
+        this.listener = listener;
+        this.startedAt = SystemClock.elapsedRealtime();
+        this.finished = 0;
+        this.succeeded = 0;
+
+        if (user == null) {
+            total = 0;
+            report();
+        } else if (patientRole.equals(user.getRole())) {
+            String caseId = user.getPatientInfo() != null ? user.getPatientInfo().getCaseId() : null;
+            if (caseId == null || caseId.isEmpty()) {
+                total = 0;
+                report();
+                return;
+            }
+            total = 5;
+            prefetchPatient(caseId);
+            prefetchPrescriptions(caseId);
+            prefetchMedicineLogs(caseId);
+            prefetchPatientGuardians(caseId);
+            prefetchDailyTips();
+        } else {
+            String guardianId = user.getReferenceId();
+            if (guardianId == null || guardianId.isEmpty()) {
+                total = 0;
+                report();
+                return;
+            }
+            total = 2;
+            prefetchGuardian(guardianId);
+            prefetchAssignedPatients(guardianId);
+        }
+    }
+
+    private void prefetchPatient(String caseId) {
+        new PatientController(appContext).getCurrentPatient(new PatientController.PatientCallback() {
+            @Override
+            public void onSuccess(PatientInfo patientInfo) {
+                EntityCache.PATIENTS.put(caseId, patientInfo);
+                done("patient", true);
+            }
+
+            @Override
+            public void onFailure(String errorMessage) {
+                done("patient: " + errorMessage, false);
+            }
+        });
+    }
+
+    private void prefetchPrescriptions(String caseId) {
+        new PrescriptionController(appContext).fetchPrescriptionsWithCaseId(caseId,
+                new PrescriptionController.PrescriptionCallback() {
+                    @Override
+                    public void onSuccess(List<Prescription> prescriptions) {
+                        done("prescriptions", true);
+                    }
+
+                    @Override
+                    public void onFailure(String errorMessage) {
+                        done("prescriptions: " + errorMessage, false);
+                    }
+                });
+    }
+
+    private void prefetchMedicineLogs(String caseId) {
+        // The sync writes the merged logs to LocalStore itself
+        new MedicineLogSync(appContext).sync(caseId, new MedicineLogSync.SyncCallback() {
+            @Override
+            public void onSuccess(List<MedicineLog> logs) {
+                done("medicine logs", true);
+            }
+
+            @Override
+            public void onFailure(String errorMessage) {
+                done("medicine logs: " + errorMessage, false);
+            }
+        });
+    }
+
+    private void prefetchPatientGuardians(String caseId) {
+        new PatientGuardianInfoController(appContext).getCurrentGuardian(
+                new PatientGuardianInfoController.PatientGuardianCallback() {
+                    @Override
+                    public void onSuccess(List<PatientGuardianInfo> guardians) {
+                        if (guardians != null) EntityCache.PATIENT_GUARDIANS.put(caseId, guardians);
+                        done("guardians", true);
+                    }
+
+                    @Override
+                    public void onFailure(String errorMessage) {
+                        done("guardians: " + errorMessage, false);
+                    }
+                });
+    }
+
+    private void prefetchDailyTips() {
+        // Only the HTTP cache is warmed; tips and video may arrive as separate callbacks
+        AtomicBoolean reported = new AtomicBoolean();
+        new DailyTipsController().fetchDailyTips(new DailyTipsController.DailyTipCallback() {
+            @Override
+            public void onTips(List<Tip> tips) {
+                if (reported.compareAndSet(false, true)) done("daily tips", true);
+            }
+
+            @Override
+            public void onVideo(Video video) {
+                if (reported.compareAndSet(false, true)) done("daily tips", true);
+            }
+
+            @Override
+            public void onFailure(String errorMessage) {
+                if (reported.compareAndSet(false, true)) done("daily tips: " + errorMessage, false);
+            }
+        });
+    }
+
+    private void prefetchGuardian(String guardianId) {
+        new GuardianController(appContext).getCurrentGuardian(new GuardianController.GuardianCallback() {
+            @Override
+            public void onSuccess(GuardianInfo guardianInfo) {
+                EntityCache.GUARDIANS.put(guardianId, guardianInfo);
+                done("guardian", true);
+            }
+
+            @Override
+            public void onFailure(String errorMessage) {
+                done("guardian: " + errorMessage, false);
+            }
+        });
+    }
+
+    private void prefetchAssignedPatients(String guardianId) {
+        new AssignedPatientController(appContext).getAssignedPatients(guardianId,
+                new AssignedPatientController.AssignedPatientsCallback() {
+                    @Override
+                    public void onSuccess(List<AssignedPatientInfo> patients) {
+                        done("assigned patients", true);
+                    }
+
+                    @Override
+                    public void onFailure(String errorMessage) {
+                        done("assigned patients: " + errorMessage, false);
+                    }
+                });
+    }
+
+    /** Controller callbacks arrive on the main thread, so the counters need no locking */
+    private void done(String what, boolean ok) {
+        if (ok) succeeded++;
+        else Log.w(TAG, "Prefetch failed: " + what);
+        if (++finished == total) report();
+    }
+
+    private void report() {
+        long wall = SystemClock.elapsedRealtime() - startedAt;
+        Log.d(TAG, "Prefetched " + succeeded + "/" + total + " in " + wall + " ms");
+        // Freshly stored prescriptions and logs define the local dose reminders
+        if (total > 0) DoseScheduler.rescheduleAsync(appContext);
+        Listener l = listener;
+        listener = null;
+        if (l != null) AppExecutors.mainThread().execute(() -> l.onPrefetchComplete(wall, succeeded, total));
+    }
+}
@@ -7,14 +7,29 @@ import androidx.annotation.NonNull;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 
-import com.google.gson.JsonObject;
+import com.example.carebridge.shared.controller.MedicineStatusClient;
+import com.example.carebridge.shared.controller.MedicineStatusClient.Outcome;
+import com.example.carebridge.shared.network.NetworkMetrics;
+import com.example.carebridge.utils.ApiConstants;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Drains the {@link StatusOutbox} synchronously through the shared
+ * {@link MedicineStatusClient}: pending rows go out in bulk requests (one round-trip for a
+ * whole time slot) with per-item results, or one POST per dose when the server has no
+ * bulk endpoint. Rows are removed only after the server acknowledged them; transient
+ * failures leave them queued and return {@link Result#retry()} so WorkManager
+ * reschedules with exponential backoff.
+ */
 public class MedicineStatusWorker extends Worker {
 
+    private static final String TAG = "WORK_MANAGER";
+
     public MedicineStatusWorker(@NonNull Context context, @NonNull WorkerParameters params) {
         super(context, params);
     }
@@ -22,30 +37,68 @@ public class MedicineStatusWorker extends Worker {
     @NonNull
     @Override
     public Result doWork() {
+        StatusOutbox outbox = StatusOutbox.get(getApplicationContext());
 
-        int logId = getInputData().getInt("log_id", -1);
-        String takenStatus = getInputData().getString("taken_status");
-
-        if (logId == -1 || takenStatus == null) {
-            return Result.failure();
+        // Requests scheduled before the outbox existed still carry their update as input.
+        // Moved over once, on the first run only: a retry re-adding it would resend an
+        // already delivered update under a new idempotency key
+        int legacyLogId = getInputData().getInt("log_id", -1);
+        String legacyStatus = getInputData().getString("taken_status");
+        if (legacyLogId != -1 && legacyStatus != null && getRunAttemptCount() == 0) {
+            outbox.adoptLegacy(legacyLogId, legacyStatus);
         }
 
-        ApiService api = ApiClient.getClient().create(ApiService.class);
-
-        Log.d("WORK_MANAGER", "Retrying Update → Log #" + logId + " | " + takenStatus);
+        MedicineStatusClient client = new MedicineStatusClient();
+        boolean retry = false;
 
-        api.updateMedicineStatus(String.valueOf(logId), takenStatus).enqueue(new Callback<JsonObject>() {
-            @Override
-            public void onResponse(Call<JsonObject> call, Response<JsonObject> response) {
-                Log.d("WORK_MANAGER", "Sync Success: " + response.body());
+        // Each row is tried at most once per run; failed rows sort behind untried ones
+        Set<String> attempted = new HashSet<>();
+        List<Integer> delivered = new ArrayList<>();
+        while (!isStopped()) {
+            List<StatusOutbox.Entry> batch = new ArrayList<>();
+            for (StatusOutbox.Entry entry : outbox.pending(ApiConstants.OUTBOX_BATCH_SIZE)) {
+                if (attempted.add(entry.idempotencyKey)) batch.add(entry);
             }
+            if (batch.isEmpty()) break;
 
-            @Override
-            public void onFailure(Call<JsonObject> call, Throwable t) {
-                Log.e("WORK_MANAGER", "Sync Failed Again: " + t.getMessage());
+            List<MedicineStatusClient.Update> updates = new ArrayList<>(batch.size());
+            for (StatusOutbox.Entry entry : batch) {
+                updates.add(new MedicineStatusClient.Update(entry.logId, entry.takenStatus, entry.idempotencyKey));
             }
-        });
+            Map<Integer, Outcome> outcomes = client.send(updates);
+            for (StatusOutbox.Entry entry : batch) {
+                Outcome outcome = outcomes.get(entry.logId);
+                if (outcome == Outcome.DELIVERED) delivered.add(entry.logId);
+                if (!record(outbox, entry, outcome)) retry = true;
+            }
+        }
 
-        return Result.success();
+        // Recorded on the server: the user's other devices can drop their reminders for these
+        DoseResolutions.publish(delivered);
+        if (isStopped()) return Result.retry();
+
+        long remaining = outbox.count();
+        Log.d(TAG, "Outbox drained, " + remaining + " pending (attempt " + getRunAttemptCount() + ")");
+        return remaining > 0 || retry ? Result.retry() : Result.success();
+    }
+
+    /** Apply an outcome to the outbox; false when the row stays queued for a retry */
+    private boolean record(StatusOutbox outbox, StatusOutbox.Entry entry, Outcome outcome) {
+        switch (outcome) {
+            case DELIVERED:
+                outbox.markDelivered(entry);
+                NetworkMetrics.recordOutboxDelivery(System.currentTimeMillis() - entry.enqueuedAt);
+                NotificationHelper.clearNotification(getApplicationContext(), entry.logId);
+                return true;
+            case REJECTED:
+                // The server will never accept this one; keeping it would block the queue
+                outbox.markDelivered(entry);
+                NetworkMetrics.recordOutboxFailure();
+                return true;
+            default:
+                outbox.markFailed(entry);
+                NetworkMetrics.recordOutboxFailure();
+                return false;
+        }
     }
 }
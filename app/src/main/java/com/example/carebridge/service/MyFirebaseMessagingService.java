@@ -1,19 +1,13 @@
 package com.example.carebridge.service;
 
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
-import android.app.PendingIntent;
-import android.content.Context;
-import android.content.Intent;
-import android.media.RingtoneManager;
-import android.net.Uri;
-import android.os.Build;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
-import androidx.core.app.NotificationCompat;
 
-import com.example.carebridge.R;
+import com.example.carebridge.shared.network.NetworkMetrics;
+import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.DateFormats;
+import com.example.carebridge.shared.utils.DeliveryLedger;
 import com.google.firebase.messaging.FirebaseMessagingService;
 import com.google.firebase.messaging.RemoteMessage;
 
@@ -22,17 +16,57 @@ import java.util.Map;
 public class MyFirebaseMessagingService extends FirebaseMessagingService {
 
     private static final String TAG = "FCM_Service";
-    private static final String CHANNEL_ID = "carebridge_channel";
+
+    private static final String DEDUPE_PREFS = "carebridge_fcm_seen";
+    private static final String TYPE_REMINDER = "reminder";
 
     @Override
     public void onMessageReceived(@NonNull RemoteMessage remoteMessage) {
 
         if (remoteMessage.getData().size() > 0) {
             Log.d(TAG, "📦 Data Payload: " + remoteMessage.getData());
-            handleDataMessage(remoteMessage.getData());
+            Map<String, String> data = remoteMessage.getData();
+            String type = data.get("type") != null ? data.get("type") : TYPE_REMINDER;
+            if (!firstDelivery(type, data.get("log_id"), remoteMessage.getMessageId())) {
+                NetworkMetrics.recordDuplicatePush(type);
+                Log.d(TAG, "Duplicate " + type + " for log #" + data.get("log_id") + " dropped");
+                return;
+            }
+            if (DoseResolutions.TYPE_RESOLVED.equals(type)) {
+                handleResolved(data);
+                return;
+            }
+            handleDataMessage(data);
+        }
+    }
+
+    /** Silent: the dose was answered on another device, so drop ours and skip our own update */
+    private void handleResolved(Map<String, String> data) {
+        String ids = data.get("log_ids") != null ? data.get("log_ids") : data.get("log_id");
+        if (ids == null) {
+            Log.e(TAG, "❌ Missing log_id in resolved message");
+            return;
+        }
+        for (String id : ids.split(",")) {
+            try {
+                DoseResolutions.resolvedElsewhere(this, Integer.parseInt(id.trim()));
+            } catch (NumberFormatException e) {
+                Log.e(TAG, "Invalid log_id format: " + id);
+            }
         }
     }
 
+    /**
+     * Redeliveries and backend resends are dropped before any notification or network
+     * work: keyed by type and log_id, or by the FCM message id when there is no log_id.
+     */
+    private boolean firstDelivery(String type, String logId, String messageId) {
+        String key = logId != null ? type + ":" + logId : messageId != null ? "msg:" + messageId : null;
+        if (key == null) return true;
+        return DeliveryLedger.get(this, DEDUPE_PREFS, ApiConstants.FCM_DEDUPE_WINDOW_MILLIS,
+                ApiConstants.FCM_DEDUPE_CAPACITY).markFirst(key);
+    }
+
     private void handleDataMessage(Map<String, String> data) {
         try {
             String title = data.get("title");
@@ -45,16 +79,15 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
             }
 
             if (title == null) title = "Medicine Reminder 💊";
-            if (message == null) message = "Please confirm your medication status";
 
-            sendNotification(title, message, logId);
+            sendNotification(title, message, logId, data);
 
         } catch (Exception e) {
             Log.e(TAG, "⚠️ Error handling FCM data: " + e.getMessage());
         }
     }
 
-    private void sendNotification(String title, String messageBody, String logId) {
+    private void sendNotification(String title, String messageBody, String logId, Map<String, String> data) {
 
         int logIdInt;
         try {
@@ -64,48 +97,37 @@ public class MyFirebaseMessagingService extends FirebaseMessagingService {
             return;
         }
 
-        // --- PendingIntents ---
-        Intent takenIntent = new Intent(this, NotificationActionReceiver.class);
-        takenIntent.setAction("MED_TAKEN");
-        takenIntent.putExtra("log_id", logId);
-        takenIntent.putExtra("taken_status", "Taken");
-
-        PendingIntent takenPending = PendingIntent.getBroadcast(
-                this, logIdInt * 10 + 1, takenIntent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-        );
-
-        Intent notTakenIntent = new Intent(this, NotificationActionReceiver.class);
-        notTakenIntent.setAction("MED_NOT_TAKEN");
-        notTakenIntent.putExtra("log_id", logId);
-        notTakenIntent.putExtra("taken_status", "Not Taken");
-
-        PendingIntent notTakenPending = PendingIntent.getBroadcast(
-                this, logIdInt * 10 + 2, notTakenIntent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-        );
-
-        Uri soundUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION);
-
-        NotificationManager nm = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            NotificationChannel channel = new NotificationChannel(
-                    CHANNEL_ID, "CareBridge Notifications", NotificationManager.IMPORTANCE_HIGH
-            );
-            channel.setSound(soundUri, null);
-            nm.createNotificationChannel(channel);
+        if (DoseResolutions.isResolvedElsewhere(this, logIdInt)) {
+            Log.d(TAG, "Reminder for log #" + logIdInt + " already resolved on another device");
+            return;
+        }
+
+        // Pushes only carry the log_id; name the pill from the stored data when the server did not.
+        // Not stored yet: post a generic reminder now and let DoseDetailsWorker name it after a sync
+        DoseDetails.Details details = messageBody == null || data.get("medicine_name") == null
+                ? DoseDetails.resolve(this, logIdInt) : null;
+        boolean generic = messageBody == null && details == null;
+        if (messageBody == null) {
+            messageBody = details != null ? details.describe() : "Please confirm your medication status";
         }
 
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(this, CHANNEL_ID)
-                .setSmallIcon(R.drawable.ic_health)
-                .setContentTitle(title)
-                .setContentText(messageBody)
-                .setSound(soundUri)
-                .setAutoCancel(true)
-                .setPriority(NotificationCompat.PRIORITY_HIGH)
-                .addAction(R.drawable.ic_check, "Taken", takenPending)
-                .addAction(R.drawable.ic_close, "Not Taken", notTakenPending);
-
-        nm.notify(logIdInt, builder.build()); // Use logId as unique notification ID
+        // A local alarm may already have shown this dose, keyed by log_id or by medicine and time
+        String medicine = data.get("medicine_name") != null ? data.get("medicine_name")
+                : details != null ? details.medicine : null;
+        long scheduledAt = DateFormats.parseEpochMillis(data.get("scheduled_time"));
+        String byTime = medicine != null && scheduledAt != DateFormats.INVALID_TIME
+                ? NotificationHelper.doseKey(null, medicine, scheduledAt) : null;
+        if (!NotificationHelper.markReminderFired(this, NotificationHelper.doseKey(logIdInt, null, 0), byTime)) {
+            Log.d(TAG, "Reminder for log #" + logIdInt + " already shown, skipping push");
+            return;
+        }
+
+        // Posted after the slot's throttle window: wait for it, since once this returns the
+        // process may be frozen or killed with the reminder still buffered
+        String slot = NotificationHelper.slotKey(data);
+        if (!NotificationHelper.showDoseReminderAndWait(this, title, messageBody, logIdInt, logIdInt, slot)) {
+            Log.w(TAG, "Reminder for log #" + logIdInt + " not posted in time");
+        }
+        if (generic) DoseDetails.refreshLater(this, logIdInt, title, slot);
     }
 }
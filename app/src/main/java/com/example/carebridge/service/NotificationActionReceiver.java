@@ -13,11 +13,10 @@ import androidx.work.OneTimeWorkRequest;
 import androidx.work.WorkManager;
 import androidx.work.Data;
 
-import com.google.gson.JsonObject;
+import com.example.carebridge.utils.AppExecutors;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.ArrayList;
+import java.util.List;
 
 public class NotificationActionReceiver extends BroadcastReceiver {
 
@@ -29,6 +28,11 @@ public class NotificationActionReceiver extends BroadcastReceiver {
         Bundle extras = intent.getExtras();
         Log.d(TAG, "Intent received: " + intent.getAction() + " | extras: " + (extras != null ? extras.toString() : "null"));
 
+        if (NotificationHelper.ACTION_ALL_TAKEN.equals(intent.getAction())) {
+            markSlotTaken(context, intent.getStringExtra(NotificationHelper.EXTRA_SLOT));
+            return;
+        }
+
         // Extract log_id and status
         String logIdStr = intent.getStringExtra("log_id");
         String takenStatus = intent.getStringExtra("taken_status");
@@ -51,27 +55,55 @@ public class NotificationActionReceiver extends BroadcastReceiver {
         // Show toast immediately
         Toast.makeText(context, "Medicine " + takenStatus, Toast.LENGTH_SHORT).show();
 
-        // Call API
-        ApiService api = ApiClient.getClient().create(ApiService.class);
-        api.updateMedicineStatus(String.valueOf(logId), takenStatus).enqueue(new Callback<JsonObject>() {
-            @Override
-            public void onResponse(Call<JsonObject> call, Response<JsonObject> response) {
-                if (response.body() == null || !response.isSuccessful()) {
-                    Log.e(TAG, "API null or failed response, fallback triggered");
-                    runWorkManagerFallback(context, logId, takenStatus);
+        // The action is accepted once it is in the durable outbox; delivery happens in the worker
+        NotificationHelper.clearNotification(context, logId);
+
+        PendingResult pendingResult = goAsync();
+        Context appContext = context.getApplicationContext();
+        AppExecutors.background().execute(() -> {
+            try {
+                // Answered on another device in the meantime: its update already went out
+                if (DoseResolutions.isResolvedElsewhere(appContext, logId)) {
+                    Log.d(TAG, "Log #" + logId + " already resolved on another device, skipping update");
                     return;
                 }
-
-                Log.d(TAG, "API Response: " + response.body());
-
-                // Clear the notification after API success
-                NotificationHelper.clearNotification(context, logId);
+                StatusOutbox.get(appContext).enqueue(logId, takenStatus);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Outbox write failed, falling back to a one-off work request", e);
+                runWorkManagerFallback(appContext, logId, takenStatus);
+            } finally {
+                pendingResult.finish();
             }
+        });
+    }
 
-            @Override
-            public void onFailure(Call<JsonObject> call, Throwable t) {
-                Log.e(TAG, "API Failed: " + t.getMessage());
-                runWorkManagerFallback(context, logId, takenStatus);
+    /** Every dose still showing for the slot goes into the outbox together and out in one bulk request */
+    private void markSlotTaken(Context context, String slot) {
+        if (slot == null) {
+            Log.e(TAG, "Missing slot in intent");
+            return;
+        }
+        List<Integer> logIds = NotificationHelper.pendingDosesInSlot(context, slot);
+        if (logIds.isEmpty()) return;
+
+        Log.d(TAG, "Action Received → " + logIds.size() + " doses in slot " + slot + " | Taken");
+        Toast.makeText(context, logIds.size() + " medicines Taken", Toast.LENGTH_SHORT).show();
+        for (int logId : logIds) NotificationHelper.clearNotification(context, logId);
+
+        PendingResult pendingResult = goAsync();
+        Context appContext = context.getApplicationContext();
+        AppExecutors.background().execute(() -> {
+            try {
+                List<Integer> open = new ArrayList<>();
+                for (int logId : logIds) {
+                    if (!DoseResolutions.isResolvedElsewhere(appContext, logId)) open.add(logId);
+                }
+                if (!open.isEmpty()) StatusOutbox.get(appContext).enqueueAll(open, "Taken");
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Outbox write failed, falling back to one-off work requests", e);
+                for (int logId : logIds) runWorkManagerFallback(appContext, logId, "Taken");
+            } finally {
+                pendingResult.finish();
             }
         });
     }
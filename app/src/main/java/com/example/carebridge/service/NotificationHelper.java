@@ -1,15 +1,196 @@
 package com.example.carebridge.service;
 
+import android.app.NotificationChannel;
 import android.app.NotificationManager;
+import android.app.PendingIntent;
 import android.content.Context;
+import android.content.Intent;
+import android.media.RingtoneManager;
+import android.os.Build;
 
+import androidx.core.app.NotificationCompat;
+
+import com.example.carebridge.R;
+import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.DeliveryLedger;
+import com.example.carebridge.shared.utils.DosePlanner;
+import com.example.carebridge.shared.utils.ReminderPoster;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dose reminder notifications on the phone. Slot grouping, the
+ * {@link ApiConstants#NOTIFICATION_THROTTLE_MS} buffer and the inbox summary live in
+ * {@link ReminderPoster}; this class adds the phone's sound, tap target and Taken /
+ * Not Taken / All taken actions. Callers that may be torn down before the flush
+ * (a broadcast's PendingResult, a push handler) pass an {@code onPosted} hook and stay
+ * alive until it runs.
+ */
 public class NotificationHelper {
 
+    private static final String CHANNEL_ID = "carebridge_channel";
+
+    // "Mark all taken" for every pending dose notification in a time slot
+    public static final String ACTION_ALL_TAKEN = "MED_ALL_TAKEN";
+    public static final String EXTRA_SLOT = "slot";
+
+    // Reminders already shown, by dose key, so a local alarm and a push never both alert
+    private static final String FIRED_PREFS = "carebridge_reminders";
+    private static final long FIRED_RETENTION_MILLIS = 2 * 24 * 60 * 60 * 1000L;
+    private static final int FIRED_CAPACITY = 512;
+
+    private static final ReminderPoster POSTER =
+            new ReminderPoster("carebridge-notify", "carebridge_slot_", new ReminderPoster.Style() {
+                @Override
+                public String channelId() {
+                    return CHANNEL_ID;
+                }
+
+                @Override
+                public int smallIcon() {
+                    return R.drawable.ic_health;
+                }
+
+                @Override
+                public String summaryTitle(Context context, int count) {
+                    return count == 1 ? "Medicine Reminder 💊" : count + " medicines due";
+                }
+
+                @Override
+                public void decorateSummary(Context context, NotificationCompat.Builder summary,
+                                            String slot, int answerable) {
+                    summary.setSound(RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION))
+                            .setContentIntent(openAppIntent(context));
+
+                    // Several doses due together: one tap (and one bulk request) marks them all
+                    if (answerable > 1) {
+                        Intent allTakenIntent = new Intent(context, NotificationActionReceiver.class);
+                        allTakenIntent.setAction(ACTION_ALL_TAKEN);
+                        allTakenIntent.putExtra(EXTRA_SLOT, slot);
+
+                        PendingIntent allTakenPending = PendingIntent.getBroadcast(
+                                context, slot.hashCode(), allTakenIntent,
+                                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+                        );
+                        summary.addAction(R.drawable.ic_check, "All taken (" + answerable + ")", allTakenPending);
+                    }
+                }
+            });
+
+    /** Create notification channels; called once from Application.onCreate */
+    public static void createChannels(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) return;
+        NotificationManager nm = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (nm == null) return;
+
+        NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID, "CareBridge Notifications", NotificationManager.IMPORTANCE_HIGH
+        );
+        channel.setSound(RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION), null);
+        nm.createNotificationChannel(channel);
+    }
+
+    /** Cancel a dose notification and refresh (or remove) its slot summary */
     public static void clearNotification(Context context, int id) {
-        NotificationManager manager = (NotificationManager)
-                context.getSystemService(Context.NOTIFICATION_SERVICE);
-        if (manager != null) {
-            manager.cancel(id);
+        POSTER.clear(context, id);
+    }
+
+    /**
+     * Queue a dose reminder. Taken / Not Taken actions are only offered when the dose
+     * has a server log_id to report against. {@code onPosted} (may be null) runs on the
+     * poster thread once the slot has been flushed, whether or not anything could be shown.
+     */
+    public static void showDoseReminder(Context context, String title, String messageBody,
+                                        Integer logId, int notificationId, String slot,
+                                        Runnable onPosted) {
+        POSTER.post(context, notificationId, slot, reminder(context, title, messageBody, logId, slot), onPosted);
+    }
+
+    /**
+     * Queue a dose reminder and block until its slot has been flushed, at most
+     * {@link ApiConstants#NOTIFICATION_POST_TIMEOUT_MS}. For push handlers, which hold no
+     * PendingResult to hand over. Returns false on timeout.
+     */
+    public static boolean showDoseReminderAndWait(Context context, String title, String messageBody,
+                                                  Integer logId, int notificationId, String slot) {
+        return POSTER.postAndWait(context, notificationId, slot, reminder(context, title, messageBody, logId, slot));
+    }
+
+    private static NotificationCompat.Builder reminder(Context context, String title, String messageBody,
+                                                       Integer logId, String slot) {
+        Context appContext = context.getApplicationContext();
+        NotificationCompat.Builder builder = POSTER.reminder(appContext, title, messageBody, logId, slot)
+                .setSound(RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION))
+                .setContentIntent(openAppIntent(appContext));
+
+        if (logId != null) {
+            builder.addAction(R.drawable.ic_check, "Taken", statusIntent(appContext, logId, "MED_TAKEN", "Taken", 1))
+                    .addAction(R.drawable.ic_close, "Not Taken", statusIntent(appContext, logId, "MED_NOT_TAKEN", "Not Taken", 2));
         }
+        return builder;
+    }
+
+    /** Tapping a reminder opens the app, whose dashboard reads the logs warmed on receipt */
+    private static PendingIntent openAppIntent(Context context) {
+        Intent launch = context.getPackageManager().getLaunchIntentForPackage(context.getPackageName());
+        if (launch == null) return null;
+        launch.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        return PendingIntent.getActivity(context, 0, launch,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    private static PendingIntent statusIntent(Context context, int logId, String action, String status, int slotOffset) {
+        Intent intent = new Intent(context, NotificationActionReceiver.class);
+        intent.setAction(action);
+        intent.putExtra("log_id", String.valueOf(logId));
+        intent.putExtra("taken_status", status);
+
+        return PendingIntent.getBroadcast(
+                context, logId * 10 + slotOffset, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+
+    /** Stable identity of a dose, the same one the scheduler arms it under */
+    public static String doseKey(Integer logId, String medicine, long scheduledAt) {
+        return DosePlanner.doseKey(logId, medicine, scheduledAt);
+    }
+
+    /**
+     * Record that a reminder is being shown under the given keys (null keys are ignored).
+     * Returns false when any of them was already shown. Blocks on the first prefs load,
+     * so call it off the main thread.
+     */
+    public static boolean markReminderFired(Context context, String... keys) {
+        return firedReminders(context).markFirst(keys);
+    }
+
+    /** Drop fired-reminder records too old to matter; call off the main thread */
+    public static void pruneFiredReminders(Context context) {
+        firedReminders(context).prune();
+    }
+
+    private static DeliveryLedger firedReminders(Context context) {
+        return DeliveryLedger.get(context, FIRED_PREFS, FIRED_RETENTION_MILLIS, FIRED_CAPACITY);
+    }
+
+    /** Slot a dose belongs to: the server's slot, else its scheduled minute, else a 30-minute window */
+    public static String slotKey(Map<String, String> data) {
+        return ReminderPoster.slotKey(data);
+    }
+
+    public static String groupKey(String slot) {
+        return POSTER.groupKey(slot);
+    }
+
+    /** Whether the dose notification with this id is still showing */
+    public static boolean isShowing(Context context, int id) {
+        return POSTER.isShowing(context, id);
+    }
+
+    /** log_ids of the dose notifications still showing for a slot */
+    public static List<Integer> pendingDosesInSlot(Context context, String slot) {
+        return POSTER.logIdsInSlot(context, slot);
     }
 }
@@ -0,0 +1,210 @@
+package com.example.carebridge.service;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.carebridge.shared.controller.MedicineLogController;
+import com.example.carebridge.shared.controller.PrescriptionController;
+import com.example.carebridge.shared.model.Medication;
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.model.Prescription;
+import com.example.carebridge.shared.network.CallScope;
+import com.example.carebridge.shared.utils.DateFormats;
+import com.example.carebridge.utils.AppExecutors;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Loads prescriptions and medicine logs for every assigned patient with a bounded
+ * number of patients in flight. The visible page can be moved to the front of the
+ * queue, and each patient's result is delivered as soon as it completes.
+ * All state is touched on the main thread, where the shared controllers deliver callbacks.
+ */
+public class PatientFanOutLoader {
+
+    private static final String TAG = "PatientFanOutLoader";
+
+    /** Aggregated, immutable result for one patient */
+    public static class PatientResult {
+        public final String caseId;
+        public final List<Medication> medicines;
+        public final int totalDoses;
+        public final int takenDoses;
+
+        PatientResult(String caseId, List<Medication> medicines, int totalDoses, int takenDoses) {
+            this.caseId = caseId;
+            this.medicines = medicines;
+            this.totalDoses = totalDoses;
+            this.takenDoses = takenDoses;
+        }
+    }
+
+    public interface Listener {
+        void onPatientLoaded(PatientResult result);
+        void onPatientFailed(String caseId, String error);
+        void onAllLoaded(long wallTimeMs, long sequentialTimeMs);
+    }
+
+    private final Context appContext;
+    private final int maxParallel;
+    private final Listener listener;
+
+    private final Deque<String> pending = new ArrayDeque<>();
+    private CallScope calls = new CallScope();
+    private int running;
+    private int remaining;
+    private long startedAt;
+    private long sequentialTimeMs;
+    private boolean cancelled;
+
+    public PatientFanOutLoader(Context context, int maxParallel, Listener listener) {
+        this.appContext = context.getApplicationContext();
+        this.maxParallel = Math.max(1, maxParallel);
+        this.listener = listener;
+    }
+
+    /** Start loading the given patients; {@code firstCaseId} (the visible page) goes first */
+    public void load(List<String> caseIds, String firstCaseId) {
+        pending.clear();
+        for (String caseId : caseIds) {
+            if (caseId != null && !caseId.isEmpty() && !pending.contains(caseId)) pending.add(caseId);
+        }
+        remaining = pending.size();
+        running = 0;
+        sequentialTimeMs = 0;
+        cancelled = false;
+        calls.cancel();
+        calls = new CallScope();
+        startedAt = SystemClock.elapsedRealtime();
+
+        prioritize(firstCaseId);
+        pump();
+    }
+
+    /** Move a queued patient to the front so it is the next one started */
+    public void prioritize(String caseId) {
+        if (caseId != null && pending.remove(caseId)) pending.addFirst(caseId);
+    }
+
+    /** Drop queued work and cancel the calls still in flight */
+    public void cancel() {
+        cancelled = true;
+        pending.clear();
+        calls.cancel();
+    }
+
+    private void pump() {
+        while (!cancelled && running < maxParallel && !pending.isEmpty()) {
+            running++;
+            loadPatient(pending.pollFirst());
+        }
+    }
+
+    /** Prescriptions and logs for one patient are fetched concurrently and joined */
+    private void loadPatient(String caseId) {
+        long patientStart = SystemClock.elapsedRealtime();
+        List<Prescription> prescriptions = new ArrayList<>();
+        List<MedicineLog> logs = new ArrayList<>();
+        int[] outstanding = {2};
+        String[] error = {null};
+
+        Runnable join = () -> {
+            if (--outstanding[0] > 0) return;
+            sequentialTimeMs += SystemClock.elapsedRealtime() - patientStart;
+            if (cancelled) return;
+
+            if (error[0] != null) {
+                listener.onPatientFailed(caseId, error[0]);
+                onPatientDone();
+                return;
+            }
+
+            AppExecutors.background().execute(() -> {
+                PatientResult result = aggregate(caseId, prescriptions, logs);
+                AppExecutors.mainThread().execute(() -> {
+                    if (cancelled) return;
+                    listener.onPatientLoaded(result);
+                    onPatientDone();
+                });
+            });
+        };
+
+        calls.track(new PrescriptionController(appContext).fetchPrescriptionsWithCaseId(caseId,
+                new PrescriptionController.PrescriptionCallback() {
+                    @Override
+                    public void onSuccess(List<Prescription> result) {
+                        if (result != null) prescriptions.addAll(result);
+                        join.run();
+                    }
+
+                    @Override
+                    public void onFailure(String errorMessage) {
+                        error[0] = errorMessage;
+                        join.run();
+                    }
+                }));
+
+        calls.track(new MedicineLogController(appContext).fetchLogs(caseId,
+                new MedicineLogController.MedicineLogCallback() {
+                    @Override
+                    public void onSuccess(List<MedicineLog> result) {
+                        if (result != null) logs.addAll(result);
+                        join.run();
+                    }
+
+                    @Override
+                    public void onFailure(String errorMessage) {
+                        // Logs only refine the stats; prescriptions alone are still useful
+                        Log.w(TAG, "Logs failed for " + caseId + ": " + errorMessage);
+                        join.run();
+                    }
+                }));
+    }
+
+    private void onPatientDone() {
+        running--;
+        if (--remaining == 0) {
+            long wall = SystemClock.elapsedRealtime() - startedAt;
+            Log.d(TAG, "Fan-out finished in " + wall + " ms (sequential estimate " + sequentialTimeMs
+                    + " ms, parallelism " + maxParallel + ")");
+            listener.onAllLoaded(wall, sequentialTimeMs);
+        } else {
+            pump();
+        }
+    }
+
+    /** Runs on the background pool */
+    private static PatientResult aggregate(String caseId, List<Prescription> prescriptions, List<MedicineLog> logs) {
+        List<Medication> medicines = new ArrayList<>();
+        int takenMedicines = 0;
+        for (Prescription p : prescriptions) {
+            if (p.getMedicines() == null) continue;
+            medicines.addAll(p.getMedicines());
+            for (Medication med : p.getMedicines()) if (med.isTaken()) takenMedicines++;
+        }
+
+        // The logs endpoint returns the whole history; the stats are today's doses only.
+        // Without any logged for today, fall back to the prescription flags.
+        String today = DateFormats.get(DateFormats.SERVER_DATE, Locale.US).format(new Date());
+        int total = 0;
+        int taken = 0;
+        for (MedicineLog log : logs) {
+            String scheduled = log.getScheduledTime();
+            if (scheduled == null || !scheduled.startsWith(today)) continue;
+            total++;
+            if (log.isTaken()) taken++;
+        }
+        if (total == 0) {
+            total = medicines.size();
+            taken = takenMedicines;
+        }
+        return new PatientResult(caseId, Collections.unmodifiableList(medicines), total, taken);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.carebridge.service;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.example.carebridge.utils.ApiConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable outbox for "Taken / Not Taken" status updates. One row per log_id, so a
+ * newer action replaces an undelivered older one and only the latest is sent. Every
+ * row carries an idempotency key the server can use to drop replays; delivery is
+ * at-least-once through {@link MedicineStatusWorker}. Unlike {@code LocalStore} this
+ * is not a cache and is never wiped on upgrade. Disk access: call off the main thread.
+ */
+public class StatusOutbox extends SQLiteOpenHelper {
+
+    private static final String TAG = "StatusOutbox";
+    private static final String DB_NAME = "carebridge_outbox.db";
+    private static final int DB_VERSION = 1;
+    private static final String WORK_NAME = "status_outbox";
+
+    private static final String TABLE = "status_outbox";
+    private static final String COL_LOG_ID = "log_id";
+    private static final String COL_STATUS = "taken_status";
+    private static final String COL_KEY = "idempotency_key";
+    private static final String COL_ENQUEUED_AT = "enqueued_at";
+    private static final String COL_ATTEMPTS = "attempts";
+
+    private static final AtomicLong depth = new AtomicLong(-1);
+
+    private static volatile StatusOutbox instance;
+
+    /** Pending update as read from the outbox */
+    public static final class Entry {
+        public final int logId;
+        public final String takenStatus;
+        public final String idempotencyKey;
+        public final long enqueuedAt;
+        public final int attempts;
+
+        Entry(int logId, String takenStatus, String idempotencyKey, long enqueuedAt, int attempts) {
+            this.logId = logId;
+            this.takenStatus = takenStatus;
+            this.idempotencyKey = idempotencyKey;
+            this.enqueuedAt = enqueuedAt;
+            this.attempts = attempts;
+        }
+    }
+
+    public static StatusOutbox get(Context context) {
+        if (instance == null) {
+            synchronized (StatusOutbox.class) {
+                if (instance == null) instance = new StatusOutbox(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
+    private final Context appContext;
+
+    private StatusOutbox(Context context) {
+        super(context, DB_NAME, null, DB_VERSION);
+        appContext = context;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COL_LOG_ID + " INTEGER PRIMARY KEY, "
+                + COL_STATUS + " TEXT NOT NULL, "
+                + COL_KEY + " TEXT NOT NULL, "
+                + COL_ENQUEUED_AT + " INTEGER NOT NULL, "
+                + COL_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Pending updates must survive upgrades; add migrations here as the schema evolves
+    }
+
+    /** Record the latest status for a dose, replacing any undelivered one, and schedule delivery */
+    public String enqueue(int logId, String takenStatus) {
+        String key = UUID.randomUUID().toString();
+        ContentValues values = new ContentValues();
+        values.put(COL_LOG_ID, logId);
+        values.put(COL_STATUS, takenStatus);
+        values.put(COL_KEY, key);
+        values.put(COL_ENQUEUED_AT, System.currentTimeMillis());
+        values.put(COL_ATTEMPTS, 0);
+        getWritableDatabase().insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        count();
+
+        scheduleDelivery();
+        Log.d(TAG, "Queued log #" + logId + " → " + takenStatus + " (depth " + depth.get() + ")");
+        return key;
+    }
+
+    /** Queue the same status for several doses in one transaction and one scheduling call */
+    public void enqueueAll(List<Integer> logIds, String takenStatus) {
+        SQLiteDatabase db = getWritableDatabase();
+        long now = System.currentTimeMillis();
+        db.beginTransaction();
+        try {
+            for (int logId : logIds) {
+                ContentValues values = new ContentValues();
+                values.put(COL_LOG_ID, logId);
+                values.put(COL_STATUS, takenStatus);
+                values.put(COL_KEY, UUID.randomUUID().toString());
+                values.put(COL_ENQUEUED_AT, now);
+                values.put(COL_ATTEMPTS, 0);
+                db.insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        count();
+
+        scheduleDelivery();
+        Log.d(TAG, "Queued " + logIds.size() + " doses → " + takenStatus + " (depth " + depth.get() + ")");
+    }
+
+    /**
+     * Adopt an update carried by a request scheduled before the outbox existed. Ignored
+     * when the dose already has a queued row, which is newer; schedules nothing, since
+     * the caller is the delivery worker. True when the row was added.
+     */
+    public boolean adoptLegacy(int logId, String takenStatus) {
+        ContentValues values = new ContentValues();
+        values.put(COL_LOG_ID, logId);
+        values.put(COL_STATUS, takenStatus);
+        values.put(COL_KEY, UUID.randomUUID().toString());
+        values.put(COL_ENQUEUED_AT, System.currentTimeMillis());
+        values.put(COL_ATTEMPTS, 0);
+        long row = getWritableDatabase().insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+        count();
+        return row != -1;
+    }
+
+    /** Untried / least-tried updates first, oldest first within that */
+    public List<Entry> pending(int limit) {
+        List<Entry> entries = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE,
+                new String[]{COL_LOG_ID, COL_STATUS, COL_KEY, COL_ENQUEUED_AT, COL_ATTEMPTS},
+                null, null, null, null, COL_ATTEMPTS + " ASC, " + COL_ENQUEUED_AT + " ASC",
+                String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                entries.add(new Entry(cursor.getInt(0), cursor.getString(1), cursor.getString(2),
+                        cursor.getLong(3), cursor.getInt(4)));
+            }
+        }
+        return entries;
+    }
+
+    /** Remove a delivered row unless a newer status replaced it while it was in flight */
+    public void markDelivered(Entry entry) {
+        getWritableDatabase().delete(TABLE, COL_LOG_ID + "=? AND " + COL_KEY + "=?",
+                new String[]{String.valueOf(entry.logId), entry.idempotencyKey});
+        count();
+    }
+
+    /** Drop any queued update for a dose; true when one was queued */
+    public boolean discard(int logId) {
+        int removed = getWritableDatabase().delete(TABLE, COL_LOG_ID + "=?", new String[]{String.valueOf(logId)});
+        count();
+        return removed > 0;
+    }
+
+    public void markFailed(Entry entry) {
+        getWritableDatabase().execSQL("UPDATE " + TABLE + " SET " + COL_ATTEMPTS + " = " + COL_ATTEMPTS
+                + " + 1 WHERE " + COL_LOG_ID + "=? AND " + COL_KEY + "=?",
+                new Object[]{entry.logId, entry.idempotencyKey});
+    }
+
+    /** Current queue depth; also refreshes {@link #getDepth()} */
+    public long count() {
+        long count = DatabaseUtils.queryNumEntries(getReadableDatabase(), TABLE);
+        depth.set(count);
+        return count;
+    }
+
+    /** Last observed queue depth; -1 until the outbox has been touched in this process */
+    public static long getDepth() {
+        return depth.get();
+    }
+
+    /** Unique chain: a request added while the worker runs is appended, never dropped */
+    public void scheduleDelivery() {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(MedicineStatusWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL,
+                        ApiConstants.OUTBOX_BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .build();
+
+        WorkManager.getInstance(appContext)
+                .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+}
@@ -14,6 +14,19 @@ public class ApiConstants {
 
     private static final String DEVICE_SERVER_IP = "10.144.99.26"; // Production server
 
+    // Status-update outbox (see StatusOutbox / MedicineStatusWorker)
+    public static final long OUTBOX_BACKOFF_SECONDS = 15;
+    public static final int OUTBOX_BATCH_SIZE = 20;
+
+    // Local dose reminders (see DoseScheduler)
+    public static final int DOSE_SCHEDULE_HORIZON_HOURS = 48;
+    public static final int DOSE_SCHEDULE_MAX_ALARMS = 64;
+    // Naming a generic push reminder once its log is synced (see DoseDetailsWorker)
+    public static final long DOSE_DETAILS_BACKOFF_SECONDS = 15;
+
+    // Post-login prefetch of the first dashboard's data (see LoginPrefetcher)
+    public static final boolean LOGIN_PREFETCH_ENABLED = true;
+
     // Dynamic host selection based on environment flag
     public static String getBaseHost() {
         return USE_LOCALHOST ? LOCALHOST_IP : DEVICE_SERVER_IP;
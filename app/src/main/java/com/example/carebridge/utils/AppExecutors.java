@@ -0,0 +1,43 @@
+package com.example.carebridge.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executors: a small background pool for parsing / post-processing
+ * and a main-thread executor for delivering finished results to the UI
+ */
+public final class AppExecutors {
+
+    private static final int BACKGROUND_THREADS = 2;
+
+    private static final ExecutorService BACKGROUND = Executors.newFixedThreadPool(BACKGROUND_THREADS, new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "carebridge-bg-" + count.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    });
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static final Executor MAIN = MAIN_HANDLER::post;
+
+    private AppExecutors() { }
+
+    public static ExecutorService background() {
+        return BACKGROUND;
+    }
+
+    public static Executor mainThread() {
+        return MAIN;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.carebridge.utils;
+
+import android.content.Context;
+
+import com.example.carebridge.service.DoseDetails;
+import com.example.carebridge.service.DoseScheduler;
+import com.example.carebridge.shared.network.SharedHttpClient;
+import com.example.carebridge.shared.utils.EntityCache;
+import com.example.carebridge.shared.utils.LocalStore;
+
+/**
+ * Clears every piece of locally persisted user data when the session ends,
+ * so the next account never renders the previous user's records.
+ */
+public final class SessionCleanup {
+
+    private SessionCleanup() { }
+
+    public static void clearLocalData(Context context) {
+        EntityCache.invalidateEverything();
+        DoseDetails.invalidate();
+
+        Context appContext = context.getApplicationContext();
+        LocalStore store = LocalStore.get(appContext);
+        AppExecutors.background().execute(() -> {
+            // Armed alarms are tracked in the store, so cancel them before wiping it
+            DoseScheduler.cancelAll(appContext);
+            store.clear();
+            // Cached responses hold the same medical records
+            SharedHttpClient.evictCache();
+        });
+    }
+}
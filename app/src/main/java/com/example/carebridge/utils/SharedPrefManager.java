@@ -1,61 +1,40 @@
 package com.example.carebridge.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
 import com.example.carebridge.shared.model.User;
-import com.google.gson.Gson;
+import com.example.carebridge.shared.utils.SessionStore;
 
+/**
+ * Session accessors backed by the process-wide {@link SessionStore}; reads come from
+ * memory and writes are persisted in the background
+ */
 public class SharedPrefManager {
 
-    private static final String PREF_NAME = "CareBridgePref";
-    private static final String KEY_IS_LOGGED_IN = "isLoggedIn";
-    private static final String KEY_USER = "user";
-    private static final String KEY_CASE_ID = "case_id";
-    private static final String KEY_REFERENCE_ID = "reference_id";
-
-    private final SharedPreferences sharedPreferences;
-    private final SharedPreferences.Editor editor;
-    private final Gson gson;
+    private final SessionStore store;
 
     public SharedPrefManager(Context context) {
-        sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        editor = sharedPreferences.edit();
-        gson = new Gson();
+        store = SessionStore.get(context);
     }
 
     // Save user session
     public void saveUserSession(User user) {
-        editor.putString(KEY_USER, gson.toJson(user));
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-
-        // ✅ FIXED: Changed from getCase_id() to getCaseId()
-        if (user.getPatientInfo() != null && user.getPatientInfo().getCaseId() != null) {
-            editor.putString(KEY_CASE_ID, user.getPatientInfo().getCaseId());
-        }
-
-        if (user.getReferenceId() != null && !user.getReferenceId().isEmpty()) {
-            editor.putString(KEY_REFERENCE_ID, user.getReferenceId());
-        }
-
-        editor.apply();
+        store.saveUserSession(user);
     }
 
     // Login state
     public boolean isLoggedIn() {
-        return sharedPreferences.getBoolean(KEY_IS_LOGGED_IN, false);
+        return store.isLoggedIn();
     }
 
-    // Return logged in user
+    // Return logged in user (decoded once per process)
     public User getCurrentUser() {
-        String json = sharedPreferences.getString(KEY_USER, null);
-        return json != null ? gson.fromJson(json, User.class) : null;
+        return store.getCurrentUser();
     }
 
     // Clear full session
     public void clearSession() {
-        editor.clear();
-        editor.apply();
+        store.clear();
     }
 
     public void logout() {
@@ -64,31 +43,35 @@ public class SharedPrefManager {
 
     // CaseId functions
     public void saveCaseId(String caseId) {
-        editor.putString(KEY_CASE_ID, caseId);
-        editor.apply();
+        store.saveCaseId(caseId);
     }
 
     public String getCaseId() {
-        return sharedPreferences.getString(KEY_CASE_ID, "");
+        return store.getCaseId();
     }
 
     public void clearCaseId() {
-        editor.remove(KEY_CASE_ID);
-        editor.apply();
+        store.clearCaseId();
     }
 
     // Reference ID functions
     public void saveReferenceId(String refId) {
-        editor.putString(KEY_REFERENCE_ID, refId);
-        editor.apply();
+        store.saveReferenceId(refId);
     }
 
     public String getReferenceId() {
-        return sharedPreferences.getString(KEY_REFERENCE_ID, "");
+        return store.getReferenceId();
     }
 
     public void clearReferenceId() {
-        editor.remove(KEY_REFERENCE_ID);
-        editor.apply();
+        store.clearReferenceId();
+    }
+
+    public void addListener(SessionStore.SessionListener listener) {
+        store.addListener(listener);
+    }
+
+    public void removeListener(SessionStore.SessionListener listener) {
+        store.removeListener(listener);
     }
 }
@@ -11,15 +11,14 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.carebridge.R;
 import com.example.carebridge.shared.controller.MealController;
-import com.example.carebridge.shared.utils.SharedPrefManager;
+import com.example.carebridge.shared.utils.DateFormats;
+import com.example.carebridge.utils.SharedPrefManager;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.textfield.TextInputEditText;
 
 import org.json.JSONObject;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Locale;
 
 public class AddMealActivity extends AppCompatActivity {
 
@@ -51,8 +50,8 @@ public class AddMealActivity extends AppCompatActivity {
 
         if (patientName != null) tvPatientName.setText(patientName);
 
-        formattedDate = new SimpleDateFormat(getString(R.string.date_format_storage), Locale.getDefault()).format(new Date());
-        String displayDate = new SimpleDateFormat(getString(R.string.date_format_display), Locale.getDefault()).format(new Date());
+        formattedDate = DateFormats.format(getString(R.string.date_format_storage), new Date());
+        String displayDate = DateFormats.format(getString(R.string.date_format_display), new Date());
         tvMealDate.setText(displayDate);
 
         setupClickListeners(patientId);
@@ -19,6 +19,8 @@ import com.example.carebridge.adapters.NearbyPlacesAdapter;
 import com.example.carebridge.adapters.NearbyPlacesBlueAdapter;
 import com.example.carebridge.model.NearbyPlace;
 import com.example.carebridge.model.NearbySearchResponse;
+import com.example.carebridge.service.ApiClient;
+import com.example.carebridge.shared.network.CallScope;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.maps.CameraUpdateFactory;
@@ -31,13 +33,9 @@ import com.google.android.gms.maps.model.MarkerOptions;
 import java.util.ArrayList;
 import java.util.List;
 
-import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 public class FullMapActivityBlue extends AppCompatActivity {
 
@@ -54,6 +52,7 @@ public class FullMapActivityBlue extends AppCompatActivity {
     private NearbyPlacesBlueAdapter adapter;
 
     private NearbyPlacesApi api;
+    private final CallScope callScope = CallScope.bindTo(this);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -108,20 +107,7 @@ public class FullMapActivityBlue extends AppCompatActivity {
     }
 
     private void setupRetrofit() {
-        HttpLoggingInterceptor log = new HttpLoggingInterceptor();
-        log.setLevel(HttpLoggingInterceptor.Level.BODY);
-
-        OkHttpClient client = new OkHttpClient.Builder()
-                .addInterceptor(log)
-                .build();
-
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl("https://maps.googleapis.com/")
-                .client(client)
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
-
-        api = retrofit.create(NearbyPlacesApi.class);
+        api = ApiClient.getPlacesClient().create(NearbyPlacesApi.class);
     }
 
     private void enableUserLocation() {
@@ -157,9 +143,11 @@ public class FullMapActivityBlue extends AppCompatActivity {
                 getString(R.string.google_maps_key)
         );
 
-        call.enqueue(new Callback<NearbySearchResponse>() {
+        callScope.track(call).enqueue(new Callback<NearbySearchResponse>() {
             @Override
             public void onResponse(Call<NearbySearchResponse> call, Response<NearbySearchResponse> response) {
+                callScope.release(call);
+                if (isFinishing() || isDestroyed()) return;
 
                 if (!response.isSuccessful()) return;
 
@@ -210,6 +198,8 @@ public class FullMapActivityBlue extends AppCompatActivity {
 
             @Override
             public void onFailure(Call<NearbySearchResponse> call, Throwable t) {
+                callScope.release(call);
+                if (call.isCanceled()) return;
                 Log.e(TAG, "API Failure", t);
             }
         });
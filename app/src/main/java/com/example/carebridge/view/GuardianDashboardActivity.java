@@ -22,6 +22,7 @@ import com.example.carebridge.R;
 import com.example.carebridge.adapters.GuardianDashboardPagerAdapter;
 import com.example.carebridge.shared.controller.AuthController;
 import com.example.carebridge.shared.model.User;
+import com.example.carebridge.utils.SessionCleanup;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.button.MaterialButton;
 
@@ -140,6 +141,7 @@ public class GuardianDashboardActivity extends AppCompatActivity {
         btnLogout.setOnClickListener(v -> {
             dialog.dismiss();
             authController.logout(false);
+            SessionCleanup.clearLocalData(this);
             Intent intent = new Intent(this, LoginActivity.class);
             intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
             startActivity(intent);
@@ -156,15 +156,15 @@ public class LoginActivity extends AppCompatActivity {
 
     /** Handle login success: update mobile FCM token and redirect */
     private void handleSuccessfulLogin(User user) {
-        // Update only mobile FCM token
+        // The login prefetch stage already ran in AuthController; the token update needs no wait
         FirebaseMessaging.getInstance().getToken()
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful() && task.getResult() != null) {
                         authController.sendFcmTokenToServer(user.getId(), task.getResult(), false);
                     }
-                    // Redirect to dashboard after token update
-                    redirectToDashboard(user);
                 });
+
+        if (!isDestroyed()) redirectToDashboard(user);
     }
 
     private void redirectToDashboard(User user) {
@@ -21,6 +21,7 @@ import com.example.carebridge.R;
 import com.example.carebridge.adapters.PatientDashboardPagerAdapter;
 import com.example.carebridge.shared.controller.AuthController;
 import com.example.carebridge.shared.model.User;
+import com.example.carebridge.utils.SessionCleanup;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.button.MaterialButton;
 
@@ -130,6 +131,7 @@ public class PatientDashboardActivity extends AppCompatActivity {
         btnLogout.setOnClickListener(v -> {
             dialog.dismiss();
             authController.logout(false);
+            SessionCleanup.clearLocalData(this);
             Intent intent = new Intent(this, LoginActivity.class);
             intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
             startActivity(intent);
@@ -5,32 +5,30 @@ import android.os.Bundle;
 import android.os.Handler;
 import androidx.appcompat.app.AppCompatActivity;
 import com.example.carebridge.R;
-import com.example.carebridge.shared.utils.SharedPrefManager;
+import com.example.carebridge.shared.model.User;
+import com.example.carebridge.shared.utils.SessionStore;
 
 /** Splash screen activity showing app branding while checking user authentication status */
 public class SplashActivity extends AppCompatActivity {
 
     private static final int SPLASH_DELAY = 3000; // 3-second display time
-    private SharedPrefManager sharedPrefManager;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_splash);
 
-        sharedPrefManager = new SharedPrefManager(this);
-
-        // Delay splash screen before checking authentication status
-        new Handler().postDelayed(() -> {
-            checkUserSession();
-        }, SPLASH_DELAY);
+        // Delay splash screen before checking authentication status; the session is
+        // loaded and decoded off the main thread in the meantime
+        new Handler().postDelayed(() -> SessionStore.whenReady(this, this::checkUserSession), SPLASH_DELAY);
     }
 
     /** Check if user has an active session and redirect accordingly */
-    private void checkUserSession() {
-        if (sharedPrefManager.isLoggedIn()) {
+    private void checkUserSession(SessionStore session) {
+        if (isFinishing()) return;
+        if (session.isLoggedIn()) {
             // User has active session, redirect to appropriate dashboard
-            redirectToDashboard();
+            redirectToDashboard(session.getCurrentUser());
         } else {
             // No active session, redirect to login screen
             startActivity(new Intent(SplashActivity.this, LoginActivity.class));
@@ -39,9 +37,8 @@ public class SplashActivity extends AppCompatActivity {
     }
 
     /** Redirect to patient or guardian dashboard based on user role */
-    private void redirectToDashboard() {
+    private void redirectToDashboard(User user) {
         Intent intent;
-        com.example.carebridge.shared.model.User user = sharedPrefManager.getCurrentUser();
 
         // Determine dashboard based on user role
         if (user != null && user.getRole().equals(getString(R.string.patient_role))) {
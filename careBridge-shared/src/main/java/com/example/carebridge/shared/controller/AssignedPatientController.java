@@ -1,20 +1,22 @@
 package com.example.carebridge.shared.controller;
 
-
-import android.os.Handler;
-import android.os.Looper;
+import android.content.Context;
 import android.util.Log;
 
 import com.example.carebridge.shared.model.AssignedPatientInfo;
+import com.example.carebridge.shared.network.ControllerCall;
+import com.example.carebridge.shared.network.SharedHttpClient;
 import com.example.carebridge.shared.utils.ApiConstants;
-import com.google.gson.Gson;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.example.carebridge.shared.utils.LocalStore;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import okhttp3.Call;
@@ -22,25 +24,31 @@ import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 public class AssignedPatientController {
 
     private static final String TAG = "AssignedPatientController";
+    private final LocalStore store;
     private final OkHttpClient client;
 
-    public AssignedPatientController() {
-        this.client = new OkHttpClient();
+    public AssignedPatientController(Context context) {
+        this.store = LocalStore.get(context);
+        this.client = SharedHttpClient.get();
     }
 
     public interface AssignedPatientsCallback {
         void onSuccess(List<AssignedPatientInfo> patients);
         void onFailure(String message);
+
+        /** The refresh matched the stored copy; callers that rendered from the store can skip it */
+        default void onUnchanged(List<AssignedPatientInfo> patients) { onSuccess(patients); }
     }
 
-    public void getAssignedPatients(String guardianId, AssignedPatientsCallback callback) {
+    public ControllerCall getAssignedPatients(String guardianId, AssignedPatientsCallback callback) {
         if (guardianId == null || guardianId.isEmpty()) {
             callback.onFailure("Invalid guardian ID for patients");
-            return;
+            return ControllerCall.completed();
         }
 
         String url = ApiConstants.getAssignedPatientsUrl(guardianId);
@@ -48,41 +56,56 @@ public class AssignedPatientController {
 
         Request request = new Request.Builder().url(url).get().build();
 
-        client.newCall(request).enqueue(new Callback() {
-            final Handler mainHandler = new Handler(Looper.getMainLooper());
-
+        Call call = client.newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                mainHandler.post(() -> callback.onFailure("Network error: " + e.getMessage()));
+                handle.deliver(() -> callback.onFailure("Network error: " + e.getMessage()));
             }
 
             @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String resString = response.body() != null ? response.body().string() : "";
-                Log.d(TAG, "[RESPONSE] " + resString);
-
-                mainHandler.post(() -> {
-                    try {
-                        JSONArray dataArray = new JSONArray(resString);
+            public void onResponse(Call call, Response response) {
+                // Decode element by element straight from the response stream on this
+                // OkHttp thread; only the finished list is posted to the main thread
+                try (ResponseBody body = response.body(); JsonReader reader = body != null ? JsonReaders.of(body) : null) {
+                    if (reader == null) throw new IOException("Empty response body");
+
+                    if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        TypeAdapter<AssignedPatientInfo> adapter = AssignedPatientInfo.ADAPTER;
                         List<AssignedPatientInfo> patients = new ArrayList<>();
-                        for (int i = 0; i < dataArray.length(); i++) {
-                            JSONObject obj = dataArray.getJSONObject(i);
-                            AssignedPatientInfo patient = new Gson().fromJson(obj.toString(), AssignedPatientInfo.class);
-                            patients.add(patient);
-                        }
-                        callback.onSuccess(patients);
-                    } catch (JSONException e) {
-                        // Handle non-array response, e.g. {"message":"No patients are currently assigned ..."}
-                        try {
-                            JSONObject errorObj = new JSONObject(resString);
-                            String message = errorObj.optString("message", "Invalid server response");
-                            callback.onFailure(message);
-                        } catch (Exception ex) {
-                            callback.onFailure("Invalid server response");
-                        }
+                        reader.beginArray();
+                        while (reader.hasNext()) patients.add(adapter.read(reader));
+                        reader.endArray();
+
+                        List<AssignedPatientInfo> result = Collections.unmodifiableList(patients);
+                        boolean changed = store.writeThrough(LocalStore.KIND_ASSIGNED_PATIENTS, guardianId, result);
+                        handle.deliver(() -> {
+                            if (changed) callback.onSuccess(result);
+                            else callback.onUnchanged(result);
+                        });
+                        return;
+                    }
+
+                    // Handle non-array response, e.g. {"message":"No patients are currently assigned ..."}
+                    String message = null;
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName().equals("message")) message = JsonReaders.nextString(reader);
+                        else reader.skipValue();
                     }
-                });
+                    reader.endObject();
+
+                    String failure = message != null ? message : "Invalid server response";
+                    handle.deliver(() -> callback.onFailure(failure));
+                } catch (IOException | IllegalStateException | JsonParseException e) {
+                    handle.deliver(() -> callback.onFailure("Invalid server response"));
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Unexpected parsing error", e);
+                    handle.deliver(() -> callback.onFailure("Invalid server response"));
+                }
             }
         });
+        return handle;
     }
 }
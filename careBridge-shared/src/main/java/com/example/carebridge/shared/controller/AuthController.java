@@ -7,9 +7,13 @@ import android.util.Log;
 
 import com.example.carebridge.shared.model.User;
 import com.example.carebridge.shared.model.PatientInfo;
+import com.example.carebridge.shared.network.ControllerCall;
+import com.example.carebridge.shared.network.SharedHttpClient;
 import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.JsonReaders;
 import com.example.carebridge.shared.utils.SharedPrefManager;
-import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -20,12 +24,16 @@ import okhttp3.*;
 
 public class AuthController {
     private static final String TAG = "AuthController";
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private static volatile PrefetchStage prefetchStage;
+
     private final SharedPrefManager sharedPrefManager;
     private final OkHttpClient client;
 
     public AuthController(Context context) {
         this.sharedPrefManager = new SharedPrefManager(context);
-        this.client = new OkHttpClient();
+        this.client = SharedHttpClient.get();
     }
 
     public interface LoginCallback {
@@ -33,14 +41,30 @@ public class AuthController {
         void onFailure(String message);
     }
 
-    public void login(String username, String password, LoginCallback callback) {
+    /**
+     * Runs on the main thread once a login is stored, before {@link LoginCallback#onSuccess};
+     * e.g. fetches what the first dashboard shows. Calls {@code onDone} on the main thread.
+     */
+    public interface PrefetchStage {
+        void prefetch(User user, Runnable onDone);
+    }
+
+    /**
+     * Process-wide hook; login success waits for the stage at most
+     * {@link ApiConstants#LOGIN_PREFETCH_MAX_WAIT_MS}, the rest finishes in the background
+     */
+    public static void setPrefetchStage(PrefetchStage stage) {
+        prefetchStage = stage;
+    }
+
+    public ControllerCall login(String username, String password, LoginCallback callback) {
         JSONObject json = new JSONObject();
         try {
             json.put("username", username);
             json.put("password", password);
         } catch (JSONException e) {
             callback.onFailure("Error building JSON");
-            return;
+            return ControllerCall.completed();
         }
 
         RequestBody body = RequestBody.create(
@@ -53,57 +77,132 @@ public class AuthController {
                 .post(body)
                 .build();
 
-        client.newCall(request).enqueue(new Callback() {
-            final Handler handler = new Handler(Looper.getMainLooper());
-
+        Call call = client.newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                handler.post(() -> callback.onFailure("Network error"));
+                handle.deliver(() -> callback.onFailure("Network error"));
             }
 
             @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String responseStr = response.body().string();
-                handler.post(() -> {
-                    try {
-                        JSONObject res = new JSONObject(responseStr);
-                        if (!"success".equalsIgnoreCase(res.optString("status"))) {
-                            callback.onFailure(res.optString("message", "Login failed"));
-                            return;
-                        }
-
-                        JSONObject userJson = res.getJSONObject("user");
-                        User user = new User();
-                        user.setId(userJson.getInt("user_id"));
-                        user.setUsername(userJson.getString("username"));
-                        user.setRole(userJson.getString("role"));
-                        user.setReferenceId(userJson.optString("reference_id"));
-                        user.setCreatedAt(userJson.optString("created_at"));
-
-                        JSONObject linked = userJson.optJSONObject("linked_data");
-                        String caseIdToStore;
-
-                        if (linked != null && linked.length() > 0) {
-                            PatientInfo pi = new Gson().fromJson(linked.toString(), PatientInfo.class);
-                            user.setPatientInfo(pi);
-                            caseIdToStore = pi.getCaseId() != null ? pi.getCaseId() : user.getReferenceId();
+            public void onResponse(Call call, Response response) {
+                // Decode straight from the response stream and store the session on this
+                // OkHttp thread; only the result is posted
+                try (ResponseBody responseBody = response.body();
+                     JsonReader reader = responseBody != null ? JsonReaders.of(responseBody) : null) {
+                    if (reader == null) throw new IOException("Empty response body");
+
+                    String status = null;
+                    String message = null;
+                    User user = null;
+
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        if (name.equals("status")) {
+                            status = JsonReaders.nextString(reader);
+                        } else if (name.equals("message")) {
+                            message = JsonReaders.nextString(reader);
+                        } else if (name.equals("user") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                            user = readUser(reader);
                         } else {
-                            user.setPatientInfo(new PatientInfo());
-                            caseIdToStore = user.getReferenceId();
+                            reader.skipValue();
                         }
+                    }
+                    reader.endObject();
 
-                        sharedPrefManager.saveUserSession(user);
-                        sharedPrefManager.saveCaseId(caseIdToStore);
-                        sharedPrefManager.saveReferenceId(user.getReferenceId());
+                    if (!"success".equalsIgnoreCase(status)) {
+                        String failure = message != null ? message : "Login failed";
+                        handle.deliver(() -> callback.onFailure(failure));
+                        return;
+                    }
+                    if (user == null) throw new IOException("No user in login response");
 
-                        callback.onSuccess(user);
+                    PatientInfo pi = user.getPatientInfo();
+                    String caseIdToStore = pi.getCaseId() != null ? pi.getCaseId() : user.getReferenceId();
 
-                    } catch (Exception e) {
-                        callback.onFailure("Invalid response");
-                    }
-                });
+                    sharedPrefManager.saveLoginSession(user, caseIdToStore, user.getReferenceId());
+
+                    User loggedIn = user;
+                    handle.deliver(() -> runPrefetchStage(handle, loggedIn, () -> callback.onSuccess(loggedIn)));
+
+                } catch (Exception e) {
+                    handle.deliver(() -> callback.onFailure("Invalid response"));
+                }
             }
         });
+        return handle;
+    }
+
+    /** Main thread: start the prefetch stage and proceed once it is done or the wait runs out */
+    private static void runPrefetchStage(ControllerCall handle, User user, Runnable proceed) {
+        PrefetchStage stage = prefetchStage;
+        if (stage == null) {
+            proceed.run();
+            return;
+        }
+
+        Runnable proceedOnce = new Runnable() {
+            private boolean proceeded;
+
+            @Override
+            public void run() {
+                if (proceeded) return;
+                proceeded = true;
+                mainHandler.removeCallbacks(this);
+                if (!handle.isCanceled()) proceed.run();
+            }
+        };
+        mainHandler.postDelayed(proceedOnce, ApiConstants.LOGIN_PREFETCH_MAX_WAIT_MS);
+        stage.prefetch(user, proceedOnce);
+    }
+
+    /** The "user" object of a login response; linked_data decodes straight into PatientInfo */
+    private static User readUser(JsonReader reader) throws IOException {
+        User user = new User();
+        PatientInfo patientInfo = null;
+        boolean hasId = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "user_id":
+                    user.setId(JsonReaders.nextInt(reader));
+                    hasId = true;
+                    break;
+                case "username":
+                    user.setUsername(JsonReaders.nextString(reader));
+                    break;
+                case "role":
+                    user.setRole(JsonReaders.nextString(reader));
+                    break;
+                case "reference_id":
+                    user.setReferenceId(JsonReaders.nextString(reader));
+                    break;
+                case "created_at":
+                    user.setCreatedAt(JsonReaders.nextString(reader));
+                    break;
+                case "linked_data":
+                    // An empty linked_data may arrive as [] from PHP
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        patientInfo = PatientInfo.ADAPTER.read(reader);
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (!hasId) throw new IOException("Login response without user_id");
+        // optString semantics: absent ids were stored as ""
+        if (user.getReferenceId() == null) user.setReferenceId("");
+        if (user.getCreatedAt() == null) user.setCreatedAt("");
+        user.setPatientInfo(patientInfo != null ? patientInfo : new PatientInfo());
+        return user;
     }
 
     /** Update FCM token on server (mobile or Wear) */
@@ -164,8 +263,7 @@ public class AuthController {
         User user = getCurrentUser();
         if (user != null) deleteFcmTokenFromServer(user, isWearDevice);
 
+        // Clearing the session drops the case and reference ids with it: one write
         sharedPrefManager.clearSession();
-        sharedPrefManager.clearCaseId();
-        sharedPrefManager.clearReferenceId();
     }
 }
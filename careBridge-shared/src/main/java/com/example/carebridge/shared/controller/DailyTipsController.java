@@ -1,17 +1,19 @@
 package com.example.carebridge.shared.controller;
 
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 
 import com.example.carebridge.shared.model.DailyTipResponse;
 import com.example.carebridge.shared.model.Tip;
 import com.example.carebridge.shared.model.Video;
+import com.example.carebridge.shared.network.ControllerCall;
+import com.example.carebridge.shared.network.SharedHttpClient;
 import com.example.carebridge.shared.utils.ApiConstants;
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 
 import okhttp3.Call;
@@ -19,12 +21,12 @@ import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 public class DailyTipsController {
 
     private static final String TAG = "DailyTipsController";
-    private final OkHttpClient client = new OkHttpClient();
-    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final OkHttpClient client = SharedHttpClient.get();
 
     public interface DailyTipCallback {
         void onTips(List<Tip> tips);
@@ -32,50 +34,55 @@ public class DailyTipsController {
         void onFailure(String error);
     }
 
-    public void fetchDailyTips(DailyTipCallback callback) {
+    public ControllerCall fetchDailyTips(DailyTipCallback callback) {
         String url = ApiConstants.getDailyTipsUrl();
         Log.d(TAG, "Starting fetchDailyTips. API URL: " + url);
 
         Request request = new Request.Builder().url(url).build();
-        client.newCall(request).enqueue(new Callback() {
+        Call call = client.newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
 
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "Network call failed: " + e.getMessage(), e);
-                mainHandler.post(() -> callback.onFailure("Network error: " + e.getMessage()));
+                handle.deliver(() -> callback.onFailure("Network error: " + e.getMessage()));
             }
 
             @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String res = response.body() != null ? response.body().string() : "";
-                Log.d(TAG, "API Response received. Success=" + response.isSuccessful() + " Body=" + res);
-
-                if (!response.isSuccessful()) {
-                    Log.e(TAG, "Server returned error code: " + response.code());
-                    mainHandler.post(() -> callback.onFailure("Server error: " + response.code()));
-                    return;
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    Log.d(TAG, "API Response received. Success=" + response.isSuccessful());
+
+                    if (!response.isSuccessful() || body == null) {
+                        Log.e(TAG, "Server returned error code: " + response.code());
+                        handle.deliver(() -> callback.onFailure("Server error: " + response.code()));
+                        return;
+                    }
+
+                    // Decode on this OkHttp thread; only the result reaches the main thread
+                    parseResponse(body, handle, callback);
                 }
-
-                mainHandler.post(() -> parseResponse(res, callback));
             }
         });
+        return handle;
     }
 
-    private void parseResponse(String json, DailyTipCallback callback) {
-        Log.d(TAG, "Parsing response JSON: " + json);
-        try {
-            Gson gson = new Gson();
-            DailyTipResponse dailyTipResponse = gson.fromJson(json, DailyTipResponse.class);
+    /** Runs on the OkHttp callback thread; posts the tips (unmodifiable) or the video */
+    private void parseResponse(ResponseBody body, ControllerCall handle, DailyTipCallback callback) {
+        try (JsonReader reader = JsonReaders.of(body)) {
+            // Straight from the response stream; only "data" is kept as a (small) tree
+            DailyTipResponse dailyTipResponse = DailyTipResponse.ADAPTER.read(reader);
 
             if (dailyTipResponse == null) {
                 Log.e(TAG, "Parsed response is null");
-                callback.onFailure("Invalid response (null)");
+                handle.deliver(() -> callback.onFailure("Invalid response (null)"));
                 return;
             }
 
             if (!dailyTipResponse.isSuccess()) {
                 Log.e(TAG, "Response success=false");
-                callback.onFailure("Invalid response (success=false)");
+                handle.deliver(() -> callback.onFailure("Invalid response (success=false)"));
                 return;
             }
 
@@ -83,24 +90,25 @@ public class DailyTipsController {
             Log.d(TAG, "Response type: " + type);
 
             if ("tip".equalsIgnoreCase(type)) {
-                List<Tip> tips = dailyTipResponse.getTipList();
+                List<Tip> parsed = dailyTipResponse.getTipList();
+                List<Tip> tips = parsed != null ? Collections.unmodifiableList(parsed) : null;
                 Log.d(TAG, "Tips count: " + (tips != null ? tips.size() : 0));
-                callback.onTips(tips);
+                handle.deliver(() -> callback.onTips(tips));
             } else if ("video".equalsIgnoreCase(type)) {
                 Video video = dailyTipResponse.getVideo();
                 Log.d(TAG, "Video received: " + (video != null ? video.getTitle() : "null"));
-                callback.onVideo(video);
+                handle.deliver(() -> callback.onVideo(video));
             } else {
                 Log.e(TAG, "Unknown type received: " + type);
-                callback.onFailure("Unknown type: " + type);
+                handle.deliver(() -> callback.onFailure("Unknown type: " + type));
             }
 
-        } catch (JsonSyntaxException e) {
+        } catch (IOException | IllegalStateException | JsonParseException e) {
             Log.e(TAG, "JSON parsing error", e);
-            callback.onFailure("JSON error: " + e.getMessage());
+            handle.deliver(() -> callback.onFailure("JSON error: " + e.getMessage()));
         } catch (Exception e) {
             Log.e(TAG, "Unexpected error while parsing response", e);
-            callback.onFailure("Unexpected error: " + e.getMessage());
+            handle.deliver(() -> callback.onFailure("Unexpected error: " + e.getMessage()));
         }
     }
 }
@@ -1,23 +1,22 @@
 package com.example.carebridge.shared.controller;
 
-
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 
 import com.example.carebridge.shared.model.GuardianInfo;
 import com.example.carebridge.shared.model.PatientInfo;
+import com.example.carebridge.shared.network.ControllerCall;
+import com.example.carebridge.shared.network.SharedHttpClient;
 import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.JsonReaders;
 import com.example.carebridge.shared.utils.SharedPrefManager;
-import com.google.gson.Gson;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import okhttp3.Call;
@@ -25,6 +24,7 @@ import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 public class GuardianController {
 
@@ -34,8 +34,8 @@ public class GuardianController {
     private final SharedPrefManager sharedPrefManager;
 
     public GuardianController(Context context) {
-        this.context = context;
-        this.client = new OkHttpClient();
+        this.context = context.getApplicationContext();
+        this.client = SharedHttpClient.get();
         this.sharedPrefManager = new SharedPrefManager(context);
         Log.d(TAG, "[INIT] GuardianController initialized");
     }
@@ -51,10 +51,10 @@ public class GuardianController {
     }
 
     // Fetch guardian by ID
-    public void getGuardianById(String guardianId, GuardianCallback callback) {
+    public ControllerCall getGuardianById(String guardianId, GuardianCallback callback) {
         if (guardianId == null || guardianId.isEmpty()) {
             callback.onFailure("Invalid guardian ID");
-            return;
+            return ControllerCall.completed();
         }
 
         String url = ApiConstants.getGuardianByIdUrl(guardianId);
@@ -62,54 +62,52 @@ public class GuardianController {
 
         Request request = new Request.Builder().url(url).get().build();
 
-        client.newCall(request).enqueue(new Callback() {
-            final Handler mainHandler = new Handler(Looper.getMainLooper());
-
+        Call call = client.newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "[NETWORK ERROR] " + e.getMessage());
-                mainHandler.post(() -> callback.onFailure("Network error: " + e.getMessage()));
+                handle.deliver(() -> callback.onFailure("Network error: " + e.getMessage()));
             }
 
             @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String resString = response.body() != null ? response.body().string() : "";
-                Log.d(TAG, "[API RESPONSE] " + resString);
-
-                mainHandler.post(() -> {
-                    try {
-                        GuardianInfo guardianInfo = new Gson().fromJson(resString, GuardianInfo.class);
-                        if (guardianInfo != null && guardianInfo.getGuardian_id() != null) {
-                            Log.d(TAG, "[DATA PARSED DIRECT] " + guardianInfo.toString());
-                            callback.onSuccess(guardianInfo);
-                        } else {
-                            callback.onFailure("No guardian data available");
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "[JSON ERROR] Invalid server response", e);
-                        callback.onFailure("Invalid server response");
+            public void onResponse(Call call, Response response) {
+                // Decode straight from the response stream on this OkHttp thread;
+                // only the result is posted to the main thread
+                try (ResponseBody body = response.body(); JsonReader reader = body != null ? JsonReaders.of(body) : null) {
+                    GuardianInfo guardianInfo = reader != null ? GuardianInfo.ADAPTER.read(reader) : null;
+                    if (guardianInfo != null && guardianInfo.getGuardian_id() != null) {
+                        Log.d(TAG, "[DATA PARSED DIRECT] " + guardianInfo.toString());
+                        handle.deliver(() -> callback.onSuccess(guardianInfo));
+                    } else {
+                        handle.deliver(() -> callback.onFailure("No guardian data available"));
                     }
-                });
+                } catch (Exception e) {
+                    Log.e(TAG, "[JSON ERROR] Invalid server response", e);
+                    handle.deliver(() -> callback.onFailure("Invalid server response"));
+                }
             }
         });
+        return handle;
     }
 
     // Fetch currently saved guardian
-    public void getCurrentGuardian(GuardianCallback callback) {
+    public ControllerCall getCurrentGuardian(GuardianCallback callback) {
         String savedRefId = sharedPrefManager.getReferenceId();
         Log.d(TAG, "[CURRENT GUARDIAN] Saved reference ID: " + savedRefId);
         if (savedRefId == null || savedRefId.isEmpty()) {
             callback.onFailure("No reference ID found");
-            return;
+            return ControllerCall.completed();
         }
-        getGuardianById(savedRefId, callback);
+        return getGuardianById(savedRefId, callback);
     }
 
     // Fetch patients assigned to guardian
-    public void getAssignedPatients(String guardianId, PatientsCallback callback) {
+    public ControllerCall getAssignedPatients(String guardianId, PatientsCallback callback) {
         if (guardianId == null || guardianId.isEmpty()) {
             callback.onFailure("Invalid guardian ID for patients");
-            return;
+            return ControllerCall.completed();
         }
 
         String url = ApiConstants.getAssignedPatientsUrl(guardianId);
@@ -117,31 +115,37 @@ public class GuardianController {
 
         Request request = new Request.Builder().url(url).get().build();
 
-        client.newCall(request).enqueue(new Callback() {
-            final Handler mainHandler = new Handler(Looper.getMainLooper());
-
+        Call call = client.newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                mainHandler.post(() -> callback.onFailure("Network error: " + e.getMessage()));
+                handle.deliver(() -> callback.onFailure("Network error: " + e.getMessage()));
             }
 
             @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String resString = response.body() != null ? response.body().string() : "";
-                mainHandler.post(() -> {
-                    try {
-                        JSONArray dataArray = new JSONArray(resString);
-                        List<PatientInfo> patients = new ArrayList<>();
-                        for (int i = 0; i < dataArray.length(); i++) {
-                            JSONObject obj = dataArray.getJSONObject(i);
-                            patients.add(new Gson().fromJson(obj.toString(), PatientInfo.class));
-                        }
-                        callback.onSuccess(patients);
-                    } catch (JSONException e) {
-                        callback.onFailure("Invalid server response");
-                    }
-                });
+            public void onResponse(Call call, Response response) {
+                // Decode element by element straight from the response stream on this
+                // OkHttp thread; only the finished list is posted to the main thread
+                try (ResponseBody body = response.body(); JsonReader reader = body != null ? JsonReaders.of(body) : null) {
+                    if (reader == null) throw new IOException("Empty response body");
+
+                    TypeAdapter<PatientInfo> adapter = PatientInfo.ADAPTER;
+                    List<PatientInfo> patients = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) patients.add(adapter.read(reader));
+                    reader.endArray();
+
+                    List<PatientInfo> result = Collections.unmodifiableList(patients);
+                    handle.deliver(() -> callback.onSuccess(result));
+                } catch (IOException | IllegalStateException | JsonParseException e) {
+                    handle.deliver(() -> callback.onFailure("Invalid server response"));
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Unexpected parsing error", e);
+                    handle.deliver(() -> callback.onFailure("Invalid server response"));
+                }
             }
         });
+        return handle;
     }
 }
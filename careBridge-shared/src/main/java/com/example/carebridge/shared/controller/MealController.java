@@ -1,9 +1,9 @@
 package com.example.carebridge.shared.controller;
 
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 
+import com.example.carebridge.shared.network.ControllerCall;
+import com.example.carebridge.shared.network.SharedHttpClient;
 import com.example.carebridge.shared.utils.ApiConstants;
 
 import org.json.JSONObject;
@@ -15,7 +15,7 @@ import okhttp3.*;
 public class MealController {
 
     private static final String TAG = "MealController";
-    private final OkHttpClient client = new OkHttpClient();
+    private final OkHttpClient client = SharedHttpClient.get();
 
     // --------------------------
     // Callbacks
@@ -33,7 +33,7 @@ public class MealController {
     // --------------------------
     // Add Meal Plan
     // --------------------------
-    public void addMealPlan(
+    public ControllerCall addMealPlan(
             String caseId,
             String guardianId,
             String mealDate,
@@ -60,7 +60,7 @@ public class MealController {
         } catch (Exception e) {
             Log.e(TAG, "JSON creation failed: " + e.getMessage(), e);
             callback.onFailure("Error creating JSON");
-            return;
+            return ControllerCall.completed();
         }
 
         RequestBody body = RequestBody.create(
@@ -76,47 +76,50 @@ public class MealController {
                 .post(body)
                 .build();
 
-        Handler handler = new Handler(Looper.getMainLooper());
-
-        client.newCall(request).enqueue(new Callback() {
+        Call call = client.newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "❌ Network request failed: " + e.getMessage(), e);
-                handler.post(() -> callback.onFailure("Network connection error"));
+                handle.deliver(() -> callback.onFailure("Network connection error"));
             }
 
             @Override
             public void onResponse(Call call, Response response) throws IOException {
                 String resStr = response.body() != null ? response.body().string() : null;
-                handler.post(() -> {
-                    try {
-                        if (resStr == null || resStr.trim().isEmpty()) {
-                            callback.onFailure("Empty response from server");
-                            return;
-                        }
-
-                        JSONObject res = new JSONObject(resStr);
-                        boolean status = res.optBoolean("status", false);
-
-                        if (!status) {
-                            callback.onFailure(res.optString("error", "Failed to add meal"));
-                            return;
-                        }
-
-                        callback.onSuccess(res.optString("message", "Meal plan added successfully"));
-                    } catch (Exception e) {
-                        Log.e(TAG, "❌ JSON parsing failed: " + e.getMessage(), e);
-                        callback.onFailure("Invalid server response");
+
+                // Parse on this OkHttp thread; only the result is posted to the main thread
+                try {
+                    if (resStr == null || resStr.trim().isEmpty()) {
+                        handle.deliver(() -> callback.onFailure("Empty response from server"));
+                        return;
                     }
-                });
+
+                    JSONObject res = new JSONObject(resStr);
+                    boolean status = res.optBoolean("status", false);
+
+                    if (!status) {
+                        String error = res.optString("error", "Failed to add meal");
+                        handle.deliver(() -> callback.onFailure(error));
+                        return;
+                    }
+
+                    String message = res.optString("message", "Meal plan added successfully");
+                    handle.deliver(() -> callback.onSuccess(message));
+                } catch (Exception e) {
+                    Log.e(TAG, "❌ JSON parsing failed: " + e.getMessage(), e);
+                    handle.deliver(() -> callback.onFailure("Invalid server response"));
+                }
             }
         });
+        return handle;
     }
 
     // --------------------------
     // Fetch Meal Plan by case_id ONLY
     // --------------------------
-    public void fetchMealPlanByCaseId(String caseId, MealFetchCallback callback) {
+    public ControllerCall fetchMealPlanByCaseId(String caseId, MealFetchCallback callback) {
         Log.d(TAG, "Fetching meal plan for case_id=" + caseId);
 
         JSONObject json = new JSONObject();
@@ -125,7 +128,7 @@ public class MealController {
         } catch (Exception e) {
             Log.e(TAG, "JSON creation failed: " + e.getMessage(), e);
             callback.onFailure("Error creating request JSON");
-            return;
+            return ControllerCall.completed();
         }
 
         RequestBody body = RequestBody.create(
@@ -141,46 +144,48 @@ public class MealController {
                 .post(body)
                 .build();
 
-        Handler handler = new Handler(Looper.getMainLooper());
-
-        client.newCall(request).enqueue(new Callback() {
+        Call call = client.newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "Network request failed: " + e.getMessage(), e);
-                handler.post(() -> callback.onFailure("Network connection error"));
+                handle.deliver(() -> callback.onFailure("Network connection error"));
             }
 
             @Override
             public void onResponse(Call call, Response response) throws IOException {
                 String resStr = response.body() != null ? response.body().string() : null;
-                handler.post(() -> {
-                    try {
-                        if (resStr == null || resStr.trim().isEmpty()) {
-                            callback.onFailure("Empty response from server");
-                            return;
-                        }
-
-                        JSONObject res = new JSONObject(resStr);
-                        boolean status = res.optBoolean("status", false);
-
-                        if (!status) {
-                            callback.onFailure(res.optString("error", "Meal plan not found"));
-                            return;
-                        }
-
-                        JSONObject mealPlan = res.optJSONObject("meal_plan");
-                        if (mealPlan == null) {
-                            callback.onFailure("Meal plan data missing");
-                            return;
-                        }
-
-                        callback.onSuccess(mealPlan);
-                    } catch (Exception e) {
-                        Log.e(TAG, "JSON parsing failed: " + e.getMessage(), e);
-                        callback.onFailure("Invalid server response");
+
+                // Parse on this OkHttp thread; only the result is posted to the main thread
+                try {
+                    if (resStr == null || resStr.trim().isEmpty()) {
+                        handle.deliver(() -> callback.onFailure("Empty response from server"));
+                        return;
+                    }
+
+                    JSONObject res = new JSONObject(resStr);
+                    boolean status = res.optBoolean("status", false);
+
+                    if (!status) {
+                        String error = res.optString("error", "Meal plan not found");
+                        handle.deliver(() -> callback.onFailure(error));
+                        return;
                     }
-                });
+
+                    JSONObject mealPlan = res.optJSONObject("meal_plan");
+                    if (mealPlan == null) {
+                        handle.deliver(() -> callback.onFailure("Meal plan data missing"));
+                        return;
+                    }
+
+                    handle.deliver(() -> callback.onSuccess(mealPlan));
+                } catch (Exception e) {
+                    Log.e(TAG, "JSON parsing failed: " + e.getMessage(), e);
+                    handle.deliver(() -> callback.onFailure("Invalid server response"));
+                }
             }
         });
+        return handle;
     }
 }
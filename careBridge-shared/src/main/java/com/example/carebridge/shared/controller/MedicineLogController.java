@@ -1,18 +1,24 @@
 package com.example.carebridge.shared.controller;
 
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 
 import com.example.carebridge.shared.model.MedicineLog;
-import com.example.carebridge.shared.model.MedicineLogResponse;
+import com.example.carebridge.shared.network.ControllerCall;
+import com.example.carebridge.shared.network.SharedHttpClient;
 import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.example.carebridge.shared.utils.LocalStore;
 import com.example.carebridge.shared.utils.SharedPrefManager;
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import okhttp3.Call;
@@ -20,74 +26,129 @@ import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 public class MedicineLogController {
 
     private static final String TAG = "MedicineLogController";
     private final Context context;
     private final SharedPrefManager sharedPrefManager;
+    private final LocalStore store;
     private final OkHttpClient client;
-    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     public MedicineLogController(Context context) {
-        this.context = context;
+        this.context = context.getApplicationContext();
         this.sharedPrefManager = new SharedPrefManager(context);
-        this.client = new OkHttpClient();
+        this.store = LocalStore.get(context);
+        this.client = SharedHttpClient.get();
     }
 
     public interface MedicineLogCallback {
         void onSuccess(List<MedicineLog> logs);
         void onFailure(String errorMessage);
+
+        /** The refresh matched the stored copy; callers that rendered from the store can skip it */
+        default void onUnchanged(List<MedicineLog> logs) { onSuccess(logs); }
     }
 
-    public void fetchLogs(String caseId, MedicineLogCallback callback) {
+    public ControllerCall fetchLogs(String caseId, MedicineLogCallback callback) {
         if (caseId == null || caseId.isEmpty()) {
             callback.onFailure("Invalid case ID");
-            return;
+            return ControllerCall.completed();
         }
 
         String url = ApiConstants.getMedicineLogByCaseIdUrl(caseId);
         Log.d(TAG, "Request URL: " + url);
 
         Request request = new Request.Builder().url(url).build();
-        client.newCall(request).enqueue(new Callback() {
+        Call call = client.newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                mainHandler.post(() -> callback.onFailure("Network error: " + e.getMessage()));
+                handle.deliver(() -> callback.onFailure("Network error: " + e.getMessage()));
             }
 
             @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String res = response.body() != null ? response.body().string() : "";
-                Log.d(TAG, "Server Response: " + res);
-
-                if (!response.isSuccessful()) {
-                    mainHandler.post(() -> callback.onFailure("Server error: " + response.message()));
-                    return;
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful() || body == null) {
+                        handle.deliver(() -> callback.onFailure("Server error: " + response.message()));
+                        return;
+                    }
+
+                    // Decode on this OkHttp thread; only the finished list reaches the main thread
+                    parseResponse(body, caseId, handle, callback);
+                } catch (RuntimeException e) {
+                    // Anything else thrown while decoding or storing must not crash the app
+                    Log.e(TAG, "Unexpected parsing error: ", e);
+                    handle.deliver(() -> callback.onFailure("Unexpected parsing error: " + e.getMessage()));
                 }
-
-                mainHandler.post(() -> parseResponse(res, callback));
             }
         });
+        return handle;
     }
 
-    private void parseResponse(String json, MedicineLogCallback callback) {
-        try {
-            Gson gson = new Gson();
-            MedicineLogResponse logResponse = gson.fromJson(json, MedicineLogResponse.class);
+    /**
+     * Logs scheduled in [from, to] (either bound may be null), pulled a page at a time as
+     * the caller asks for them; pageSize is clamped to {@link ApiConstants#MEDICINE_LOG_MAX_PAGE_SIZE}
+     */
+    public MedicineLogPager logsBetween(String caseId, Date from, Date to, int pageSize) {
+        return new MedicineLogPager(caseId, from, to, pageSize);
+    }
+
+    /** Doses scheduled on the given calendar day, paged */
+    public MedicineLogPager logsForDay(String caseId, Date day) {
+        return MedicineLogPager.forDay(caseId, day, ApiConstants.MEDICINE_LOG_PAGE_SIZE);
+    }
 
-            if (logResponse != null && logResponse.isSuccess() && logResponse.getLogs() != null) {
-                callback.onSuccess(logResponse.getLogs());
-            } else {
-                callback.onFailure("No logs found");
+    /** Doses scheduled in the seven days starting at the given day, paged */
+    public MedicineLogPager logsForWeek(String caseId, Date firstDay) {
+        return MedicineLogPager.forWeek(caseId, firstDay, ApiConstants.MEDICINE_LOG_PAGE_SIZE);
+    }
+
+    /**
+     * Runs on the OkHttp callback thread. Reads {"success", "logs": [...]} straight from the
+     * response stream, one log at a time, writes the unmodifiable list through to
+     * {@link LocalStore} and posts it.
+     */
+    private void parseResponse(ResponseBody body, String caseId, ControllerCall handle, MedicineLogCallback callback) {
+        boolean success = false;
+        List<MedicineLog> logs = null;
+
+        try (JsonReader reader = JsonReaders.of(body)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("success")) {
+                    success = JsonReaders.nextBoolean(reader);
+                } else if (name.equals("logs") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    TypeAdapter<MedicineLog> adapter = MedicineLog.ADAPTER;
+                    logs = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) logs.add(adapter.read(reader));
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
             }
+            reader.endObject();
 
-        } catch (JsonSyntaxException e) {
+        } catch (IOException | IllegalStateException | JsonParseException e) {
             Log.e(TAG, "JSON parsing error: ", e);
-            callback.onFailure("JSON format error: " + e.getMessage());
-        } catch (Exception e) {
-            Log.e(TAG, "Unexpected parsing error: ", e);
-            callback.onFailure("Unexpected parsing error: " + e.getMessage());
+            handle.deliver(() -> callback.onFailure("JSON format error: " + e.getMessage()));
+            return;
+        }
+
+        if (success && logs != null) {
+            List<MedicineLog> result = Collections.unmodifiableList(logs);
+            boolean changed = store.writeThrough(LocalStore.KIND_MEDICINE_LOGS, caseId, result);
+            handle.deliver(() -> {
+                if (changed) callback.onSuccess(result);
+                else callback.onUnchanged(result);
+            });
+        } else {
+            handle.deliver(() -> callback.onFailure("No logs found"));
         }
     }
 }
@@ -0,0 +1,284 @@
+package com.example.carebridge.shared.controller;
+
+import android.util.Log;
+
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.network.ControllerCall;
+import com.example.carebridge.shared.network.SharedHttpClient;
+import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.DateFormats;
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Pulls medicine logs for one case a page at a time, optionally limited to a
+ * scheduled_time window. Nothing is fetched until the next page is asked for, so a
+ * history screen can scroll back through years of logs without loading them all.
+ * Obtain one from {@link MedicineLogController#logsBetween}, {@code logsForDay} or
+ * {@code logsForWeek}.
+ *
+ * <p>Paging uses the server's {@code next_cursor} when it sends one, otherwise the
+ * last log_id of the page. A short page (or {@code has_more: false}) ends the pager, and
+ * so does a page that brings no log_id not already handed out: a server that ignores
+ * {@code after} or {@code page_size} would otherwise repeat the same page forever.
+ */
+public class MedicineLogPager {
+
+    private static final String TAG = "MedicineLogPager";
+
+    public interface PageCallback {
+        void onPage(List<MedicineLog> page, boolean hasMore);
+        void onFailure(String errorMessage);
+    }
+
+    /** Opens one page of the window; the shared client by default */
+    interface PageSource {
+        /**
+         * Body of the page of logs scheduled in [from, to] (a null bound is open) that
+         * follows {@code after} (null: the first page)
+         */
+        Reader open(String caseId, String from, String to, String after, int pageSize) throws IOException;
+    }
+
+    /** One decoded page before the pager state moves on */
+    private static final class Page {
+        final List<MedicineLog> logs = new ArrayList<>();
+        String nextCursor;
+        Boolean hasMore;
+    }
+
+    private final PageSource source;
+    private final String caseId;
+    private final String from;
+    private final String to;
+    private final int pageSize;
+
+    private final Set<Integer> seen = new HashSet<>();
+    private String cursor;
+    private boolean exhausted;
+    private boolean loading;
+
+    /** {@code from} / {@code to} may be null for an open-ended window */
+    MedicineLogPager(String caseId, Date from, Date to, int pageSize) {
+        this(new HttpPageSource(), caseId, from, to, pageSize);
+    }
+
+    MedicineLogPager(PageSource source, String caseId, Date from, Date to, int pageSize) {
+        this.source = source;
+        this.caseId = caseId;
+        this.from = from != null ? DateFormats.formatServer(from) : null;
+        this.to = to != null ? DateFormats.formatServer(to) : null;
+        this.pageSize = Math.max(1, Math.min(pageSize, ApiConstants.MEDICINE_LOG_MAX_PAGE_SIZE));
+    }
+
+    /** Doses scheduled on the given calendar day */
+    static MedicineLogPager forDay(String caseId, Date day, int pageSize) {
+        return forDay(new HttpPageSource(), caseId, day, pageSize);
+    }
+
+    static MedicineLogPager forDay(PageSource source, String caseId, Date day, int pageSize) {
+        Calendar start = startOfDay(day);
+        Calendar end = (Calendar) start.clone();
+        end.add(Calendar.DAY_OF_MONTH, 1);
+        end.add(Calendar.SECOND, -1);
+        return new MedicineLogPager(source, caseId, start.getTime(), end.getTime(), pageSize);
+    }
+
+    /** Doses scheduled in the seven days starting at the given day */
+    static MedicineLogPager forWeek(String caseId, Date firstDay, int pageSize) {
+        return forWeek(new HttpPageSource(), caseId, firstDay, pageSize);
+    }
+
+    static MedicineLogPager forWeek(PageSource source, String caseId, Date firstDay, int pageSize) {
+        Calendar start = startOfDay(firstDay);
+        Calendar end = (Calendar) start.clone();
+        end.add(Calendar.DAY_OF_MONTH, 7);
+        end.add(Calendar.SECOND, -1);
+        return new MedicineLogPager(source, caseId, start.getTime(), end.getTime(), pageSize);
+    }
+
+    public synchronized boolean hasNext() {
+        return !exhausted;
+    }
+
+    /** Blocking fetch of the next page; call from a background thread */
+    public synchronized List<MedicineLog> nextPage() throws IOException {
+        if (exhausted) return Collections.emptyList();
+
+        try (Reader page = source.open(caseId, from, to, cursor, pageSize)) {
+            return advance(readPage(page));
+        }
+    }
+
+    /**
+     * Fetch the next page on the shared client and deliver it on the main thread. Ignored
+     * (with an already completed handle) while a page is loading or once the pager ended.
+     * Always goes through the shared client so {@link ControllerCall#cancel()} aborts it.
+     */
+    public ControllerCall loadNextPage(PageCallback callback) {
+        Request request;
+        synchronized (this) {
+            if (loading || exhausted) return ControllerCall.completed();
+            loading = true;
+            request = request(caseId, from, to, cursor, pageSize);
+        }
+
+        Call call = SharedHttpClient.get().newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                finishLoading();
+                Log.e(TAG, "Page load failed for " + caseId, e);
+                handle.deliver(() -> callback.onFailure("Network error: " + e.getMessage()));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (Response r = response; Reader body = bodyOf(r)) {
+                    Page page = readPage(body);
+                    List<MedicineLog> logs;
+                    boolean hasMore;
+                    synchronized (MedicineLogPager.this) {
+                        logs = advance(page);
+                        hasMore = !exhausted;
+                    }
+                    handle.deliver(() -> callback.onPage(logs, hasMore));
+                } catch (IOException e) {
+                    Log.e(TAG, "Page load failed for " + caseId, e);
+                    handle.deliver(() -> callback.onFailure("Network error: " + e.getMessage()));
+                } finally {
+                    finishLoading();
+                }
+            }
+        });
+        return handle;
+    }
+
+    /** Blocking drain of every page; only for small windows such as a single day */
+    public List<MedicineLog> fetchAll() throws IOException {
+        List<MedicineLog> all = new ArrayList<>();
+        while (hasNext()) all.addAll(nextPage());
+        return all;
+    }
+
+    private static Request request(String caseId, String from, String to, String after, int pageSize) {
+        return new Request.Builder()
+                .url(ApiConstants.getMedicineLogWindowUrl(caseId, from, to, after, pageSize))
+                .get()
+                .build();
+    }
+
+    /** The body's character stream; closing it releases the response */
+    private static Reader bodyOf(Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (!response.isSuccessful() || body == null) {
+            response.close();
+            throw new IOException("HTTP " + response.code() + " for medicine logs");
+        }
+        return body.charStream();
+    }
+
+    private synchronized void finishLoading() {
+        loading = false;
+    }
+
+    /**
+     * Caller holds the lock: move the cursor past the page and hand out the logs not
+     * handed out before
+     */
+    private List<MedicineLog> advance(Page page) {
+        String nextCursor = page.nextCursor;
+        if (nextCursor == null && !page.logs.isEmpty()) {
+            nextCursor = String.valueOf(page.logs.get(page.logs.size() - 1).getLogId());
+        }
+        List<MedicineLog> fresh = new ArrayList<>(page.logs.size());
+        for (MedicineLog log : page.logs) {
+            if (seen.add(log.getLogId())) fresh.add(log);
+        }
+        boolean hasMore = page.hasMore != null ? page.hasMore : page.logs.size() >= pageSize;
+        // A page with no cursor to continue from cannot be followed, and one that repeats
+        // logs already seen means the server is not honouring the cursor
+        exhausted = !hasMore || nextCursor == null || nextCursor.equals(cursor) || fresh.isEmpty();
+        cursor = nextCursor;
+        return Collections.unmodifiableList(fresh);
+    }
+
+    /**
+     * Decodes a page straight from the response stream: a bare array of logs, or
+     * {"data" | "logs": [...], "next_cursor", "has_more"}.
+     */
+    private static Page readPage(Reader body) throws IOException {
+        Page page = new Page();
+        try (JsonReader reader = JsonReaders.of(body)) {
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                readLogs(reader, page.logs);
+                return page;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "data":
+                    case "logs":
+                        if (reader.peek() == JsonToken.BEGIN_ARRAY) readLogs(reader, page.logs);
+                        else reader.skipValue();
+                        break;
+                    case "next_cursor":
+                        page.nextCursor = JsonReaders.nextString(reader);
+                        break;
+                    case "has_more":
+                        page.hasMore = JsonReaders.nextBoolean(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | JsonParseException e) {
+            throw new IOException("Malformed medicine log page", e);
+        }
+        return page;
+    }
+
+    private static void readLogs(JsonReader reader, List<MedicineLog> into) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) into.add(MedicineLog.ADAPTER.read(reader));
+        reader.endArray();
+    }
+
+    /** Default source: one blocking GET on the shared client, decoded as it streams in */
+    static class HttpPageSource implements PageSource {
+        @Override
+        public Reader open(String caseId, String from, String to, String after, int pageSize) throws IOException {
+            return bodyOf(SharedHttpClient.get().newCall(request(caseId, from, to, after, pageSize)).execute());
+        }
+    }
+
+    private static Calendar startOfDay(Date day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(day);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar;
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.carebridge.shared.controller;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.network.SharedHttpClient;
+import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.DateFormats;
+import com.example.carebridge.shared.utils.GsonProvider;
+import com.example.carebridge.shared.utils.LocalStore;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.CacheControl;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Incremental medicine-log sync. Sends the last seen log_id / updated_at as a cursor,
+ * merges only the new or changed rows into the locally stored set, and falls back to
+ * a full download when there is no cursor, the server asks for it, or the last full
+ * sync is older than {@link ApiConstants#MEDICINE_LOG_FULL_RESYNC_MILLIS}.
+ *
+ * <p>Syncs run one at a time on a single background thread, so two screens syncing the
+ * same case never merge against the same stale cursor.
+ */
+public class MedicineLogSync {
+
+    private static final String TAG = "MedicineLogSync";
+    private static final String KIND_CURSOR = "medicine_log_cursor";
+    private static final Type LOG_LIST_TYPE = new TypeToken<List<MedicineLog>>() { }.getType();
+
+    private static final ExecutorService SYNC_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "medicine-log-sync");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private static volatile ChangeListener changeListener;
+
+    public interface SyncCallback {
+        void onSuccess(List<MedicineLog> logs);
+        void onFailure(String errorMessage);
+    }
+
+    /** Where delta pages come from; the HTTP backend by default, replaceable by a local stand-in */
+    public interface LogSource {
+        /** Raw response body for a full ({@code cursor == null}) or incremental fetch */
+        String fetch(String caseId, Cursor cursor) throws IOException;
+    }
+
+    /** Where the merged logs and the cursor persist; {@link LocalStore} by default */
+    public interface LogStore {
+        List<MedicineLog> readLogs(String caseId);
+        /** Returns true when the stored logs actually changed */
+        boolean writeLogs(String caseId, List<MedicineLog> logs);
+        Cursor readCursor(String caseId);
+        void writeCursor(String caseId, Cursor cursor);
+        void deleteCursor(String caseId);
+    }
+
+    /** Told on the sync thread whenever a sync changed a case's stored logs */
+    public interface ChangeListener {
+        void onLogsChanged(String caseId);
+    }
+
+    interface Clock {
+        long currentTimeMillis();
+    }
+
+    /** Sync position, persisted per case */
+    public static class Cursor {
+        long lastLogId;
+        String lastUpdatedAt;
+        long lastFullSyncAt;
+
+        public long getLastLogId() { return lastLogId; }
+        public String getLastUpdatedAt() { return lastUpdatedAt; }
+        public long getLastFullSyncAt() { return lastFullSyncAt; }
+    }
+
+    private final LogStore store;
+    private final LogSource source;
+    private final Clock clock;
+
+    public MedicineLogSync(Context context) {
+        this(new LocalLogStore(LocalStore.get(context)), new HttpLogSource(), System::currentTimeMillis);
+    }
+
+    public MedicineLogSync(Context context, LogSource source) {
+        this(new LocalLogStore(LocalStore.get(context)), source, System::currentTimeMillis);
+    }
+
+    MedicineLogSync(LogStore store, LogSource source, Clock clock) {
+        this.store = store;
+        this.source = source;
+        this.clock = clock;
+    }
+
+    /** Process-wide hook, e.g. to re-arm reminders when answered or new logs arrive */
+    public static void setChangeListener(ChangeListener listener) {
+        changeListener = listener;
+    }
+
+    /** Sync on the sync thread and deliver the merged set on the main thread */
+    public void sync(String caseId, SyncCallback callback) {
+        SYNC_EXECUTOR.execute(() -> {
+            try {
+                List<MedicineLog> logs = syncBlocking(caseId);
+                mainHandler.post(() -> callback.onSuccess(logs));
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                Log.e(TAG, "Sync failed for " + caseId, e);
+                mainHandler.post(() -> callback.onFailure("Network error: " + e.getMessage()));
+            }
+        });
+    }
+
+    /** Drop the cursor so the next sync downloads everything */
+    public void requestFullResync(String caseId) {
+        SYNC_EXECUTOR.execute(() -> store.deleteCursor(caseId));
+    }
+
+    /** Blocking sync; call from a background thread */
+    public List<MedicineLog> syncBlocking(String caseId) throws IOException {
+        Cursor cursor = store.readCursor(caseId);
+        List<MedicineLog> stored = store.readLogs(caseId);
+        long now = clock.currentTimeMillis();
+
+        boolean full = cursor == null || stored == null
+                || now - cursor.lastFullSyncAt > ApiConstants.MEDICINE_LOG_FULL_RESYNC_MILLIS;
+
+        JsonObject envelope = parse(source.fetch(caseId, full ? null : cursor));
+        if (!full && envelope.has("full_resync") && envelope.get("full_resync").getAsBoolean()) {
+            full = true;
+            envelope = parse(source.fetch(caseId, null));
+        }
+
+        // Merge by log_id; a full sync starts from an empty set so deleted rows disappear
+        Map<String, JsonObject> merged = new LinkedHashMap<>();
+        if (!full) {
+            for (JsonElement row : GsonProvider.get().toJsonTree(stored, LOG_LIST_TYPE).getAsJsonArray()) {
+                merged.put(logId(row.getAsJsonObject()), row.getAsJsonObject());
+            }
+        }
+        JsonArray received = rows(envelope);
+        for (JsonElement row : received) {
+            if (row.isJsonObject()) merged.put(logId(row.getAsJsonObject()), row.getAsJsonObject());
+        }
+        if (envelope.has("deleted_ids") && envelope.get("deleted_ids").isJsonArray()) {
+            for (JsonElement id : envelope.getAsJsonArray("deleted_ids")) merged.remove(id.getAsString());
+        }
+
+        JsonArray result = new JsonArray();
+        Cursor next = new Cursor();
+        next.lastFullSyncAt = full ? now : cursor.lastFullSyncAt;
+        next.lastLogId = full ? 0 : cursor.lastLogId;
+        next.lastUpdatedAt = full ? null : cursor.lastUpdatedAt;
+        for (JsonObject row : merged.values()) {
+            result.add(row);
+            advance(next, row);
+        }
+
+        List<MedicineLog> logs = new ArrayList<>(GsonProvider.get().<List<MedicineLog>>fromJson(result, LOG_LIST_TYPE));
+        DateFormats.sortByTime(logs, MedicineLog::getScheduledAtMillis);
+
+        if (store.writeLogs(caseId, logs)) {
+            ChangeListener listener = changeListener;
+            if (listener != null) listener.onLogsChanged(caseId);
+        }
+        store.writeCursor(caseId, next);
+        Log.d(TAG, (full ? "Full" : "Delta") + " sync for " + caseId + ": " + received.size()
+                + " rows received, " + logs.size() + " total");
+        return logs;
+    }
+
+    private static void advance(Cursor cursor, JsonObject row) {
+        try {
+            if (row.has("log_id")) cursor.lastLogId = Math.max(cursor.lastLogId, row.get("log_id").getAsLong());
+        } catch (NumberFormatException | UnsupportedOperationException ignored) {
+            // Non-numeric ids cannot form a cursor; updated_at still can
+        }
+        if (row.has("updated_at") && !row.get("updated_at").isJsonNull()) {
+            String updatedAt = row.get("updated_at").getAsString();
+            // "yyyy-MM-dd HH:mm:ss" compares chronologically as a string
+            if (cursor.lastUpdatedAt == null || updatedAt.compareTo(cursor.lastUpdatedAt) > 0) {
+                cursor.lastUpdatedAt = updatedAt;
+            }
+        }
+    }
+
+    private static String logId(JsonObject row) {
+        JsonElement id = row.get("log_id");
+        return id != null && !id.isJsonNull() ? id.getAsString() : String.valueOf(row.hashCode());
+    }
+
+    static JsonObject parse(String body) {
+        JsonElement root = JsonParser.parseString(body);
+        if (root.isJsonArray()) {
+            JsonObject wrapped = new JsonObject();
+            wrapped.add("data", root);
+            return wrapped;
+        }
+        return root.getAsJsonObject();
+    }
+
+    static JsonArray rows(JsonObject envelope) {
+        if (envelope.has("data") && envelope.get("data").isJsonArray()) return envelope.getAsJsonArray("data");
+        if (envelope.has("logs") && envelope.get("logs").isJsonArray()) return envelope.getAsJsonArray("logs");
+        return new JsonArray();
+    }
+
+    /**
+     * Blocking GET over the shared client; call from a background thread. Bypasses the
+     * response cache: a sync must see statuses written since the last one, even within
+     * a cache window.
+     */
+    static String fetchString(String url) throws IOException {
+        Request request = new Request.Builder().url(url).cacheControl(CacheControl.FORCE_NETWORK).get().build();
+        try (Response response = SharedHttpClient.get().newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("HTTP " + response.code() + " for medicine logs");
+            }
+            return body.string();
+        }
+    }
+
+    /** Default source: the PHP medicine_log endpoint over the shared HTTP client */
+    static class HttpLogSource implements LogSource {
+        @Override
+        public String fetch(String caseId, Cursor cursor) throws IOException {
+            String url = cursor == null
+                    ? ApiConstants.getMedicineLogByCaseIdUrl(caseId)
+                    : ApiConstants.getMedicineLogSinceUrl(caseId, cursor.lastLogId, cursor.lastUpdatedAt);
+
+            return fetchString(url);
+        }
+    }
+
+    /** Default store: the merged logs and the cursor as {@link LocalStore} rows */
+    static class LocalLogStore implements LogStore {
+        private final LocalStore store;
+
+        LocalLogStore(LocalStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public List<MedicineLog> readLogs(String caseId) {
+            return store.read(LocalStore.KIND_MEDICINE_LOGS, caseId, LOG_LIST_TYPE);
+        }
+
+        @Override
+        public boolean writeLogs(String caseId, List<MedicineLog> logs) {
+            boolean changed = store.writeIfChanged(LocalStore.KIND_MEDICINE_LOGS, caseId, logs);
+            store.markFetched(LocalStore.KIND_MEDICINE_LOGS, caseId);
+            return changed;
+        }
+
+        @Override
+        public Cursor readCursor(String caseId) {
+            return store.read(KIND_CURSOR, caseId, Cursor.class);
+        }
+
+        @Override
+        public void writeCursor(String caseId, Cursor cursor) {
+            store.writeIfChanged(KIND_CURSOR, caseId, cursor);
+        }
+
+        @Override
+        public void deleteCursor(String caseId) {
+            store.delete(KIND_CURSOR, caseId);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.carebridge.shared.controller;
+
+import android.util.Log;
+
+import com.example.carebridge.shared.network.SharedHttpClient;
+import com.example.carebridge.shared.utils.ApiConstants;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import okhttp3.FormBody;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Blocking client for medicine "Taken / Not Taken" updates, shared by the phone's outbox
+ * worker and the watch. A group of doses goes out as one bulk request with per-item
+ * results; single doses, and every dose once the server turned out to have no bulk
+ * endpoint, use one POST each. Every update carries its idempotency key, so a replay
+ * after a lost response is ignored by the server. Call from a background thread.
+ */
+public class MedicineStatusClient {
+
+    private static final String TAG = "MedicineStatusClient";
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    // Flipped when the server has no bulk endpoint; single updates are used for the rest of the process
+    private static volatile boolean bulkSupported = true;
+
+    /** What became of one update */
+    public enum Outcome { DELIVERED, REJECTED, TRANSIENT }
+
+    /** One (log_id, status) pair to send */
+    public static final class Update {
+        public final int logId;
+        public final String takenStatus;
+        public final String idempotencyKey;
+
+        public Update(int logId, String takenStatus, String idempotencyKey) {
+            this.logId = logId;
+            this.takenStatus = takenStatus;
+            this.idempotencyKey = idempotencyKey;
+        }
+    }
+
+    private final OkHttpClient client;
+
+    public MedicineStatusClient() {
+        this.client = SharedHttpClient.get();
+    }
+
+    /**
+     * Send every update, in one bulk request when there is more than one and the server
+     * supports it. Every log_id gets an outcome; items the server did not answer are
+     * {@link Outcome#TRANSIENT}.
+     */
+    public Map<Integer, Outcome> send(List<Update> updates) {
+        Map<Integer, Outcome> outcomes = updates.size() > 1 && bulkSupported ? sendBatch(updates) : null;
+        if (outcomes == null) {
+            outcomes = new HashMap<>();
+            for (Update update : updates) outcomes.put(update.logId, send(update));
+            return outcomes;
+        }
+        for (Update update : updates) {
+            if (!outcomes.containsKey(update.logId)) outcomes.put(update.logId, Outcome.TRANSIENT);
+        }
+        return outcomes;
+    }
+
+    /** One POST to updateStatus.php */
+    public Outcome send(Update update) {
+        RequestBody body = new FormBody.Builder()
+                .add("log_id", String.valueOf(update.logId))
+                .add("taken_status", update.takenStatus)
+                .add("idempotency_key", update.idempotencyKey)
+                .build();
+        Request request = new Request.Builder()
+                .url(ApiConstants.getUpdateStatusUrl())
+                .header("Idempotency-Key", update.idempotencyKey)
+                .post(body)
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (response.isSuccessful() && response.body() != null) {
+                Log.d(TAG, "Status sent: log #" + update.logId + " → " + update.takenStatus);
+                return Outcome.DELIVERED;
+            }
+            Log.e(TAG, "Status rejected: log #" + update.logId + " HTTP " + response.code());
+            return failureOf(response);
+        } catch (IOException e) {
+            Log.e(TAG, "Status not sent: log #" + update.logId + " " + e.getMessage());
+            return Outcome.TRANSIENT;
+        }
+    }
+
+    /** One request for the whole group; null when the bulk endpoint is not available */
+    private Map<Integer, Outcome> sendBatch(List<Update> updates) {
+        JsonArray items = new JsonArray();
+        for (Update update : updates) {
+            JsonObject item = new JsonObject();
+            item.addProperty("log_id", update.logId);
+            item.addProperty("taken_status", update.takenStatus);
+            item.addProperty("idempotency_key", update.idempotencyKey);
+            items.add(item);
+        }
+        JsonObject payload = new JsonObject();
+        payload.add("updates", items);
+
+        Request request = new Request.Builder()
+                .url(ApiConstants.getUpdateStatusBatchUrl())
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .post(RequestBody.create(payload.toString(), JSON))
+                .build();
+
+        Map<Integer, Outcome> outcomes = new HashMap<>();
+        try (Response response = client.newCall(request).execute()) {
+            int code = response.code();
+            if (code == 404 || code == 405 || code == 501) {
+                Log.w(TAG, "Bulk status endpoint unavailable (HTTP " + code + "), sending one by one");
+                bulkSupported = false;
+                return null;
+            }
+            ResponseBody body = response.body();
+            JsonElement result = response.isSuccessful() && body != null ? JsonParser.parseString(body.string()) : null;
+            if (result == null || !result.isJsonObject() || !result.getAsJsonObject().has("results")) {
+                Log.e(TAG, "Bulk status update failed: HTTP " + code);
+                Outcome failure = failureOf(response);
+                for (Update update : updates) outcomes.put(update.logId, failure);
+                return outcomes;
+            }
+
+            for (JsonElement element : result.getAsJsonObject().getAsJsonArray("results")) {
+                JsonObject item = element.getAsJsonObject();
+                if (!item.has("log_id")) continue;
+                Outcome outcome;
+                if (item.has("success") && item.get("success").getAsBoolean()) outcome = Outcome.DELIVERED;
+                else if (item.has("retryable") && item.get("retryable").getAsBoolean()) outcome = Outcome.TRANSIENT;
+                else outcome = Outcome.REJECTED;
+                outcomes.put(item.get("log_id").getAsInt(), outcome);
+            }
+            Log.d(TAG, "Bulk status update: " + updates.size() + " doses in one request");
+        } catch (IOException e) {
+            Log.e(TAG, "Bulk status update failed: " + e.getMessage());
+            for (Update update : updates) outcomes.put(update.logId, Outcome.TRANSIENT);
+        } catch (RuntimeException e) {
+            // Malformed results: retry the group rather than guess which items landed
+            Log.e(TAG, "Bulk status update returned unreadable results", e);
+            for (Update update : updates) outcomes.put(update.logId, Outcome.TRANSIENT);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Ask the server to push a silent "resolved" message for these log_ids to the user's
+     * other devices, skipping the one registered under {@code sourceToken} (may be null).
+     * Best effort: returns false when the relay did not go through.
+     */
+    public boolean notifyResolved(List<Integer> logIds, String sourceToken) {
+        if (logIds.isEmpty()) return true;
+        StringBuilder ids = new StringBuilder();
+        for (int logId : logIds) {
+            if (ids.length() > 0) ids.append(',');
+            ids.append(logId);
+        }
+        FormBody.Builder form = new FormBody.Builder().add("log_ids", ids.toString());
+        if (sourceToken != null) form.add("source_token", sourceToken);
+        Request request = new Request.Builder()
+                .url(ApiConstants.getNotifyResolvedUrl())
+                .post(form.build())
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) Log.w(TAG, "Resolve relay failed: HTTP " + response.code());
+            return response.isSuccessful();
+        } catch (IOException e) {
+            Log.w(TAG, "Resolve relay failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Server errors, timeouts and throttling are worth a retry; other refusals are final */
+    private static Outcome failureOf(Response response) {
+        int code = response.code();
+        boolean transientError = code >= 500 || code == 408 || code == 429 || response.isSuccessful();
+        return transientError ? Outcome.TRANSIENT : Outcome.REJECTED;
+    }
+}
@@ -1,26 +1,28 @@
 package com.example.carebridge.shared.controller;
 
-
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 
 import com.example.carebridge.shared.model.PatientInfo;
+import com.example.carebridge.shared.network.ControllerCall;
+import com.example.carebridge.shared.network.SharedHttpClient;
 import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.example.carebridge.shared.utils.LocalStore;
 import com.example.carebridge.shared.utils.SharedPrefManager;
-import com.google.gson.Gson;
-
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import java.io.IOException;
 
+import okhttp3.CacheControl;
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 public class PatientController {
 
@@ -28,27 +30,36 @@ public class PatientController {
     private final Context context;
     private final OkHttpClient client;
     private final SharedPrefManager sharedPrefManager;
+    private final LocalStore store;
 
     public PatientController(Context context) {
-        this.context = context;
-        this.client = new OkHttpClient();
+        this.context = context.getApplicationContext();
+        this.client = SharedHttpClient.get();
         this.sharedPrefManager = new SharedPrefManager(context);
+        this.store = LocalStore.get(context);
         Log.d(TAG, "[INIT] PatientController initialized");
     }
 
     public interface PatientCallback {
         void onSuccess(PatientInfo patientInfo);
         void onFailure(String message);
+
+        /** The refresh matched the stored copy; callers that rendered from the store can skip it */
+        default void onUnchanged(PatientInfo patientInfo) { onSuccess(patientInfo); }
     }
 
     /**
      * Fetch a single patient by any given case ID
      */
-    public void getPatientByCaseId(String caseId, PatientCallback callback) {
+    public ControllerCall getPatientByCaseId(String caseId, PatientCallback callback) {
+        return getPatientByCaseId(caseId, false, callback);
+    }
+
+    private ControllerCall getPatientByCaseId(String caseId, boolean forceNetwork, PatientCallback callback) {
         if (caseId == null || caseId.isEmpty()) {
             Log.w(TAG, "[API CALL] Invalid case ID provided: " + caseId);
             callback.onFailure("Invalid case ID");
-            return;
+            return ControllerCall.completed();
         }
 
         Log.d(TAG, "[API CALL] Using case ID: " + caseId);
@@ -56,64 +67,99 @@ public class PatientController {
         String url = ApiConstants.getPatientByCaseIdUrl(caseId);
         Log.d(TAG, "[API URL] " + url);
 
-        Request request = new Request.Builder()
+        Request.Builder builder = new Request.Builder()
                 .url(url)
-                .get()
-                .build();
-
-        client.newCall(request).enqueue(new Callback() {
-            final Handler mainHandler = new Handler(Looper.getMainLooper());
+                .get();
+        if (forceNetwork) builder.cacheControl(CacheControl.FORCE_NETWORK);
+        Request request = builder.build();
 
+        Call call = client.newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "[NETWORK ERROR] " + e.getMessage());
-                mainHandler.post(() -> callback.onFailure("Network error: " + e.getMessage()));
+                handle.deliver(() -> callback.onFailure("Network error: " + e.getMessage()));
             }
 
             @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String resString = response.body() != null ? response.body().string() : "";
-                Log.d(TAG, "[RESPONSE] " + resString);
-
-                mainHandler.post(() -> {
-                    try {
-                        JSONObject resJson = new JSONObject(resString);
-                        boolean success = resJson.optBoolean("success", false);
-
-                        if (success) {
-                            JSONObject dataJson = resJson.getJSONObject("data");
-                            PatientInfo patientInfo = new Gson().fromJson(dataJson.toString(), PatientInfo.class);
-                            Log.d(TAG, "[PATIENT INFO] " + patientInfo);
-                            callback.onSuccess(patientInfo);
+            public void onResponse(Call call, Response response) {
+                // Decode straight from the response stream on this OkHttp thread;
+                // only the result is posted to the main thread
+                try (ResponseBody body = response.body(); JsonReader reader = body != null ? JsonReaders.of(body) : null) {
+                    if (reader == null) throw new IOException("Empty response body");
+
+                    boolean success = false;
+                    PatientInfo patientInfo = null;
+                    String message = null;
+
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        if (name.equals("success")) {
+                            success = JsonReaders.nextBoolean(reader);
+                        } else if (name.equals("data") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                            patientInfo = PatientInfo.ADAPTER.read(reader);
+                        } else if (name.equals("message")) {
+                            message = JsonReaders.nextString(reader);
                         } else {
-                            String message = resJson.optString("message", "Failed to fetch patient data");
-                            Log.w(TAG, "[API FAILURE] " + message);
-                            callback.onFailure(message);
+                            reader.skipValue();
                         }
-                    } catch (JSONException e) {
-                        Log.e(TAG, "[JSON ERROR] Parsing failed", e);
-                        callback.onFailure("Invalid server response");
                     }
-                });
+                    reader.endObject();
+
+                    if (success && patientInfo != null) {
+                        Log.d(TAG, "[PATIENT INFO] " + patientInfo);
+                        PatientInfo result = patientInfo;
+                        boolean changed = store.writeThrough(LocalStore.KIND_PATIENT, caseId, result);
+                        handle.deliver(() -> {
+                            if (changed) callback.onSuccess(result);
+                            else callback.onUnchanged(result);
+                        });
+                    } else {
+                        String failure = message != null ? message : "Failed to fetch patient data";
+                        Log.w(TAG, "[API FAILURE] " + failure);
+                        handle.deliver(() -> callback.onFailure(failure));
+                    }
+                } catch (IOException | IllegalStateException | JsonParseException e) {
+                    Log.e(TAG, "[JSON ERROR] Parsing failed", e);
+                    handle.deliver(() -> callback.onFailure("Invalid server response"));
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "[UNEXPECTED ERROR] Parsing failed", e);
+                    handle.deliver(() -> callback.onFailure("Invalid server response"));
+                }
             }
         });
+        return handle;
     }
 
     /**
      * Fetch the current patient using the saved case ID from SharedPreferences
      */
-    public void getCurrentPatient(PatientCallback callback) {
+    public ControllerCall getCurrentPatient(PatientCallback callback) {
+        return getCurrentPatient(false, callback);
+    }
+
+    /**
+     * User-initiated refresh of the current patient: goes to the server even within
+     * the response cache window
+     */
+    public ControllerCall refreshCurrentPatient(PatientCallback callback) {
+        return getCurrentPatient(true, callback);
+    }
+
+    private ControllerCall getCurrentPatient(boolean forceNetwork, PatientCallback callback) {
         String savedCaseId = sharedPrefManager.getCaseId();
         Log.d(TAG, "[SESSION] Retrieved case ID from SharedPreferences: " + savedCaseId);
 
         if (savedCaseId == null || savedCaseId.isEmpty()) {
             Log.w(TAG, "[SESSION] No case ID found in SharedPreferences");
             callback.onFailure("No case ID found in SharedPreferences");
-            return;
+            return ControllerCall.completed();
         }
 
         Log.d(TAG, "[SESSION] Calling API with case ID: " + savedCaseId);
 
-        getPatientByCaseId(savedCaseId, callback);
+        return getPatientByCaseId(savedCaseId, forceNetwork, callback);
     }
 }
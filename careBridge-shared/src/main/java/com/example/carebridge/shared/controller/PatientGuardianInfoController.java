@@ -1,30 +1,32 @@
 package com.example.carebridge.shared.controller;
 
-
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 
 import com.example.carebridge.shared.model.PatientGuardianInfo;
+import com.example.carebridge.shared.network.ControllerCall;
+import com.example.carebridge.shared.network.SharedHttpClient;
 import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.example.carebridge.shared.utils.LocalStore;
 import com.example.carebridge.shared.utils.SharedPrefManager;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import okhttp3.CacheControl;
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 public class PatientGuardianInfoController {
 
@@ -32,79 +34,125 @@ public class PatientGuardianInfoController {
     private final Context context;
     private final OkHttpClient client;
     private final SharedPrefManager sharedPrefManager;
+    private final LocalStore store;
 
     public PatientGuardianInfoController(Context context) {
-        this.context = context;
-        this.client = new OkHttpClient();
+        this.context = context.getApplicationContext();
+        this.client = SharedHttpClient.get();
         this.sharedPrefManager = new SharedPrefManager(context);
+        this.store = LocalStore.get(context);
     }
 
     public interface PatientGuardianCallback {
         void onSuccess(List<PatientGuardianInfo> guardianList);
         void onFailure(String message);
+
+        /** The refresh matched the stored copy; callers that rendered from the store can skip it */
+        default void onUnchanged(List<PatientGuardianInfo> guardianList) { onSuccess(guardianList); }
     }
 
-    public void getGuardianByCaseId(String caseId, PatientGuardianCallback callback) {
+    public ControllerCall getGuardianByCaseId(String caseId, PatientGuardianCallback callback) {
+        return getGuardianByCaseId(caseId, false, callback);
+    }
+
+    private ControllerCall getGuardianByCaseId(String caseId, boolean forceNetwork, PatientGuardianCallback callback) {
         if (caseId == null || caseId.isEmpty()) {
             callback.onFailure("Invalid case ID");
-            return;
+            return ControllerCall.completed();
         }
 
         String url = ApiConstants.getGuardianAssignmentByPatientUrl(caseId);
         Log.d(TAG, "[API URL] " + url);
 
-        Request request = new Request.Builder()
+        Request.Builder builder = new Request.Builder()
                 .url(url)
-                .get()
-                .build();
-
-        client.newCall(request).enqueue(new Callback() {
-            final Handler mainHandler = new Handler(Looper.getMainLooper());
+                .get();
+        if (forceNetwork) builder.cacheControl(CacheControl.FORCE_NETWORK);
+        Request request = builder.build();
 
+        Call call = client.newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "[NETWORK ERROR] " + e.getMessage());
-                mainHandler.post(() -> callback.onFailure("Network error: " + e.getMessage()));
+                handle.deliver(() -> callback.onFailure("Network error: " + e.getMessage()));
             }
 
             @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String resString = response.body() != null ? response.body().string() : "";
-                Log.d(TAG, "[RESPONSE] " + resString);
-
-                mainHandler.post(() -> {
-                    try {
-                        JSONObject resJson = new JSONObject(resString);
-                        boolean success = resJson.optBoolean("success", false);
-
-                        if (success) {
-                            JSONArray dataArray = resJson.getJSONArray("data");
-                            Type listType = new TypeToken<List<PatientGuardianInfo>>(){}.getType();
-                            List<PatientGuardianInfo> guardianList = new Gson().fromJson(dataArray.toString(), listType);
-                            callback.onSuccess(guardianList);
+            public void onResponse(Call call, Response response) {
+                // Decode element by element straight from the response stream on this
+                // OkHttp thread; only the finished list is posted to the main thread
+                try (ResponseBody body = response.body(); JsonReader reader = body != null ? JsonReaders.of(body) : null) {
+                    if (reader == null) throw new IOException("Empty response body");
+
+                    boolean success = false;
+                    List<PatientGuardianInfo> guardians = null;
+                    String message = null;
+
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        if (name.equals("success")) {
+                            success = JsonReaders.nextBoolean(reader);
+                        } else if (name.equals("data") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            TypeAdapter<PatientGuardianInfo> adapter = PatientGuardianInfo.ADAPTER;
+                            guardians = new ArrayList<>();
+                            reader.beginArray();
+                            while (reader.hasNext()) guardians.add(adapter.read(reader));
+                            reader.endArray();
+                        } else if (name.equals("message")) {
+                            message = JsonReaders.nextString(reader);
                         } else {
-                            String message = resJson.optString("message", "Failed to fetch guardian info");
-                            callback.onFailure(message);
+                            reader.skipValue();
                         }
-
-                    } catch (JSONException e) {
-                        Log.e(TAG, "[JSON ERROR]", e);
-                        callback.onFailure("Invalid server response");
                     }
-                });
+                    reader.endObject();
+
+                    if (success && guardians != null) {
+                        List<PatientGuardianInfo> guardianList = Collections.unmodifiableList(guardians);
+                        boolean changed = store.writeThrough(LocalStore.KIND_PATIENT_GUARDIANS, caseId, guardianList);
+                        handle.deliver(() -> {
+                            if (changed) callback.onSuccess(guardianList);
+                            else callback.onUnchanged(guardianList);
+                        });
+                    } else if (success) {
+                        handle.deliver(() -> callback.onFailure("Invalid server response"));
+                    } else {
+                        String failure = message != null ? message : "Failed to fetch guardian info";
+                        handle.deliver(() -> callback.onFailure(failure));
+                    }
+
+                } catch (IOException | IllegalStateException | JsonParseException e) {
+                    Log.e(TAG, "[JSON ERROR]", e);
+                    handle.deliver(() -> callback.onFailure("Invalid server response"));
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "[UNEXPECTED ERROR]", e);
+                    handle.deliver(() -> callback.onFailure("Invalid server response"));
+                }
             }
         });
+        return handle;
+    }
+
+    public ControllerCall getCurrentGuardian(PatientGuardianCallback callback) {
+        return getCurrentGuardian(false, callback);
+    }
+
+    /** User-initiated refresh: goes to the server even within the response cache window */
+    public ControllerCall refreshCurrentGuardian(PatientGuardianCallback callback) {
+        return getCurrentGuardian(true, callback);
     }
 
-    public void getCurrentGuardian(PatientGuardianCallback callback) {
+    private ControllerCall getCurrentGuardian(boolean forceNetwork, PatientGuardianCallback callback) {
         String savedCaseId = sharedPrefManager.getCaseId();
         Log.d(TAG, "[SESSION] Case ID: " + savedCaseId);
 
         if (savedCaseId == null || savedCaseId.isEmpty()) {
             callback.onFailure("No case ID found");
-            return;
+            return ControllerCall.completed();
         }
 
-        getGuardianByCaseId(savedCaseId, callback);
+        return getGuardianByCaseId(savedCaseId, forceNetwork, callback);
     }
 }
@@ -1,132 +1,233 @@
 package com.example.carebridge.shared.controller;
 
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 
+import com.example.carebridge.shared.model.Medication;
 import com.example.carebridge.shared.model.Prescription;
-import com.example.carebridge.shared.model.PrescriptionResponse;
+import com.example.carebridge.shared.network.ControllerCall;
+import com.example.carebridge.shared.network.SharedHttpClient;
 import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.example.carebridge.shared.utils.LocalStore;
 import com.example.carebridge.shared.utils.SharedPrefManager;
-import com.google.gson.Gson;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import okhttp3.CacheControl;
 import okhttp3.Call;
 import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 public class PrescriptionController {
 
     private static final String TAG = "PrescriptionController";
     private final Context context;
     private final SharedPrefManager sharedPrefManager;
+    private final LocalStore store;
     private final OkHttpClient client;
-    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     public PrescriptionController(Context context) {
-        this.context = context;
+        this.context = context.getApplicationContext();
         this.sharedPrefManager = new SharedPrefManager(context);
-        this.client = new OkHttpClient();
+        this.store = LocalStore.get(context);
+        this.client = SharedHttpClient.get();
     }
 
     public interface PrescriptionCallback {
         void onSuccess(List<Prescription> prescriptions);
         void onFailure(String errorMessage);
+
+        /** The refresh matched the stored copy; callers that rendered from the store can skip it */
+        default void onUnchanged(List<Prescription> prescriptions) { onSuccess(prescriptions); }
+    }
+
+    public ControllerCall fetchPrescriptions(PrescriptionCallback callback) {
+        String caseId = sharedPrefManager.getCaseId();
+        return fetchPrescriptionsInternal(caseId, false, callback);
     }
 
-    public void fetchPrescriptions(PrescriptionCallback callback) {
+    /** User-initiated refresh: goes to the server even within the response cache window */
+    public ControllerCall refreshPrescriptions(PrescriptionCallback callback) {
         String caseId = sharedPrefManager.getCaseId();
-        fetchPrescriptionsInternal(caseId, callback);
+        return fetchPrescriptionsInternal(caseId, true, callback);
     }
 
-    public void fetchPrescriptionsWithCaseId(String caseId, PrescriptionCallback callback) {
-        fetchPrescriptionsInternal(caseId, callback);
+    public ControllerCall fetchPrescriptionsWithCaseId(String caseId, PrescriptionCallback callback) {
+        return fetchPrescriptionsInternal(caseId, false, callback);
     }
 
-    private void fetchPrescriptionsInternal(String caseId, PrescriptionCallback callback) {
+    private ControllerCall fetchPrescriptionsInternal(String caseId, boolean forceNetwork, PrescriptionCallback callback) {
         if (caseId == null || caseId.isEmpty()) {
             callback.onFailure("Invalid case ID");
-            return;
+            return ControllerCall.completed();
         }
 
         String url = ApiConstants.getPrescriptionByCaseIdUrl(caseId);
         Log.d(TAG, "Request URL: " + url);
 
-        Request request = new Request.Builder().url(url).build();
+        Request.Builder builder = new Request.Builder().url(url);
+        if (forceNetwork) builder.cacheControl(CacheControl.FORCE_NETWORK);
+        Request request = builder.build();
 
-        client.newCall(request).enqueue(new Callback() {
+        Call call = client.newCall(request);
+        ControllerCall handle = new ControllerCall(call);
+        call.enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
-                mainHandler.post(() ->
+                handle.deliver(() ->
                         callback.onFailure("Network error: " + e.getMessage())
                 );
             }
 
             @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String res = response.body() != null ? response.body().string() : "";
-
-                // LOG the full response for debugging
-                Log.d(TAG, "Server Response: " + res);
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful() || body == null) {
+                        handle.deliver(() ->
+                                callback.onFailure("Server error: " + response.message())
+                        );
+                        return;
+                    }
 
-                if (!response.isSuccessful()) {
-                    mainHandler.post(() ->
-                            callback.onFailure("Server error: " + response.message())
-                    );
-                    return;
+                    // Decode and filter on this OkHttp thread; only the finished list reaches the main thread
+                    parseResponse(body, caseId, handle, callback);
+                } catch (RuntimeException e) {
+                    // Anything else thrown while decoding or storing must not crash the app
+                    Log.e(TAG, "Unexpected parsing error: ", e);
+                    handle.deliver(() -> callback.onFailure("Unexpected parsing error: " + e.getMessage()));
                 }
-
-                mainHandler.post(() -> parseResponse(res, callback));
             }
         });
+        return handle;
     }
 
-    private void parseResponse(String json, PrescriptionCallback callback) {
-        try {
-            Gson gson = new Gson();
-            PrescriptionResponse prescriptionResponse =
-                    gson.fromJson(json, PrescriptionResponse.class);
+    /**
+     * Runs on the OkHttp callback thread. Reads {"status", "prescriptions": [...]} straight
+     * from the response stream; a prescription whose status is not Active is skipped as it
+     * is read, medicines included, so only active ones are ever built.
+     * Writes the unmodifiable list of active prescriptions through to {@link LocalStore}
+     * and posts it. A case with none left (status false, or no Active entries) is an empty
+     * result, not a failure: it replaces the stored list so discontinued medicines stop
+     * being shown and reminded.
+     */
+    private void parseResponse(ResponseBody body, String caseId, ControllerCall handle, PrescriptionCallback callback) {
+        boolean status = false;
+        List<Prescription> activePrescriptions = new ArrayList<>();
+
+        try (JsonReader reader = JsonReaders.of(body)) {
+            TypeAdapter<Medication> medicationAdapter = Medication.ADAPTER;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("status")) {
+                    status = JsonReaders.nextBoolean(reader);
+                } else if (name.equals("prescriptions") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        Prescription p = readIfActive(reader, medicationAdapter);
+                        if (p != null) activePrescriptions.add(p);
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
 
-            Log.d(TAG, "Parsed PrescriptionResponse: " + prescriptionResponse);
+        } catch (IOException | IllegalStateException | JsonParseException e) {
+            Log.e(TAG, "JSON parsing error: ", e);
+            handle.deliver(() -> callback.onFailure("JSON format error: " + e.getMessage()));
+            return;
+        }
 
-            if (prescriptionResponse == null || !prescriptionResponse.isStatus()) {
-                callback.onFailure("No prescriptions found");
-                return;
-            }
+        // The backend answers status false when the case has no prescriptions at all
+        if (!status) activePrescriptions.clear();
 
-            List<Prescription> allPrescriptions = prescriptionResponse.getPrescriptions();
-            List<Prescription> activePrescriptions = new ArrayList<>();
+        Log.d(TAG, "Active Prescriptions: " + activePrescriptions.size());
 
-            if (allPrescriptions != null) {
-                for (Prescription p : allPrescriptions) {
-                    if (p != null && "Active".equalsIgnoreCase(p.getStatus())) {
-                        if (p.getMedicines() == null) p.setMedicines(new ArrayList<>());
-                        activePrescriptions.add(p);
-                    }
-                }
-            }
+        List<Prescription> result = Collections.unmodifiableList(activePrescriptions);
+        boolean changed = store.writeThrough(LocalStore.KIND_PRESCRIPTIONS, caseId, result);
+        handle.deliver(() -> {
+            if (changed) callback.onSuccess(result);
+            else callback.onUnchanged(result);
+        });
+    }
 
-            Log.d(TAG, "Active Prescriptions: " + activePrescriptions);
+    /**
+     * One prescription object, or null (and fully consumed) when it is not Active.
+     * The backend lists status before medicines, so an inactive prescription's
+     * medicines are skipped without being decoded.
+     */
+    private static Prescription readIfActive(JsonReader reader, TypeAdapter<Medication> medicationAdapter)
+            throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
 
-            if (activePrescriptions.isEmpty()) {
-                callback.onFailure("No active prescriptions found");
-            } else {
-                callback.onSuccess(activePrescriptions);
-            }
+        Prescription p = new Prescription();
+        List<Medication> medicines = null;
+        boolean skipping = false;
 
-        } catch (JsonSyntaxException e) {
-            Log.e(TAG, "JSON parsing error: ", e);
-            callback.onFailure("JSON format error: " + e.getMessage());
-        } catch (Exception e) {
-            Log.e(TAG, "Unexpected parsing error: ", e);
-            callback.onFailure("Unexpected parsing error: " + e.getMessage());
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (skipping) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "status":
+                    p.setStatus(JsonReaders.nextString(reader));
+                    skipping = !"Active".equalsIgnoreCase(p.getStatus());
+                    break;
+                case "medicines":
+                    if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                        reader.skipValue();
+                        break;
+                    }
+                    medicines = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) medicines.add(medicationAdapter.read(reader));
+                    reader.endArray();
+                    break;
+                case "prescription_id":
+                    p.setPrescription_id(JsonReaders.nextInt(reader));
+                    break;
+                case "case_id":
+                    p.setCase_id(JsonReaders.nextString(reader));
+                    break;
+                case "doctor_name":
+                    p.setDoctor_name(JsonReaders.nextString(reader));
+                    break;
+                case "issue_date":
+                    p.setIssue_date(JsonReaders.nextString(reader));
+                    break;
+                case "notes":
+                    p.setNotes(JsonReaders.nextString(reader));
+                    break;
+                case "created_at":
+                    p.setCreated_at(JsonReaders.nextString(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
         }
+        reader.endObject();
+
+        if (!"Active".equalsIgnoreCase(p.getStatus())) return null;
+        p.setMedicines(medicines == null ? Collections.emptyList() : Collections.unmodifiableList(medicines));
+        return p;
     }
 }
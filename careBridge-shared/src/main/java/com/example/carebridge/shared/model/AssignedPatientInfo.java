@@ -1,6 +1,11 @@
 package com.example.carebridge.shared.model;
 
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 /**
@@ -8,6 +13,47 @@ import java.io.Serializable;
  * Contains personal, contact, and assignment information for patient management
  */
 public class AssignedPatientInfo implements Serializable {
+
+    public static final TypeAdapter<AssignedPatientInfo> ADAPTER = new TypeAdapter<AssignedPatientInfo>() {
+        @Override
+        public void write(JsonWriter out, AssignedPatientInfo p) throws IOException {
+            out.beginObject();
+            out.name("patient_id").value(p.patient_id);
+            out.name("full_name").value(p.full_name);
+            out.name("gender").value(p.gender);
+            out.name("age").value(p.age);
+            out.name("status").value(p.status);
+            out.name("contact_number").value(p.contact_number);
+            out.name("email").value(p.email);
+            out.name("assigned_date").value(p.assigned_date);
+            out.name("role").value(p.role);
+            out.name("notes").value(p.notes);
+            out.endObject();
+        }
+
+        @Override
+        public AssignedPatientInfo read(JsonReader in) throws IOException {
+            AssignedPatientInfo p = new AssignedPatientInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "patient_id": p.patient_id = JsonReaders.nextString(in); break;
+                    case "full_name": p.full_name = JsonReaders.nextString(in); break;
+                    case "gender": p.gender = JsonReaders.nextString(in); break;
+                    case "age": p.age = JsonReaders.nextInt(in); break;
+                    case "status": p.status = JsonReaders.nextString(in); break;
+                    case "contact_number": p.contact_number = JsonReaders.nextString(in); break;
+                    case "email": p.email = JsonReaders.nextString(in); break;
+                    case "assigned_date": p.assigned_date = JsonReaders.nextString(in); break;
+                    case "role": p.role = JsonReaders.nextString(in); break;
+                    case "notes": p.notes = JsonReaders.nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return p;
+        }
+    }.nullSafe();
     private String patient_id;
     private String full_name;
     private String gender;
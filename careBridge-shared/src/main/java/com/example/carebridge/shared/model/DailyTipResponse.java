@@ -1,36 +1,96 @@
 package com.example.carebridge.shared.model;
 
-import com.google.gson.annotations.SerializedName;
+import com.example.carebridge.shared.utils.JsonReaders;
 import com.google.gson.JsonElement;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 public class DailyTipResponse {
 
-    @SerializedName("status")
+    // "data" is decoded as soon as "type" is known; the tree is only built when data comes first
+    public static final TypeAdapter<DailyTipResponse> ADAPTER = new TypeAdapter<DailyTipResponse>() {
+        @Override
+        public void write(JsonWriter out, DailyTipResponse r) throws IOException {
+            out.beginObject();
+            out.name("status").value(r.status);
+            out.name("type").value(r.type);
+            if (r.tips != null) {
+                out.name("data");
+                JsonReaders.writeList(out, r.tips, Tip.ADAPTER);
+            } else if (r.video != null) {
+                out.name("data");
+                Video.ADAPTER.write(out, r.video);
+            }
+            out.endObject();
+        }
+
+        @Override
+        public DailyTipResponse read(JsonReader in) throws IOException {
+            DailyTipResponse r = new DailyTipResponse();
+            JsonElement early = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "status": r.status = JsonReaders.nextString(in); break;
+                    case "type": r.type = JsonReaders.nextString(in); break;
+                    case "data":
+                        if (r.type != null) r.readData(in);
+                        else early = JsonParser.parseReader(in);
+                        break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            if (early != null) r.readData(early);
+            return r;
+        }
+    }.nullSafe();
+
     private String status;
 
-    @SerializedName("type")
     private String type; // "tip" or "video"
 
-    @SerializedName("data")
-    private JsonElement data; // Single field, parsed dynamically
+    private List<Tip> tips;
+
+    private Video video;
 
     public String getStatus() { return status; }
     public String getType() { return type; }
 
     public boolean isSuccess() { return "success".equalsIgnoreCase(status); }
 
-    // Parse tips if type = tip
+    // Tips if type = tip
     public List<Tip> getTipList() {
-        if (!"tip".equalsIgnoreCase(type) || data == null) return null;
-        return new Gson().fromJson(data, new TypeToken<List<Tip>>(){}.getType());
+        return "tip".equalsIgnoreCase(type) ? tips : null;
     }
 
-    // Parse video if type = video
+    // Video if type = video
     public Video getVideo() {
-        if (!"video".equalsIgnoreCase(type) || data == null) return null;
-        return new Gson().fromJson(data, Video.class);
+        return "video".equalsIgnoreCase(type) ? video : null;
+    }
+
+    private void readData(JsonReader in) throws IOException {
+        if ("tip".equalsIgnoreCase(type)) {
+            tips = JsonReaders.nextList(in, Tip.ADAPTER);
+        } else if ("video".equalsIgnoreCase(type)) {
+            video = Video.ADAPTER.read(in);
+        } else {
+            in.skipValue();
+        }
+    }
+
+    private void readData(JsonElement data) {
+        if ("tip".equalsIgnoreCase(type) && data.isJsonArray()) {
+            tips = new ArrayList<>();
+            for (JsonElement tip : data.getAsJsonArray()) tips.add(Tip.ADAPTER.fromJsonTree(tip));
+        } else if ("video".equalsIgnoreCase(type) && data.isJsonObject()) {
+            video = Video.ADAPTER.fromJsonTree(data);
+        }
     }
 }
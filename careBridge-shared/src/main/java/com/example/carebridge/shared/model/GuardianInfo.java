@@ -1,9 +1,55 @@
 package com.example.carebridge.shared.model;
 
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 public class GuardianInfo implements Serializable {
+
+    public static final TypeAdapter<GuardianInfo> ADAPTER = new TypeAdapter<GuardianInfo>() {
+        @Override
+        public void write(JsonWriter out, GuardianInfo g) throws IOException {
+            out.beginObject();
+            out.name("guardian_id").value(g.guardian_id);
+            out.name("full_name").value(g.full_name);
+            out.name("phone").value(g.phone);
+            out.name("email").value(g.email);
+            out.name("address").value(g.address);
+            out.name("type").value(g.type);
+            out.name("occupation").value(g.occupation);
+            out.name("availability").value(g.availability);
+            out.name("notes").value(g.notes);
+            out.name("created_at").value(g.created_at);
+            out.endObject();
+        }
+
+        @Override
+        public GuardianInfo read(JsonReader in) throws IOException {
+            GuardianInfo g = new GuardianInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "guardian_id": g.guardian_id = JsonReaders.nextString(in); break;
+                    case "full_name": g.full_name = JsonReaders.nextString(in); break;
+                    case "phone": g.phone = JsonReaders.nextString(in); break;
+                    case "email": g.email = JsonReaders.nextString(in); break;
+                    case "address": g.address = JsonReaders.nextString(in); break;
+                    case "type": g.type = JsonReaders.nextString(in); break;
+                    case "occupation": g.occupation = JsonReaders.nextString(in); break;
+                    case "availability": g.availability = JsonReaders.nextString(in); break;
+                    case "notes": g.notes = JsonReaders.nextString(in); break;
+                    case "created_at": g.created_at = JsonReaders.nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return g;
+        }
+    }.nullSafe();
     private String guardian_id;
     private String full_name;
     private String phone;
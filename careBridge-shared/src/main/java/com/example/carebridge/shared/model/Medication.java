@@ -1,13 +1,69 @@
 package com.example.carebridge.shared.model;
 
+import com.example.carebridge.shared.utils.DateFormats;
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 import java.util.Date;
-import java.util.Locale;
 
 public class Medication {
 
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    public static final TypeAdapter<Medication> ADAPTER = new TypeAdapter<Medication>() {
+        @Override
+        public void write(JsonWriter out, Medication m) throws IOException {
+            out.beginObject();
+            out.name("prescription_medicine_id").value(m.prescriptionMedicineId);
+            out.name("medicine_id").value(m.medicineId);
+            out.name("medicine_name").value(m.medicineName);
+            out.name("dosage").value(m.dosage);
+            out.name("morning").value(m.morning);
+            out.name("afternoon").value(m.afternoon);
+            out.name("evening").value(m.evening);
+            out.name("night").value(m.night);
+            out.name("with_food").value(m.withFood);
+            out.name("durationDays").value(m.durationDays);
+            out.name("extra_instructions").value(m.extraInstructions);
+            out.name("isTaken").value(m.isTaken);
+            out.name("start_date").value(m.startDateStr);
+            out.name("end_date").value(m.endDateStr);
+            out.endObject();
+        }
+
+        @Override
+        public Medication read(JsonReader in) throws IOException {
+            Medication m = new Medication();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "prescription_medicine_id": m.prescriptionMedicineId = JsonReaders.nextInt(in); break;
+                    case "medicine_id": m.medicineId = JsonReaders.nextInt(in); break;
+                    case "medicine_name": m.medicineName = JsonReaders.nextString(in); break;
+                    case "dosage": m.dosage = JsonReaders.nextString(in); break;
+                    case "morning": m.morning = JsonReaders.nextBoolean(in); break;
+                    case "afternoon": m.afternoon = JsonReaders.nextBoolean(in); break;
+                    case "evening": m.evening = JsonReaders.nextBoolean(in); break;
+                    case "night": m.night = JsonReaders.nextBoolean(in); break;
+                    case "with_food": m.withFood = JsonReaders.nextBoolean(in); break;
+                    case "durationDays": m.durationDays = JsonReaders.nextInt(in); break;
+                    case "extra_instructions": m.extraInstructions = JsonReaders.nextString(in); break;
+                    case "isTaken": m.isTaken = JsonReaders.nextBoolean(in); break;
+                    case "start_date": m.startDateStr = JsonReaders.nextString(in); break;
+                    case "end_date": m.endDateStr = JsonReaders.nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            m.applyDates();
+            return m;
+        }
+    }.nullSafe();
+
     @SerializedName("prescription_medicine_id")
     private int prescriptionMedicineId;
 
@@ -50,6 +106,10 @@ public class Medication {
     @SerializedName("end_date")
     private String endDateStr;
 
+    /** start_date / end_date as epoch millis; derived while decoding, never serialized */
+    private transient long startAtMillis = DateFormats.INVALID_TIME;
+    private transient long endAtMillis = DateFormats.INVALID_TIME;
+
     public int getPrescriptionMedicineId() { return prescriptionMedicineId; }
     public int getMedicineId() { return medicineId; }
     public String getMedicineName() { return medicineName; }
@@ -64,21 +124,21 @@ public class Medication {
     public void setTaken(boolean taken) { isTaken = taken; }
     public int getDurationDays() { return durationDays; }
     public Date getScheduledDate() { return scheduledDate; }
-
-    // Call this after deserialization
-    public void calculateDuration() {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-            Date start = sdf.parse(startDateStr);
-            Date end = sdf.parse(endDateStr);
-            this.scheduledDate = start;
-            if (start != null && end != null) {
-                long diff = end.getTime() - start.getTime();
-                this.durationDays = (int) (diff / (1000 * 60 * 60 * 24)) + 1;
-            }
-        } catch (ParseException e) {
-            e.printStackTrace();
-            this.durationDays = 0;
+    public long getStartAtMillis() { return startAtMillis; }
+    public long getEndAtMillis() { return endAtMillis; }
+
+    /**
+     * Parse start_date / end_date once, when {@link #ADAPTER} decodes the medicine, and
+     * derive the scheduled date and inclusive day count from them. Without both dates the
+     * durationDays sent by the server (or stored locally) is kept.
+     */
+    private void applyDates() {
+        startAtMillis = DateFormats.parseEpochMillis(startDateStr);
+        endAtMillis = DateFormats.parseEpochMillis(endDateStr);
+        scheduledDate = startAtMillis != DateFormats.INVALID_TIME ? new Date(startAtMillis) : null;
+        if (startAtMillis != DateFormats.INVALID_TIME && endAtMillis != DateFormats.INVALID_TIME) {
+            // Rounded, so a 23- or 25-hour day across a DST change still counts as one
+            durationDays = (int) Math.round((endAtMillis - startAtMillis) / (double) DAY_MILLIS) + 1;
         }
     }
 
@@ -1,13 +1,57 @@
 package com.example.carebridge.shared.model;
 
+import com.example.carebridge.shared.utils.DateFormats;
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
 import java.util.Date;
-import java.util.Locale;
 
 public class MedicineLog {
+
+    public static final TypeAdapter<MedicineLog> ADAPTER = new TypeAdapter<MedicineLog>() {
+        @Override
+        public void write(JsonWriter out, MedicineLog log) throws IOException {
+            out.beginObject();
+            out.name("log_id").value(log.logId);
+            out.name("case_id").value(log.caseId);
+            out.name("prescription_id").value(log.prescriptionId);
+            out.name("medicine_id").value(log.medicineId);
+            out.name("scheduled_time").value(log.scheduledTime);
+            out.name("actual_time").value(log.actualTime);
+            out.name("taken_status").value(log.takenStatus);
+            out.name("dose_taken").value(log.doseTaken);
+            out.name("notes").value(log.notes);
+            out.endObject();
+        }
+
+        @Override
+        public MedicineLog read(JsonReader in) throws IOException {
+            MedicineLog log = new MedicineLog();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "log_id": log.logId = JsonReaders.nextInt(in); break;
+                    case "case_id": log.caseId = JsonReaders.nextString(in); break;
+                    case "prescription_id": log.prescriptionId = JsonReaders.nextInt(in); break;
+                    case "medicine_id": log.medicineId = JsonReaders.nextInt(in); break;
+                    case "scheduled_time": log.scheduledTime = JsonReaders.nextString(in); break;
+                    case "actual_time": log.actualTime = JsonReaders.nextString(in); break;
+                    case "taken_status": log.takenStatus = JsonReaders.nextString(in); break;
+                    case "dose_taken": log.doseTaken = JsonReaders.nextInt(in); break;
+                    case "notes": log.notes = JsonReaders.nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            // Parsed here, on the decoding thread, so sorts and filters never parse again
+            log.scheduledAtMillis = DateFormats.parseEpochMillis(log.scheduledTime);
+            return log;
+        }
+    }.nullSafe();
     @SerializedName("log_id")
     private int logId;
 
@@ -35,6 +79,11 @@ public class MedicineLog {
     @SerializedName("notes")
     private String notes;
 
+    private static final long UNPARSED = Long.MAX_VALUE;
+
+    /** scheduled_time as epoch millis; derived, never serialized */
+    private transient volatile long scheduledAtMillis = UNPARSED;
+
     public int getLogId() { return logId; }
     public String getCaseId() { return caseId; }
     public int getPrescriptionId() { return prescriptionId; }
@@ -57,16 +106,23 @@ public class MedicineLog {
         return "Not Taken".equalsIgnoreCase(takenStatus);
     }
 
-    /** Parse scheduledTime string to Date object */
-    public Date getScheduledDate() {
-        if (scheduledTime == null) return null;
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-        try {
-            return sdf.parse(scheduledTime);
-        } catch (ParseException e) {
-            e.printStackTrace();
-            return null;
+    /**
+     * scheduled_time as epoch millis, or {@link DateFormats#INVALID_TIME}. Parsed once:
+     * by {@link #ADAPTER} while decoding, otherwise on first use.
+     */
+    public long getScheduledAtMillis() {
+        long millis = scheduledAtMillis;
+        if (millis == UNPARSED) {
+            millis = DateFormats.parseEpochMillis(scheduledTime);
+            scheduledAtMillis = millis;
         }
+        return millis;
+    }
+
+    /** scheduled_time as a Date, or null when absent or malformed */
+    public Date getScheduledDate() {
+        long millis = getScheduledAtMillis();
+        return millis == DateFormats.INVALID_TIME ? null : new Date(millis);
     }
 
 }
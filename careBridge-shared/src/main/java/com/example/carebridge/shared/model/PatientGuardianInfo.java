@@ -1,11 +1,57 @@
 package com.example.carebridge.shared.model;
 
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
 
 /**
  * PatientGuardianInfo: Data model representing guardian information assigned to a patient
  * Contains guardian details, contact information, and assignment metadata
  */
 public class PatientGuardianInfo {
+
+    public static final TypeAdapter<PatientGuardianInfo> ADAPTER = new TypeAdapter<PatientGuardianInfo>() {
+        @Override
+        public void write(JsonWriter out, PatientGuardianInfo g) throws IOException {
+            out.beginObject();
+            out.name("assignment_id").value(g.assignment_id);
+            out.name("guardian_id").value(g.guardian_id);
+            out.name("full_name").value(g.full_name);
+            out.name("phone").value(g.phone);
+            out.name("email").value(g.email);
+            out.name("role").value(g.role);
+            out.name("notes").value(g.notes);
+            out.name("type").value(g.type);
+            out.name("assigned_date").value(g.assigned_date);
+            out.endObject();
+        }
+
+        @Override
+        public PatientGuardianInfo read(JsonReader in) throws IOException {
+            PatientGuardianInfo g = new PatientGuardianInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "assignment_id": g.assignment_id = JsonReaders.nextInt(in); break;
+                    case "guardian_id": g.guardian_id = JsonReaders.nextString(in); break;
+                    case "full_name": g.full_name = JsonReaders.nextString(in); break;
+                    case "phone": g.phone = JsonReaders.nextString(in); break;
+                    case "email": g.email = JsonReaders.nextString(in); break;
+                    case "role": g.role = JsonReaders.nextString(in); break;
+                    case "notes": g.notes = JsonReaders.nextString(in); break;
+                    case "type": g.type = JsonReaders.nextString(in); break;
+                    case "assigned_date": g.assigned_date = JsonReaders.nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return g;
+        }
+    }.nullSafe();
     private int assignment_id;
     private String guardian_id;
     private String full_name;
@@ -1,11 +1,78 @@
 package com.example.carebridge.shared.model;
 
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.List;
 
 public class PatientInfo implements Serializable {
 
+    public static final TypeAdapter<PatientInfo> ADAPTER = new TypeAdapter<PatientInfo>() {
+        @Override
+        public void write(JsonWriter out, PatientInfo p) throws IOException {
+            out.beginObject();
+            out.name("case_id").value(p.caseId);
+            out.name("full_name").value(p.fullName);
+            out.name("dob").value(p.dob);
+            out.name("gender").value(p.gender);
+            out.name("address").value(p.address);
+            out.name("contact_number").value(p.contactNumber);
+            out.name("email").value(p.email);
+            out.name("Status").value(p.status);
+            out.name("created_at").value(p.createdAt);
+            out.name("general_info").value(p.generalInfo);
+            out.name("blood_group").value(p.bloodGroup);
+            out.name("height_cm").value(p.heightCm);
+            out.name("weight_kg").value(p.weightKg);
+            out.name("past_surgeries").value(p.pastSurgeries);
+            out.name("current_symptoms").value(p.currentSymptoms);
+            out.name("allergies");
+            JsonReaders.writeList(out, p.allergies, JsonReaders.STRING);
+            out.name("medical_conditions");
+            JsonReaders.writeList(out, p.medicalConditions, JsonReaders.STRING);
+            out.name("totalMedicines").value(p.totalMedicines);
+            out.name("takenMedicines").value(p.takenMedicines);
+            out.endObject();
+        }
+
+        @Override
+        public PatientInfo read(JsonReader in) throws IOException {
+            PatientInfo p = new PatientInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "case_id": p.caseId = JsonReaders.nextString(in); break;
+                    case "full_name": p.fullName = JsonReaders.nextString(in); break;
+                    case "dob": p.dob = JsonReaders.nextString(in); break;
+                    case "gender": p.gender = JsonReaders.nextString(in); break;
+                    case "address": p.address = JsonReaders.nextString(in); break;
+                    case "contact_number": p.contactNumber = JsonReaders.nextString(in); break;
+                    case "email": p.email = JsonReaders.nextString(in); break;
+                    case "Status": p.status = JsonReaders.nextString(in); break;
+                    case "created_at": p.createdAt = JsonReaders.nextString(in); break;
+                    case "general_info": p.generalInfo = JsonReaders.nextString(in); break;
+                    case "blood_group": p.bloodGroup = JsonReaders.nextString(in); break;
+                    case "height_cm": p.heightCm = JsonReaders.nextString(in); break;
+                    case "weight_kg": p.weightKg = JsonReaders.nextString(in); break;
+                    case "past_surgeries": p.pastSurgeries = JsonReaders.nextString(in); break;
+                    case "current_symptoms": p.currentSymptoms = JsonReaders.nextString(in); break;
+                    case "allergies": p.allergies = JsonReaders.nextList(in, JsonReaders.STRING); break;
+                    case "medical_conditions": p.medicalConditions = JsonReaders.nextList(in, JsonReaders.STRING); break;
+                    case "totalMedicines": p.totalMedicines = JsonReaders.nextInt(in); break;
+                    case "takenMedicines": p.takenMedicines = JsonReaders.nextInt(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return p;
+        }
+    }.nullSafe();
+
     @SerializedName("case_id")
     private String caseId;
 
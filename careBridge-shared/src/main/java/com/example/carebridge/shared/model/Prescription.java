@@ -1,8 +1,52 @@
 package com.example.carebridge.shared.model;
 
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 import java.util.List;
 
 public class Prescription {
+
+    public static final TypeAdapter<Prescription> ADAPTER = new TypeAdapter<Prescription>() {
+        @Override
+        public void write(JsonWriter out, Prescription p) throws IOException {
+            out.beginObject();
+            out.name("prescription_id").value(p.prescription_id);
+            out.name("case_id").value(p.case_id);
+            out.name("doctor_name").value(p.doctor_name);
+            out.name("issue_date").value(p.issue_date);
+            out.name("status").value(p.status);
+            out.name("notes").value(p.notes);
+            out.name("created_at").value(p.created_at);
+            out.name("medicines");
+            JsonReaders.writeList(out, p.medicines, Medication.ADAPTER);
+            out.endObject();
+        }
+
+        @Override
+        public Prescription read(JsonReader in) throws IOException {
+            Prescription p = new Prescription();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "prescription_id": p.prescription_id = JsonReaders.nextInt(in); break;
+                    case "case_id": p.case_id = JsonReaders.nextString(in); break;
+                    case "doctor_name": p.doctor_name = JsonReaders.nextString(in); break;
+                    case "issue_date": p.issue_date = JsonReaders.nextString(in); break;
+                    case "status": p.status = JsonReaders.nextString(in); break;
+                    case "notes": p.notes = JsonReaders.nextString(in); break;
+                    case "created_at": p.created_at = JsonReaders.nextString(in); break;
+                    case "medicines": p.medicines = JsonReaders.nextList(in, Medication.ADAPTER); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return p;
+        }
+    }.nullSafe();
     private int prescription_id;
     private String case_id;
     private String doctor_name;
@@ -1,8 +1,40 @@
 package com.example.carebridge.shared.model;
 
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 import java.util.List;
 
 public class PrescriptionResponse {
+
+    public static final TypeAdapter<PrescriptionResponse> ADAPTER = new TypeAdapter<PrescriptionResponse>() {
+        @Override
+        public void write(JsonWriter out, PrescriptionResponse r) throws IOException {
+            out.beginObject();
+            out.name("status").value(r.status);
+            out.name("prescriptions");
+            JsonReaders.writeList(out, r.prescriptions, Prescription.ADAPTER);
+            out.endObject();
+        }
+
+        @Override
+        public PrescriptionResponse read(JsonReader in) throws IOException {
+            PrescriptionResponse r = new PrescriptionResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "status": r.status = JsonReaders.nextBoolean(in); break;
+                    case "prescriptions": r.prescriptions = JsonReaders.nextList(in, Prescription.ADAPTER); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return r;
+        }
+    }.nullSafe();
     private boolean status;
     private List<Prescription> prescriptions;
 
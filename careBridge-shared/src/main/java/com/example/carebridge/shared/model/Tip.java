@@ -1,9 +1,54 @@
 package com.example.carebridge.shared.model;
 
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 
 public class Tip {
 
+    public static final TypeAdapter<Tip> ADAPTER = new TypeAdapter<Tip>() {
+        @Override
+        public void write(JsonWriter out, Tip t) throws IOException {
+            out.beginObject();
+            out.name("tip_id").value(t.tipId);
+            out.name("title").value(t.title);
+            out.name("description").value(t.description);
+            out.name("type").value(t.type);
+            out.name("category").value(t.category);
+            out.name("active_status").value(t.activeStatus);
+            out.name("show_date").value(t.showDate);
+            out.name("created_at").value(t.createdAt);
+            out.name("updated_at").value(t.updatedAt);
+            out.endObject();
+        }
+
+        @Override
+        public Tip read(JsonReader in) throws IOException {
+            Tip t = new Tip();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "tip_id": t.tipId = JsonReaders.nextString(in); break;
+                    case "title": t.title = JsonReaders.nextString(in); break;
+                    case "description": t.description = JsonReaders.nextString(in); break;
+                    case "type": t.type = JsonReaders.nextString(in); break;
+                    case "category": t.category = JsonReaders.nextString(in); break;
+                    case "active_status": t.activeStatus = JsonReaders.nextString(in); break;
+                    case "show_date": t.showDate = JsonReaders.nextString(in); break;
+                    case "created_at": t.createdAt = JsonReaders.nextString(in); break;
+                    case "updated_at": t.updatedAt = JsonReaders.nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return t;
+        }
+    }.nullSafe();
+
     @SerializedName("tip_id")
     private String tipId;
 
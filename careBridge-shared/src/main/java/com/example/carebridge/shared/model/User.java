@@ -1,8 +1,48 @@
 package com.example.carebridge.shared.model;
 
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 import java.io.Serializable;
 
 public class User implements Serializable {
+
+    public static final TypeAdapter<User> ADAPTER = new TypeAdapter<User>() {
+        @Override
+        public void write(JsonWriter out, User u) throws IOException {
+            out.beginObject();
+            out.name("id").value(u.id);
+            out.name("username").value(u.username);
+            out.name("role").value(u.role);
+            out.name("referenceId").value(u.referenceId);
+            out.name("createdAt").value(u.createdAt);
+            out.name("patientInfo");
+            PatientInfo.ADAPTER.write(out, u.patientInfo);
+            out.endObject();
+        }
+
+        @Override
+        public User read(JsonReader in) throws IOException {
+            User u = new User();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id": u.id = JsonReaders.nextInt(in); break;
+                    case "username": u.username = JsonReaders.nextString(in); break;
+                    case "role": u.role = JsonReaders.nextString(in); break;
+                    case "referenceId": u.referenceId = JsonReaders.nextString(in); break;
+                    case "createdAt": u.createdAt = JsonReaders.nextString(in); break;
+                    case "patientInfo": u.patientInfo = PatientInfo.ADAPTER.read(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return u;
+        }
+    }.nullSafe();
     private int id;
     private String username;
     private String role;
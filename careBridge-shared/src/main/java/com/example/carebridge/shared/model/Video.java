@@ -1,9 +1,46 @@
 package com.example.carebridge.shared.model;
 
+import com.example.carebridge.shared.utils.JsonReaders;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 
 public class Video {
 
+    public static final TypeAdapter<Video> ADAPTER = new TypeAdapter<Video>() {
+        @Override
+        public void write(JsonWriter out, Video v) throws IOException {
+            out.beginObject();
+            out.name("tip_id").value(v.tipId);
+            out.name("title").value(v.title);
+            out.name("description").value(v.url);
+            out.name("type").value(v.type);
+            out.name("category").value(v.category);
+            out.endObject();
+        }
+
+        @Override
+        public Video read(JsonReader in) throws IOException {
+            Video v = new Video();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "tip_id": v.tipId = JsonReaders.nextString(in); break;
+                    case "title": v.title = JsonReaders.nextString(in); break;
+                    case "description": v.url = JsonReaders.nextString(in); break;
+                    case "type": v.type = JsonReaders.nextString(in); break;
+                    case "category": v.category = JsonReaders.nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return v;
+        }
+    }.nullSafe();
+
     @SerializedName("tip_id")
     private String tipId;
 
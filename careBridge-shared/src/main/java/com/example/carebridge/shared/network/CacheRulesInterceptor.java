@@ -0,0 +1,43 @@
+package com.example.carebridge.shared.network;
+
+import androidx.annotation.NonNull;
+
+import com.example.carebridge.shared.utils.ApiConstants;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Network interceptor that gives read endpoints a client-side freshness window
+ * when the PHP backend sends no caching headers of its own.
+ * Responses that already carry Cache-Control, ETag or Last-Modified are left untouched
+ * so OkHttp can revalidate them with If-None-Match / If-Modified-Since. Delta and
+ * windowed queries get no window (see {@link ApiConstants#getCacheMaxAgeSeconds(String, String)}).
+ */
+public class CacheRulesInterceptor implements Interceptor {
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (!"GET".equals(request.method()) || !response.isSuccessful()) return response;
+
+        int maxAge = ApiConstants.getCacheMaxAgeSeconds(request.url().encodedPath(), request.url().encodedQuery());
+        if (maxAge <= 0) return response;
+
+        boolean hasServerRules = response.header("Cache-Control") != null
+                || response.header("ETag") != null
+                || response.header("Last-Modified") != null;
+        if (hasServerRules) return response;
+
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", "private, max-age=" + maxAge)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.carebridge.shared.network;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import retrofit2.Call;
+
+/**
+ * Owner-scoped handle for network work. Tracked controller calls and Retrofit calls are
+ * cancelled when the scope ends, so a destroyed screen stops downloading and parsing and
+ * never receives a callback. {@link #isActive()} covers work that is not a call, such as
+ * store reads on the background pool.
+ */
+public final class CallScope implements LifecycleEventObserver {
+
+    private final Set<Call<?>> calls = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Set<ControllerCall> controllerCalls = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private volatile boolean active = true;
+
+    /** Scope that ends automatically when the owner is destroyed */
+    public static CallScope bindTo(LifecycleOwner owner) {
+        CallScope scope = new CallScope();
+        owner.getLifecycle().addObserver(scope);
+        return scope;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /** Track a call so it is cancelled with the scope; cancelled at once if the scope already ended */
+    public <T> Call<T> track(Call<T> call) {
+        if (!active) {
+            call.cancel();
+            return call;
+        }
+        calls.add(call);
+        return call;
+    }
+
+    /** Track a controller call; finished ones are dropped as new ones come in */
+    public ControllerCall track(ControllerCall call) {
+        if (!active) {
+            call.cancel();
+            return call;
+        }
+        controllerCalls.removeIf(ControllerCall::isDone);
+        controllerCalls.add(call);
+        return call;
+    }
+
+    /** Stop tracking a call that has completed */
+    public void release(Call<?> call) {
+        calls.remove(call);
+    }
+
+    public void cancel() {
+        active = false;
+        for (Call<?> call : calls) call.cancel();
+        for (ControllerCall call : controllerCalls) call.cancel();
+        calls.clear();
+        controllerCalls.clear();
+    }
+
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            cancel();
+            source.getLifecycle().removeObserver(this);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.carebridge.shared.network;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.carebridge.shared.utils.ApiConstants;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Per-endpoint circuit breaker. After repeated failures the breaker opens and calls fail
+ * fast; once the cool-down elapses a single probe is let through (half-open) and its
+ * outcome decides whether the breaker closes again or re-opens. Thresholds and cool-downs
+ * come from {@link ApiConstants#getCircuitFailureThreshold} and
+ * {@link ApiConstants#getCircuitOpenMillis}, so a failing endpoint never blocks the others.
+ */
+public class CircuitBreaker {
+
+    private static final String TAG = "CircuitBreaker";
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public interface StateListener {
+        void onStateChanged(String endpoint, State state);
+    }
+
+    /** Monotonic time source; tests drive it by hand */
+    interface Clock {
+        long elapsedRealtime();
+    }
+
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+    private static final CopyOnWriteArrayList<StateListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    CircuitBreaker(String endpoint, int failureThreshold, long openMillis, Clock clock) {
+        this.endpoint = endpoint;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    public static CircuitBreaker forEndpoint(String host, String path) {
+        String endpoint = host + path;
+        CircuitBreaker breaker = BREAKERS.get(endpoint);
+        if (breaker == null) {
+            BREAKERS.putIfAbsent(endpoint, new CircuitBreaker(endpoint,
+                    ApiConstants.getCircuitFailureThreshold(path),
+                    ApiConstants.getCircuitOpenMillis(path),
+                    SystemClock::elapsedRealtime));
+            breaker = BREAKERS.get(endpoint);
+        }
+        return breaker;
+    }
+
+    public static void addListener(StateListener listener) {
+        LISTENERS.addIfAbsent(listener);
+    }
+
+    public static void removeListener(StateListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /** Whether a request may go out now; moves OPEN to HALF_OPEN once the cool-down has passed */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.elapsedRealtime() - openedAt < openMillis) return false;
+                transition(State.HALF_OPEN);
+                probeInFlight = true;
+                return true;
+            case HALF_OPEN:
+            default:
+                if (probeInFlight) return false;
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) transition(State.CLOSED);
+    }
+
+    public synchronized void recordFailure() {
+        probeInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            openedAt = clock.elapsedRealtime();
+            if (state != State.OPEN) transition(State.OPEN);
+        }
+    }
+
+    /**
+     * An allowed request ended with no verdict (cancelled, or it threw something other than
+     * an I/O error). Frees the half-open probe slot so the next request can probe instead.
+     */
+    public synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    private void transition(State next) {
+        state = next;
+        Log.w(TAG, endpoint + " → " + next);
+        for (StateListener listener : LISTENERS) listener.onStateChanged(endpoint, next);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.carebridge.shared.network;
+
+import androidx.annotation.NonNull;
+
+import com.example.carebridge.shared.utils.ApiConstants;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+/**
+ * Single-flight layer for idempotent reads. When an identical GET (same URL and request
+ * headers, so e.g. a no-cache request never rides on a cacheable one) is already in
+ * flight, later callers wait for it and receive a copy of its response instead of
+ * issuing another request to the backend. Only responses up to
+ * {@link ApiConstants#COALESCE_MAX_SHARED_BYTES} are buffered to be shared; a larger one
+ * streams to the first caller untouched and the waiting callers send their own request.
+ * A leader that fails or is canceled (e.g. its screen went away) takes only itself down:
+ * its followers then send their own request too. A follower waits no longer than its own
+ * timeouts and stops waiting as soon as it is canceled itself.
+ * Writes are never coalesced: two identical POSTs are two actions.
+ */
+public class CoalescingInterceptor implements Interceptor {
+
+    private static final AtomicLong issued = new AtomicLong();
+    private static final AtomicLong coalesced = new AtomicLong();
+
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    /** Requests that actually went to the network through this layer */
+    public static long getIssuedCount() {
+        return issued.get();
+    }
+
+    /** Requests that were served a copy of an identical in-flight call instead of being sent */
+    public static long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method())) return chain.proceed(request);
+
+        String key = key(request);
+        InFlight mine = new InFlight();
+        InFlight leader = inFlight.putIfAbsent(key, mine);
+
+        if (leader != null) {
+            Response copy = leader.awaitCopy(chain);
+            if (copy != null) {
+                coalesced.incrementAndGet();
+                return copy;
+            }
+            // The leader's response was too large to share, it failed, or it outlasted our timeout
+        }
+
+        issued.incrementAndGet();
+        if (leader != null) return chain.proceed(request);
+
+        try {
+            Response response = chain.proceed(request);
+            ResponseBody body = response.body();
+            if (body == null) {
+                mine.share(response, null, new byte[0]);
+                return mine.copyFor(request);
+            }
+            if (body.contentLength() > ApiConstants.COALESCE_MAX_SHARED_BYTES) {
+                return response;
+            }
+            // Pull at most one byte past the cap: a body that ends before it is shared,
+            // anything longer keeps streaming from what was already read
+            BufferedSource source = body.source();
+            if (source.request(ApiConstants.COALESCE_MAX_SHARED_BYTES + 1)) {
+                return response;
+            }
+            byte[] bytes = source.readByteArray();
+            body.close();
+            mine.share(response, body.contentType(), bytes);
+            return mine.copyFor(request);
+        } finally {
+            inFlight.remove(key, mine);
+            mine.done.countDown();
+        }
+    }
+
+    /** Method, URL and every request header, order-independent */
+    private static String key(Request request) {
+        Headers headers = request.headers();
+        List<String> lines = new ArrayList<>(headers.size());
+        for (int i = 0; i < headers.size(); i++) {
+            lines.add(headers.name(i).toLowerCase(Locale.US) + ":" + headers.value(i));
+        }
+        Collections.sort(lines);
+        return request.method() + " " + request.url() + " " + lines;
+    }
+
+    private static final class InFlight {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Response template;
+        volatile MediaType contentType;
+        volatile byte[] bytes;
+
+        void share(Response response, MediaType type, byte[] body) {
+            contentType = type;
+            bytes = body;
+            template = response;
+        }
+
+        /**
+         * Copy of the leader's response, or null when the follower should send its own
+         * request: the response was not buffered for sharing, the leader failed or was
+         * canceled, or it is still running when the follower's own timeout is spent.
+         * Throws when the follower itself is canceled while waiting.
+         */
+        Response awaitCopy(Chain chain) throws IOException {
+            long deadline = System.nanoTime() + waitBudgetNanos(chain);
+            try {
+                while (!done.await(ApiConstants.COALESCE_WAIT_SLICE_MS, TimeUnit.MILLISECONDS)) {
+                    if (chain.call().isCanceled()) throw new IOException("Canceled");
+                    if (System.nanoTime() - deadline >= 0) return null;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for coalesced call");
+            }
+            return template != null ? copyFor(chain.request()) : null;
+        }
+
+        /** The follower's call timeout, or its connect and read timeouts when it has none */
+        private static long waitBudgetNanos(Chain chain) {
+            long callTimeout = chain.call().timeout().timeoutNanos();
+            if (callTimeout > 0) return callTimeout;
+            return TimeUnit.MILLISECONDS.toNanos((long) chain.connectTimeoutMillis() + chain.readTimeoutMillis());
+        }
+
+        Response copyFor(Request request) {
+            return template.newBuilder()
+                    .request(request)
+                    .body(ResponseBody.create(bytes, contentType))
+                    .build();
+        }
+    }
+}
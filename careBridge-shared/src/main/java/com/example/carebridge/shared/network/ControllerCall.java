@@ -0,0 +1,55 @@
+package com.example.carebridge.shared.network;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import okhttp3.Call;
+
+/**
+ * Handle for one controller request. {@link #cancel()} cancels the underlying OkHttp call,
+ * which also aborts a response that is still being streamed and decoded, and guarantees
+ * the controller callback is not invoked afterwards. Controllers post every outcome
+ * through {@link #deliver(Runnable)}; track handles in a {@link CallScope} to cancel them
+ * with the screen that started them.
+ */
+public final class ControllerCall {
+
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private final Call call;
+    private volatile boolean canceled;
+    private volatile boolean done;
+
+    public ControllerCall(Call call) {
+        this.call = call;
+    }
+
+    /** Handle for a request rejected before it went out; its callback has already run */
+    public static ControllerCall completed() {
+        ControllerCall handle = new ControllerCall(null);
+        handle.done = true;
+        return handle;
+    }
+
+    public void cancel() {
+        canceled = true;
+        if (call != null) call.cancel();
+    }
+
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    /** Whether the outcome was delivered (or the handle cancelled) */
+    public boolean isDone() {
+        return done || canceled;
+    }
+
+    /** Runs an outcome on the main thread unless the handle was cancelled before it got there */
+    public void deliver(Runnable outcome) {
+        MAIN.post(() -> {
+            done = true;
+            if (!canceled) outcome.run();
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.carebridge.shared.network;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-endpoint network counters recorded by {@link NetworkMetricsInterceptor}:
+ * request / error counts, a latency histogram with p50/p95/p99, bytes in/out and cache hits.
+ * Snapshots can be dumped as text or JSON so builds can be compared against the same backend.
+ */
+public final class NetworkMetrics {
+
+    /** Histogram bucket upper bounds in ms; the last bucket is open-ended */
+    private static final long[] BUCKETS_MS = {25, 50, 100, 200, 400, 800, 1600, 3200, 6400, 12800, Long.MAX_VALUE};
+
+    private static final Map<String, Endpoint> ENDPOINTS = new ConcurrentHashMap<>();
+
+    // Pseudo-endpoint for outbox deliveries; latency is measured from the user's action
+    static final String OUTBOX = "status_outbox";
+
+    // Pseudo-endpoints counting push messages dropped as duplicates, one per message type
+    static final String FCM_DUPLICATE_PREFIX = "fcm_dup:";
+
+    private NetworkMetrics() { }
+
+    public static final class Endpoint {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong cacheHits = new AtomicLong();
+        final AtomicLong bytesIn = new AtomicLong();
+        final AtomicLong bytesOut = new AtomicLong();
+        final AtomicLongArray latency = new AtomicLongArray(BUCKETS_MS.length);
+
+        void recordLatency(long ms) {
+            for (int i = 0; i < BUCKETS_MS.length; i++) {
+                if (ms <= BUCKETS_MS[i]) {
+                    latency.incrementAndGet(i);
+                    return;
+                }
+            }
+        }
+
+        /** Upper bound of the bucket holding the given percentile, -1 when empty */
+        long percentile(double p) {
+            long total = 0;
+            for (int i = 0; i < latency.length(); i++) total += latency.get(i);
+            if (total == 0) return -1;
+
+            long rank = (long) Math.ceil(p * total);
+            long seen = 0;
+            for (int i = 0; i < latency.length(); i++) {
+                seen += latency.get(i);
+                if (seen >= rank) return BUCKETS_MS[i] == Long.MAX_VALUE ? BUCKETS_MS[i - 1] : BUCKETS_MS[i];
+            }
+            return BUCKETS_MS[BUCKETS_MS.length - 2];
+        }
+    }
+
+    static Endpoint endpoint(String name) {
+        Endpoint endpoint = ENDPOINTS.get(name);
+        if (endpoint == null) {
+            ENDPOINTS.putIfAbsent(name, new Endpoint());
+            endpoint = ENDPOINTS.get(name);
+        }
+        return endpoint;
+    }
+
+    /** Status outbox: enqueue-to-acknowledgement latency of a delivered update */
+    public static void recordOutboxDelivery(long latencyMs) {
+        Endpoint endpoint = endpoint(OUTBOX);
+        endpoint.requests.incrementAndGet();
+        endpoint.recordLatency(latencyMs);
+    }
+
+    /** Status outbox: a delivery attempt that failed or was rejected */
+    public static void recordOutboxFailure() {
+        endpoint(OUTBOX).errors.incrementAndGet();
+    }
+
+    /** A push message of the given type dropped as an already-handled duplicate */
+    public static void recordDuplicatePush(String type) {
+        endpoint(FCM_DUPLICATE_PREFIX + type).requests.incrementAndGet();
+    }
+
+    /** Suppressed duplicate pushes of the given type since the last reset */
+    public static long duplicatePushes(String type) {
+        Endpoint endpoint = ENDPOINTS.get(FCM_DUPLICATE_PREFIX + type);
+        return endpoint != null ? endpoint.requests.get() : 0;
+    }
+
+    /** Logical endpoint name for a request path */
+    static String classify(String path) {
+        if (path == null) return "other";
+        if (path.endsWith("login.php")) return "login";
+        if (path.endsWith("updateStatus.php")) return "updateStatus";
+        if (path.endsWith("updateStatusBatch.php")) return "updateStatusBatch";
+        if (path.endsWith("notifyResolved.php")) return "notifyResolved";
+        if (path.contains("fcm_token")) return "fcm";
+        if (path.contains("/medicine_log/")) return "medicine_log";
+        if (path.contains("/prescription/")) return "prescription";
+        if (path.contains("/patients/")) return "patient";
+        if (path.contains("meal")) return "meal_plan";
+        if (path.contains("tips")) return "daily_tips";
+        if (path.contains("/guardians/") || path.contains("/patientguardianassignment/")) return "guardian";
+        if (path.contains("/place/")) return "places";
+        return "other";
+    }
+
+    public static void reset() {
+        ENDPOINTS.clear();
+    }
+
+    public static String snapshotText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%-14s %6s %6s %6s %7s %7s %7s %10s %10s%n",
+                "endpoint", "count", "errors", "cached", "p50ms", "p95ms", "p99ms", "bytesIn", "bytesOut"));
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(ENDPOINTS).entrySet()) {
+            Endpoint e = entry.getValue();
+            sb.append(String.format(Locale.US, "%-14s %6d %6d %6d %7d %7d %7d %10d %10d%n",
+                    entry.getKey(), e.requests.get(), e.errors.get(), e.cacheHits.get(),
+                    e.percentile(0.50), e.percentile(0.95), e.percentile(0.99),
+                    e.bytesIn.get(), e.bytesOut.get()));
+        }
+        return sb.toString();
+    }
+
+    public static String snapshotJson() {
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(ENDPOINTS).entrySet()) {
+            Endpoint e = entry.getValue();
+            if (!first) sb.append(',');
+            first = false;
+            sb.append('"').append(entry.getKey()).append("\":{")
+                    .append("\"requests\":").append(e.requests.get())
+                    .append(",\"errors\":").append(e.errors.get())
+                    .append(",\"cache_hits\":").append(e.cacheHits.get())
+                    .append(",\"p50_ms\":").append(e.percentile(0.50))
+                    .append(",\"p95_ms\":").append(e.percentile(0.95))
+                    .append(",\"p99_ms\":").append(e.percentile(0.99))
+                    .append(",\"bytes_in\":").append(e.bytesIn.get())
+                    .append(",\"bytes_out\":").append(e.bytesOut.get())
+                    .append(",\"histogram\":[");
+            for (int i = 0; i < e.latency.length(); i++) {
+                if (i > 0) sb.append(',');
+                sb.append(e.latency.get(i));
+            }
+            sb.append("]}");
+        }
+        return sb.append('}').toString();
+    }
+
+    /** Write the current snapshot to a file, as JSON or as a text table */
+    public static void dumpTo(File file, boolean json) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(json ? snapshotJson() : snapshotText());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.carebridge.shared.network;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Outermost interceptor on the shared client; feeds {@link NetworkMetrics}.
+ * Latency covers the whole logical call (retries included), and inbound bytes are
+ * counted as the caller actually reads the body.
+ */
+public class NetworkMetricsInterceptor implements Interceptor {
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        NetworkMetrics.Endpoint metrics = NetworkMetrics.endpoint(NetworkMetrics.classify(request.url().encodedPath()));
+        metrics.requests.incrementAndGet();
+
+        if (request.body() != null) {
+            long length = request.body().contentLength();
+            if (length > 0) metrics.bytesOut.addAndGet(length);
+        }
+
+        long start = SystemClock.elapsedRealtime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            metrics.errors.incrementAndGet();
+            metrics.recordLatency(SystemClock.elapsedRealtime() - start);
+            throw e;
+        }
+        metrics.recordLatency(SystemClock.elapsedRealtime() - start);
+
+        if (!response.isSuccessful()) metrics.errors.incrementAndGet();
+        if (response.cacheResponse() != null && response.networkResponse() == null) metrics.cacheHits.incrementAndGet();
+
+        ResponseBody body = response.body();
+        if (body == null) return response;
+        return response.newBuilder().body(new CountingBody(body, metrics)).build();
+    }
+
+    private static final class CountingBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        CountingBody(ResponseBody delegate, NetworkMetrics.Endpoint metrics) {
+            this.delegate = delegate;
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read > 0) metrics.bytesIn.addAndGet(read);
+                    return read;
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @NonNull
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
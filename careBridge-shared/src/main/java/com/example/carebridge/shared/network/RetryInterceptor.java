@@ -0,0 +1,82 @@
+package com.example.carebridge.shared.network;
+
+import androidx.annotation.NonNull;
+
+import com.example.carebridge.shared.utils.ApiConstants;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retries idempotent requests with capped exponential backoff and full jitter,
+ * and consults the endpoint's {@link CircuitBreaker} so a flapping backend is not
+ * hammered by every swipe-to-refresh. Every attempt the breaker allows ends in a
+ * success, a failure or, when cancelled or interrupted by a runtime error, a released
+ * probe slot, so a half-open breaker can never be left waiting on a probe that is gone.
+ */
+public class RetryInterceptor implements Interceptor {
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        CircuitBreaker breaker = CircuitBreaker.forEndpoint(request.url().host(), request.url().encodedPath());
+
+        boolean idempotent = "GET".equals(request.method()) || "HEAD".equals(request.method());
+        int maxAttempts = idempotent ? ApiConstants.getMaxRetryAttempts(request.url().encodedPath()) : 1;
+
+        IOException lastError = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (!breaker.allowRequest()) {
+                throw new IOException("Circuit open for " + request.url().host());
+            }
+
+            boolean recorded = false;
+            try {
+                Response response = chain.proceed(request);
+                if (response.code() < 500) {
+                    breaker.recordSuccess();
+                    recorded = true;
+                    return response;
+                }
+
+                breaker.recordFailure();
+                recorded = true;
+                if (attempt == maxAttempts) return response;
+                response.close();
+            } catch (IOException e) {
+                if (chain.call().isCanceled()) throw e;
+                breaker.recordFailure();
+                recorded = true;
+                lastError = e;
+                if (attempt == maxAttempts) throw e;
+            } finally {
+                if (!recorded) breaker.releaseProbe();
+            }
+
+            sleep(backoffMillis(attempt));
+        }
+        throw lastError != null ? lastError : new IOException("Retries exhausted");
+    }
+
+    /** Full jitter: uniform in [0, min(cap, base * 2^(attempt-1))] */
+    private static long backoffMillis(int attempt) {
+        long ceiling = Math.min(ApiConstants.RETRY_MAX_DELAY_MS,
+                ApiConstants.RETRY_BASE_DELAY_MS << Math.min(attempt - 1, 16));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during retry backoff");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.carebridge.shared.network;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.carebridge.shared.utils.ApiConstants;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * The one OkHttpClient of the process, used by every shared controller, the phone's
+ * Retrofit clients and the watch's. Calls share one dispatcher, one keep-alive pool and
+ * one on-disk response cache, and all go through the same metrics, coalescing, retry and
+ * cache-rule interceptors. Derive per-use clients with {@code newBuilder()} so the pools
+ * stay shared.
+ */
+public final class SharedHttpClient {
+
+    private static final String TAG = "SharedHttpClient";
+
+    private static File cacheDir;
+    private static OkHttpClient client;
+
+    private SharedHttpClient() { }
+
+    /** Called once from the Application so the client can attach its disk cache */
+    public static synchronized void init(Context context) {
+        if (cacheDir == null) {
+            cacheDir = new File(context.getApplicationContext().getCacheDir(), ApiConstants.HTTP_CACHE_DIR);
+        }
+    }
+
+    public static synchronized OkHttpClient get() {
+        if (client == null) {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(ApiConstants.HTTP_MAX_REQUESTS);
+            dispatcher.setMaxRequestsPerHost(ApiConstants.HTTP_MAX_REQUESTS_PER_HOST);
+
+            OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                    .dispatcher(dispatcher)
+                    .connectionPool(new ConnectionPool(
+                            ApiConstants.HTTP_MAX_IDLE_CONNECTIONS,
+                            ApiConstants.HTTP_KEEP_ALIVE_MINUTES,
+                            TimeUnit.MINUTES))
+                    .connectTimeout(ApiConstants.HTTP_CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .readTimeout(ApiConstants.HTTP_READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .addInterceptor(new NetworkMetricsInterceptor())
+                    .addInterceptor(new CoalescingInterceptor())
+                    .addInterceptor(new RetryInterceptor())
+                    .addNetworkInterceptor(new CacheRulesInterceptor());
+
+            if (cacheDir != null) {
+                builder.cache(new Cache(cacheDir, ApiConstants.HTTP_CACHE_SIZE_BYTES));
+            }
+            client = builder.build();
+        }
+        return client;
+    }
+
+    /**
+     * Delete every cached response, e.g. on logout so the next account never reads the
+     * previous user's records. Blocking disk I/O: call off the main thread.
+     */
+    public static void evictCache() {
+        Cache cache = get().cache();
+        if (cache == null) return;
+        try {
+            cache.evictAll();
+        } catch (IOException e) {
+            Log.w(TAG, "Could not clear the HTTP cache", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.carebridge.shared.utils;
 
+import android.net.Uri;
 import android.util.Log;
 
 /**
@@ -29,6 +30,70 @@ public class ApiConstants {
     private static final String API_ROOT =
             "/careBridge/careBridge-web-app/careBridge-website/endpoints/";
 
+    // ============================================
+    // HTTP STACK (see network.SharedHttpClient)
+    // ============================================
+
+    // Dispatcher, connection pool and timeouts of the one process-wide client
+    public static final int HTTP_MAX_REQUESTS = 16;
+    public static final int HTTP_MAX_REQUESTS_PER_HOST = 6;
+    public static final int HTTP_MAX_IDLE_CONNECTIONS = 5;
+    public static final long HTTP_KEEP_ALIVE_MINUTES = 5;
+    public static final long HTTP_CONNECT_TIMEOUT_SECONDS = 15;
+    public static final long HTTP_READ_TIMEOUT_SECONDS = 20;
+
+    // On-disk HTTP response cache (see CacheRulesInterceptor)
+    public static final String HTTP_CACHE_DIR = "http_cache";
+    public static final long HTTP_CACHE_SIZE_BYTES = 10L * 1024 * 1024;
+
+    // Largest response a coalesced GET is buffered to share; bigger ones stream to the first caller only
+    public static final long COALESCE_MAX_SHARED_BYTES = 256 * 1024;
+    // How often a caller waiting on an identical call checks whether it was itself canceled
+    public static final long COALESCE_WAIT_SLICE_MS = 100;
+
+    // Retry policy for idempotent requests (see RetryInterceptor)
+    public static final long RETRY_BASE_DELAY_MS = 300;
+    public static final long RETRY_MAX_DELAY_MS = 4000;
+    private static final int RETRY_DEFAULT_ATTEMPTS = 3;
+    private static final int RETRY_READ_ATTEMPTS = 4;
+
+    // Per-endpoint circuit breakers (see CircuitBreaker and getCircuitFailureThreshold)
+    private static final int CIRCUIT_DEFAULT_FAILURES = 5;
+    private static final long CIRCUIT_DEFAULT_OPEN_MILLIS = 30_000;
+    private static final int CIRCUIT_AUTH_FAILURES = 3;
+    private static final long CIRCUIT_AUTH_OPEN_MILLIS = 10_000;
+    private static final int CIRCUIT_STATUS_WRITE_FAILURES = 3;
+    private static final long CIRCUIT_STATUS_WRITE_OPEN_MILLIS = 60_000;
+    private static final int CIRCUIT_TIPS_FAILURES = 2;
+    private static final long CIRCUIT_TIPS_OPEN_MILLIS = 5 * 60_000;
+
+    // Medicine-log delta sync (see MedicineLogSync): force a full download after this long without one
+    public static final long MEDICINE_LOG_FULL_RESYNC_MILLIS = 24 * 60 * 60 * 1000L;
+
+    // Post-login prefetch stage (see AuthController#setPrefetchStage): login success waits at most this long
+    public static final long LOGIN_PREFETCH_MAX_WAIT_MS = 700;
+    // Stored rows a fetch confirmed this recently are rendered without refetching (see LocalStore#isFresh)
+    public static final long LOCAL_STORE_FRESH_MILLIS = 60_000;
+
+    // Dose reminders for one slot arriving within this window are posted together; a push
+    // handler waits at most the timeout for its reminder to be posted before returning
+    public static final long NOTIFICATION_THROTTLE_MS = 500;
+    public static final long NOTIFICATION_POST_TIMEOUT_MS = 2000;
+    // Push messages already handled (by type and log_id) are dropped for this long (see DeliveryLedger)
+    public static final long FCM_DEDUPE_WINDOW_MILLIS = 24 * 60 * 60 * 1000L;
+    public static final int FCM_DEDUPE_CAPACITY = 256;
+
+    // Page sizes for windowed medicine-log queries (see MedicineLogPager)
+    public static final int MEDICINE_LOG_PAGE_SIZE = 50;
+    public static final int MEDICINE_LOG_MAX_PAGE_SIZE = 200;
+
+    // Client-side freshness windows applied when the server sends no cache headers
+    private static final int CACHE_MAX_AGE_PATIENT = 5 * 60;
+    private static final int CACHE_MAX_AGE_PRESCRIPTION = 60;
+    private static final int CACHE_MAX_AGE_MEDICINE_LOG = 30;
+    private static final int CACHE_MAX_AGE_GUARDIAN_ASSIGNMENT = 5 * 60;
+    private static final int CACHE_MAX_AGE_DAILY_TIPS = 6 * 60 * 60;
+
     // ============================================
     // URL HELPERS
     // ============================================
@@ -133,6 +198,45 @@ public class ApiConstants {
         return url;
     }
 
+    // Delta sync: only rows with log_id above the cursor or updated after it
+    public static String getMedicineLogSinceUrl(String caseId, long sinceLogId, String sinceUpdatedAt) {
+        String url = getMedicineLogByCaseIdUrl(caseId) + "&since_log_id=" + sinceLogId;
+        if (sinceUpdatedAt != null && !sinceUpdatedAt.isEmpty()) {
+            url += "&since_updated_at=" + Uri.encode(sinceUpdatedAt);
+        }
+        return url;
+    }
+
+    // Windowed, paged log query: scheduled_time in [from, to], rows after the page cursor
+    public static String getMedicineLogWindowUrl(String caseId, String from, String to, String afterCursor, int pageSize) {
+        StringBuilder url = new StringBuilder(getMedicineLogByCaseIdUrl(caseId))
+                .append("&page_size=").append(pageSize);
+        if (from != null) url.append("&from=").append(Uri.encode(from));
+        if (to != null) url.append("&to=").append(Uri.encode(to));
+        if (afterCursor != null) url.append("&after=").append(Uri.encode(afterCursor));
+        return url.toString();
+    }
+
+    public static String getUpdateStatusUrl() {
+        String url = getMedicineLogBaseUrl() + "updateStatus.php";
+        Log.d(TAG, "Update Status URL: " + url);
+        return url;
+    }
+
+    // Bulk update: {"updates":[{log_id, taken_status, idempotency_key}]} → {"results":[...]}
+    public static String getUpdateStatusBatchUrl() {
+        String url = getMedicineLogBaseUrl() + "updateStatusBatch.php";
+        Log.d(TAG, "Update Status Batch URL: " + url);
+        return url;
+    }
+
+    // Server pushes a silent "resolved" message for these log_ids to the user's other devices
+    public static String getNotifyResolvedUrl() {
+        String url = getMedicineLogBaseUrl() + "notifyResolved.php";
+        Log.d(TAG, "Notify Resolved URL: " + url);
+        return url;
+    }
+
     public static String getDailyTipsUrl() {
         String url = getDailyTipsBaseUrl() + "get_tips.php";
         Log.d(TAG, "Daily Tips URL: " + url);
@@ -150,4 +254,72 @@ public class ApiConstants {
         Log.d(TAG, "Get Meal Plan URL: " + url);
         return url;
     }
+
+    // ============================================
+    // PER-ENDPOINT HTTP RULES
+    // ============================================
+
+    /** Total attempts (first try included) for an idempotent request path */
+    public static int getMaxRetryAttempts(String path) {
+        if (path == null) return 1;
+        if (path.endsWith("login.php") || path.contains("fcm_token")) return 1;
+        if (getCacheMaxAgeSeconds(path) > 0) return RETRY_READ_ATTEMPTS;
+        return RETRY_DEFAULT_ATTEMPTS;
+    }
+
+    /**
+     * Consecutive failures that open an endpoint's circuit. Login trips early so a user
+     * is told quickly; status writes trip early and stay open longer because the outbox
+     * already retries them; tips are cosmetic and back off the longest.
+     */
+    public static int getCircuitFailureThreshold(String path) {
+        if (path == null) return CIRCUIT_DEFAULT_FAILURES;
+        if (path.endsWith("login.php")) return CIRCUIT_AUTH_FAILURES;
+        if (path.contains("updateStatus")) return CIRCUIT_STATUS_WRITE_FAILURES;
+        if (path.contains("tips")) return CIRCUIT_TIPS_FAILURES;
+        return CIRCUIT_DEFAULT_FAILURES;
+    }
+
+    /** How long an endpoint's circuit stays open before a probe is let through */
+    public static long getCircuitOpenMillis(String path) {
+        if (path == null) return CIRCUIT_DEFAULT_OPEN_MILLIS;
+        if (path.endsWith("login.php")) return CIRCUIT_AUTH_OPEN_MILLIS;
+        if (path.contains("updateStatus")) return CIRCUIT_STATUS_WRITE_OPEN_MILLIS;
+        if (path.contains("tips")) return CIRCUIT_TIPS_OPEN_MILLIS;
+        return CIRCUIT_DEFAULT_OPEN_MILLIS;
+    }
+
+    /**
+     * Cache window (seconds) for a request; 0 means no client-side caching.
+     * Delta and windowed medicine-log queries ask what changed since a cursor, so an
+     * answer from the cache would hide a status written moments ago: they are never cached.
+     */
+    public static int getCacheMaxAgeSeconds(String path, String query) {
+        if (isCursorQuery(query)) return 0;
+        return getCacheMaxAgeSeconds(path);
+    }
+
+    /** Cache window (seconds) for a request path; 0 means no client-side caching */
+    public static int getCacheMaxAgeSeconds(String path) {
+        if (path == null) return 0;
+        if (path.contains("patients/getOne.php")) return CACHE_MAX_AGE_PATIENT;
+        if (path.contains("prescription/get.php")) return CACHE_MAX_AGE_PRESCRIPTION;
+        if (path.contains("medicine_log/") && !path.contains("updateStatus")) return CACHE_MAX_AGE_MEDICINE_LOG;
+        if (path.contains("patientguardianassignment/getByPatient.php")) return CACHE_MAX_AGE_GUARDIAN_ASSIGNMENT;
+        if (path.contains("tips")) return CACHE_MAX_AGE_DAILY_TIPS;
+        return 0;
+    }
+
+    // Query parameters of delta (since_*) and windowed (from / to / after / page_size) log reads
+    private static boolean isCursorQuery(String query) {
+        if (query == null) return false;
+        for (String param : query.split("&")) {
+            String name = param.contains("=") ? param.substring(0, param.indexOf('=')) : param;
+            if (name.startsWith("since_") || name.equals("after") || name.equals("from")
+                    || name.equals("to") || name.equals("page_size")) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
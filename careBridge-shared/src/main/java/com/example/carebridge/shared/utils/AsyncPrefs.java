@@ -0,0 +1,298 @@
+package com.example.carebridge.shared.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous front for a SharedPreferences file. The XML is loaded once on a
+ * dedicated IO thread into an in-memory snapshot; reads are answered from that
+ * snapshot (via callback until it is ready), and writes are grouped into
+ * transactions that update the snapshot immediately and are flushed together:
+ * every transaction queued while the IO thread is busy lands in a single apply().
+ * Until a flush has been applied and its change notifications delivered, disk
+ * notifications for the keys it writes are not taken as external edits.
+ */
+public final class AsyncPrefs {
+
+    public interface ChangeListener {
+        /** Called on the main thread; {@code key} is null when the file was cleared */
+        void onPrefChanged(String key);
+    }
+
+    private static final Map<String, AsyncPrefs> INSTANCES = new ConcurrentHashMap<>();
+    private static final Object REMOVED = new Object();
+
+    // One IO thread for all files keeps loads and flushes strictly ordered
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "carebridge-prefs");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final SharedPreferences prefs;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final CopyOnWriteArrayList<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final SharedPreferences.OnSharedPreferenceChangeListener prefsListener = this::onExternalChange;
+
+    private final List<Transaction> pending = new ArrayList<>();
+    // Writes per key queued or flushed whose disk notifications have not been delivered yet
+    private final Map<String, Integer> unsettled = new HashMap<>();
+    private int unsettledClears;
+    private Map<String, Object> snapshot = Collections.emptyMap();
+    private boolean flushScheduled;
+
+    /** Shared instance per file; starts loading it in the background on first use */
+    public static AsyncPrefs get(Context context, String name) {
+        return INSTANCES.computeIfAbsent(name, n -> new AsyncPrefs(context.getApplicationContext(), n));
+    }
+
+    private AsyncPrefs(Context appContext, String name) {
+        prefs = appContext.getSharedPreferences(name, Context.MODE_PRIVATE);
+        IO.execute(() -> {
+            Map<String, Object> values = new HashMap<>(prefs.getAll());
+            synchronized (this) {
+                // Writes issued before the load finished win over what was on disk
+                for (Transaction tx : pending) tx.applyTo(values);
+                snapshot = Collections.unmodifiableMap(values);
+            }
+            mainHandler.post(() -> prefs.registerOnSharedPreferenceChangeListener(prefsListener));
+            loaded.countDown();
+        });
+    }
+
+    public boolean isLoaded() {
+        return loaded.getCount() == 0;
+    }
+
+    /** Run on the main thread once the snapshot is loaded (immediately if it already is) */
+    public void whenLoaded(Consumer<AsyncPrefs> callback) {
+        if (isLoaded()) {
+            mainHandler.post(() -> callback.accept(this));
+        } else {
+            IO.execute(() -> mainHandler.post(() -> callback.accept(this)));
+        }
+    }
+
+    /**
+     * Run {@code task} on the IO thread once the snapshot is loaded, e.g. to decode
+     * state derived from it without touching the main thread. The load is the first
+     * task this file queued on the single IO thread, so anything queued later runs after it.
+     */
+    public void runWhenLoaded(Runnable task) {
+        IO.execute(task);
+    }
+
+    /** Blocking access to the snapshot; waits for the initial load only */
+    public Map<String, Object> snapshot() {
+        awaitLoaded();
+        synchronized (this) {
+            return snapshot;
+        }
+    }
+
+    public String getString(String key, String defValue) {
+        Object value = snapshot().get(key);
+        return value instanceof String ? (String) value : defValue;
+    }
+
+    public boolean getBoolean(String key, boolean defValue) {
+        Object value = snapshot().get(key);
+        return value instanceof Boolean ? (Boolean) value : defValue;
+    }
+
+    public int getInt(String key, int defValue) {
+        Object value = snapshot().get(key);
+        return value instanceof Integer ? (Integer) value : defValue;
+    }
+
+    /** Callback read for main-thread callers that must not wait for the disk load */
+    public void readString(String key, String defValue, Consumer<String> callback) {
+        whenLoaded(p -> callback.accept(p.getString(key, defValue)));
+    }
+
+    public Transaction edit() {
+        return new Transaction();
+    }
+
+    public void addListener(ChangeListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void awaitLoaded() {
+        try {
+            loaded.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void enqueue(Transaction tx) {
+        if (isLoaded()) {
+            Map<String, Object> values = new HashMap<>(snapshot);
+            tx.applyTo(values);
+            snapshot = Collections.unmodifiableMap(values);
+        }
+        pending.add(tx);
+        for (String key : tx.ops.keySet()) unsettled.merge(key, 1, Integer::sum);
+        if (tx.clear) unsettledClears++;
+        if (!flushScheduled) {
+            flushScheduled = true;
+            IO.execute(this::flush);
+        }
+    }
+
+    /** Runs on the IO thread: folds every queued transaction into one Editor */
+    private void flush() {
+        List<Transaction> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(pending);
+            pending.clear();
+            flushScheduled = false;
+        }
+        if (batch.isEmpty()) return;
+
+        boolean clear = false;
+        Map<String, Object> ops = new LinkedHashMap<>();
+        for (Transaction tx : batch) {
+            if (tx.clear) {
+                clear = true;
+                ops.clear();
+            }
+            for (Map.Entry<String, Object> op : tx.ops.entrySet()) {
+                Object value = op.getValue();
+                ops.put(op.getKey(), value instanceof Supplier ? ((Supplier<?>) value).get() : value);
+            }
+        }
+
+        SharedPreferences.Editor editor = prefs.edit();
+        if (clear) editor.clear();
+        for (Map.Entry<String, Object> op : ops.entrySet()) {
+            Object value = op.getValue();
+            if (value == REMOVED || value == null) editor.remove(op.getKey());
+            else if (value instanceof Boolean) editor.putBoolean(op.getKey(), (Boolean) value);
+            else if (value instanceof Integer) editor.putInt(op.getKey(), (Integer) value);
+            else if (value instanceof Long) editor.putLong(op.getKey(), (Long) value);
+            else editor.putString(op.getKey(), String.valueOf(value));
+        }
+        editor.apply();
+        // apply() has already posted this flush's change notifications to the main thread;
+        // once this runs after them, disk notifications for these keys are external again
+        mainHandler.post(() -> settle(batch));
+    }
+
+    private synchronized void settle(List<Transaction> batch) {
+        for (Transaction tx : batch) {
+            for (String key : tx.ops.keySet()) {
+                unsettled.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+            }
+            if (tx.clear) unsettledClears--;
+        }
+    }
+
+    /**
+     * Disk-level change notification, on the main thread. Echoes of our own flushes match
+     * the snapshot, except a delayed echo of an older flush when a newer write to the same
+     * key is still queued: the snapshot already holds the newer value, so while any write
+     * to a key is unsettled its notifications are ignored.
+     */
+    private void onExternalChange(SharedPreferences sharedPreferences, String key) {
+        Map<String, ?> disk = sharedPreferences.getAll();
+        synchronized (this) {
+            if (key == null ? unsettledClears > 0 : unsettled.containsKey(key)) return;
+            if (key == null) {
+                if (disk.equals(snapshot)) return;
+                snapshot = Collections.unmodifiableMap(new HashMap<>(disk));
+            } else {
+                Object value = disk.get(key);
+                if (Objects.equals(value, snapshot.get(key))) return;
+                Map<String, Object> values = new HashMap<>(snapshot);
+                if (value == null) values.remove(key);
+                else values.put(key, value);
+                snapshot = Collections.unmodifiableMap(values);
+            }
+        }
+        for (ChangeListener listener : listeners) listener.onPrefChanged(key);
+    }
+
+    /** Group of writes applied atomically to the snapshot and flushed with its neighbours */
+    public final class Transaction {
+        private final Map<String, Object> ops = new LinkedHashMap<>();
+        private boolean clear;
+
+        private Transaction() { }
+
+        public Transaction putString(String key, String value) {
+            ops.put(key, value);
+            return this;
+        }
+
+        /** Value computed on the IO thread at flush time, e.g. an encoded JSON blob */
+        public Transaction putString(String key, Supplier<String> value) {
+            ops.put(key, value);
+            return this;
+        }
+
+        public Transaction putBoolean(String key, boolean value) {
+            ops.put(key, value);
+            return this;
+        }
+
+        public Transaction putInt(String key, int value) {
+            ops.put(key, value);
+            return this;
+        }
+
+        public Transaction putLong(String key, long value) {
+            ops.put(key, value);
+            return this;
+        }
+
+        public Transaction remove(String key) {
+            ops.put(key, REMOVED);
+            return this;
+        }
+
+        /** Drops everything written before this transaction; its own puts still apply */
+        public Transaction clear() {
+            clear = true;
+            ops.clear();
+            return this;
+        }
+
+        public void apply() {
+            enqueue(this);
+        }
+
+        void applyTo(Map<String, Object> values) {
+            if (clear) values.clear();
+            for (Map.Entry<String, Object> op : ops.entrySet()) {
+                Object value = op.getValue();
+                // Deferred values are not known until flush; readers see the key as absent
+                if (value == REMOVED || value == null || value instanceof Supplier) values.remove(op.getKey());
+                else values.put(op.getKey(), value);
+            }
+        }
+    }
+}
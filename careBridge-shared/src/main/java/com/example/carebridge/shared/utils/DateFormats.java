@@ -0,0 +1,87 @@
+package com.example.carebridge.shared.utils;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-thread cached date formatters. SimpleDateFormat is expensive to build and not
+ * thread-safe, so each thread keeps one instance per pattern and locale instead of
+ * allocating a new one on every parse / format.
+ */
+public final class DateFormats {
+
+    // Server timestamp formats (scheduled_time, start/end dates, dob)
+    public static final String SERVER_DATE_TIME = "yyyy-MM-dd HH:mm:ss";
+    public static final String SERVER_DATE = "yyyy-MM-dd";
+
+    // Dashboard clock formats
+    public static final String DISPLAY_DATE = "EEEE, MMM dd yyyy";
+    public static final String DISPLAY_TIME = "hh:mm a";
+
+    /** Returned by {@link #parseEpochMillis} for missing or unparseable input */
+    public static final long INVALID_TIME = Long.MIN_VALUE;
+
+    private static final ThreadLocal<Map<String, SimpleDateFormat>> FORMATTERS =
+            ThreadLocal.withInitial(HashMap::new);
+
+    private DateFormats() { }
+
+    /** Cached formatter for the current thread; server patterns use a fixed locale */
+    public static SimpleDateFormat get(String pattern, Locale locale) {
+        String key = pattern + '|' + locale.toLanguageTag();
+        Map<String, SimpleDateFormat> formatters = FORMATTERS.get();
+        SimpleDateFormat format = formatters.get(key);
+        if (format == null) {
+            format = new SimpleDateFormat(pattern, locale);
+            format.setLenient(false);
+            formatters.put(key, format);
+        }
+        return format;
+    }
+
+    /** Format for display in the user's locale */
+    public static String format(String pattern, Date date) {
+        return get(pattern, Locale.getDefault()).format(date);
+    }
+
+    /** Parse a server date-time or date string, or {@link #INVALID_TIME} */
+    public static long parseEpochMillis(String value) {
+        if (value == null || value.isEmpty()) return INVALID_TIME;
+        String pattern = value.length() > SERVER_DATE.length() ? SERVER_DATE_TIME : SERVER_DATE;
+        try {
+            return get(pattern, Locale.US).parse(value).getTime();
+        } catch (ParseException e) {
+            return INVALID_TIME;
+        }
+    }
+
+    /** Parse a server date-time or date string, or null */
+    public static Date parseDate(String value) {
+        long millis = parseEpochMillis(value);
+        return millis == INVALID_TIME ? null : new Date(millis);
+    }
+
+    public static String formatServer(Date date) {
+        return get(SERVER_DATE_TIME, Locale.US).format(date);
+    }
+
+    /**
+     * Sort by an epoch-millis key the elements parsed once when they were decoded, such
+     * as {@code MedicineLog::getScheduledAtMillis}; nothing is parsed or allocated per
+     * comparison. {@link #INVALID_TIME} keys sort last; the sort is stable.
+     */
+    public static <T> void sortByTime(List<T> items, ToLongFunction<T> millisOf) {
+        if (items.size() < 2) return;
+        items.sort((a, b) -> Long.compare(sortKey(millisOf.applyAsLong(a)), sortKey(millisOf.applyAsLong(b))));
+    }
+
+    private static long sortKey(long millis) {
+        return millis == INVALID_TIME ? Long.MAX_VALUE : millis;
+    }
+}
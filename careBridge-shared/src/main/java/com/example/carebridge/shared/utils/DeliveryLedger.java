@@ -0,0 +1,130 @@
+package com.example.carebridge.shared.utils;
+
+import android.content.Context;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent, bounded record of keys already handled, each stamped with when it was
+ * first seen. A key counts as seen for {@code windowMillis}; beyond {@code capacity}
+ * entries the oldest are dropped. Backed by an {@link AsyncPrefs} file, so the first
+ * call blocks on its load: use it off the main thread.
+ */
+public final class DeliveryLedger {
+
+    private static final Map<String, DeliveryLedger> INSTANCES = new ConcurrentHashMap<>();
+
+    /** Where the stamps persist; an {@link AsyncPrefs} file by default */
+    interface Store {
+        Map<String, Object> snapshot();
+        /** Write the stamps and drop the removed keys in one transaction */
+        void write(Map<String, Long> stamps, Collection<String> removed);
+    }
+
+    interface Clock {
+        long currentTimeMillis();
+    }
+
+    private final Store store;
+    private final long windowMillis;
+    private final int capacity;
+    private final Clock clock;
+
+    /** Shared instance per file; window and capacity are fixed by the first caller */
+    public static DeliveryLedger get(Context context, String name, long windowMillis, int capacity) {
+        return INSTANCES.computeIfAbsent(name, n -> new DeliveryLedger(
+                new PrefsStore(AsyncPrefs.get(context, n)), windowMillis, capacity, System::currentTimeMillis));
+    }
+
+    DeliveryLedger(Store store, long windowMillis, int capacity, Clock clock) {
+        this.store = store;
+        this.windowMillis = windowMillis;
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+    /**
+     * Record the given keys (null keys are ignored). Returns false, recording nothing,
+     * when any of them was already seen within the window.
+     */
+    public synchronized boolean markFirst(String... keys) {
+        Map<String, Object> seen = store.snapshot();
+        long now = clock.currentTimeMillis();
+        for (String key : keys) {
+            if (key != null && isLive(seen.get(key), now)) return false;
+        }
+
+        Map<String, Long> stamps = new LinkedHashMap<>();
+        for (String key : keys) {
+            if (key != null) stamps.put(key, now);
+        }
+        List<String> removed = new ArrayList<>();
+        evict(removed, seen, stamps, now, seen.size() + stamps.size() - capacity);
+        store.write(stamps, removed);
+        return true;
+    }
+
+    public synchronized boolean contains(String key) {
+        return isLive(store.snapshot().get(key), clock.currentTimeMillis());
+    }
+
+    /** Drop expired entries */
+    public synchronized void prune() {
+        List<String> removed = new ArrayList<>();
+        evict(removed, store.snapshot(), null, clock.currentTimeMillis(), 0);
+        if (!removed.isEmpty()) store.write(new LinkedHashMap<>(), removed);
+    }
+
+    private boolean isLive(Object stamp, long now) {
+        return stamp instanceof Long && now - (Long) stamp < windowMillis;
+    }
+
+    /**
+     * Collect expired entries, then the oldest live ones until {@code overflow} are gone.
+     * Keys being re-stamped ({@code stamps}) are never evicted.
+     */
+    private void evict(List<String> removed, Map<String, Object> seen, Map<String, Long> stamps,
+                       long now, int overflow) {
+        List<Map.Entry<String, Object>> live = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : seen.entrySet()) {
+            if (stamps != null && stamps.containsKey(entry.getKey())) {
+                overflow--;
+            } else if (isLive(entry.getValue(), now)) {
+                live.add(entry);
+            } else {
+                removed.add(entry.getKey());
+                overflow--;
+            }
+        }
+        if (overflow <= 0) return;
+
+        live.sort((a, b) -> Long.compare((Long) a.getValue(), (Long) b.getValue()));
+        for (int i = 0; i < overflow && i < live.size(); i++) removed.add(live.get(i).getKey());
+    }
+
+    private static final class PrefsStore implements Store {
+        private final AsyncPrefs prefs;
+
+        PrefsStore(AsyncPrefs prefs) {
+            this.prefs = prefs;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            return prefs.snapshot();
+        }
+
+        @Override
+        public void write(Map<String, Long> stamps, Collection<String> removed) {
+            AsyncPrefs.Transaction tx = prefs.edit();
+            for (String key : removed) tx.remove(key);
+            for (Map.Entry<String, Long> stamp : stamps.entrySet()) tx.putLong(stamp.getKey(), stamp.getValue());
+            tx.apply();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.carebridge.shared.utils;
+
+import com.example.carebridge.shared.model.Medication;
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.model.Prescription;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns stored prescriptions and medicine logs into the concrete doses a device should
+ * remind about. Each active {@link Medication} expands into one dose per slot flag and day,
+ * and server logs are matched to those doses by medicine_id and scheduled time. Pure
+ * computation over the typed models, so the scheduler can run it anywhere and tests can
+ * drive it with a fixed clock.
+ */
+public final class DosePlanner {
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    // Clock time of each daily slot flag
+    private static final String[] SLOTS = {"morning", "afternoon", "evening", "night"};
+    private static final int[][] SLOT_TIMES = {{8, 0}, {13, 0}, {18, 0}, {21, 0}};
+
+    // A server log within this distance of a computed dose is the same dose
+    static final long MATCH_WINDOW_MILLIS = 90 * 60 * 1000L;
+
+    /** One reminder to arm */
+    public static final class Dose {
+        public final String key;
+        public final Integer logId;
+        public final int medicineId;
+        public final String medicine;
+        public final long scheduledAt;
+        public final boolean withFood;
+        public final String slot;
+
+        Dose(Integer logId, int medicineId, String medicine, long scheduledAt, boolean withFood, String slot) {
+            this.key = doseKey(logId, medicine, scheduledAt);
+            this.logId = logId;
+            this.medicineId = medicineId;
+            this.medicine = medicine;
+            this.scheduledAt = scheduledAt;
+            this.withFood = withFood;
+            this.slot = slot;
+        }
+    }
+
+    private DosePlanner() { }
+
+    /** Stable identity of a dose: its server log_id when known, else medicine and minute */
+    public static String doseKey(Integer logId, String medicine, long scheduledAt) {
+        if (logId != null) return "log:" + logId;
+        return "med:" + (medicine != null ? medicine.trim().toLowerCase(Locale.US) : "") + "@" + scheduledAt / 60_000L;
+    }
+
+    /** The doses inside [from, until), computed from the prescriptions and linked to the logs */
+    public static List<Dose> plan(List<Prescription> prescriptions, List<MedicineLog> logs, long from, long until) {
+        return reconcile(expand(prescriptions, from, until), logs, medicationsById(prescriptions), from, until);
+    }
+
+    /** Every prescribed medication by medicine_id; later prescriptions win */
+    public static Map<Integer, Medication> medicationsById(List<Prescription> prescriptions) {
+        Map<Integer, Medication> byId = new HashMap<>();
+        if (prescriptions == null) return byId;
+        for (Prescription prescription : prescriptions) {
+            if (prescription.getMedicines() == null) continue;
+            for (Medication med : prescription.getMedicines()) {
+                if (med != null) byId.put(med.getMedicineId(), med);
+            }
+        }
+        return byId;
+    }
+
+    /** Medication slot flags → dose times inside [from, until) */
+    static List<Dose> expand(List<Prescription> prescriptions, long from, long until) {
+        List<Dose> doses = new ArrayList<>();
+        if (prescriptions == null) return doses;
+
+        for (Prescription prescription : prescriptions) {
+            if (prescription.getMedicines() == null) continue;
+            for (Medication med : prescription.getMedicines()) {
+                if (med == null || med.getMedicineName() == null) continue;
+
+                long start = med.getStartAtMillis();
+                long end = med.getEndAtMillis();
+                if (start == DateFormats.INVALID_TIME) start = startOfDay(from);
+                if (end != DateFormats.INVALID_TIME) {
+                    end += DAY_MILLIS; // end date is inclusive
+                } else if (med.getDurationDays() > 0) {
+                    end = start + med.getDurationDays() * DAY_MILLIS;
+                }
+
+                boolean[] slots = {med.isMorning(), med.isAfternoon(), med.isEvening(), med.isNight()};
+                for (long day = startOfDay(Math.max(start, from)); day < until; day = nextDay(day)) {
+                    for (int i = 0; i < SLOTS.length; i++) {
+                        if (!slots[i]) continue;
+                        long at = atTime(day, SLOT_TIMES[i][0], SLOT_TIMES[i][1]);
+                        if (at < from || at >= until || at < start) continue;
+                        if (end != DateFormats.INVALID_TIME && at >= end) continue;
+                        doses.add(new Dose(null, med.getMedicineId(), med.getMedicineName(), at,
+                                med.isWithFood(), SLOTS[i]));
+                    }
+                }
+            }
+        }
+        return doses;
+    }
+
+    /**
+     * Server logs win: a computed dose takes the log_id and time of the closest unused log for
+     * the same medicine_id within {@link #MATCH_WINDOW_MILLIS}, doses whose log is already
+     * answered are dropped, and open logs with no computed counterpart are armed as well.
+     */
+    static List<Dose> reconcile(List<Dose> computed, List<MedicineLog> logs,
+                                Map<Integer, Medication> medications, long from, long until) {
+        if (logs == null || logs.isEmpty()) return computed;
+
+        Map<String, Dose> result = new LinkedHashMap<>();
+        Set<Integer> usedLogs = new HashSet<>();
+
+        for (Dose dose : computed) {
+            MedicineLog match = null;
+            long closest = Long.MAX_VALUE;
+            for (MedicineLog log : logs) {
+                if (log.getLogId() <= 0 || log.getMedicineId() != dose.medicineId || usedLogs.contains(log.getLogId())) {
+                    continue;
+                }
+                long at = log.getScheduledAtMillis();
+                if (at == DateFormats.INVALID_TIME) continue;
+                long distance = Math.abs(at - dose.scheduledAt);
+                if (distance <= MATCH_WINDOW_MILLIS && distance < closest) {
+                    match = log;
+                    closest = distance;
+                }
+            }
+            if (match == null) {
+                result.put(dose.key, dose);
+                continue;
+            }
+            usedLogs.add(match.getLogId());
+            if (!isOpen(match)) continue;
+            Dose linked = new Dose(match.getLogId(), dose.medicineId, dose.medicine,
+                    match.getScheduledAtMillis(), dose.withFood, dose.slot);
+            result.put(linked.key, linked);
+        }
+
+        for (MedicineLog log : logs) {
+            if (log.getLogId() <= 0 || usedLogs.contains(log.getLogId()) || !isOpen(log)) continue;
+            long at = log.getScheduledAtMillis();
+            if (at == DateFormats.INVALID_TIME || at < from || at >= until) continue;
+            Medication med = medications.get(log.getMedicineId());
+            String name = med != null && med.getMedicineName() != null ? med.getMedicineName() : "your medicine";
+            Dose dose = new Dose(log.getLogId(), log.getMedicineId(), name, at, med != null && med.isWithFood(), null);
+            result.put(dose.key, dose);
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /** Not answered yet: pending, scheduled or without a status */
+    static boolean isOpen(MedicineLog log) {
+        String status = log.getTakenStatus();
+        if (status == null || status.trim().isEmpty()) return true;
+        return log.isPending() || "scheduled".equalsIgnoreCase(status.trim());
+    }
+
+    private static long startOfDay(long millis) {
+        return atTime(millis, 0, 0);
+    }
+
+    private static long nextDay(long dayStart) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(dayStart);
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        return calendar.getTimeInMillis();
+    }
+
+    private static long atTime(long day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(day);
+        calendar.set(Calendar.HOUR_OF_DAY, hour);
+        calendar.set(Calendar.MINUTE, minute);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+}
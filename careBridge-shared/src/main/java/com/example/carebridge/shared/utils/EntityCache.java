@@ -0,0 +1,106 @@
+package com.example.carebridge.shared.utils;
+
+import android.content.ComponentCallbacks2;
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import com.example.carebridge.shared.model.GuardianInfo;
+import com.example.carebridge.shared.model.PatientGuardianInfo;
+import com.example.carebridge.shared.model.PatientInfo;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded in-memory cache of parsed entities with a freshness TTL.
+ * Stale entries are still returned so screens can render them while revalidating
+ * in the background (stale-while-revalidate); callers decide whether to refresh
+ * via {@link Entry#isFresh()}.
+ */
+public final class EntityCache<V> {
+
+    private static final long FIVE_MINUTES = 5 * 60 * 1000L;
+
+    private static final List<EntityCache<?>> ALL = new CopyOnWriteArrayList<>();
+
+    // Patient profile by caseId
+    public static final EntityCache<PatientInfo> PATIENTS = new EntityCache<>(32, FIVE_MINUTES);
+    // Guardian profile by guardianId
+    public static final EntityCache<GuardianInfo> GUARDIANS = new EntityCache<>(16, FIVE_MINUTES);
+    // Guardians assigned to a patient, by caseId
+    public static final EntityCache<List<PatientGuardianInfo>> PATIENT_GUARDIANS = new EntityCache<>(32, FIVE_MINUTES);
+
+    public static final class Entry<V> {
+        public final V value;
+        private final long storedAt;
+        private final long ttlMillis;
+
+        Entry(V value, long storedAt, long ttlMillis) {
+            this.value = value;
+            this.storedAt = storedAt;
+            this.ttlMillis = ttlMillis;
+        }
+
+        public boolean isFresh() {
+            return SystemClock.elapsedRealtime() - storedAt < ttlMillis;
+        }
+    }
+
+    private final LruCache<String, Entry<V>> cache;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private EntityCache(int maxEntries, long ttlMillis) {
+        this.cache = new LruCache<>(maxEntries);
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        ALL.add(this);
+    }
+
+    /** Cached entry (fresh or stale), or null on a miss */
+    public Entry<V> get(String key) {
+        Entry<V> entry = key != null ? cache.get(key) : null;
+        if (entry == null) misses.incrementAndGet();
+        else if (entry.isFresh()) hits.incrementAndGet();
+        else staleHits.incrementAndGet();
+        return entry;
+    }
+
+    public void put(String key, V value) {
+        if (key == null || value == null) return;
+        cache.put(key, new Entry<>(value, SystemClock.elapsedRealtime(), ttlMillis));
+    }
+
+    public void invalidate(String key) {
+        if (key != null) cache.remove(key);
+    }
+
+    public void invalidateAll() {
+        cache.evictAll();
+    }
+
+    public long getHitCount() { return hits.get(); }
+    public long getStaleHitCount() { return staleHits.get(); }
+    public long getMissCount() { return misses.get(); }
+
+    /** Call from the Application's onTrimMemory: shrink under pressure, drop everything when backgrounded */
+    public static void onTrimMemory(int level) {
+        for (EntityCache<?> entityCache : ALL) {
+            if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                    || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+                entityCache.cache.evictAll();
+            } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+                entityCache.cache.trimToSize(Math.max(1, entityCache.maxEntries / 2));
+            }
+        }
+    }
+
+    public static void invalidateEverything() {
+        for (EntityCache<?> entityCache : ALL) entityCache.invalidateAll();
+    }
+}
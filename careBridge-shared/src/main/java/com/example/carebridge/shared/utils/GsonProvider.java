@@ -0,0 +1,47 @@
+package com.example.carebridge.shared.utils;
+
+import com.example.carebridge.shared.model.AssignedPatientInfo;
+import com.example.carebridge.shared.model.DailyTipResponse;
+import com.example.carebridge.shared.model.GuardianInfo;
+import com.example.carebridge.shared.model.Medication;
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.model.PatientGuardianInfo;
+import com.example.carebridge.shared.model.PatientInfo;
+import com.example.carebridge.shared.model.Prescription;
+import com.example.carebridge.shared.model.PrescriptionResponse;
+import com.example.carebridge.shared.model.Tip;
+import com.example.carebridge.shared.model.User;
+import com.example.carebridge.shared.model.Video;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Single process-wide Gson instance for the phone and the watch. Every shared model has a
+ * hand-written TypeAdapter registered here, so parsing never binds fields by reflection:
+ * no per-class reflective setup on the first parse, and R8 can rename the models' fields
+ * in the wear release build without breaking the JSON names. Callers share this one
+ * instance (and its adapter cache) instead of building a {@code new Gson()} each.
+ */
+public final class GsonProvider {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Medication.class, Medication.ADAPTER)
+            .registerTypeAdapter(MedicineLog.class, MedicineLog.ADAPTER)
+            .registerTypeAdapter(PatientInfo.class, PatientInfo.ADAPTER)
+            .registerTypeAdapter(Prescription.class, Prescription.ADAPTER)
+            .registerTypeAdapter(PrescriptionResponse.class, PrescriptionResponse.ADAPTER)
+            .registerTypeAdapter(AssignedPatientInfo.class, AssignedPatientInfo.ADAPTER)
+            .registerTypeAdapter(PatientGuardianInfo.class, PatientGuardianInfo.ADAPTER)
+            .registerTypeAdapter(GuardianInfo.class, GuardianInfo.ADAPTER)
+            .registerTypeAdapter(User.class, User.ADAPTER)
+            .registerTypeAdapter(Tip.class, Tip.ADAPTER)
+            .registerTypeAdapter(Video.class, Video.ADAPTER)
+            .registerTypeAdapter(DailyTipResponse.class, DailyTipResponse.ADAPTER)
+            .create();
+
+    private GsonProvider() { }
+
+    public static Gson get() {
+        return GSON;
+    }
+}
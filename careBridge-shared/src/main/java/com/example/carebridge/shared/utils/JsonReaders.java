@@ -0,0 +1,124 @@
+package com.example.carebridge.shared.utils;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+
+/**
+ * Helpers for decoding responses with a streaming {@link JsonReader}. The PHP backend is
+ * loose about types (ids as strings, flags as 0/1 or "1"), so the readers accept any
+ * scalar and fall back to the field default instead of failing the whole response.
+ * The models' hand-written TypeAdapters read through the same helpers.
+ */
+public final class JsonReaders {
+
+    /** Lenient String adapter for list elements */
+    public static final TypeAdapter<String> STRING = new TypeAdapter<String>() {
+        @Override
+        public void write(JsonWriter out, String value) throws IOException {
+            out.value(value);
+        }
+
+        @Override
+        public String read(JsonReader in) throws IOException {
+            return nextString(in);
+        }
+    };
+
+    private JsonReaders() { }
+
+    /** Reader over the body's source: decodes as bytes arrive, never holding the payload as a String */
+    public static JsonReader of(ResponseBody body) {
+        return of(body.charStream());
+    }
+
+    public static JsonReader of(Reader in) {
+        JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+        return reader;
+    }
+
+    public static String nextString(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case NULL:
+                in.nextNull();
+                return null;
+            case BOOLEAN:
+                return Boolean.toString(in.nextBoolean());
+            case STRING:
+            case NUMBER:
+                return in.nextString();
+            default:
+                in.skipValue();
+                return null;
+        }
+    }
+
+    public static int nextInt(JsonReader in) throws IOException {
+        return (int) nextLong(in);
+    }
+
+    public static long nextLong(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+            in.skipValue();
+            return 0;
+        }
+        String value = in.nextString().trim();
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            try {
+                return (long) Double.parseDouble(value);
+            } catch (NumberFormatException notNumeric) {
+                return 0;
+            }
+        }
+    }
+
+    /** true, 1, "1" and "true" (any case) */
+    public static boolean nextBoolean(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case BOOLEAN:
+                return in.nextBoolean();
+            case NUMBER:
+            case STRING:
+                String value = in.nextString().trim();
+                return value.equals("1") || value.equalsIgnoreCase("true");
+            default:
+                in.skipValue();
+                return false;
+        }
+    }
+
+    /** Array of elements, null for JSON null; a non-array value is skipped and reads as null */
+    public static <T> List<T> nextList(JsonReader in, TypeAdapter<T> element) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            in.skipValue();
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) list.add(element.read(in));
+        in.endArray();
+        return list;
+    }
+
+    public static <T> void writeList(JsonWriter out, List<T> list, TypeAdapter<T> element) throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (T value : list) element.write(out, value);
+        out.endArray();
+    }
+}
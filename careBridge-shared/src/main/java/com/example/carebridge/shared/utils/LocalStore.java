@@ -0,0 +1,164 @@
+package com.example.carebridge.shared.utils;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.gson.JsonParseException;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Offline-first SQLite store for the entities screens render: prescriptions, medicine logs,
+ * patient profiles, assigned patients and patient guardians. Screens render from here first;
+ * the shared controllers write every fetched result through on their OkHttp thread and
+ * report whether it differed from the stored copy, so callers only re-render real changes.
+ * Rows are keyed by (kind, caseId/guardianId) and hold the entity graph as JSON.
+ * All reads and writes block on disk, so never call them on the main thread.
+ *
+ * <p>Each successful write-through also stamps the row as fetched (in memory, for this
+ * process), so a screen opened right after another fetch, such as the login prefetch, can
+ * check {@link #isFresh} and render the stored copy without asking the server again.
+ */
+public class LocalStore extends SQLiteOpenHelper {
+
+    private static final String TAG = "LocalStore";
+    private static final String DB_NAME = "carebridge_local.db";
+    private static final int DB_VERSION = 1;
+
+    private static final String TABLE = "entities";
+    private static final String COL_KIND = "kind";
+    private static final String COL_KEY = "entity_key";
+    private static final String COL_JSON = "json";
+    private static final String COL_UPDATED_AT = "updated_at";
+
+    // Entity kinds
+    public static final String KIND_PRESCRIPTIONS = "prescriptions";
+    public static final String KIND_MEDICINE_LOGS = "medicine_logs";
+    public static final String KIND_PATIENT = "patient";
+    public static final String KIND_ASSIGNED_PATIENTS = "assigned_patients";
+    public static final String KIND_PATIENT_GUARDIANS = "patient_guardians";
+
+    private static volatile LocalStore instance;
+
+    // When a fetch last confirmed each row, changed or not; elapsedRealtime millis
+    private final Map<String, Long> fetchedAt = new ConcurrentHashMap<>();
+
+    public static LocalStore get(Context context) {
+        if (instance == null) {
+            synchronized (LocalStore.class) {
+                if (instance == null) instance = new LocalStore(context.getApplicationContext());
+            }
+        }
+        return instance;
+    }
+
+    private LocalStore(Context context) {
+        super(context, DB_NAME, null, DB_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COL_KIND + " TEXT NOT NULL, "
+                + COL_KEY + " TEXT NOT NULL, "
+                + COL_JSON + " TEXT NOT NULL, "
+                + COL_UPDATED_AT + " INTEGER NOT NULL, "
+                + "PRIMARY KEY (" + COL_KIND + ", " + COL_KEY + "))");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Pure cache: rebuilding from the network is always safe
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+        onCreate(db);
+    }
+
+    /** Stored entity, or null when nothing is saved (or the row no longer parses) */
+    public <T> T read(String kind, String key, Type type) {
+        String json = readJson(kind, key);
+        if (json == null) return null;
+        try {
+            return GsonProvider.get().fromJson(json, type);
+        } catch (JsonParseException e) {
+            Log.w(TAG, "Dropping unreadable " + kind + "/" + key, e);
+            delete(kind, key);
+            return null;
+        }
+    }
+
+    /** Write-through; returns true when the stored value actually changed */
+    public boolean writeIfChanged(String kind, String key, Object value) {
+        String json = GsonProvider.get().toJson(value);
+        if (json.equals(readJson(kind, key))) return false;
+
+        ContentValues values = new ContentValues();
+        values.put(COL_KIND, kind);
+        values.put(COL_KEY, safeKey(key));
+        values.put(COL_JSON, json);
+        values.put(COL_UPDATED_AT, System.currentTimeMillis());
+        getWritableDatabase().insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        return true;
+    }
+
+    /**
+     * Write-through from a controller. A failed write must not fail the fetch that produced
+     * the value, so it is logged and reported as a change (the caller then renders it).
+     */
+    public boolean writeThrough(String kind, String key, Object value) {
+        try {
+            boolean changed = writeIfChanged(kind, key, value);
+            markFetched(kind, key);
+            return changed;
+        } catch (SQLException e) {
+            Log.w(TAG, "Write-through failed for " + kind + "/" + key, e);
+            return true;
+        }
+    }
+
+    /** Record that a fetch just confirmed this row, whether or not its value changed */
+    public void markFetched(String kind, String key) {
+        fetchedAt.put(stampKey(kind, key), SystemClock.elapsedRealtime());
+    }
+
+    /** Whether a fetch in this process confirmed the row within the last {@code maxAgeMillis} */
+    public boolean isFresh(String kind, String key, long maxAgeMillis) {
+        Long at = fetchedAt.get(stampKey(kind, key));
+        return at != null && SystemClock.elapsedRealtime() - at < maxAgeMillis;
+    }
+
+    public void delete(String kind, String key) {
+        fetchedAt.remove(stampKey(kind, key));
+        getWritableDatabase().delete(TABLE, COL_KIND + "=? AND " + COL_KEY + "=?",
+                new String[]{kind, safeKey(key)});
+    }
+
+    /** Wipe everything, e.g. on logout */
+    public void clear() {
+        fetchedAt.clear();
+        getWritableDatabase().delete(TABLE, null, null);
+    }
+
+    private String readJson(String kind, String key) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE, new String[]{COL_JSON},
+                COL_KIND + "=? AND " + COL_KEY + "=?", new String[]{kind, safeKey(key)},
+                null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    private static String stampKey(String kind, String key) {
+        return kind + '/' + safeKey(key);
+    }
+
+    private static String safeKey(String key) {
+        return key != null ? key : "";
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.carebridge.shared.utils;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.service.notification.StatusBarNotification;
+
+import androidx.core.app.NotificationCompat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dose reminder posting shared by the phone and the watch. Reminders are grouped per time
+ * slot under an inbox-style summary; only the summary alerts, and only once. Posts are
+ * buffered for {@link ApiConstants#NOTIFICATION_THROTTLE_MS} so a burst of reminders for
+ * the same slot costs one alert and one redraw. Each app keeps one instance and supplies
+ * its channel, icon, wording and actions through a {@link Style}.
+ */
+public final class ReminderPoster {
+
+    private static final String EXTRA_DOSE_TEXT = "carebridge_dose_text";
+    private static final String EXTRA_DOSE_LOG_ID = "carebridge_log_id";
+    private static final long SLOT_WINDOW_MILLIS = 30 * 60 * 1000L;
+
+    /** What differs between the apps */
+    public interface Style {
+        String channelId();
+
+        int smallIcon();
+
+        /** Summary title for a slot with {@code count} reminders showing */
+        String summaryTitle(Context context, int count);
+
+        /**
+         * App-specific additions to a slot summary (sound, tap target, bulk actions);
+         * {@code answerable} reminders in the slot carry a log_id
+         */
+        void decorateSummary(Context context, NotificationCompat.Builder summary, String slot, int answerable);
+    }
+
+    private static final class PendingDose {
+        final int notificationId;
+        final Notification notification;
+        final String text;
+        final Runnable onPosted;
+
+        PendingDose(int notificationId, Notification notification, String text, Runnable onPosted) {
+            this.notificationId = notificationId;
+            this.notification = notification;
+            this.text = text;
+            this.onPosted = onPosted;
+        }
+    }
+
+    private final String groupPrefix;
+    private final Style style;
+
+    // All posting happens on one thread; pending children are buffered per slot until flushed
+    private final Handler poster;
+    private final Map<String, List<PendingDose>> buffered = new LinkedHashMap<>();
+
+    public ReminderPoster(String threadName, String groupPrefix, Style style) {
+        this.groupPrefix = groupPrefix;
+        this.style = style;
+        HandlerThread thread = new HandlerThread(threadName);
+        thread.start();
+        poster = new Handler(thread.getLooper());
+    }
+
+    /**
+     * A quiet child reminder in its slot's group; the caller adds its tap target and
+     * actions and passes it to {@link #post}. {@code logId} (may be null) marks it as
+     * answerable in the summary.
+     */
+    public NotificationCompat.Builder reminder(Context context, String title, String text,
+                                               Integer logId, String slot) {
+        Bundle extras = new Bundle();
+        extras.putString(EXTRA_DOSE_TEXT, text);
+        if (logId != null) extras.putInt(EXTRA_DOSE_LOG_ID, logId);
+
+        // Children stay quiet; the slot summary carries the single alert
+        return new NotificationCompat.Builder(context, style.channelId())
+                .setSmallIcon(style.smallIcon())
+                .setContentTitle(title)
+                .setContentText(text)
+                .setAutoCancel(true)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setOnlyAlertOnce(true)
+                .setGroup(groupKey(slot))
+                .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                .addExtras(extras);
+    }
+
+    /**
+     * Queue a reminder built by {@link #reminder}. {@code onPosted} (may be null) runs on
+     * the poster thread once the slot has been flushed, whether or not anything could be
+     * shown; callers that may be torn down before then stay alive until it runs.
+     */
+    public void post(Context context, int notificationId, String slot,
+                     NotificationCompat.Builder reminder, Runnable onPosted) {
+        Context appContext = context.getApplicationContext();
+        Notification notification = reminder.build();
+        PendingDose dose = new PendingDose(notificationId, notification,
+                notification.extras.getString(EXTRA_DOSE_TEXT), onPosted);
+        poster.post(() -> {
+            List<PendingDose> doses = buffered.get(slot);
+            if (doses == null) {
+                doses = new ArrayList<>();
+                buffered.put(slot, doses);
+                poster.postDelayed(() -> flush(appContext, slot), ApiConstants.NOTIFICATION_THROTTLE_MS);
+            }
+            doses.add(dose);
+        });
+    }
+
+    /**
+     * Queue a reminder and block until its slot has been flushed, at most
+     * {@link ApiConstants#NOTIFICATION_POST_TIMEOUT_MS}. For push handlers, which hold no
+     * PendingResult to hand over. Returns false on timeout.
+     */
+    public boolean postAndWait(Context context, int notificationId, String slot,
+                               NotificationCompat.Builder reminder) {
+        CountDownLatch posted = new CountDownLatch(1);
+        post(context, notificationId, slot, reminder, posted::countDown);
+        try {
+            return posted.await(ApiConstants.NOTIFICATION_POST_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Cancel a reminder and refresh (or remove) its slot summary */
+    public void clear(Context context, int id) {
+        NotificationManager manager = manager(context);
+        if (manager == null) return;
+
+        String group = null;
+        for (StatusBarNotification sbn : manager.getActiveNotifications()) {
+            if (sbn.getId() == id && isReminder(sbn)) {
+                group = sbn.getNotification().getGroup();
+                break;
+            }
+        }
+        manager.cancel(id);
+
+        if (group != null && group.startsWith(groupPrefix)) {
+            Context appContext = context.getApplicationContext();
+            String slot = group.substring(groupPrefix.length());
+            poster.post(() -> postSummary(appContext, manager, slot, new ArrayList<>(), id));
+        }
+    }
+
+    /** Whether the reminder with this id is still showing */
+    public boolean isShowing(Context context, int id) {
+        NotificationManager manager = manager(context);
+        if (manager == null) return false;
+
+        for (StatusBarNotification sbn : manager.getActiveNotifications()) {
+            if (sbn.getId() == id && isReminder(sbn)) return true;
+        }
+        return false;
+    }
+
+    /** log_ids of the reminders still showing for a slot */
+    public List<Integer> logIdsInSlot(Context context, String slot) {
+        List<Integer> logIds = new ArrayList<>();
+        NotificationManager manager = manager(context);
+        if (manager == null) return logIds;
+
+        String group = groupKey(slot);
+        for (StatusBarNotification sbn : manager.getActiveNotifications()) {
+            Bundle extras = sbn.getNotification().extras;
+            if (!group.equals(sbn.getNotification().getGroup()) || extras == null
+                    || !extras.containsKey(EXTRA_DOSE_LOG_ID)) continue;
+            logIds.add(extras.getInt(EXTRA_DOSE_LOG_ID));
+        }
+        return logIds;
+    }
+
+    public String groupKey(String slot) {
+        return groupPrefix + slot;
+    }
+
+    /** Slot a dose belongs to: the server's slot, else its scheduled minute, else a 30-minute window */
+    public static String slotKey(Map<String, String> data) {
+        String slot = data.get("slot");
+        if (slot != null && !slot.isEmpty()) return slot;
+        String scheduled = data.get("scheduled_time");
+        if (scheduled != null && scheduled.length() >= 16) return scheduled.substring(0, 16);
+        return String.valueOf(System.currentTimeMillis() / SLOT_WINDOW_MILLIS);
+    }
+
+    /** Runs on the poster thread: post every buffered child of a slot, then one summary */
+    private void flush(Context context, String slot) {
+        List<PendingDose> doses = buffered.remove(slot);
+        if (doses == null || doses.isEmpty()) return;
+        try {
+            NotificationManager manager = manager(context);
+            if (manager == null) return;
+
+            for (PendingDose dose : doses) manager.notify(dose.notificationId, dose.notification);
+            postSummary(context, manager, slot, doses, -1);
+        } finally {
+            for (PendingDose dose : doses) {
+                if (dose.onPosted != null) dose.onPosted.run();
+            }
+        }
+    }
+
+    /**
+     * Summary for a slot built from its showing children plus the ones just posted
+     * (which may not be listed as active yet). No children left: the summary goes too.
+     */
+    private void postSummary(Context context, NotificationManager manager, String slot,
+                             List<PendingDose> justPosted, int removedId) {
+        String group = groupKey(slot);
+        Map<Integer, String> lines = new LinkedHashMap<>();
+        int answerable = 0;
+        for (StatusBarNotification sbn : manager.getActiveNotifications()) {
+            if (sbn.getId() == removedId || !group.equals(sbn.getNotification().getGroup())
+                    || !isReminder(sbn)) continue;
+            Bundle extras = sbn.getNotification().extras;
+            lines.put(sbn.getId(), extras.getString(EXTRA_DOSE_TEXT));
+            if (extras.containsKey(EXTRA_DOSE_LOG_ID)) answerable++;
+        }
+        for (PendingDose dose : justPosted) {
+            if (lines.containsKey(dose.notificationId)) continue;
+            lines.put(dose.notificationId, dose.text);
+            if (dose.notification.extras.containsKey(EXTRA_DOSE_LOG_ID)) answerable++;
+        }
+
+        int summaryId = group.hashCode();
+        if (lines.isEmpty()) {
+            manager.cancel(summaryId);
+            return;
+        }
+
+        String title = style.summaryTitle(context, lines.size());
+        NotificationCompat.InboxStyle inbox = new NotificationCompat.InboxStyle().setBigContentTitle(title);
+        for (String line : lines.values()) inbox.addLine(line);
+
+        NotificationCompat.Builder summary = new NotificationCompat.Builder(context, style.channelId())
+                .setSmallIcon(style.smallIcon())
+                .setContentTitle(title)
+                .setContentText(lines.values().iterator().next())
+                .setStyle(inbox)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setGroup(group)
+                .setGroupSummary(true)
+                .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                .setOnlyAlertOnce(true)
+                .setAutoCancel(true);
+        style.decorateSummary(context, summary, slot, answerable);
+
+        manager.notify(summaryId, summary.build());
+    }
+
+    private static boolean isReminder(StatusBarNotification sbn) {
+        Bundle extras = sbn.getNotification().extras;
+        return extras != null && extras.containsKey(EXTRA_DOSE_TEXT);
+    }
+
+    private static NotificationManager manager(Context context) {
+        return (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+    }
+}
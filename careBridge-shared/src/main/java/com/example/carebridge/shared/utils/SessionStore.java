@@ -0,0 +1,306 @@
+package com.example.carebridge.shared.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.carebridge.shared.model.User;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide session held in memory. The stored user JSON is decoded once, on the
+ * preferences IO thread, so creating the store never waits for the disk; reads are
+ * served from an immutable snapshot (only a read issued before that first decode
+ * finished waits for it, so main-thread callers in onCreate use {@link #whenReady}), writes replace the snapshot immediately and
+ * are encoded and persisted as batched {@link AsyncPrefs} transactions. Listeners are told
+ * about every change on the main thread, including edits made to the preferences
+ * file by other code.
+ *
+ * <p>There is one store per preferences file: the phone app and the shared controllers
+ * use {@link #DEFAULT}, the watch keeps its session in its own file under its own keys.
+ */
+public final class SessionStore {
+
+    /** The preferences file a session lives in and the keys it is stored under */
+    public static final class Schema {
+        final String prefName;
+        final String keyLoggedIn;
+        final String keyUser;
+        final String keyCaseId;
+        final String keyReferenceId;
+
+        public Schema(String prefName, String keyLoggedIn, String keyUser, String keyCaseId, String keyReferenceId) {
+            this.prefName = prefName;
+            this.keyLoggedIn = keyLoggedIn;
+            this.keyUser = keyUser;
+            this.keyCaseId = keyCaseId;
+            this.keyReferenceId = keyReferenceId;
+        }
+    }
+
+    /** Session file of the phone app and of the shared controllers */
+    public static final Schema DEFAULT = new Schema("CareBridgePref", "isLoggedIn", "user", "case_id", "reference_id");
+
+    private static final Map<String, SessionStore> INSTANCES = new ConcurrentHashMap<>();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public interface SessionListener {
+        void onSessionChanged(Session session);
+    }
+
+    /** Immutable view of the current session */
+    public static final class Session {
+        public final boolean loggedIn;
+        public final User user;
+        public final String caseId;
+        public final String referenceId;
+        // JSON the user was decoded from / encoded to, used to spot external edits
+        final String userJson;
+
+        Session(boolean loggedIn, User user, String userJson, String caseId, String referenceId) {
+            this.loggedIn = loggedIn;
+            this.user = user;
+            this.userJson = userJson;
+            this.caseId = caseId != null ? caseId : "";
+            this.referenceId = referenceId != null ? referenceId : "";
+        }
+
+        Session withUser(User user, String userJson) {
+            return new Session(loggedIn, user, userJson, caseId, referenceId);
+        }
+    }
+
+    private final Schema schema;
+    private final AsyncPrefs prefs;
+    private final CopyOnWriteArrayList<SessionListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    private volatile Session session = new Session(false, null, null, null, null);
+
+    public static SessionStore get(Context context) {
+        return get(context, DEFAULT);
+    }
+
+    public static SessionStore get(Context context, Schema schema) {
+        Context appContext = context.getApplicationContext();
+        return INSTANCES.computeIfAbsent(schema.prefName, n -> new SessionStore(appContext, schema));
+    }
+
+    /**
+     * Deliver the store on the main thread without blocking it on the preferences load;
+     * preferred over {@link #get} in onCreate paths
+     */
+    public static void whenReady(Context context, Consumer<SessionStore> callback) {
+        whenReady(context, DEFAULT, callback);
+    }
+
+    public static void whenReady(Context context, Schema schema, Consumer<SessionStore> callback) {
+        SessionStore store = get(context, schema);
+        store.whenLoaded(() -> callback.accept(store));
+    }
+
+    private SessionStore(Context appContext, Schema schema) {
+        this.schema = schema;
+        prefs = AsyncPrefs.get(appContext, schema.prefName);
+        prefs.addListener(this::onPrefsChanged);
+        // Writes wait for this before taking the lock, so nothing else can race the assignment
+        prefs.runWhenLoaded(() -> {
+            session = load();
+            loaded.countDown();
+        });
+    }
+
+    public boolean isLoaded() {
+        return loaded.getCount() == 0;
+    }
+
+    /** Run on the main thread once the stored session is decoded (right away if it is) */
+    public void whenLoaded(Runnable callback) {
+        if (isLoaded()) mainHandler.post(callback);
+        else prefs.runWhenLoaded(() -> mainHandler.post(callback));
+    }
+
+    public Session getSession() {
+        awaitLoaded();
+        return session;
+    }
+
+    public boolean isLoggedIn() {
+        return getSession().loggedIn;
+    }
+
+    public User getCurrentUser() {
+        return getSession().user;
+    }
+
+    public String getCaseId() {
+        return getSession().caseId;
+    }
+
+    public String getReferenceId() {
+        return getSession().referenceId;
+    }
+
+    public void addListener(SessionListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(SessionListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void saveUserSession(User user) {
+        saveLogin(user, null, null);
+    }
+
+    /**
+     * Store a signed-in user with its ids as one transaction. A null {@code caseId} or
+     * {@code referenceId} is taken from the user, falling back to the stored one.
+     */
+    public void saveLogin(User user, String caseId, String referenceId) {
+        awaitLoaded();
+        synchronized (this) {
+            writeLogin(user, caseId, referenceId);
+        }
+    }
+
+    private void writeLogin(User user, String caseId, String referenceId) {
+        if (caseId == null) {
+            caseId = session.caseId;
+            if (user.getPatientInfo() != null && user.getPatientInfo().getCaseId() != null) {
+                caseId = user.getPatientInfo().getCaseId();
+            }
+        }
+        if (referenceId == null) {
+            referenceId = session.referenceId;
+            if (user.getReferenceId() != null && !user.getReferenceId().isEmpty()) {
+                referenceId = user.getReferenceId();
+            }
+        }
+        publish(new Session(true, user, null, caseId, referenceId));
+
+        // The user is encoded on the prefs IO thread when the batch is flushed
+        prefs.edit()
+                .putString(schema.keyUser, () -> {
+                    String json = GsonProvider.get().toJson(user);
+                    synchronized (this) {
+                        if (session.user == user) session = session.withUser(user, json);
+                    }
+                    return json;
+                })
+                .putBoolean(schema.keyLoggedIn, true)
+                .putString(schema.keyCaseId, caseId)
+                .putString(schema.keyReferenceId, referenceId)
+                .apply();
+    }
+
+    public void saveCaseId(String caseId) {
+        awaitLoaded();
+        synchronized (this) {
+            Session s = session;
+            publish(new Session(s.loggedIn, s.user, s.userJson, caseId, s.referenceId));
+            prefs.edit().putString(schema.keyCaseId, caseId).apply();
+        }
+    }
+
+    public void saveReferenceId(String referenceId) {
+        awaitLoaded();
+        synchronized (this) {
+            Session s = session;
+            publish(new Session(s.loggedIn, s.user, s.userJson, s.caseId, referenceId));
+            prefs.edit().putString(schema.keyReferenceId, referenceId).apply();
+        }
+    }
+
+    public void clearCaseId() {
+        awaitLoaded();
+        synchronized (this) {
+            Session s = session;
+            publish(new Session(s.loggedIn, s.user, s.userJson, null, s.referenceId));
+            prefs.edit().remove(schema.keyCaseId).apply();
+        }
+    }
+
+    public void clearReferenceId() {
+        awaitLoaded();
+        synchronized (this) {
+            Session s = session;
+            publish(new Session(s.loggedIn, s.user, s.userJson, s.caseId, null));
+            prefs.edit().remove(schema.keyReferenceId).apply();
+        }
+    }
+
+    public void clear() {
+        awaitLoaded();
+        synchronized (this) {
+            publish(new Session(false, null, null, null, null));
+            prefs.edit().clear().apply();
+        }
+    }
+
+    private void publish(Session next) {
+        session = next;
+        if (listeners.isEmpty()) return;
+        mainHandler.post(() -> {
+            for (SessionListener listener : listeners) listener.onSessionChanged(next);
+        });
+    }
+
+    /** Pick up writes made to the same file outside this store; our own echoes are ignored */
+    private synchronized void onPrefsChanged(String key) {
+        // Before the first decode there is nothing to patch: the decode reads the latest snapshot
+        if (!isLoaded()) return;
+        Session s = session;
+        Session next;
+        if (key == null) {
+            next = load();
+        } else if (schema.keyUser.equals(key)) {
+            String json = prefs.getString(schema.keyUser, null);
+            if (s.userJson != null && Objects.equals(json, s.userJson)) return;
+            if (json == null && s.user == null) return;
+            // Our own encode may still be in flight; only a different payload is external
+            if (s.user != null && s.userJson == null && json != null) return;
+            next = s.withUser(decode(json), json);
+        } else if (schema.keyLoggedIn.equals(key)) {
+            boolean loggedIn = prefs.getBoolean(schema.keyLoggedIn, false);
+            if (loggedIn == s.loggedIn) return;
+            next = new Session(loggedIn, s.user, s.userJson, s.caseId, s.referenceId);
+        } else if (schema.keyCaseId.equals(key)) {
+            String caseId = prefs.getString(schema.keyCaseId, "");
+            if (caseId.equals(s.caseId)) return;
+            next = new Session(s.loggedIn, s.user, s.userJson, caseId, s.referenceId);
+        } else if (schema.keyReferenceId.equals(key)) {
+            String referenceId = prefs.getString(schema.keyReferenceId, "");
+            if (referenceId.equals(s.referenceId)) return;
+            next = new Session(s.loggedIn, s.user, s.userJson, s.caseId, referenceId);
+        } else {
+            return;
+        }
+        publish(next);
+    }
+
+    private void awaitLoaded() {
+        try {
+            loaded.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Session load() {
+        String json = prefs.getString(schema.keyUser, null);
+        return new Session(prefs.getBoolean(schema.keyLoggedIn, false), decode(json), json,
+                prefs.getString(schema.keyCaseId, ""), prefs.getString(schema.keyReferenceId, ""));
+    }
+
+    private static User decode(String json) {
+        return json != null ? GsonProvider.get().fromJson(json, User.class) : null;
+    }
+}
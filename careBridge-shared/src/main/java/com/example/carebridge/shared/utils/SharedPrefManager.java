@@ -1,58 +1,43 @@
 package com.example.carebridge.shared.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import com.example.carebridge.shared.model.User;
-import com.google.gson.Gson;
 
+/**
+ * Session accessors backed by the process-wide {@link SessionStore}; reads come from
+ * memory (the user is decoded once per process) and writes are persisted in the background
+ */
 public class SharedPrefManager {
-    private static final String PREF_NAME = "CareBridgePref";
-    private static final String KEY_IS_LOGGED_IN = "isLoggedIn";
-    private static final String KEY_USER = "user";
-    private static final String KEY_CASE_ID = "case_id";
-    private static final String KEY_REFERENCE_ID = "reference_id";
 
-    private final SharedPreferences sharedPreferences;
-    private final SharedPreferences.Editor editor;
-    private final Gson gson;
+    private final SessionStore store;
 
     public SharedPrefManager(Context context) {
-        sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        editor = sharedPreferences.edit();
-        gson = new Gson();
+        store = SessionStore.get(context);
     }
 
     // Save user session
     public void saveUserSession(User user) {
-        editor.putString(KEY_USER, gson.toJson(user));
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-
-        if (user.getPatientInfo() != null && user.getPatientInfo().getCaseId() != null) {
-            editor.putString(KEY_CASE_ID, user.getPatientInfo().getCaseId());
-        }
-
-        if (user.getReferenceId() != null && !user.getReferenceId().isEmpty()) {
-            editor.putString(KEY_REFERENCE_ID, user.getReferenceId());
-        }
+        store.saveUserSession(user);
+    }
 
-        editor.apply();
+    // Save user session with its case and reference ids in one write
+    public void saveLoginSession(User user, String caseId, String refId) {
+        store.saveLogin(user, caseId, refId);
     }
 
     // Login state
     public boolean isLoggedIn() {
-        return sharedPreferences.getBoolean(KEY_IS_LOGGED_IN, false);
+        return store.isLoggedIn();
     }
 
     // Return logged in user
     public User getCurrentUser() {
-        String json = sharedPreferences.getString(KEY_USER, null);
-        return json != null ? gson.fromJson(json, User.class) : null;
+        return store.getCurrentUser();
     }
 
     // Clear full session
     public void clearSession() {
-        editor.clear();
-        editor.apply();
+        store.clear();
     }
 
     public void logout() {
@@ -61,31 +46,27 @@ public class SharedPrefManager {
 
     // CaseId functions
     public void saveCaseId(String caseId) {
-        editor.putString(KEY_CASE_ID, caseId);
-        editor.apply();
+        store.saveCaseId(caseId);
     }
 
     public String getCaseId() {
-        return sharedPreferences.getString(KEY_CASE_ID, "");
+        return store.getCaseId();
     }
 
     public void clearCaseId() {
-        editor.remove(KEY_CASE_ID);
-        editor.apply();
+        store.clearCaseId();
     }
 
     // Reference ID functions
     public void saveReferenceId(String refId) {
-        editor.putString(KEY_REFERENCE_ID, refId);
-        editor.apply();
+        store.saveReferenceId(refId);
     }
 
     public String getReferenceId() {
-        return sharedPreferences.getString(KEY_REFERENCE_ID, "");
+        return store.getReferenceId();
     }
 
     public void clearReferenceId() {
-        editor.remove(KEY_REFERENCE_ID);
-        editor.apply();
+        store.clearReferenceId();
     }
 }
\ No newline at end of file
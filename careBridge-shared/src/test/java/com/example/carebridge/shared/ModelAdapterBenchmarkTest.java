@@ -0,0 +1,159 @@
+package com.example.carebridge.shared;
+
+import com.example.carebridge.shared.model.Medication;
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.model.PatientInfo;
+import com.example.carebridge.shared.model.PrescriptionResponse;
+import com.example.carebridge.shared.model.User;
+import com.example.carebridge.shared.utils.GsonProvider;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Before/after parse times for the hand-written model adapters against reflective Gson,
+ * plus a check that both produce the same models. "Cold" is the first parse on a fresh
+ * Gson (what the startup path pays); "warm" is the median of repeated parses.
+ */
+public class ModelAdapterBenchmarkTest {
+
+    private static final Type LOG_LIST_TYPE = new TypeToken<List<MedicineLog>>() { }.getType();
+    private static final int LOGS = 2_000;
+    private static final int PRESCRIPTIONS = 200;
+    private static final int WARM_RUNS = 15;
+
+    @Test
+    public void adaptersMatchReflectiveBinding() {
+        Gson reflective = new Gson();
+        Gson adapters = GsonProvider.get();
+
+        PrescriptionResponse before = reflective.fromJson(prescriptionsJson(1), PrescriptionResponse.class);
+        PrescriptionResponse after = adapters.fromJson(prescriptionsJson(1), PrescriptionResponse.class);
+        Medication expected = before.getPrescriptions().get(0).getMedicines().get(1);
+        Medication actual = after.getPrescriptions().get(0).getMedicines().get(1);
+        assertEquals(expected.getMedicineId(), actual.getMedicineId());
+        assertEquals(expected.getMedicineName(), actual.getMedicineName());
+        assertEquals(expected.getDosage(), actual.getDosage());
+        assertEquals(expected.isMorning(), actual.isMorning());
+        assertEquals(expected.isNight(), actual.isNight());
+        assertEquals(expected.isWithFood(), actual.isWithFood());
+        assertEquals(after.getPrescriptions().get(0).getStatus(), before.getPrescriptions().get(0).getStatus());
+
+        List<MedicineLog> logsBefore = reflective.fromJson(logsJson(3), LOG_LIST_TYPE);
+        List<MedicineLog> logsAfter = adapters.fromJson(logsJson(3), LOG_LIST_TYPE);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(logsBefore.get(i).getLogId(), logsAfter.get(i).getLogId());
+            assertEquals(logsBefore.get(i).getMedicineId(), logsAfter.get(i).getMedicineId());
+            assertEquals(logsBefore.get(i).getScheduledTime(), logsAfter.get(i).getScheduledTime());
+            assertEquals(logsBefore.get(i).getTakenStatus(), logsAfter.get(i).getTakenStatus());
+        }
+    }
+
+    @Test
+    public void userRoundTripsInThePersistedFormat() {
+        User user = new User(7, "asha", "patient", "CASE-1", "2024-01-01");
+        PatientInfo info = new PatientInfo("CASE-1", "Asha Rao");
+        info.setAllergies(Arrays.asList("Penicillin", "Dust"));
+        user.setPatientInfo(info);
+
+        // Written by the adapter, read back reflectively (sessions saved before the adapters)
+        String json = GsonProvider.get().toJson(user);
+        User reflective = new Gson().fromJson(json, User.class);
+        assertEquals("CASE-1", reflective.getReferenceId());
+        assertEquals("Asha Rao", reflective.getPatientInfo().getFullName());
+
+        // ...and the other way round
+        User restored = GsonProvider.get().fromJson(new Gson().toJson(user), User.class);
+        assertEquals(7, restored.getId());
+        assertEquals(Arrays.asList("Penicillin", "Dust"), restored.getPatientInfo().getAllergies());
+    }
+
+    @Test
+    public void parseTimeBeforeAndAfter() {
+        String logs = logsJson(LOGS);
+        String prescriptions = prescriptionsJson(PRESCRIPTIONS);
+
+        long coldBefore = time(() -> {
+            Gson gson = new Gson();
+            gson.fromJson(logs, LOG_LIST_TYPE);
+            gson.fromJson(prescriptions, PrescriptionResponse.class);
+        });
+        long coldAfter = time(() -> {
+            Gson gson = GsonProvider.get();
+            gson.fromJson(logs, LOG_LIST_TYPE);
+            gson.fromJson(prescriptions, PrescriptionResponse.class);
+        });
+
+        Gson reflective = new Gson();
+        long warmBefore = median(() -> {
+            reflective.fromJson(logs, LOG_LIST_TYPE);
+            reflective.fromJson(prescriptions, PrescriptionResponse.class);
+        });
+        long warmAfter = median(() -> {
+            GsonProvider.get().fromJson(logs, LOG_LIST_TYPE);
+            GsonProvider.get().fromJson(prescriptions, PrescriptionResponse.class);
+        });
+
+        System.out.printf("Model parse (%d logs, %d prescriptions): cold %.2f -> %.2f ms, warm %.2f -> %.2f ms%n",
+                LOGS, PRESCRIPTIONS, coldBefore / 1e6, coldAfter / 1e6, warmBefore / 1e6, warmAfter / 1e6);
+        assertTrue(coldAfter > 0 && warmAfter > 0);
+    }
+
+    private static long time(Runnable run) {
+        long start = System.nanoTime();
+        run.run();
+        return System.nanoTime() - start;
+    }
+
+    private static long median(Runnable run) {
+        long[] runs = new long[WARM_RUNS];
+        for (int i = 0; i < runs.length; i++) runs[i] = time(run);
+        Arrays.sort(runs);
+        return runs[runs.length / 2];
+    }
+
+    private static String logsJson(int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"log_id\":").append(i + 1)
+                    .append(",\"case_id\":\"CASE-1\",\"prescription_id\":").append(i % 5 + 1)
+                    .append(",\"medicine_id\":").append(i % 12 + 1)
+                    .append(",\"scheduled_time\":\"2024-03-").append(String.format("%02d", i % 28 + 1))
+                    .append(" 08:00:00\",\"actual_time\":null,\"taken_status\":\"")
+                    .append(i % 3 == 0 ? "Taken" : "Pending")
+                    .append("\",\"dose_taken\":").append(i % 2)
+                    .append(",\"notes\":\"\"}");
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String prescriptionsJson(int count) {
+        StringBuilder sb = new StringBuilder("{\"status\":true,\"prescriptions\":[");
+        for (int p = 0; p < count; p++) {
+            if (p > 0) sb.append(',');
+            sb.append("{\"prescription_id\":").append(p + 1)
+                    .append(",\"case_id\":\"CASE-1\",\"doctor_name\":\"Dr. Mehta\",\"issue_date\":\"2024-03-01\"")
+                    .append(",\"status\":\"Active\",\"notes\":\"\",\"created_at\":\"2024-03-01 10:00:00\",\"medicines\":[");
+            for (int m = 0; m < 4; m++) {
+                if (m > 0) sb.append(',');
+                sb.append("{\"prescription_medicine_id\":").append(p * 4 + m)
+                        .append(",\"medicine_id\":").append(m + 1)
+                        .append(",\"medicine_name\":\"Medicine ").append(m + 1)
+                        .append("\",\"dosage\":\"500 mg\",\"morning\":true,\"afternoon\":false")
+                        .append(",\"evening\":false,\"night\":").append(m % 2 == 0)
+                        .append(",\"with_food\":true,\"extra_instructions\":\"\"")
+                        .append(",\"start_date\":\"2024-03-01\",\"end_date\":\"2024-03-10\"}");
+            }
+            sb.append("]}");
+        }
+        return sb.append("]}").toString();
+    }
+}
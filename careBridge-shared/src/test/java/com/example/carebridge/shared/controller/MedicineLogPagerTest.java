@@ -0,0 +1,215 @@
+package com.example.carebridge.shared.controller;
+
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.utils.ApiConstants;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class MedicineLogPagerTest {
+
+    private static final String CASE_ID = "CASE-1";
+
+    private FakePageServer server;
+
+    @Before
+    public void setUp() {
+        server = new FakePageServer();
+        server.put(1, "2024-02-29 20:00:00");
+        server.put(2, "2024-03-01 00:00:00");
+        server.put(3, "2024-03-01 08:00:00");
+        server.put(4, "2024-03-01 14:00:00");
+        server.put(5, "2024-03-01 20:00:00");
+        server.put(6, "2024-03-01 23:59:59");
+        server.put(7, "2024-03-02 08:00:00");
+        server.put(8, "2024-03-08 08:00:00");
+    }
+
+    @Test
+    public void dayWindowCoversTheWholeCalendarDay() throws Exception {
+        MedicineLogPager pager = MedicineLogPager.forDay(server, CASE_ID, at(2024, Calendar.MARCH, 1, 14, 30), 50);
+
+        List<MedicineLog> logs = pager.fetchAll();
+
+        assertEquals("2024-03-01 00:00:00", server.requests.get(0).from);
+        assertEquals("2024-03-01 23:59:59", server.requests.get(0).to);
+        assertEquals(ids(2, 3, 4, 5, 6), idsOf(logs));
+        assertFalse(pager.hasNext());
+    }
+
+    @Test
+    public void weekWindowEndsBeforeTheEighthDay() throws Exception {
+        MedicineLogPager pager = MedicineLogPager.forWeek(server, CASE_ID, at(2024, Calendar.MARCH, 1, 9, 0), 50);
+
+        List<MedicineLog> logs = pager.fetchAll();
+
+        assertEquals("2024-03-01 00:00:00", server.requests.get(0).from);
+        assertEquals("2024-03-07 23:59:59", server.requests.get(0).to);
+        assertEquals(ids(2, 3, 4, 5, 6, 7), idsOf(logs));
+    }
+
+    @Test
+    public void pagesFollowTheLastLogIdUntilAShortPage() throws Exception {
+        MedicineLogPager pager = new MedicineLogPager(server, CASE_ID, null, null, 3);
+
+        assertEquals(ids(1, 2, 3), idsOf(pager.nextPage()));
+        assertTrue(pager.hasNext());
+        assertEquals(ids(4, 5, 6), idsOf(pager.nextPage()));
+        assertEquals(ids(7, 8), idsOf(pager.nextPage()));
+
+        assertFalse(pager.hasNext());
+        assertTrue(pager.nextPage().isEmpty());
+        assertEquals(Arrays.asList(null, "3", "6"), aftersSent());
+    }
+
+    @Test
+    public void serverCursorAndHasMoreTakePrecedence() throws Exception {
+        server.sendsCursor = true;
+        MedicineLogPager pager = new MedicineLogPager(server, CASE_ID, null, null, 4);
+
+        List<MedicineLog> logs = pager.fetchAll();
+
+        assertEquals(ids(1, 2, 3, 4, 5, 6, 7, 8), idsOf(logs));
+        assertEquals(Arrays.asList(null, "page-1"), aftersSent());
+    }
+
+    @Test
+    public void serverIgnoringTheCursorEndsAfterTheRepeatedPage() throws Exception {
+        // A new cursor on every reply, but always the first page
+        server.sendsCursor = true;
+        server.ignoresCursor = true;
+        MedicineLogPager pager = new MedicineLogPager(server, CASE_ID, null, null, 3);
+
+        List<MedicineLog> logs = pager.fetchAll();
+
+        assertEquals(ids(1, 2, 3), idsOf(logs));
+        assertEquals(2, server.requests.size());
+        assertFalse(pager.hasNext());
+    }
+
+    @Test
+    public void serverIgnoringCursorAndPageSizeEndsAfterOneRepeat() throws Exception {
+        server.ignoresCursor = true;
+        server.ignoresPageSize = true;
+        MedicineLogPager pager = new MedicineLogPager(server, CASE_ID, null, null, 3);
+
+        List<MedicineLog> logs = pager.fetchAll();
+
+        assertEquals(ids(1, 2, 3, 4, 5, 6, 7, 8), idsOf(logs));
+        assertEquals(2, server.requests.size());
+    }
+
+    @Test
+    public void pageSizeIsClampedToTheServerMaximum() throws Exception {
+        new MedicineLogPager(server, CASE_ID, null, null, 10_000).nextPage();
+        new MedicineLogPager(server, CASE_ID, null, null, 0).nextPage();
+
+        assertEquals(ApiConstants.MEDICINE_LOG_MAX_PAGE_SIZE, server.requests.get(0).pageSize);
+        assertEquals(1, server.requests.get(1).pageSize);
+    }
+
+    private static Date at(int year, int month, int day, int hour, int minute) {
+        return new GregorianCalendar(year, month, day, hour, minute).getTime();
+    }
+
+    private List<String> aftersSent() {
+        List<String> afters = new ArrayList<>();
+        for (FakePageServer.Sent sent : server.requests) afters.add(sent.after);
+        return afters;
+    }
+
+    private static List<Integer> ids(Integer... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static List<Integer> idsOf(List<MedicineLog> logs) {
+        List<Integer> ids = new ArrayList<>();
+        for (MedicineLog log : logs) ids.add(log.getLogId());
+        return ids;
+    }
+
+    /** Local stand-in for the windowed medicine_log endpoint, with switchable misbehaviour */
+    private static class FakePageServer implements MedicineLogPager.PageSource {
+        static final class Sent {
+            final String from;
+            final String to;
+            final String after;
+            final int pageSize;
+
+            Sent(String from, String to, String after, int pageSize) {
+                this.from = from;
+                this.to = to;
+                this.after = after;
+                this.pageSize = pageSize;
+            }
+        }
+
+        final Map<Integer, String> rows = new TreeMap<>();
+        final List<Sent> requests = new ArrayList<>();
+        // Opaque next_cursor tokens handed out → last log_id of their page
+        final Map<String, Integer> cursors = new HashMap<>();
+        boolean sendsCursor;
+        boolean ignoresCursor;
+        boolean ignoresPageSize;
+
+        void put(int id, String scheduled) {
+            rows.put(id, scheduled);
+        }
+
+        @Override
+        public Reader open(String caseId, String from, String to, String after, int pageSize) {
+            requests.add(new Sent(from, to, after, pageSize));
+            int afterId = 0;
+            if (after != null && !ignoresCursor) {
+                afterId = cursors.containsKey(after) ? cursors.get(after) : Integer.parseInt(after);
+            }
+
+            List<Integer> page = new ArrayList<>();
+            boolean more = false;
+            for (Map.Entry<Integer, String> row : rows.entrySet()) {
+                String scheduled = row.getValue();
+                if (row.getKey() <= afterId) continue;
+                if (from != null && scheduled.compareTo(from) < 0) continue;
+                if (to != null && scheduled.compareTo(to) > 0) continue;
+                if (!ignoresPageSize && page.size() == pageSize) {
+                    more = true;
+                    break;
+                }
+                page.add(row.getKey());
+            }
+
+            StringBuilder json = new StringBuilder("{\"success\":true,\"logs\":[");
+            for (int i = 0; i < page.size(); i++) {
+                if (i > 0) json.append(',');
+                json.append("{\"log_id\":").append(page.get(i))
+                        .append(",\"case_id\":\"").append(caseId)
+                        .append("\",\"medicine_id\":1,\"scheduled_time\":\"").append(rows.get(page.get(i)))
+                        .append("\",\"taken_status\":\"Pending\"}");
+            }
+            json.append(']');
+            if (sendsCursor) {
+                json.append(",\"has_more\":").append(more);
+                if (!page.isEmpty()) {
+                    String token = "page-" + requests.size();
+                    cursors.put(token, page.get(page.size() - 1));
+                    json.append(",\"next_cursor\":\"").append(token).append('"');
+                }
+            }
+            return new StringReader(json.append('}').toString());
+        }
+    }
+}
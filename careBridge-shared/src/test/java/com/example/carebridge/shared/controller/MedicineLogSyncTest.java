@@ -0,0 +1,227 @@
+package com.example.carebridge.shared.controller;
+
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.GsonProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class MedicineLogSyncTest {
+
+    private static final String CASE_ID = "CASE-1";
+
+    private long now;
+    private FakeLogServer server;
+    private InMemoryLogStore store;
+    private MedicineLogSync sync;
+
+    @Before
+    public void setUp() {
+        now = 1_000_000;
+        server = new FakeLogServer();
+        store = new InMemoryLogStore();
+        sync = new MedicineLogSync(store, server, () -> now);
+
+        server.put(1, "2024-03-01 08:00:00", "Taken", "2024-03-01 08:05:00");
+        server.put(2, "2024-03-01 20:00:00", "Pending", "2024-03-01 07:00:00");
+        server.put(3, "2024-03-02 08:00:00", "Pending", "2024-03-01 07:00:00");
+    }
+
+    @Test
+    public void firstSyncDownloadsEverythingAndStoresTheCursor() throws Exception {
+        List<MedicineLog> logs = sync.syncBlocking(CASE_ID);
+
+        assertEquals(1, server.requests.size());
+        assertNull(server.requests.get(0));
+        assertEquals(ids(1, 2, 3), idsOf(logs));
+        assertEquals(3, store.readCursor(CASE_ID).getLastLogId());
+        assertEquals("2024-03-01 08:05:00", store.readCursor(CASE_ID).getLastUpdatedAt());
+        assertEquals(now, store.readCursor(CASE_ID).getLastFullSyncAt());
+    }
+
+    @Test
+    public void deltaMergesNewAndChangedRowsOnly() throws Exception {
+        sync.syncBlocking(CASE_ID);
+        server.put(2, "2024-03-01 20:00:00", "Taken", "2024-03-01 20:02:00");
+        server.put(4, "2024-03-02 20:00:00", "Pending", "2024-03-01 07:00:00");
+
+        List<MedicineLog> logs = sync.syncBlocking(CASE_ID);
+
+        MedicineLogSync.Cursor sent = server.requests.get(1);
+        assertNotNull("second sync must be incremental", sent);
+        assertEquals(3, sent.getLastLogId());
+        assertEquals(2, server.lastRowCount);
+        assertEquals(ids(1, 2, 3, 4), idsOf(logs));
+        assertTrue(byId(logs, 2).isTaken());
+        assertEquals(4, store.readCursor(CASE_ID).getLastLogId());
+        assertEquals("2024-03-01 20:02:00", store.readCursor(CASE_ID).getLastUpdatedAt());
+    }
+
+    @Test
+    public void deletedIdsAreRemovedFromTheStoredSet() throws Exception {
+        sync.syncBlocking(CASE_ID);
+        server.delete(2);
+
+        List<MedicineLog> logs = sync.syncBlocking(CASE_ID);
+
+        assertNotNull(server.requests.get(1));
+        assertEquals(ids(1, 3), idsOf(logs));
+        assertEquals(ids(1, 3), idsOf(store.readLogs(CASE_ID)));
+    }
+
+    @Test
+    public void fullResyncReplyRefetchesAndDropsRowsMissingFromTheFullSet() throws Exception {
+        sync.syncBlocking(CASE_ID);
+        // Deleted without a tombstone: only a full download can notice
+        server.rows.remove(3);
+        server.demandFullResync = true;
+
+        List<MedicineLog> logs = sync.syncBlocking(CASE_ID);
+
+        assertEquals(3, server.requests.size());
+        assertNotNull(server.requests.get(1));
+        assertNull(server.requests.get(2));
+        assertEquals(ids(1, 2), idsOf(logs));
+    }
+
+    @Test
+    public void staleFullSyncForcesAFullDownload() throws Exception {
+        sync.syncBlocking(CASE_ID);
+        now += ApiConstants.MEDICINE_LOG_FULL_RESYNC_MILLIS + 1;
+
+        sync.syncBlocking(CASE_ID);
+
+        assertNull(server.requests.get(1));
+        assertEquals(now, store.readCursor(CASE_ID).getLastFullSyncAt());
+    }
+
+    @Test
+    public void logsAreSortedByScheduledTime() throws Exception {
+        server.put(5, "2024-02-28 08:00:00", "Taken", "2024-02-28 08:01:00");
+
+        List<MedicineLog> logs = sync.syncBlocking(CASE_ID);
+
+        assertEquals(ids(5, 1, 2, 3), idsOf(logs));
+    }
+
+    @Test
+    public void unchangedDeltaReportsNoChange() throws Exception {
+        List<String> changed = new ArrayList<>();
+        MedicineLogSync.setChangeListener(changed::add);
+        try {
+            sync.syncBlocking(CASE_ID);
+            sync.syncBlocking(CASE_ID);
+        } finally {
+            MedicineLogSync.setChangeListener(null);
+        }
+
+        assertEquals(1, changed.size());
+        assertEquals(0, server.lastRowCount);
+    }
+
+    private static List<Integer> ids(Integer... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static List<Integer> idsOf(List<MedicineLog> logs) {
+        List<Integer> ids = new ArrayList<>();
+        for (MedicineLog log : logs) ids.add(log.getLogId());
+        return ids;
+    }
+
+    private static MedicineLog byId(List<MedicineLog> logs, int id) {
+        for (MedicineLog log : logs) if (log.getLogId() == id) return log;
+        throw new AssertionError("No log " + id);
+    }
+
+    /** Local stand-in for the medicine_log endpoint: full and since-cursor reads */
+    private static class FakeLogServer implements MedicineLogSync.LogSource {
+        final Map<Integer, String[]> rows = new TreeMap<>();
+        final List<Integer> deleted = new ArrayList<>();
+        final List<MedicineLogSync.Cursor> requests = new ArrayList<>();
+        boolean demandFullResync;
+        int lastRowCount;
+
+        void put(int id, String scheduled, String status, String updatedAt) {
+            rows.put(id, new String[]{scheduled, status, updatedAt});
+        }
+
+        void delete(int id) {
+            rows.remove(id);
+            deleted.add(id);
+        }
+
+        @Override
+        public String fetch(String caseId, MedicineLogSync.Cursor cursor) {
+            requests.add(cursor);
+            if (cursor != null && demandFullResync) {
+                demandFullResync = false;
+                return "{\"success\":true,\"full_resync\":true}";
+            }
+
+            StringBuilder json = new StringBuilder("{\"success\":true,\"logs\":[");
+            lastRowCount = 0;
+            for (Map.Entry<Integer, String[]> row : rows.entrySet()) {
+                String[] v = row.getValue();
+                boolean changed = cursor == null || row.getKey() > cursor.getLastLogId()
+                        || (cursor.getLastUpdatedAt() != null && v[2].compareTo(cursor.getLastUpdatedAt()) > 0);
+                if (!changed) continue;
+                if (lastRowCount++ > 0) json.append(',');
+                json.append("{\"log_id\":").append(row.getKey())
+                        .append(",\"case_id\":\"").append(caseId)
+                        .append("\",\"medicine_id\":1,\"scheduled_time\":\"").append(v[0])
+                        .append("\",\"taken_status\":\"").append(v[1])
+                        .append("\",\"updated_at\":\"").append(v[2]).append("\"}");
+            }
+            json.append("]");
+            if (cursor != null && !deleted.isEmpty()) {
+                json.append(",\"deleted_ids\":").append(deleted);
+            }
+            return json.append('}').toString();
+        }
+    }
+
+    /** The store's contract without SQLite: change detection compares the persisted JSON */
+    private static class InMemoryLogStore implements MedicineLogSync.LogStore {
+        private final Map<String, String> logs = new HashMap<>();
+        private final Map<String, MedicineLogSync.Cursor> cursors = new HashMap<>();
+
+        @Override
+        public List<MedicineLog> readLogs(String caseId) {
+            String json = logs.get(caseId);
+            if (json == null) return null;
+            return new ArrayList<>(Arrays.asList(GsonProvider.get().fromJson(json, MedicineLog[].class)));
+        }
+
+        @Override
+        public boolean writeLogs(String caseId, List<MedicineLog> value) {
+            String json = GsonProvider.get().toJson(value);
+            return !json.equals(logs.put(caseId, json));
+        }
+
+        @Override
+        public MedicineLogSync.Cursor readCursor(String caseId) {
+            return cursors.get(caseId);
+        }
+
+        @Override
+        public void writeCursor(String caseId, MedicineLogSync.Cursor cursor) {
+            cursors.put(caseId, cursor);
+        }
+
+        @Override
+        public void deleteCursor(String caseId) {
+            cursors.remove(caseId);
+        }
+    }
+}
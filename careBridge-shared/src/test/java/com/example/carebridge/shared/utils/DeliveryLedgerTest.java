@@ -0,0 +1,110 @@
+package com.example.carebridge.shared.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class DeliveryLedgerTest {
+
+    private static final long WINDOW = 60_000;
+    private static final int CAPACITY = 3;
+
+    private long now;
+    private InMemoryStore store;
+    private DeliveryLedger ledger;
+
+    @Before
+    public void setUp() {
+        now = 1_000_000;
+        store = new InMemoryStore();
+        ledger = new DeliveryLedger(store, WINDOW, CAPACITY, () -> now);
+    }
+
+    @Test
+    public void firstDeliveryIsRecordedAndRepeatsAreDropped() {
+        assertTrue(ledger.markFirst("reminder:7"));
+        now += 1000;
+
+        assertFalse(ledger.markFirst("reminder:7"));
+        assertTrue(ledger.contains("reminder:7"));
+        // Same log, other message type: a separate delivery
+        assertTrue(ledger.markFirst("resolved:7"));
+        assertEquals(2, store.writes);
+    }
+
+    @Test
+    public void oneKnownKeyRejectsTheWholeSetAndRecordsNothing() {
+        ledger.markFirst("log:7");
+        int writes = store.writes;
+
+        assertFalse(ledger.markFirst("log:8", "log:7"));
+        assertFalse(ledger.contains("log:8"));
+        assertEquals(writes, store.writes);
+        // Null keys are ignored
+        assertTrue(ledger.markFirst(null, "log:8"));
+        assertEquals(2, store.values.size());
+    }
+
+    @Test
+    public void keysExpireAfterTheWindowAndPruneDropsThem() {
+        ledger.markFirst("reminder:7");
+        now += WINDOW;
+
+        assertFalse(ledger.contains("reminder:7"));
+        assertTrue(ledger.markFirst("reminder:7"));
+        assertEquals(now, store.values.get("reminder:7"));
+
+        now += WINDOW;
+        ledger.prune();
+        assertTrue(store.values.isEmpty());
+    }
+
+    @Test
+    public void capacityEvictsTheOldestEntries() {
+        for (int i = 1; i <= CAPACITY; i++) {
+            ledger.markFirst("reminder:" + i);
+            now += 1000;
+        }
+
+        assertTrue(ledger.markFirst("reminder:4", "resolved:4"));
+
+        assertEquals(CAPACITY, store.values.size());
+        assertFalse(store.values.containsKey("reminder:1"));
+        assertFalse(store.values.containsKey("reminder:2"));
+        assertTrue(store.values.containsKey("reminder:3"));
+        assertTrue(store.values.containsKey("resolved:4"));
+    }
+
+    @Test
+    public void pruneWithNothingExpiredDoesNotWrite() {
+        ledger.markFirst("reminder:7");
+        int writes = store.writes;
+
+        ledger.prune();
+
+        assertEquals(writes, store.writes);
+    }
+
+    private static final class InMemoryStore implements DeliveryLedger.Store {
+        final Map<String, Object> values = new HashMap<>();
+        int writes;
+
+        @Override
+        public Map<String, Object> snapshot() {
+            return Collections.unmodifiableMap(new HashMap<>(values));
+        }
+
+        @Override
+        public void write(Map<String, Long> stamps, Collection<String> removed) {
+            writes++;
+            for (String key : removed) values.remove(key);
+            values.putAll(stamps);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.carebridge.shared.utils;
+
+import com.example.carebridge.shared.model.MedicineLog;
+import com.example.carebridge.shared.model.Prescription;
+import com.example.carebridge.shared.utils.DosePlanner.Dose;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DosePlannerTest {
+
+    private static final Type PRESCRIPTION_LIST_TYPE = new TypeToken<List<Prescription>>() { }.getType();
+    private static final Type LOG_LIST_TYPE = new TypeToken<List<MedicineLog>>() { }.getType();
+
+    private long from;
+    private long until;
+    private List<Prescription> prescriptions;
+
+    @Before
+    public void setUp() {
+        from = at("2024-03-01 00:00:00");
+        until = at("2024-03-03 00:00:00");
+        // Metformin twice a day with food, Aspirin every morning
+        prescriptions = GsonProvider.get().fromJson("[{\"prescription_id\":1,\"case_id\":\"CASE-1\",\"medicines\":["
+                + "{\"medicine_id\":1,\"medicine_name\":\"Metformin\",\"morning\":true,\"evening\":true,"
+                + "\"with_food\":true,\"start_date\":\"2024-02-01\",\"end_date\":\"2024-03-31\"},"
+                + "{\"medicine_id\":2,\"medicine_name\":\"Aspirin\",\"morning\":true,"
+                + "\"start_date\":\"2024-02-01\",\"end_date\":\"2024-03-31\"}]}]", PRESCRIPTION_LIST_TYPE);
+    }
+
+    @Test
+    public void expandsSlotFlagsInsideTheWindow() {
+        List<Dose> doses = DosePlanner.plan(prescriptions, null, from, until);
+
+        assertEquals(6, doses.size());
+        Dose metforminEvening = find(doses, 1, at("2024-03-02 18:00:00"));
+        assertNull(metforminEvening.logId);
+        assertTrue(metforminEvening.withFood);
+        assertEquals("evening", metforminEvening.slot);
+    }
+
+    @Test
+    public void endDateIsInclusiveAndDosesStopAfterIt() {
+        prescriptions = GsonProvider.get().fromJson("[{\"medicines\":[{\"medicine_id\":3,\"medicine_name\":\"Iron\","
+                + "\"night\":true,\"start_date\":\"2024-02-20\",\"end_date\":\"2024-03-01\"}]}]", PRESCRIPTION_LIST_TYPE);
+
+        List<Dose> doses = DosePlanner.plan(prescriptions, null, from, until);
+
+        assertEquals(1, doses.size());
+        assertEquals(at("2024-03-01 21:00:00"), doses.get(0).scheduledAt);
+    }
+
+    @Test
+    public void logsMatchByMedicineIdAndTimeWindow() {
+        List<MedicineLog> logs = logs(
+                log(10, 1, "2024-03-01 08:15:00", "Pending"),
+                log(11, 2, "2024-03-01 08:00:00", "Taken"),
+                log(12, 1, "2024-03-01 18:00:00", "Not Taken"),
+                log(14, 1, "2024-03-02 08:00:00", "Pending"));
+
+        List<Dose> doses = DosePlanner.plan(prescriptions, logs, from, until);
+
+        // Answered logs drop their doses: Aspirin and Metformin evening on the first day
+        assertEquals(4, doses.size());
+        assertEquals(Integer.valueOf(10), find(doses, 1, at("2024-03-01 08:15:00")).logId);
+        assertEquals(Integer.valueOf(14), find(doses, 1, at("2024-03-02 08:00:00")).logId);
+        // Same time, other medicine: Aspirin must not take Metformin's log
+        assertNull(find(doses, 2, at("2024-03-02 08:00:00")).logId);
+        assertNull(find(doses, 1, at("2024-03-02 18:00:00")).logId);
+    }
+
+    @Test
+    public void closestLogWinsAndLogsOutsideTheWindowDoNotMatch() {
+        List<MedicineLog> logs = logs(
+                log(20, 1, "2024-03-01 09:20:00", "Pending"),
+                log(21, 1, "2024-03-01 08:05:00", "Pending"),
+                log(22, 2, "2024-03-01 10:00:00", "Pending"));
+
+        List<Dose> doses = DosePlanner.plan(prescriptions, logs, from, until);
+
+        assertEquals(Integer.valueOf(21), find(doses, 1, at("2024-03-01 08:05:00")).logId);
+        // 2 h from Aspirin's 08:00 dose: armed on its own, next to the computed dose
+        assertNull(find(doses, 2, at("2024-03-01 08:00:00")).logId);
+        assertEquals(Integer.valueOf(22), find(doses, 2, at("2024-03-01 10:00:00")).logId);
+    }
+
+    @Test
+    public void unmatchedOpenLogsAreArmedWithTheirMedication() {
+        List<MedicineLog> logs = logs(
+                log(30, 2, "2024-03-02 13:00:00", "Pending"),
+                log(31, 99, "2024-03-02 14:00:00", null),
+                log(32, 2, "2024-03-05 08:00:00", "Pending"));
+
+        List<Dose> doses = DosePlanner.plan(prescriptions, logs, from, until);
+
+        Dose aspirin = find(doses, 2, at("2024-03-02 13:00:00"));
+        assertEquals(Integer.valueOf(30), aspirin.logId);
+        assertEquals("Aspirin", aspirin.medicine);
+        assertEquals("your medicine", find(doses, 99, at("2024-03-02 14:00:00")).medicine);
+        // Outside the horizon
+        assertEquals(8, doses.size());
+    }
+
+    private static Dose find(List<Dose> doses, int medicineId, long scheduledAt) {
+        for (Dose dose : doses) {
+            if (dose.medicineId == medicineId && dose.scheduledAt == scheduledAt) return dose;
+        }
+        throw new AssertionError("No dose of medicine " + medicineId + " at " + scheduledAt);
+    }
+
+    private static List<MedicineLog> logs(String... rows) {
+        List<MedicineLog> logs = GsonProvider.get().fromJson("[" + String.join(",", rows) + "]", LOG_LIST_TYPE);
+        return new ArrayList<>(logs);
+    }
+
+    private static String log(int logId, int medicineId, String scheduled, String status) {
+        return "{\"log_id\":" + logId + ",\"case_id\":\"CASE-1\",\"medicine_id\":" + medicineId
+                + ",\"scheduled_time\":\"" + scheduled + "\",\"taken_status\":"
+                + (status != null ? "\"" + status + "\"" : "null") + "}";
+    }
+
+    private static long at(String serverTime) {
+        return DateFormats.parseEpochMillis(serverTime);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.carebridge.shared.utils;
+
+import com.example.carebridge.shared.model.Medication;
+import com.example.carebridge.shared.model.MedicineLog;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Sorting a large log history by scheduled time: the old path parsed every scheduled_time
+ * with a freshly built SimpleDateFormat, the new one compares the epoch each log parsed
+ * once while it was decoded. "Warm" is the median of repeated sorts of the same shuffle.
+ */
+public class LogSortBenchmarkTest {
+
+    private static final Type LOG_LIST_TYPE = new TypeToken<List<MedicineLog>>() { }.getType();
+    private static final int LOGS = 10_000;
+    private static final int WARM_RUNS = 9;
+
+    private List<MedicineLog> shuffled;
+
+    @Before
+    public void setUp() {
+        shuffled = GsonProvider.get().fromJson(logsJson(LOGS), LOG_LIST_TYPE);
+        Collections.shuffle(shuffled, new Random(42));
+    }
+
+    @Test
+    public void sortsChronologicallyWithUnparseableTimesLast() {
+        List<MedicineLog> logs = new ArrayList<>(shuffled);
+        DateFormats.sortByTime(logs, MedicineLog::getScheduledAtMillis);
+
+        int invalid = 0;
+        long previous = Long.MIN_VALUE;
+        for (MedicineLog log : logs) {
+            long millis = log.getScheduledAtMillis();
+            if (millis == DateFormats.INVALID_TIME) {
+                invalid++;
+                continue;
+            }
+            assertEquals("dated logs must come before undated ones", 0, invalid);
+            assertTrue(millis >= previous);
+            previous = millis;
+        }
+        assertEquals(LOGS / 100, invalid);
+    }
+
+    @Test
+    public void epochMatchesTheScheduledTimeString() throws ParseException {
+        MedicineLog log = shuffled.get(0);
+        for (MedicineLog candidate : shuffled) {
+            if (candidate.getScheduledTime() != null) {
+                log = candidate;
+                break;
+            }
+        }
+
+        Date parsed = new SimpleDateFormat(DateFormats.SERVER_DATE_TIME, Locale.US).parse(log.getScheduledTime());
+        assertEquals(parsed.getTime(), log.getScheduledAtMillis());
+        assertEquals(parsed, log.getScheduledDate());
+    }
+
+    @Test
+    public void medicationDurationIsDerivedWhileDecoding() {
+        Medication dated = GsonProvider.get().fromJson(
+                "{\"medicine_id\":1,\"durationDays\":3,\"start_date\":\"2024-03-01\",\"end_date\":\"2024-03-10\"}",
+                Medication.class);
+        assertEquals(10, dated.getDurationDays());
+        assertEquals(dated.getStartAtMillis(), dated.getScheduledDate().getTime());
+
+        // Without both dates the stored day count stands
+        Medication undated = GsonProvider.get().fromJson(
+                "{\"medicine_id\":1,\"durationDays\":3,\"start_date\":\"2024-03-01\"}", Medication.class);
+        assertEquals(3, undated.getDurationDays());
+        assertEquals(DateFormats.INVALID_TIME, undated.getEndAtMillis());
+    }
+
+    @Test
+    public void sortTimeBeforeAndAfter() {
+        List<MedicineLog> before = new ArrayList<>(shuffled);
+        List<MedicineLog> after = new ArrayList<>(shuffled);
+        sortParsingPerLog(before);
+        DateFormats.sortByTime(after, MedicineLog::getScheduledAtMillis);
+        assertEquals(before, after);
+
+        long warmBefore = median(() -> sortParsingPerLog(new ArrayList<>(shuffled)));
+        long warmAfter = median(() -> DateFormats.sortByTime(new ArrayList<>(shuffled), MedicineLog::getScheduledAtMillis));
+
+        System.out.printf("Log sort (%d logs): %.2f -> %.2f ms%n", LOGS, warmBefore / 1e6, warmAfter / 1e6);
+        assertTrue(warmAfter > 0);
+    }
+
+    /** The previous path: one SimpleDateFormat built and parsed per log, nulls last */
+    private static void sortParsingPerLog(List<MedicineLog> logs) {
+        List<long[]> keys = new ArrayList<>(logs.size());
+        for (int i = 0; i < logs.size(); i++) {
+            long millis = Long.MAX_VALUE;
+            String scheduled = logs.get(i).getScheduledTime();
+            if (scheduled != null) {
+                SimpleDateFormat format = new SimpleDateFormat(DateFormats.SERVER_DATE_TIME, Locale.US);
+                try {
+                    millis = format.parse(scheduled).getTime();
+                } catch (ParseException ignored) {
+                    // Sorts last, like a missing time
+                }
+            }
+            keys.add(new long[]{millis, i});
+        }
+        keys.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        List<MedicineLog> sorted = new ArrayList<>(logs.size());
+        for (long[] key : keys) sorted.add(logs.get((int) key[1]));
+        for (int i = 0; i < sorted.size(); i++) logs.set(i, sorted.get(i));
+    }
+
+    private static long median(Runnable run) {
+        long[] runs = new long[WARM_RUNS];
+        for (int i = 0; i < runs.length; i++) {
+            long start = System.nanoTime();
+            run.run();
+            runs[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(runs);
+        return runs[runs.length / 2];
+    }
+
+    /** A year of four-a-day doses; every hundredth log has no scheduled_time */
+    private static String logsJson(int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"log_id\":").append(i + 1)
+                    .append(",\"case_id\":\"CASE-1\",\"medicine_id\":").append(i % 12 + 1)
+                    .append(",\"scheduled_time\":");
+            if (i % 100 == 99) {
+                sb.append("null");
+            } else {
+                int day = i / 4 % 365;
+                sb.append(String.format(Locale.US, "\"2024-%02d-%02d %02d:00:00\"",
+                        day / 28 % 12 + 1, day % 28 + 1, 8 + (i % 4) * 4));
+            }
+            sb.append(",\"taken_status\":\"").append(i % 3 == 0 ? "Taken" : "Pending").append("\"}");
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -12,6 +12,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.carebridge.shared.controller.PatientGuardianInfoController;
 import com.example.carebridge.shared.model.PatientGuardianInfo;
+import com.example.carebridge.shared.network.CallScope;
 import com.example.carebridge.wear.adapters.GuardianCallAdapter;
 import com.example.carebridge.wear.databinding.ActivityCallBinding;
 import com.example.carebridge.wear.models.Guardian;
@@ -49,6 +50,9 @@ public class CallActivity extends AppCompatActivity
     // Controller responsible for fetching guardian data from API
     private PatientGuardianInfoController guardianController;
 
+    // Cancels in-flight requests when the activity is destroyed
+    private final CallScope callScope = CallScope.bindTo(this);
+
     // Shared preferences manager for Wear OS user/session data
     private WearSharedPrefManager wearSharedPrefManager;
 
@@ -115,7 +119,7 @@ public class CallActivity extends AppCompatActivity
      * Uses callback to handle success and failure cases
      */
     private void fetchGuardiansData() {
-        guardianController.getCurrentGuardian(
+        callScope.track(guardianController.getCurrentGuardian(
                 new PatientGuardianInfoController.PatientGuardianCallback() {
 
                     /**
@@ -148,7 +152,7 @@ public class CallActivity extends AppCompatActivity
                             initializeSampleData();
                         });
                     }
-                });
+                }));
     }
 
     /**
@@ -9,6 +9,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.carebridge.shared.controller.PatientGuardianInfoController;
 import com.example.carebridge.shared.model.PatientGuardianInfo;
+import com.example.carebridge.shared.network.CallScope;
 import com.example.carebridge.wear.adapters.GuardianAdapter;
 import com.example.carebridge.wear.databinding.ActivityGuardianBinding;
 import com.example.carebridge.wear.models.Guardian;
@@ -27,6 +28,7 @@ public class GuardianActivity extends AppCompatActivity {
     private List<Guardian> guardianList;
     private GuardianAdapter guardianAdapter;
     private PatientGuardianInfoController guardianController;
+    private final CallScope callScope = CallScope.bindTo(this);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -60,7 +62,7 @@ public class GuardianActivity extends AppCompatActivity {
         Log.d(Constants.TAG_GUARDIAN_ACTIVITY,
                 Constants.LOG_EMOJI_INFO + " Fetching guardian data");
 
-        guardianController.getCurrentGuardian(new PatientGuardianInfoController.PatientGuardianCallback() {
+        callScope.track(guardianController.getCurrentGuardian(new PatientGuardianInfoController.PatientGuardianCallback() {
 
             @Override
             public void onSuccess(List<PatientGuardianInfo> patientGuardianList) {
@@ -87,7 +89,7 @@ public class GuardianActivity extends AppCompatActivity {
                     initializeSampleData();
                 });
             }
-        });
+        }));
     }
 
     /**
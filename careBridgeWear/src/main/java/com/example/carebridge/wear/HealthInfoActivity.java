@@ -9,6 +9,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.carebridge.shared.controller.PatientController;
 import com.example.carebridge.shared.model.PatientInfo;
+import com.example.carebridge.shared.network.CallScope;
 import com.example.carebridge.wear.adapters.HealthInfoAdapter;
 import com.example.carebridge.wear.databinding.ActivityHealthInfoBinding;
 import com.example.carebridge.wear.models.HealthInfo;
@@ -27,6 +28,7 @@ public class HealthInfoActivity extends AppCompatActivity {
     private List<HealthInfo> healthInfoList;
     private HealthInfoAdapter healthInfoAdapter;
     private PatientController patientController;
+    private final CallScope callScope = CallScope.bindTo(this);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -60,7 +62,7 @@ public class HealthInfoActivity extends AppCompatActivity {
         Log.d(Constants.TAG_HEALTH_INFO_ACTIVITY,
                 Constants.LOG_EMOJI_INFO + " Fetching patient info");
 
-        patientController.getCurrentPatient(new PatientController.PatientCallback() {
+        callScope.track(patientController.getCurrentPatient(new PatientController.PatientCallback() {
 
             @Override
             public void onSuccess(PatientInfo patientInfo) {
@@ -83,7 +85,7 @@ public class HealthInfoActivity extends AppCompatActivity {
                     initializeSampleData();
                 });
             }
-        });
+        }));
     }
 
     /**
@@ -79,15 +79,19 @@ public class LoginActivity extends AppCompatActivity {
         authController = new AuthController(this);
         wearSharedPrefManager = new WearSharedPrefManager(this);
 
-        if (wearSharedPrefManager.getCurrentUser() != null) {
-            redirectToDashboard(
-                    wearSharedPrefManager.getCurrentUser());
-            return;
-        }
-
         initializeViews();
         setupKeyboardListeners();
         startClockUpdater();
+
+        // Skip the form once the saved session is decoded, without waiting on the disk here
+        wearSharedPrefManager.whenReady(() -> {
+            if (isFinishing() || isDestroyed()) return;
+
+            User savedUser = wearSharedPrefManager.getCurrentUser();
+            if (savedUser != null) {
+                redirectToDashboard(savedUser);
+            }
+        });
     }
 
     /**
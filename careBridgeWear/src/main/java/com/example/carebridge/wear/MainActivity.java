@@ -15,6 +15,7 @@ import androidx.core.app.NotificationManagerCompat;
 import androidx.fragment.app.FragmentActivity;
 import androidx.wear.widget.ConfirmationOverlay;
 
+import com.example.carebridge.shared.network.SharedHttpClient;
 import com.example.carebridge.shared.utils.ApiConstants;
 import com.example.carebridge.wear.databinding.ActivityMainBinding;
 import com.example.carebridge.wear.fragments.HomeFragment;
@@ -48,20 +49,25 @@ public class MainActivity extends FragmentActivity {
 
         wearSharedPrefManager = new WearSharedPrefManager(this);
 
-        // If user session does not exist, redirect to LoginActivity
-        if (!wearSharedPrefManager.isLoggedIn()) {
-            startActivity(new Intent(this, LoginActivity.class));
-            finish();
-            return;
-        }
+        // The session check waits for the stored session off the main thread
+        wearSharedPrefManager.whenReady(() -> {
+            if (isFinishing() || isDestroyed()) return;
 
-        // Request notification permission if required (Android 13+)
-        askNotificationPermission();
+            // If user session does not exist, redirect to LoginActivity
+            if (!wearSharedPrefManager.isLoggedIn()) {
+                startActivity(new Intent(this, LoginActivity.class));
+                finish();
+                return;
+            }
 
-        // Load HomeFragment only once
-        if (savedInstanceState == null) {
-            initializeHomeFragment();
-        }
+            // Request notification permission if required (Android 13+)
+            askNotificationPermission();
+
+            // Load HomeFragment only once
+            if (savedInstanceState == null) {
+                initializeHomeFragment();
+            }
+        });
     }
 
     /**
@@ -188,6 +194,8 @@ public class MainActivity extends FragmentActivity {
             } catch (Exception e) {
                 e.printStackTrace();
             } finally {
+                // Cached responses hold the patient's records
+                SharedHttpClient.evictCache();
                 runOnUiThread(this::proceedLogout);
             }
         }).start();
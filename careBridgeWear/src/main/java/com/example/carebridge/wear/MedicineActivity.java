@@ -13,6 +13,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import com.example.carebridge.shared.controller.PrescriptionController;
 import com.example.carebridge.shared.model.Medication;
 import com.example.carebridge.shared.model.Prescription;
+import com.example.carebridge.shared.network.CallScope;
 import com.example.carebridge.wear.adapters.MedicineAdapter;
 import com.example.carebridge.wear.databinding.ActivityMedicineBinding;
 
@@ -36,6 +37,9 @@ public class MedicineActivity extends AppCompatActivity {
     // RecyclerView adapter
     private MedicineAdapter adapter;
 
+    // Cancels the prescription fetch when the activity is destroyed
+    private final CallScope callScope = CallScope.bindTo(this);
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -95,7 +99,7 @@ public class MedicineActivity extends AppCompatActivity {
 
         PrescriptionController controller = new PrescriptionController(this);
 
-        controller.fetchPrescriptions(new PrescriptionController.PrescriptionCallback() {
+        callScope.track(controller.fetchPrescriptions(new PrescriptionController.PrescriptionCallback() {
 
             @Override
             public void onSuccess(List<Prescription> prescriptions) {
@@ -122,7 +126,7 @@ public class MedicineActivity extends AppCompatActivity {
             public void onFailure(String errorMessage) {
                 showNoMedicine(getString(R.string.failed_load_data));
             }
-        });
+        }));
     }
 
     /**
@@ -0,0 +1,24 @@
+package com.example.carebridge.wear;
+
+import android.app.Application;
+
+import com.example.carebridge.shared.network.SharedHttpClient;
+import com.example.carebridge.wear.service.WearNotificationHelper;
+
+/**
+ * WearApp
+
+ * Process-level initialization for the watch app.
+ * Attaches the shared HTTP client's disk cache
+ * before the first screen issues a request, and
+ * creates the reminder channel once.
+ */
+public class WearApp extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        SharedHttpClient.init(this);
+        WearNotificationHelper.createChannel(this);
+    }
+}
@@ -16,14 +16,13 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.viewpager2.widget.ViewPager2;
 
+import com.example.carebridge.shared.utils.DateFormats;
 import com.example.carebridge.wear.R;
 import com.example.carebridge.wear.adapters.HomePagerAdapter;
 import com.example.carebridge.wear.databinding.FragmentHomeBinding;
 import com.example.carebridge.wear.utils.Constants;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Locale;
 
 /**
  * HomeFragment
@@ -230,14 +229,8 @@ public class HomeFragment extends Fragment {
     private void updateTime() {
         if (binding == null) return;
 
-        SimpleDateFormat formatter =
-                new SimpleDateFormat(
-                        Constants.TIME_FORMAT_HH_MM,
-                        Locale.getDefault()
-                );
-
         binding.homeTime.setText(
-                formatter.format(new Date())
+                DateFormats.format(Constants.TIME_FORMAT_HH_MM, new Date())
         );
     }
 
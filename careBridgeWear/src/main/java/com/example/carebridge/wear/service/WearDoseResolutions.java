@@ -0,0 +1,96 @@
+package com.example.carebridge.wear.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.WorkManager;
+
+import com.example.carebridge.shared.controller.MedicineStatusClient;
+import com.example.carebridge.shared.utils.DeliveryLedger;
+import com.example.carebridge.wear.utils.Constants;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.messaging.FirebaseMessaging;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * WearDoseResolutions
+
+ * The watch half of cross-device dose resolution.
+ * A dose answered on another device arrives as a silent
+ * "resolved" push: the watch cancels its reminder, drops
+ * its queued status update and shows no further reminder
+ * for it. Doses answered on the watch are published to the
+ * other devices once the server has acknowledged them.
+ */
+public final class WearDoseResolutions {
+
+    private static final String TAG = "WearDoseResolutions";
+
+    /** FCM data message type carrying log_ids resolved on another device */
+    public static final String TYPE_RESOLVED = "resolved";
+
+    private static final String RESOLVED_PREFS = "carebridge_wear_resolved";
+    private static final long RESOLVED_RETENTION_MILLIS = 2 * 24 * 60 * 60 * 1000L;
+    private static final int RESOLVED_CAPACITY = 512;
+    private static final long TOKEN_TIMEOUT_SECONDS = 5;
+
+    private WearDoseResolutions() { }
+
+    /**
+     * A dose was answered on another device.
+     * Blocks on the first prefs load: call off the main thread.
+     */
+    public static void resolvedElsewhere(@NonNull Context context, int logId) {
+        ledger(context).markFirst(key(logId));
+        WearNotificationHelper.clearNotification(context, logId);
+        WorkManager.getInstance(context)
+                .cancelUniqueWork(Constants.WORK_STATUS_UPDATE_PREFIX + logId);
+    }
+
+    /**
+     * Whether another device already answered this dose;
+     * call off the main thread.
+     */
+    public static boolean isResolvedElsewhere(@NonNull Context context, int logId) {
+        return ledger(context).contains(key(logId));
+    }
+
+    /**
+     * Tells the other devices these doses were answered here.
+     * Blocking: call from a worker after the server acknowledged
+     * the update. Worst case the other device keeps its
+     * notification, as before.
+     */
+    public static void publish(@NonNull List<Integer> logIds) {
+        if (logIds.isEmpty()) return;
+
+        // This watch's token, so the server skips it
+        String token = null;
+        try {
+            token = Tasks.await(FirebaseMessaging.getInstance().getToken(),
+                    TOKEN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            Log.w(TAG, "FCM token unavailable, relaying without it", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (!new MedicineStatusClient().notifyResolved(logIds, token)) {
+            Log.w(TAG, "Publishing " + logIds.size() + " resolutions failed");
+        }
+    }
+
+    private static DeliveryLedger ledger(Context context) {
+        return DeliveryLedger.get(context, RESOLVED_PREFS, RESOLVED_RETENTION_MILLIS, RESOLVED_CAPACITY);
+    }
+
+    private static String key(int logId) {
+        return "log:" + logId;
+    }
+}
\ No newline at end of file
@@ -1,14 +1,12 @@
 package com.example.carebridge.wear.service;
 
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
-import android.app.PendingIntent;
-import android.content.Intent;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
-import androidx.core.app.NotificationCompat;
 
+import com.example.carebridge.shared.network.NetworkMetrics;
+import com.example.carebridge.shared.utils.ApiConstants;
+import com.example.carebridge.shared.utils.DeliveryLedger;
 import com.example.carebridge.wear.R;
 import com.example.carebridge.wear.utils.Constants;
 import com.google.firebase.messaging.FirebaseMessagingService;
@@ -22,7 +20,10 @@ import java.util.Map;
  * Handles Firebase Cloud Messaging (FCM) notifications
  * for the Wear OS application.
 
- * Mainly used for medicine reminders.
+ * Mainly used for medicine reminders, which are posted
+ * grouped and throttled through WearNotificationHelper,
+ * and for silent "resolved" messages for doses answered
+ * on another device.
  */
 public class WearFirebaseMessagingService extends FirebaseMessagingService {
 
@@ -33,7 +34,53 @@ public class WearFirebaseMessagingService extends FirebaseMessagingService {
 
         if (!remoteMessage.getData().isEmpty()) {
             Log.d(TAG, "FCM data payload received");
-            handleData(remoteMessage.getData());
+            Map<String, String> data = remoteMessage.getData();
+            String type = data.get(Constants.KEY_TYPE) != null
+                    ? data.get(Constants.KEY_TYPE) : Constants.TYPE_REMINDER;
+            if (!firstDelivery(type, data.get(Constants.KEY_LOG_ID), remoteMessage.getMessageId())) {
+                NetworkMetrics.recordDuplicatePush(type);
+                Log.d(TAG, "Duplicate " + type + " for log #" + data.get(Constants.KEY_LOG_ID) + " dropped");
+                return;
+            }
+            if (WearDoseResolutions.TYPE_RESOLVED.equals(type)) {
+                handleResolved(data);
+                return;
+            }
+            handleData(data);
+        }
+    }
+
+    /**
+     * Redeliveries and backend resends are dropped before
+     * any notification work: keyed by type and log_id, or
+     * by the FCM message id when there is no log_id.
+     */
+    private boolean firstDelivery(String type, String logId, String messageId) {
+        String key = logId != null ? type + ":" + logId
+                : messageId != null ? "msg:" + messageId : null;
+        if (key == null) return true;
+        return DeliveryLedger.get(this, Constants.FCM_DEDUPE_PREFS,
+                ApiConstants.FCM_DEDUPE_WINDOW_MILLIS,
+                ApiConstants.FCM_DEDUPE_CAPACITY).markFirst(key);
+    }
+
+    /**
+     * Silent: the doses were answered on another device, so
+     * their reminders go and the watch's own updates are dropped.
+     */
+    private void handleResolved(@NonNull Map<String, String> data) {
+        String ids = data.get(Constants.KEY_LOG_IDS) != null
+                ? data.get(Constants.KEY_LOG_IDS) : data.get(Constants.KEY_LOG_ID);
+        if (ids == null) {
+            Log.e(TAG, "Missing log_id in resolved message");
+            return;
+        }
+        for (String id : ids.split(",")) {
+            try {
+                WearDoseResolutions.resolvedElsewhere(this, Integer.parseInt(id.trim()));
+            } catch (NumberFormatException e) {
+                Log.e(TAG, "Invalid log_id format: " + id);
+            }
         }
     }
 
@@ -59,6 +106,15 @@ public class WearFirebaseMessagingService extends FirebaseMessagingService {
             return;
         }
 
+        try {
+            if (WearDoseResolutions.isResolvedElsewhere(this, Integer.parseInt(logId.trim()))) {
+                Log.d(TAG, "Reminder for log #" + logId + " already resolved on another device");
+                return;
+            }
+        } catch (NumberFormatException ignored) {
+            // Not a server log id: nothing else can have answered it
+        }
+
         String title = data.get(Constants.KEY_TITLE);
         if (title == null || title.isEmpty()) {
             title = getString(R.string.notification_medicine_title);
@@ -69,16 +125,18 @@ public class WearFirebaseMessagingService extends FirebaseMessagingService {
             message = getString(R.string.notification_medicine_message);
         }
 
-        sendWearNotification(title, message, logId);
+        sendWearNotification(title, message, logId, data);
     }
 
     /**
-     * Builds and displays Wear OS notification.
+     * Queues the reminder in its slot group and waits for it
+     * to be posted before onMessageReceived returns.
      */
     private void sendWearNotification(
             @NonNull String title,
             @NonNull String message,
-            @NonNull String logId
+            @NonNull String logId,
+            @NonNull Map<String, String> data
     ) {
 
         int notificationId;
@@ -88,87 +146,10 @@ public class WearFirebaseMessagingService extends FirebaseMessagingService {
             notificationId = (int) System.currentTimeMillis();
         }
 
-        PendingIntent takenPendingIntent =
-                createActionPendingIntent(
-                        Constants.ACTION_MED_TAKEN,
-                        logId,
-                        Constants.STATUS_TAKEN,
-                        notificationId + 1
-                );
-
-        PendingIntent notTakenPendingIntent =
-                createActionPendingIntent(
-                        Constants.ACTION_MED_NOT_TAKEN,
-                        logId,
-                        Constants.STATUS_NOT_TAKEN,
-                        notificationId + 2
-                );
-
-        NotificationManager manager =
-                (NotificationManager) getSystemService(NOTIFICATION_SERVICE);
-
-        createNotificationChannel(manager);
-
-        NotificationCompat.Builder builder =
-                new NotificationCompat.Builder(this, Constants.NOTIFICATION_CHANNEL_ID)
-                        .setSmallIcon(R.drawable.ic_health)
-                        .setContentTitle(title)
-                        .setContentText(message)
-                        .setAutoCancel(true)
-                        .setOnlyAlertOnce(true)
-                        .setPriority(NotificationCompat.PRIORITY_HIGH)
-                        .addAction(
-                                R.drawable.ic_check,
-                                getString(R.string.action_taken),
-                                takenPendingIntent
-                        )
-                        .addAction(
-                                R.drawable.ic_close,
-                                getString(R.string.action_not_taken),
-                                notTakenPendingIntent
-                        );
-
-        if (manager != null) {
-            manager.notify(notificationId, builder.build());
+        if (!WearNotificationHelper.showReminderAndWait(
+                this, title, message, logId, notificationId,
+                WearNotificationHelper.slotKey(data))) {
+            Log.w(TAG, "Reminder for log #" + logId + " not posted in time");
         }
     }
-
-    /**
-     * Creates PendingIntent for notification actions.
-     */
-    private PendingIntent createActionPendingIntent(
-            @NonNull String action,
-            @NonNull String logId,
-            @NonNull String status,
-            int requestCode
-    ) {
-
-        Intent intent = new Intent(this, WearNotificationReceiver.class);
-        intent.setAction(action);
-        intent.putExtra(Constants.KEY_LOG_ID, logId);
-        intent.putExtra(Constants.KEY_TAKEN_STATUS, status);
-
-        return PendingIntent.getBroadcast(
-                this,
-                requestCode,
-                intent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-        );
-    }
-
-    /**
-     * Creates notification channel.
-     * Required for Wear OS notifications.
-     */
-    private void createNotificationChannel(NotificationManager manager) {
-        if (manager == null) return;
-
-        NotificationChannel channel = new NotificationChannel(
-                Constants.NOTIFICATION_CHANNEL_ID,
-                getString(R.string.notification_channel_name),
-                NotificationManager.IMPORTANCE_HIGH
-        );
-
-        manager.createNotificationChannel(channel);
-    }
 }
\ No newline at end of file
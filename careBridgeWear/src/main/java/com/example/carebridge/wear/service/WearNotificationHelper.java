@@ -0,0 +1,174 @@
+package com.example.carebridge.wear.service;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+
+import com.example.carebridge.shared.utils.ReminderPoster;
+import com.example.carebridge.wear.R;
+import com.example.carebridge.wear.utils.Constants;
+
+import java.util.Map;
+
+/**
+ * WearNotificationHelper
+
+ * Medicine reminders on the watch. Slot grouping, the
+ * ApiConstants.NOTIFICATION_THROTTLE_MS buffer and the
+ * inbox summary live in the shared ReminderPoster; this
+ * class adds the watch's strings and Taken / Not Taken
+ * actions.
+ */
+public final class WearNotificationHelper {
+
+    private static final ReminderPoster POSTER =
+            new ReminderPoster("carebridge-wear-notify", "carebridge_wear_slot_", new ReminderPoster.Style() {
+                @Override
+                public String channelId() {
+                    return Constants.NOTIFICATION_CHANNEL_ID;
+                }
+
+                @Override
+                public int smallIcon() {
+                    return R.drawable.ic_health;
+                }
+
+                @Override
+                public String summaryTitle(Context context, int count) {
+                    return count == 1
+                            ? context.getString(R.string.notification_medicine_title)
+                            : context.getString(R.string.notification_medicines_due, count);
+                }
+
+                @Override
+                public void decorateSummary(Context context, NotificationCompat.Builder summary,
+                                            String slot, int answerable) {
+                    // Answered one by one on the watch: no bulk action
+                }
+            });
+
+    private WearNotificationHelper() { }
+
+    /**
+     * Creates the reminder channel.
+     * Called once from WearApp.onCreate.
+     */
+    public static void createChannel(@NonNull Context context) {
+        NotificationManager manager =
+                (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (manager == null) return;
+
+        NotificationChannel channel = new NotificationChannel(
+                Constants.NOTIFICATION_CHANNEL_ID,
+                context.getString(R.string.notification_channel_name),
+                NotificationManager.IMPORTANCE_HIGH
+        );
+        manager.createNotificationChannel(channel);
+    }
+
+    /**
+     * Queues a reminder with Taken / Not Taken actions and
+     * blocks until its slot has been flushed, at most
+     * ApiConstants.NOTIFICATION_POST_TIMEOUT_MS. Push
+     * handlers must not return before that, or the process
+     * may be frozen with the reminder still buffered.
+     * Returns false on timeout.
+     */
+    public static boolean showReminderAndWait(
+            @NonNull Context context,
+            @NonNull String title,
+            @NonNull String message,
+            @NonNull String logId,
+            int notificationId,
+            @NonNull String slot
+    ) {
+        return POSTER.postAndWait(context, notificationId, slot,
+                reminder(context, title, message, logId, notificationId, slot));
+    }
+
+    /**
+     * Queues a reminder; onPosted (may be null) runs on the
+     * poster thread once the slot has been flushed.
+     */
+    public static void showReminder(
+            @NonNull Context context,
+            @NonNull String title,
+            @NonNull String message,
+            @NonNull String logId,
+            int notificationId,
+            @NonNull String slot,
+            Runnable onPosted
+    ) {
+        POSTER.post(context, notificationId, slot,
+                reminder(context, title, message, logId, notificationId, slot), onPosted);
+    }
+
+    /**
+     * Cancels a reminder and refreshes (or removes)
+     * its slot summary.
+     */
+    public static void clearNotification(@NonNull Context context, int id) {
+        POSTER.clear(context, id);
+    }
+
+    /**
+     * Slot a reminder belongs to: the server's slot, else
+     * its scheduled minute, else a 30-minute window.
+     */
+    @NonNull
+    public static String slotKey(@NonNull Map<String, String> data) {
+        return ReminderPoster.slotKey(data);
+    }
+
+    private static NotificationCompat.Builder reminder(
+            Context context,
+            String title,
+            String message,
+            String logId,
+            int notificationId,
+            String slot
+    ) {
+        Context appContext = context.getApplicationContext();
+        return POSTER.reminder(appContext, title, message, null, slot)
+                .addAction(
+                        R.drawable.ic_check,
+                        appContext.getString(R.string.action_taken),
+                        actionIntent(appContext, Constants.ACTION_MED_TAKEN, logId,
+                                Constants.STATUS_TAKEN, notificationId + 1)
+                )
+                .addAction(
+                        R.drawable.ic_close,
+                        appContext.getString(R.string.action_not_taken),
+                        actionIntent(appContext, Constants.ACTION_MED_NOT_TAKEN, logId,
+                                Constants.STATUS_NOT_TAKEN, notificationId + 2)
+                );
+    }
+
+    /**
+     * Creates PendingIntent for notification actions.
+     */
+    private static PendingIntent actionIntent(
+            Context context,
+            String action,
+            String logId,
+            String status,
+            int requestCode
+    ) {
+        Intent intent = new Intent(context, WearNotificationReceiver.class);
+        intent.setAction(action);
+        intent.putExtra(Constants.KEY_LOG_ID, logId);
+        intent.putExtra(Constants.KEY_TAKEN_STATUS, status);
+
+        return PendingIntent.getBroadcast(
+                context,
+                requestCode,
+                intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+}
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.example.carebridge.wear.service;
 
-import android.app.NotificationManager;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
@@ -8,17 +7,19 @@ import android.util.Log;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
 import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
 import androidx.work.OneTimeWorkRequest;
 import androidx.work.WorkManager;
 
 import com.example.carebridge.wear.R;
 import com.example.carebridge.wear.utils.Constants;
-import com.google.gson.JsonObject;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * WearNotificationReceiver
@@ -26,7 +27,11 @@ import retrofit2.Response;
  * Handles actions from Wear OS notification buttons
  * such as "Taken" and "Not Taken".
 
- * Updates medicine status on the server.
+ * Hands the update to WearSyncWorker, which sends it
+ * through the shared MedicineStatusClient, retries it,
+ * skips it if another device answered the dose first and
+ * publishes the resolution to the other devices once the
+ * server has it.
  */
 public class WearNotificationReceiver extends BroadcastReceiver {
 
@@ -67,23 +72,20 @@ public class WearNotificationReceiver extends BroadcastReceiver {
     }
 
     /**
-     * Dismisses the notification.
+     * Dismisses the notification and refreshes its slot summary.
      */
     private void dismissNotification(@NonNull Context context, @NonNull String logId) {
-        NotificationManager manager =
-                (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-
-        if (manager == null) return;
-
         try {
-            manager.cancel(Integer.parseInt(logId.trim()));
+            WearNotificationHelper.clearNotification(context, Integer.parseInt(logId.trim()));
         } catch (NumberFormatException e) {
             Log.e(TAG, "Invalid logId for notification cancel", e);
         }
     }
 
     /**
-     * Calls backend API to update medicine status.
+     * Queues the update in WorkManager; a later tap on the
+     * same dose replaces a pending one, so only the latest
+     * status is sent.
      */
     private void updateMedicineStatus(
             @NonNull Context context,
@@ -91,57 +93,28 @@ public class WearNotificationReceiver extends BroadcastReceiver {
             @NonNull String status
     ) {
 
-        WearApiService api =
-                WearApiClient.getClient().create(WearApiService.class);
-
-        api.updateMedicineStatus(logId, status)
-                .enqueue(new Callback<JsonObject>() {
-
-                    @Override
-                    public void onResponse(
-                            @NonNull Call<JsonObject> call,
-                            @NonNull Response<JsonObject> response
-                    ) {
-                        if (response.isSuccessful()) {
-                            Log.d(TAG, "Medicine status updated successfully");
-                        } else {
-                            Log.e(TAG, "Update failed → " + response.code());
-                            runFallback(context, logId, status);
-                        }
-                    }
-
-                    @Override
-                    public void onFailure(
-                            @NonNull Call<JsonObject> call,
-                            @NonNull Throwable t
-                    ) {
-                        Log.e(TAG, "API call failed", t);
-                        runFallback(context, logId, status);
-                    }
-                });
-    }
-
-    /**
-     * Fallback using WorkManager if API fails.
-     */
-    private void runFallback(
-            @NonNull Context context,
-            @NonNull String logId,
-            @NonNull String status
-    ) {
-
         Data data = new Data.Builder()
                 .putString(Constants.KEY_LOG_ID, logId)
                 .putString(Constants.KEY_TAKEN_STATUS, status)
+                .putString(Constants.KEY_IDEMPOTENCY_KEY, UUID.randomUUID().toString())
                 .build();
 
         OneTimeWorkRequest request =
                 new OneTimeWorkRequest.Builder(WearSyncWorker.class)
                         .setInputData(data)
+                        .setConstraints(new Constraints.Builder()
+                                .setRequiredNetworkType(NetworkType.CONNECTED)
+                                .build())
+                        .setBackoffCriteria(BackoffPolicy.EXPONENTIAL,
+                                Constants.STATUS_RETRY_BACKOFF_SECONDS, TimeUnit.SECONDS)
                         .build();
 
-        WorkManager.getInstance(context).enqueue(request);
+        WorkManager.getInstance(context).enqueueUniqueWork(
+                Constants.WORK_STATUS_UPDATE_PREFIX + logId.trim(),
+                ExistingWorkPolicy.REPLACE,
+                request
+        );
 
-        Log.d(TAG, "Fallback WorkManager scheduled");
+        Log.d(TAG, "Status update queued for logId=" + logId);
     }
 }
\ No newline at end of file
@@ -7,17 +7,20 @@ import androidx.annotation.NonNull;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 
+import com.example.carebridge.shared.controller.MedicineStatusClient;
 import com.example.carebridge.wear.utils.Constants;
-import com.google.gson.JsonObject;
 
-import retrofit2.Call;
-import retrofit2.Response;
+import java.util.Collections;
 
 /**
  * WearSyncWorker
 
- * Background worker used to retry medicine status updates
- * when immediate network call fails.
+ * Sends a medicine status update from the watch through
+ * the shared MedicineStatusClient, synchronously inside
+ * WorkManager, so failures are retried with backoff
+ * instead of being lost with the receiver. Doses already
+ * answered on another device are skipped, and delivered
+ * ones are published to the user's other devices.
  */
 public class WearSyncWorker extends Worker {
 
@@ -45,32 +48,40 @@ public class WearSyncWorker extends Worker {
             return Result.failure();
         }
 
-        Log.d(TAG, "Retrying sync → logId=" + logId + " status=" + status);
+        int logIdInt;
+        try {
+            logIdInt = Integer.parseInt(logId.trim());
+        } catch (NumberFormatException e) {
+            Log.e(TAG, "Invalid logId " + logId, e);
+            return Result.failure();
+        }
 
-        WearApiService api =
-                WearApiClient.getClient().create(WearApiService.class);
+        if (WearDoseResolutions.isResolvedElsewhere(getApplicationContext(), logIdInt)) {
+            Log.d(TAG, "logId=" + logId + " already resolved on another device, not sent");
+            return Result.success();
+        }
 
-        try {
-            Call<JsonObject> call =
-                    api.updateMedicineStatus(logId, status);
+        // Work queued before keys existed gets one that is stable across its retries
+        String key = getInputData().getString(Constants.KEY_IDEMPOTENCY_KEY);
+        if (key == null) key = getId().toString();
+
+        Log.d(TAG, "Syncing → logId=" + logId + " status=" + status
+                + " (attempt " + getRunAttemptCount() + ")");
 
-            Response<JsonObject> response =
-                    call.execute();
+        MedicineStatusClient.Outcome outcome = new MedicineStatusClient()
+                .send(new MedicineStatusClient.Update(logIdInt, status, key));
 
-            if (response.isSuccessful()) {
+        switch (outcome) {
+            case DELIVERED:
                 Log.d(TAG, "Status synced successfully");
+                WearDoseResolutions.publish(Collections.singletonList(logIdInt));
                 return Result.success();
-            } else {
-                Log.e(
-                        TAG,
-                        "Server error: " + response.code()
-                );
+            case REJECTED:
+                // The server will never accept this one
+                Log.e(TAG, "Status rejected for logId=" + logId);
+                return Result.failure();
+            default:
                 return Result.retry();
-            }
-
-        } catch (Exception e) {
-            Log.e(TAG, "Network error, retrying", e);
-            return Result.retry();
         }
     }
 }
\ No newline at end of file
@@ -409,8 +409,15 @@ public class Constants {
 
     public static final String KEY_LOG_ID = "log_id";
     public static final String KEY_TAKEN_STATUS = "taken_status";
+    public static final String KEY_IDEMPOTENCY_KEY = "idempotency_key";
+    public static final String WORK_STATUS_UPDATE_PREFIX = "wear_status_";
+    public static final long STATUS_RETRY_BACKOFF_SECONDS = 15;
     public static final String KEY_TITLE = "title";
     public static final String KEY_BODY = "body";
+    public static final String KEY_TYPE = "type";
+    public static final String KEY_LOG_IDS = "log_ids";
+    public static final String TYPE_REMINDER = "reminder";
+    public static final String FCM_DEDUPE_PREFS = "carebridge_wear_fcm_seen";
 
     public static final String PREF_WEAR_NAME = "carebridge_wear_preferences";
 
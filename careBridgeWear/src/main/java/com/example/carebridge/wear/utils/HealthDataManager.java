@@ -38,7 +38,7 @@ public class HealthDataManager {
     private static final String EMPTY_JSON_ARRAY = "[]";
 
     private final SharedPreferences preferences;
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonProvider.get();
 
     /**
      * Constructor
@@ -1,16 +1,19 @@
 package com.example.carebridge.wear.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
 import com.example.carebridge.shared.model.User;
-import com.google.gson.Gson;
+import com.example.carebridge.shared.utils.AsyncPrefs;
+import com.example.carebridge.shared.utils.SessionStore;
 
 /**
  * WearSharedPrefManager
 
  * Centralized SharedPreferences manager for Wear OS.
  * Stores user session, identifiers, FCM token, and health metrics.
+ * The session goes through the watch's {@link SessionStore}, so the user is
+ * decoded once per process; every other value is read from and written to
+ * the same file's {@link AsyncPrefs} snapshot.
 
  * Some methods are intentionally provided for future
  * background services (FCM, sensors, sync workers).
@@ -30,122 +33,119 @@ public class WearSharedPrefManager {
     private static final String KEY_SPO2 = "spo2";
     private static final String KEY_LAST_SYNC = "last_sync_time";
 
-    private final SharedPreferences sharedPreferences;
-    private final SharedPreferences.Editor editor;
-    private final Gson gson;
+    private static final SessionStore.Schema SESSION =
+            new SessionStore.Schema(
+                    Constants.PREF_WEAR_NAME,
+                    KEY_IS_LOGGED_IN,
+                    KEY_USER,
+                    KEY_CASE_ID,
+                    KEY_REFERENCE_ID
+            );
+
+    private final SessionStore session;
+    private final AsyncPrefs prefs;
 
     public WearSharedPrefManager(Context context) {
-        sharedPreferences =
-                context.getSharedPreferences(
-                        Constants.PREF_WEAR_NAME,
-                        Context.MODE_PRIVATE
-                );
-        editor = sharedPreferences.edit();
-        gson = new Gson();
+        session = SessionStore.get(context, SESSION);
+        prefs = AsyncPrefs.get(context, Constants.PREF_WEAR_NAME);
     }
 
     // ================= USER SESSION =================
 
+    /**
+     * Runs callback on the main thread once the stored session is decoded;
+     * session reads in onCreate go through here instead of waiting on the disk.
+     */
+    public void whenReady(Runnable callback) {
+        session.whenLoaded(callback);
+    }
+
     public void saveUserSession(User user) {
         if (user == null) return;
 
-        editor.putString(KEY_USER, gson.toJson(user));
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-        editor.putInt(KEY_USER_ID, user.getId());
-
-        if (user.getPatientInfo() != null &&
-                user.getPatientInfo().getCaseId() != null) {
-            editor.putString(KEY_CASE_ID, user.getPatientInfo().getCaseId());
-        }
-
-        if (user.getReferenceId() != null &&
-                !user.getReferenceId().isEmpty()) {
-            editor.putString(KEY_REFERENCE_ID, user.getReferenceId());
-        }
-
-        editor.apply();
+        session.saveUserSession(user);
+        prefs.edit().putInt(KEY_USER_ID, user.getId()).apply();
     }
 
     public boolean isLoggedIn() {
-        return sharedPreferences.getBoolean(KEY_IS_LOGGED_IN, false);
+        return session.isLoggedIn();
     }
 
     public User getCurrentUser() {
-        String json = sharedPreferences.getString(KEY_USER, null);
-        return json != null ? gson.fromJson(json, User.class) : null;
+        return session.getCurrentUser();
     }
 
     public int getUserId() {
-        return sharedPreferences.getInt(KEY_USER_ID, -1);
+        return prefs.getInt(KEY_USER_ID, -1);
     }
 
     public void logout() {
-        editor.clear().apply();
+        session.clear();
     }
 
     // ================= IDENTIFIERS =================
 
     public void saveCaseId(String caseId) {
-        editor.putString(KEY_CASE_ID, caseId).apply();
+        session.saveCaseId(caseId);
     }
 
     public String getCaseId() {
-        return sharedPreferences.getString(KEY_CASE_ID, "");
+        return session.getCaseId();
     }
 
     public void saveReferenceId(String referenceId) {
-        editor.putString(KEY_REFERENCE_ID, referenceId).apply();
+        session.saveReferenceId(referenceId);
     }
 
     public String getReferenceId() {
-        return sharedPreferences.getString(KEY_REFERENCE_ID, "");
+        return session.getReferenceId();
     }
 
     // ================= FCM =================
 
     public void saveFcmToken(String token) {
-        editor.putString(KEY_FCM_TOKEN, token).apply();
+        prefs.edit().putString(KEY_FCM_TOKEN, token).apply();
     }
 
     public String getFcmToken() {
-        return sharedPreferences.getString(KEY_FCM_TOKEN, "");
+        return prefs.getString(KEY_FCM_TOKEN, "");
     }
 
     public void clearWearFcmTokenOnly() {
-        editor.remove(KEY_FCM_TOKEN).apply();
+        prefs.edit().remove(KEY_FCM_TOKEN).apply();
     }
 
     // ================= HEALTH DATA =================
 
     public void saveHeartRate(int bpm) {
-        editor.putInt(KEY_HEART_RATE, bpm).apply();
+        prefs.edit().putInt(KEY_HEART_RATE, bpm).apply();
     }
 
     public int getHeartRate() {
-        return sharedPreferences.getInt(KEY_HEART_RATE, 0);
+        return prefs.getInt(KEY_HEART_RATE, 0);
     }
 
     public void saveSteps(int steps) {
-        editor.putInt(KEY_STEPS, steps).apply();
+        prefs.edit().putInt(KEY_STEPS, steps).apply();
     }
 
     public int getSteps() {
-        return sharedPreferences.getInt(KEY_STEPS, 0);
+        return prefs.getInt(KEY_STEPS, 0);
     }
 
     public void saveSpo2(int spo2) {
-        editor.putInt(KEY_SPO2, spo2).apply();
+        prefs.edit().putInt(KEY_SPO2, spo2).apply();
     }
 
     public int getSpo2() {
-        return sharedPreferences.getInt(KEY_SPO2, 0);
+        return prefs.getInt(KEY_SPO2, 0);
     }
 
     public void saveLastSyncTime(String time) {
-        editor.putString(KEY_LAST_SYNC, time).apply();
+        prefs.edit().putString(KEY_LAST_SYNC, time).apply();
     }
 
     public String getLastSyncTime() {
-        return sharedPreferences.getString(KEY_LAST_SYNC, "");
+        return prefs.getString(KEY_LAST_SYNC, "");
     }
 }
\ No newline at end of file